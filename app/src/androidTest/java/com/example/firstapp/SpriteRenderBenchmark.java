@@ -0,0 +1,118 @@
+package com.example.firstapp;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.RecordingCanvas;
+import android.graphics.RenderNode;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.firstapp.core.Car;
+import com.example.firstapp.core.CarFleet;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+/**
+ * 每幀繪製耗時：逐台（CarRenderer 的 save/rotate/drawRect/restore）vs 精靈批次（一次 drawVertices）
+ *
+ * 10 / 100 / 1000 台旋轉的車，各量 FRAMES 幀取中位數，結果寫到 logcat（tag = SpriteRenderBenchmark）：
+ * - softwareCanvas：畫進 Bitmap（沒有硬體加速時的 Canvas）
+ * - hardwareRecording：錄進 RenderNode（GameView / GameThread 的硬體 Canvas 在 UI / 遊戲執行緒上付的成本；API 29+）
+ *
+ * 執行：./gradlew :app:connectedAndroidTest -Pandroid.testInstrumentationRunnerArguments.class=com.example.firstapp.SpriteRenderBenchmark
+ * 量測用，不斷言快慢（裝置差異太大）；只檢查兩條路徑都真的畫了 N 台
+ */
+@RunWith(AndroidJUnit4.class)
+public class SpriteRenderBenchmark {
+
+    private static final String TAG = "SpriteRenderBenchmark";
+    private static final int[] SPRITE_COUNTS = {10, 100, 1000};
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int WARMUP_FRAMES = 30;
+    private static final int FRAMES = 200;
+
+    private interface Frame {
+        void draw(Canvas canvas);
+    }
+
+    @Test
+    public void softwareCanvas() {
+        Bitmap bitmap = Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        for (int count : SPRITE_COUNTS) {
+            compare("software", count, frame -> frame.draw(canvas));
+        }
+        bitmap.recycle();
+    }
+
+    @Test
+    public void hardwareRecording() {
+        Assume.assumeTrue(Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q);
+        RenderNode node = new RenderNode(TAG);
+        node.setPosition(0, 0, WIDTH, HEIGHT);
+        for (int count : SPRITE_COUNTS) {
+            compare("hardware", count, frame -> {
+                RecordingCanvas canvas = node.beginRecording();
+                frame.draw(canvas);
+                node.endRecording();
+            });
+        }
+        node.discardDisplayList();
+    }
+
+    /** 同一批車、同一種 Canvas，兩條路徑各量一次 */
+    private static void compare(String label, int count, Consumer<Frame> target) {
+        Car[] cars = createCars(count);
+        CarRenderer carRenderer = new CarRenderer();
+        SpriteRenderer spriteRenderer = new SpriteRenderer(count);
+
+        long perCar = medianNanos(target, canvas -> {
+            for (Car car : cars) carRenderer.draw(canvas, car, 1f);
+        });
+        long batched = medianNanos(target, canvas -> {
+            spriteRenderer.getBatch().begin();
+            for (Car car : cars) spriteRenderer.getBatch().addCar(car, 1f, spriteRenderer.getAtlas().getCarRegion());
+            spriteRenderer.submit(canvas);
+        });
+        assertEquals(count, spriteRenderer.getBatch().getSpriteCount());
+
+        Log.i(TAG, String.format(Locale.US, "%s sprites=%d perCar=%.1fus batched=%.1fus speedup=%.2fx",
+                label, count, perCar / 1e3, batched / 1e3, perCar / (double) Math.max(1L, batched)));
+    }
+
+    private static long medianNanos(Consumer<Frame> target, Frame frame) {
+        for (int i = 0; i < WARMUP_FRAMES; i++) target.accept(frame);
+        long[] samples = new long[FRAMES];
+        for (int i = 0; i < FRAMES; i++) {
+            long start = System.nanoTime();
+            target.accept(frame);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[FRAMES / 2];
+    }
+
+    /** 散布在整個畫面上、角度各不相同的車（每個四邊形都要旋轉） */
+    private static Car[] createCars(int count) {
+        CarFleet fleet = new CarFleet(count);
+        Car[] cars = new Car[count];
+        for (int i = 0; i < count; i++) {
+            float x = 100f + (i * 37) % (WIDTH - 200);
+            fleet.setPosition(i, x, (i * 53) % (HEIGHT - 200));
+            fleet.restore(i, x, (i % 61) - 30f, 0f);
+            cars[i] = new Car(fleet, i);
+        }
+        return cars;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.firstapp;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+import com.example.firstapp.core.Car;
+import com.example.firstapp.core.RunWriter;
+
+/**
+ * 車輛繪製器（從 Car 拆出來的 Android 繪製部分）
+ *
+ * Car（core 模組）只保存物理狀態，這裡負責把狀態畫到 Canvas 上
+ * 類比後端：Entity（資料）與 View Template（呈現）分離
+ */
+public class CarRenderer {
+
+    /** 鬼影車的顏色（半透明白色；SpriteAtlas 的鬼影區域也用這個顏色） */
+    static final int GHOST_COLOR = Color.argb(96, 255, 255, 255);
+
+    private final Paint paint;      // 車輛畫筆（紅色）
+    private final Paint ghostPaint; // 鬼影畫筆（半透明白色）
+
+    public CarRenderer() {
+        paint = new Paint();
+        paint.setColor(Color.RED);   // 紅色車輛
+        ghostPaint = new Paint();
+        ghostPaint.setColor(GHOST_COLOR);
+    }
+
+    /**
+     * 繪製車輛（含旋轉）
+     *
+     * canvas.save/restore 機制：
+     * - save() 儲存當前畫布矩陣（類似 git stash）
+     * - rotate() 旋轉畫布座標系
+     * - drawRect() 在旋轉後的座標系上繪製
+     * - restore() 還原畫布矩陣（不影響其他物件繪製）
+     *
+     * @param alpha 插值係數（0 = 上一步狀態，1 = 目前狀態），由 GameLoop 提供
+     */
+    public void draw(Canvas canvas, Car car, float alpha) {
+        // 在上一步與目前狀態之間插值 → 高刷新率螢幕也能平滑移動
+        float drawX = car.getInterpolatedX(alpha);
+        float drawAngle = car.getInterpolatedAngle(alpha);
+        float y = car.getY();
+        float width = car.getWidth();
+        float height = car.getHeight();
+
+        canvas.save();                                    // 儲存畫布狀態
+
+        // 以車輛中心為軸心旋轉 drawAngle 度
+        // 軸心 = (drawX, y + height/2)，即車輛的幾何中心
+        canvas.rotate(drawAngle, drawX, y + height / 2f);
+
+        // 繪製車輛矩形（以中心座標計算左上角）
+        float left = drawX - width / 2f;                 // 左邊界 = 中心 - 半寬
+        canvas.drawRect(left, y, left + width, y + height, paint);
+
+        canvas.restore();                                 // 還原畫布狀態
+    }
+
+    /**
+     * 繪製鬼影車（最佳一局在同一幀的位置；與玩家車同樣的 Y 與尺寸，因為車輛 Y 固定在畫面上）
+     * 只有逐台繪製的路徑用；精靈批次改用 SpriteAtlas 的鬼影區域（SpriteBatch.addGhost）
+     */
+    public void drawGhost(Canvas canvas, Car car, RunWriter ghost, float alpha) {
+        if (!ghost.isGhostVisible()) return;
+        float drawX = ghost.getGhostX(alpha);
+        float y = car.getY();
+        float width = car.getWidth();
+        float height = car.getHeight();
+
+        canvas.save();
+        canvas.rotate(ghost.getGhostAngle(alpha), drawX, y + height / 2f);
+        float left = drawX - width / 2f;
+        canvas.drawRect(left, y, left + width, y + height, ghostPaint);
+        canvas.restore();
+    }
+}
@@ -1,81 +1,139 @@
 package com.example.firstapp;
 
+import android.view.Choreographer;
 import android.view.View;
 
+import com.example.firstapp.core.FixedTimestep;
+import com.example.firstapp.core.FrameTelemetry;
+import com.example.firstapp.core.GameConfig;
+import com.example.firstapp.core.GameWorld;
+import com.example.firstapp.core.QualityGovernor;
+
 /**
- * 遊戲迴圈管理（start/stop + Callback 回呼介面）
+ * 遊戲迴圈管理（start/stop + VSYNC 回呼，驅動 FixedTimestep.Callback）
  *
  * 類比後端：
- * - start()          = 啟動 ScheduledExecutorService
- * - stop()           = executorService.shutdown()
- * - isRunning        = AtomicBoolean 控制旗標
- * - removeCallbacks  = 從 MessageQueue 移除已排入但尚未執行的任務
+ * - start()             = 訂閱事件源（VSYNC 訊號）
+ * - stop()              = 取消訂閱
+ * - isRunning           = AtomicBoolean 控制旗標
+ * - removeFrameCallback = 從 Choreographer 移除已排入但尚未執行的回呼
  *
  * 運作原理：
- * Android UI 執行緒有一個 MessageQueue（消息佇列），
- * postDelayed(runnable, 16) 就是把 runnable 排入 16ms 後執行。
- * runnable 執行完後再 postDelayed 自己 → 形成遞迴排程（Game Loop）。
+ * Choreographer 會在每次螢幕 VSYNC 時呼叫 doFrame(frameTimeNanos)，
+ * doFrame 執行完後再 postFrameCallback 自己 → 形成與螢幕同步的遞迴排程。
+ *
+ * 與舊版 postDelayed(16ms) 的差別：
+ * - 舊版：每次呼叫前進固定距離，間隔會被 update/draw 耗時拉長 → 速度不穩
+ * - 新版：FixedTimestep 依「真實經過時間」決定要跑幾次 onUpdate()
+ *         → 60/90/120 Hz 螢幕的遊戲速度一致，多出來的畫面用 alpha 插值
+ *
+ * 量測（GameConfig.TELEMETRY_ENABLED）：以 VSYNC 時間戳記錄幀間隔/掉幀，並記錄 advance() 耗時
+ *
+ * 畫質調節（GameConfig.QUALITY_GOVERNOR_ENABLED）：
+ * - 目標幀率低於螢幕刷新率時，不該畫的 VSYNC 直接跳過（不模擬、不 invalidate；
+ *   FixedTimestep 下一幀會依真實經過時間補上 tick → 遊戲速度不變）
+ * - 每個有畫的幀開頭結算上一幀的工作時間（模擬 + 繪製），等級改變時套用到 GameWorld
  */
 public class GameLoop {
 
-    /**
-     * 回呼介面：每幀通知 GameView 執行更新邏輯
-     * 類比 Spring 的 @EventListener — 事件驅動模式
-     */
-    public interface Callback {
-        void onUpdate();  // 每幀回呼（由 GameView 實作）
-    }
-
-    private final View view;          // 持有 View 引用（用於 invalidate + postDelayed）
-    private final Callback callback;  // 回呼對象（GameView）
+    private final View view;          // 持有 View 引用（用於 invalidate）
+    private final GameWorld world;    // 每步回呼對象
+    private final Choreographer choreographer; // VSYNC 訊號來源（必須在 UI 執行緒取得）
+    private final FixedTimestep timestep;      // 固定步長累加器
+    private final FrameTelemetry telemetry;    // 幀階段量測（關閉時不寫入）
+    private final QualityGovernor quality;     // 畫質/幀率調節
     private boolean isRunning = false; // 運行狀態旗標
 
     /**
-     * 遞迴排程的 Runnable
+     * VSYNC 回呼
      *
-     * 執行流程（每 16ms 一次）：
+     * 執行流程（每次螢幕刷新一次）：
      * 1. 檢查 isRunning → 若為 false 則中斷遞迴
-     * 2. callback.onUpdate() → 呼叫 GameView 的更新邏輯
-     * 3. view.invalidate() → 標記需要重繪（觸發 onDraw）
-     * 4. view.postDelayed(this, 16) → 16ms 後再次排入 MessageQueue
+     * 2. timestep.advance() → 依經過時間呼叫 0~N 次 onUpdate()
+     * 3. view.invalidate() → 標記需要重繪（onDraw 讀取 alpha 做插值）
+     * 4. postFrameCallback(this) → 等下一次 VSYNC 再執行
      */
-    private final Runnable runnable = new Runnable() {
+    private final Choreographer.FrameCallback frameCallback = new Choreographer.FrameCallback() {
         @Override
-        public void run() {
-            if (!isRunning) return;                              // 暫停檢查（中斷遞迴鏈）
-            callback.onUpdate();                                  // 通知 GameView 執行遊戲邏輯
-            view.invalidate();                                    // 標記髒區域 → 排入重繪請求
-            view.postDelayed(this, GameConfig.FRAME_DELAY_MS);   // 16ms 後再次執行（遞迴排程）
+        public void doFrame(long frameTimeNanos) {
+            if (!isRunning) return;                         // 暫停檢查（中斷遞迴鏈）
+            if (GameConfig.QUALITY_GOVERNOR_ENABLED) {
+                if (!quality.isFrameDue(frameTimeNanos)) {  // 目標幀率較低 → 跳過這個 VSYNC
+                    choreographer.postFrameCallback(this);
+                    return;
+                }
+                if (quality.onFrame()) applyQuality();      // 結算上一幀；等級改變 → 套用
+            }
+            if (GameConfig.TELEMETRY_ENABLED) telemetry.onFrame(frameTimeNanos); // 幀間隔 + 掉幀
+            long simStart = GameConfig.TELEMETRY_ENABLED || GameConfig.QUALITY_GOVERNOR_ENABLED ? System.nanoTime() : 0L;
+            timestep.advance(frameTimeNanos, world);        // 固定步長模擬（可能 0 次或多次）
+            if (GameConfig.TELEMETRY_ENABLED || GameConfig.QUALITY_GOVERNOR_ENABLED) {
+                long simNanos = System.nanoTime() - simStart;
+                if (GameConfig.TELEMETRY_ENABLED) telemetry.record(FrameTelemetry.PHASE_SIM, simNanos);
+                if (GameConfig.QUALITY_GOVERNOR_ENABLED) quality.addWork(simNanos);
+            }
+            view.invalidate();                              // 標記髒區域 → 排入重繪請求
+            choreographer.postFrameCallback(this);          // 下一次 VSYNC 再執行
         }
     };
 
     /**
      * 建構子
-     * @param view     持有的 View（用於排程和重繪）
-     * @param callback 每幀回呼對象
+     * @param view  持有的 View（用於重繪）
+     * @param world 每個模擬步長的回呼對象（量測與畫質調節也使用它的實例）
      */
-    public GameLoop(View view, Callback callback) {
+    public GameLoop(View view, GameWorld world) {
         this.view = view;
-        this.callback = callback;
+        this.world = world;
+        this.telemetry = world.getTelemetry();
+        this.quality = world.getQualityGovernor();
+        this.choreographer = Choreographer.getInstance();
+        this.timestep = new FixedTimestep(GameConfig.SIM_STEP_NANOS, GameConfig.MAX_SUB_STEPS);
     }
 
     /**
      * 啟動遊戲迴圈
-     * view.post(runnable) 會在下一次 UI 執行緒空閒時執行 runnable
+     * reset() 讓暫停期間的時間不會被當成需要追趕的模擬時間
      */
     public void start() {
-        if (isRunning) return;  // 防重複啟動：避免多個 Runnable 同時遞迴排程
+        if (isRunning) return;  // 防重複啟動：避免多個回呼同時遞迴排程
         isRunning = true;
-        view.post(runnable);  // 排入 MessageQueue（立即排程）
+        timestep.reset();
+        if (GameConfig.QUALITY_GOVERNOR_ENABLED) {
+            quality.onLoopRestart();                        // 暫停期間不算一幀
+            quality.requestDisplayRefreshRate(TelemetryOverlay.refreshRate(view));
+        }
+        if (GameConfig.TELEMETRY_ENABLED) {
+            telemetry.onLoopRestart();                      // 暫停期間不算掉幀
+            telemetry.setVsyncPeriodNanos(TelemetryOverlay.vsyncPeriodNanos(view));
+        }
+        choreographer.postFrameCallback(frameCallback);  // 等下一次 VSYNC
+    }
+
+    /**
+     * 等級或目標幀率改變：套用影響模擬的設定；量測改以目標幀間隔判斷掉幀
+     * （刻意跳過的 VSYNC 不算掉幀）
+     */
+    private void applyQuality() {
+        world.applyQuality();
+        if (GameConfig.TELEMETRY_ENABLED) telemetry.setVsyncPeriodNanos(quality.getTargetFrameNanos());
     }
 
     /**
      * 停止遊戲迴圈
-     * removeCallbacks 會從 MessageQueue 移除已排入但尚未執行的 runnable
-     * 加上 isRunning=false，即使已經在執行中的 runnable 也會在下一次檢查時中斷
+     * removeFrameCallback 會移除已排入但尚未執行的回呼
+     * 加上 isRunning=false，即使已經在執行中的回呼也會在下一次檢查時中斷
      */
     public void stop() {
         isRunning = false;
-        view.removeCallbacks(runnable);  // 移除待執行的排程
+        choreographer.removeFrameCallback(frameCallback);  // 移除待執行的排程
+    }
+
+    /**
+     * 取得繪製插值係數（給 GameView.onDraw 使用）
+     * 0 = 上一個模擬狀態，接近 1 = 最新模擬狀態
+     */
+    public float getInterpolationAlpha() {
+        return timestep.getAlpha();
     }
 }
@@ -0,0 +1,60 @@
+package com.example.firstapp;
+
+import com.example.firstapp.core.DrivingPolicy;
+import com.example.firstapp.core.FrameTelemetry;
+import com.example.firstapp.core.InputRecorder;
+import com.example.firstapp.core.QualityGovernor;
+import com.example.firstapp.core.RunWriter;
+
+/**
+ * 遊戲畫面後端的共同介面（MainActivity 只依賴這個介面）
+ *
+ * 兩種實作：
+ * - GameView        → 一般 View：模擬 + 繪製都在 UI 執行緒（Choreographer + invalidate）
+ * - GameSurfaceView → SurfaceView：獨立 GameThread 模擬 + lockCanvas 繪製
+ *
+ * 類比後端：同一個 Repository 介面，底下可以切換 JDBC / JPA 實作
+ */
+public interface GameSurface {
+
+    /**
+     * 送出輸入事件（GameWorld.INPUT_*，只從 UI 執行緒呼叫）
+     *
+     * @param eventTimeNanos 觸控事件發生時間（System.nanoTime 時間軸）
+     */
+    void submitInput(byte type, long eventTimeNanos);
+
+    /** 幀階段量測（只在 pause() 之後從 UI 執行緒讀取，例如 dump 到檔案） */
+    FrameTelemetry getTelemetry();
+
+    /** 畫質/幀率調節器（平台狀態 request* 可從 UI 執行緒呼叫） */
+    QualityGovernor getQualityGovernor();
+
+    /** 開始/停止錄製輸入（在遊戲迴圈啟動前或 pause() 之後呼叫） */
+    void setInputRecorder(InputRecorder recorder);
+
+    /** 開始/停止跑局紀錄與鬼影（在遊戲迴圈啟動前或 pause() 之後呼叫） */
+    void setRunWriter(RunWriter writer);
+
+    /** 開啟/關閉自動駕駛（null = 玩家操作；在遊戲迴圈啟動前或 pause() 之後呼叫） */
+    void setAutopilot(DrivingPolicy policy);
+
+    /**
+     * 模擬狀態快照（GameWorld.saveState，固定長度的 byte[]；onSaveInstanceState 放進 Bundle）
+     * 只在 pause() 之後從 UI 執行緒呼叫
+     */
+    byte[] saveState();
+
+    /**
+     * 還原 saveState 的結果（在遊戲迴圈啟動前呼叫，例如 onCreate）
+     *
+     * @throws IllegalArgumentException 不是這個版本的快照
+     */
+    void restoreState(byte[] state);
+
+    /** Activity 不可見時暫停 */
+    void pause();
+
+    /** Activity 回到前景時恢復 */
+    void resume();
+}
@@ -0,0 +1,230 @@
+package com.example.firstapp;
+
+import android.content.Context;
+import android.util.AttributeSet;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+
+import com.example.firstapp.core.DrivingPolicy;
+import com.example.firstapp.core.FrameTelemetry;
+import com.example.firstapp.core.GameConfig;
+import com.example.firstapp.core.GameWorld;
+import com.example.firstapp.core.InputRecorder;
+import com.example.firstapp.core.QualityGovernor;
+import com.example.firstapp.core.RunWriter;
+
+/**
+ * 遊戲主畫面（SurfaceView 後端 — 模擬與繪製在獨立的 GameThread）
+ *
+ * 與 GameView 的差別：
+ * - GameView：onUpdate/onDraw 都在 UI 執行緒 → 版面配置或輸入處理一忙就掉幀
+ * - GameSurfaceView：UI 執行緒只負責生命週期與輸入，GameThread 自己鎖畫布繪製
+ *
+ * 執行緒交接規則（只在 UI 執行緒上改變狀態，全部用 lock 保護）：
+ * - 遊戲執行緒只在「Surface 已就緒 && Activity 在前景」時存在
+ * - 要改變世界尺寸或 Surface 要被銷毀時，先 requestStopAndJoin() 再動手
+ *   → join 建立 happens-before，GameWorld 不會被兩條執行緒同時碰到
+ *
+ * 內部解析度（GameConfig.RENDER_SCALE × 畫質等級）：SurfaceHolder.setFixedSize 把緩衝區縮小，
+ * 由顯示合成器（HWC）放大到 View 尺寸 → GPU 只填小緩衝區的像素，沒有額外的放大繪製
+ * 世界尺寸永遠是 View 的尺寸（不是緩衝區的）→ 換畫質等級不會改變模擬結果
+ *
+ * 生命週期：
+ * surfaceChanged(w,h) → 停執行緒 → world.resize(View 尺寸) → 條件成立則啟動新執行緒
+ * surfaceDestroyed()  → 停執行緒（回傳前保證不再使用 Surface）
+ * pause()/resume()    → 停止 / 條件成立則啟動
+ */
+public class GameSurfaceView extends SurfaceView implements GameSurface, SurfaceHolder.Callback {
+
+    private final Object lock = new Object(); // 保護下面三個欄位
+    private final GameWorld world = new GameWorld(); // 遊戲世界（與 GameView 相同的模擬）
+    private final WorldRenderer renderer = new WorldRenderer(); // 世界繪製器
+
+    private GameThread thread;       // 目前的遊戲執行緒（null = 未運行）
+    private boolean surfaceReady;    // Surface 是否可繪製（surfaceChanged ~ surfaceDestroyed 之間）
+    private boolean resumed;         // Activity 是否在前景
+
+    private final Runnable applyRenderScale = this::applyRenderScale; // 遊戲執行緒 post 到 UI 執行緒（建立一次）
+    private volatile float requestedRenderScale = GameConfig.RENDER_SCALE; // 遊戲執行緒寫，UI 執行緒讀
+    private int fixedWidth;          // 目前設定的緩衝區寬（0 = 跟隨版面配置；只在 UI 執行緒）
+    private int fixedHeight;         // 目前設定的緩衝區高
+
+    // ===== 建構子 =====
+
+    public GameSurfaceView(Context context) {
+        super(context);
+        init();
+    }
+
+    public GameSurfaceView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        init();
+    }
+
+    public GameSurfaceView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        init();
+    }
+
+    /** 註冊 Surface 生命週期回呼 */
+    private void init() {
+        getHolder().addCallback(this);
+    }
+
+    // ===== SurfaceHolder.Callback（UI 執行緒） =====
+
+    @Override
+    public void surfaceCreated(SurfaceHolder holder) {
+        // 尺寸要等 surfaceChanged 才知道 → 在那裡啟動執行緒
+    }
+
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+        synchronized (lock) {
+            stopThreadLocked();            // 先停，再改世界尺寸
+            // setFixedSize 之後 width/height 是縮小的緩衝區尺寸 → 世界仍用 View 尺寸
+            world.resize(getWidth() > 0 ? getWidth() : width, getHeight() > 0 ? getHeight() : height);
+            surfaceReady = true;
+            startThreadIfReadyLocked();
+        }
+    }
+
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        synchronized (lock) {
+            surfaceReady = false;
+            stopThreadLocked();            // 回傳後 Surface 就會被釋放 → 必須確定執行緒已結束
+        }
+    }
+
+    // ===== 內部解析度（SurfaceHolder.setFixedSize） =====
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        fixedWidth = 0;                    // View 尺寸變了 → 緩衝區尺寸重新計算
+        fixedHeight = 0;
+        applyRenderScale();
+    }
+
+    /** 畫質等級改變（遊戲執行緒呼叫）：下一次 UI 執行緒空閒時調整緩衝區尺寸 */
+    void requestRenderScale(float scale) {
+        requestedRenderScale = scale;
+        post(applyRenderScale);
+    }
+
+    /**
+     * 依內部解析度設定 Surface 緩衝區尺寸（UI 執行緒）
+     * 尺寸真的改變時才呼叫 setFixedSize → 之後的 surfaceChanged 會重啟遊戲執行緒（畫質等級很少變）
+     */
+    private void applyRenderScale() {
+        int w = getWidth();
+        int h = getHeight();
+        if (w <= 0 || h <= 0) return;      // 還沒完成版面配置 → onSizeChanged 會再呼叫
+        float scale = requestedRenderScale;
+        if (scale >= 1f) {
+            if (fixedWidth == 0) return;
+            fixedWidth = 0;
+            fixedHeight = 0;
+            getHolder().setSizeFromLayout(); // 回到原生解析度
+            return;
+        }
+        scale = Math.max(scale, GameConfig.RENDER_SCALE_MIN);
+        int fw = Math.max(1, Math.round(w * scale));
+        int fh = Math.max(1, Math.round(h * scale));
+        if (fw == fixedWidth && fh == fixedHeight) return;
+        fixedWidth = fw;
+        fixedHeight = fh;
+        getHolder().setFixedSize(fw, fh);
+    }
+
+    // ===== 外部輸入（UI 執行緒 → GameWorld 的無鎖輸入佇列 → GameThread 下一個 tick 套用） =====
+
+    @Override
+    public void submitInput(byte type, long eventTimeNanos) {
+        world.submitInput(type, eventTimeNanos);
+    }
+
+    /** 幀階段量測（pause() 回傳後執行緒已結束，才可從 UI 執行緒讀取） */
+    @Override
+    public FrameTelemetry getTelemetry() {
+        return world.getTelemetry();
+    }
+
+    @Override
+    public QualityGovernor getQualityGovernor() {
+        return world.getQualityGovernor();
+    }
+
+    @Override
+    public void setInputRecorder(InputRecorder recorder) {
+        world.setInputRecorder(recorder);
+    }
+
+    @Override
+    public void setRunWriter(RunWriter writer) {
+        world.setRunWriter(writer);
+    }
+
+    @Override
+    public void setAutopilot(DrivingPolicy policy) {
+        world.setAutopilot(policy);
+    }
+
+    @Override
+    public byte[] saveState() {
+        return world.saveState();
+    }
+
+    @Override
+    public void restoreState(byte[] state) {
+        world.restoreState(state);
+    }
+
+    // ===== 生命週期管理（由 MainActivity 呼叫） =====
+
+    @Override
+    public void pause() {
+        synchronized (lock) {
+            resumed = false;
+            stopThreadLocked();
+            world.stopBackgroundWork();   // 遊戲執行緒已停止；下一個 tick 會自動重新啟動
+        }
+    }
+
+    @Override
+    public void resume() {
+        synchronized (lock) {
+            resumed = true;
+            startThreadIfReadyLocked();
+        }
+    }
+
+    // ===== 執行緒管理（呼叫端必須持有 lock） =====
+
+    /** Surface 就緒且 Activity 在前景 → 啟動新的遊戲執行緒（Thread 無法重複 start，每次都 new） */
+    private void startThreadIfReadyLocked() {
+        if (thread != null || !surfaceReady || !resumed) return;
+        if (GameConfig.QUALITY_GOVERNOR_ENABLED) {
+            QualityGovernor quality = world.getQualityGovernor();
+            quality.onLoopRestart();                       // 暫停期間不算一幀
+            quality.requestDisplayRefreshRate(TelemetryOverlay.refreshRate(this));
+            requestedRenderScale = WorldRenderer.renderScale(quality); // 執行緒已停止 → 可以直接讀
+            applyRenderScale();
+        }
+        if (GameConfig.TELEMETRY_ENABLED) {
+            FrameTelemetry telemetry = world.getTelemetry();
+            telemetry.onLoopRestart();                     // 暫停期間不算掉幀
+            telemetry.setVsyncPeriodNanos(TelemetryOverlay.vsyncPeriodNanos(this));
+        }
+        thread = new GameThread(this, world, renderer);
+        thread.start();
+    }
+
+    /** 停止遊戲執行緒並等待結束 */
+    private void stopThreadLocked() {
+        if (thread == null) return;
+        thread.requestStopAndJoin();
+        thread = null;
+    }
+}
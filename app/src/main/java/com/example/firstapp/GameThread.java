@@ -0,0 +1,114 @@
+package com.example.firstapp;
+
+import android.graphics.Canvas;
+import android.view.Surface;
+import android.view.SurfaceHolder;
+
+import com.example.firstapp.core.FixedTimestep;
+import com.example.firstapp.core.FrameTelemetry;
+import com.example.firstapp.core.GameConfig;
+import com.example.firstapp.core.GameWorld;
+import com.example.firstapp.core.QualityGovernor;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 遊戲執行緒（GameSurfaceView 專用：模擬 + 繪製都不在 UI 執行緒）
+ *
+ * 每圈流程：
+ * 1. timestep.advance(System.nanoTime()) → 依經過時間執行 0~N 次 world.onUpdate()
+ * 2. lockHardwareCanvas() → 取得 Surface 的畫布（GPU 加速）
+ * 3. renderer.draw(canvas, world, alpha) → 插值繪製
+ * 4. unlockCanvasAndPost() → 送出畫面；BufferQueue 滿時會阻塞 → 自然以 VSYNC 節奏運行
+ *
+ * 量測（GameConfig.TELEMETRY_ENABLED）：沒有 VSYNC 時間戳 → 以每圈開頭的 nanoTime() 當幀時間
+ * （上一圈的 unlockCanvasAndPost 被 BufferQueue 節流，間隔就是實際送出的幀間隔）
+ *
+ * 畫質調節（GameConfig.QUALITY_GOVERNOR_ENABLED）：目標幀率低於螢幕刷新率時，
+ * 在兩幀之間 park 到下一個該畫的時間（BufferQueue 只會把節奏限制在刷新率，不會更慢）；
+ * 內部解析度改變時通知 GameSurfaceView 調整 Surface 緩衝區尺寸（setFixedSize 只能在 UI 執行緒）
+ *
+ * 停止方式：requestStopAndJoin() → running=false → 等待 run() 結束
+ * 類比後端：ExecutorService.shutdown() + awaitTermination()
+ */
+public class GameThread extends Thread {
+
+    private final GameSurfaceView view;   // 所屬的 View（內部解析度改變時通知）
+    private final SurfaceHolder holder;   // Surface 持有者（由 GameSurfaceView 提供）
+    private final GameWorld world;        // 共用的遊戲世界
+    private final WorldRenderer renderer; // 世界繪製器（畫筆只在這條執行緒使用）
+    private final FixedTimestep timestep; // 固定步長累加器（每個執行緒實例一個，恢復時自然重置）
+
+    private volatile boolean running = true; // 運行旗標（UI 執行緒寫，遊戲執行緒讀）
+
+    public GameThread(GameSurfaceView view, GameWorld world, WorldRenderer renderer) {
+        super("GameThread");
+        this.view = view;
+        this.holder = view.getHolder();
+        this.world = world;
+        this.renderer = renderer;
+        this.timestep = new FixedTimestep(GameConfig.SIM_STEP_NANOS, GameConfig.MAX_SUB_STEPS);
+    }
+
+    @Override
+    public void run() {
+        Surface surface = holder.getSurface();
+        FrameTelemetry telemetry = world.getTelemetry();
+        QualityGovernor quality = world.getQualityGovernor();
+        while (running) {
+            long now = System.nanoTime();
+            if (GameConfig.QUALITY_GOVERNOR_ENABLED) {
+                if (!quality.isFrameDue(now)) {          // 還沒到目標幀間隔 → 睡到該畫的時間
+                    LockSupport.parkNanos(quality.nanosUntilNextFrame(now));
+                    continue;
+                }
+                if (quality.onFrame()) applyQuality(quality, telemetry); // 結算上一幀；等級改變 → 套用
+            }
+            if (GameConfig.TELEMETRY_ENABLED) telemetry.onFrame(now);
+            timestep.advance(now, world);                // 固定步長模擬
+            if (GameConfig.TELEMETRY_ENABLED || GameConfig.QUALITY_GOVERNOR_ENABLED) {
+                long simNanos = System.nanoTime() - now;
+                if (GameConfig.TELEMETRY_ENABLED) telemetry.record(FrameTelemetry.PHASE_SIM, simNanos);
+                if (GameConfig.QUALITY_GOVERNOR_ENABLED) quality.addWork(simNanos);
+            }
+
+            if (!surface.isValid()) {                    // Surface 正在銷毀 → 讓出 CPU，等 UI 執行緒 join
+                Thread.yield();
+                continue;
+            }
+            Canvas canvas = surface.lockHardwareCanvas();
+            try {
+                renderer.draw(canvas, world, timestep.getAlpha());
+            } finally {
+                surface.unlockCanvasAndPost(canvas);     // 一定要還回去，否則 Surface 卡死
+            }
+        }
+    }
+
+    /** 等級或目標幀率改變：套用影響模擬的設定與內部解析度；量測改以目標幀間隔判斷掉幀 */
+    private void applyQuality(QualityGovernor quality, FrameTelemetry telemetry) {
+        world.applyQuality();
+        view.requestRenderScale(WorldRenderer.renderScale(quality));
+        if (GameConfig.TELEMETRY_ENABLED) telemetry.setVsyncPeriodNanos(quality.getTargetFrameNanos());
+    }
+
+    /**
+     * 要求停止並等待執行緒結束（UI 執行緒呼叫）
+     * 回傳後保證不再碰 Surface 和 GameWorld → 可以安全銷毀 Surface 或改變世界尺寸
+     */
+    public void requestStopAndJoin() {
+        running = false;
+        boolean interrupted = false;
+        while (true) {
+            try {
+                join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;  // 必須等到真的結束，先記下中斷狀態
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -7,35 +7,45 @@ import android.view.View;
 
 import androidx.annotation.NonNull;
 
+import com.example.firstapp.core.DrivingPolicy;
+import com.example.firstapp.core.FrameTelemetry;
+import com.example.firstapp.core.GameWorld;
+import com.example.firstapp.core.InputRecorder;
+import com.example.firstapp.core.QualityGovernor;
+import com.example.firstapp.core.RunWriter;
+
 /**
- * 遊戲主畫面（純協調者 — 類比 Spring Controller）
+ * 遊戲主畫面（UI 執行緒後端 — 純協調者，類比 Spring Controller）
  *
  * 重構前：167 行 God Object（畫筆/位置/車道/動畫/繪製全塞在一起）
- * 重構後：≈80 行，只做「接線」工作
+ * 重構後：只做「接線」工作，模擬邏輯在 core 模組的 GameWorld，繪製在 WorldRenderer
  *
  * 職責：
- * 1. 持有 Car、Road、GameLoop 物件（依賴注入的 Field Injection）
- * 2. 實作 GameLoop.Callback → 每幀協調更新順序
- * 3. 轉發 moveLeft/moveRight 給 Car
+ * 1. 持有 GameWorld、WorldRenderer、GameLoop 物件（依賴注入的 Field Injection）
+ * 2. GameLoop 每個固定步長呼叫 GameWorld.onUpdate()
+ * 3. 轉發按鈕的按下/放開事件給 GameWorld
  * 4. 管理生命週期（pause/resume）
  *
  * 執行流程：
- * XML Inflater → new GameView() → init()（建立物件，不啟動迴圈）
+ * MainActivity → new GameView() → init()（建立物件，不啟動迴圈）
  * MainActivity.onResume() → gameView.resume() → gameLoop.start()
- *            → 每 16ms: onUpdate() → road.update + car.update + collision
- *            → VSYNC: onDraw() → road.draw + car.draw
+ *            → 每次 VSYNC: FixedTimestep 依經過時間執行 0~N 次
+ *              onUpdate() → road.update + car.update + collision（固定 60 Hz）
+ *            → onDraw(alpha) → road.draw + car.draw（在上一步與目前狀態之間插值）
+ *
+ * 另一個後端：GameSurfaceView（獨立遊戲執行緒），由 GameConfig.USE_SURFACE_VIEW 切換
  */
-public class GameView extends View implements GameLoop.Callback {
+public class GameView extends View implements GameSurface {
 
     private GameLoop gameLoop;  // 遊戲迴圈管理器
-    private Car car;            // 車輛實體
-    private Road road;          // 道路實體
+    private GameWorld world;    // 遊戲世界（Car + Road + 碰撞）
+    private WorldRenderer renderer; // 世界繪製器（Canvas 繪製）
 
     // ===== 建構子（Android XML Inflater 會依序嘗試這三個） =====
 
     public GameView(Context context) {
         super(context);
-        init();
+        init();  // MainActivity 以程式碼建立時呼叫這個建構子
     }
 
     public GameView(Context context, AttributeSet attrs) {
@@ -52,16 +62,16 @@ public class GameView extends View implements GameLoop.Callback {
      * 初始化：建立所有子物件（不啟動迴圈）
      *
      * 執行順序：
-     * 1. new Road()     → 建立道路物件（畫筆初始化，幾何延遲到 onSizeChanged）
-     * 2. new Car()      → 建立車輛物件（畫筆 + 物理狀態初始化）
-     * 3. new GameLoop() → 建立遊戲迴圈（持有 this 的引用）
+     * 1. new GameWorld()     → 建立 Road + Car（幾何延遲到 onSizeChanged）
+     * 2. new WorldRenderer() → 建立畫筆
+     * 3. new GameLoop()      → 建立遊戲迴圈（參數1=View 用於重繪，參數2=每步回呼）
      *
      * 遊戲迴圈啟動時機：由 MainActivity.onResume() → gameView.resume() → gameLoop.start()
      */
     private void init() {
-        road = new Road();
-        car = new Car();
-        gameLoop = new GameLoop(this, this); // 參數1=View, 參數2=Callback
+        world = new GameWorld();
+        renderer = new WorldRenderer();
+        gameLoop = new GameLoop(this, world);
         // 不在此處啟動迴圈 — 統一由 MainActivity.onResume() → resume() → start() 管理
     }
 
@@ -69,70 +79,79 @@ public class GameView extends View implements GameLoop.Callback {
      * 螢幕尺寸確定後的回呼（Android Framework 呼叫）
      *
      * 時機：佈局計算完成後，此時 getWidth()/getHeight() 才有正確值
-     * 執行順序：
-     * 1. road.init() → 根據螢幕尺寸計算道路邊界 + 車道位置
-     * 2. car.setPosition() → 車輛定位到道路中央車道、畫面下方
+     * → world.resize() 計算道路幾何並把車輛放到中間車道
      */
     @Override
-protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
         super.onSizeChanged(w, h, oldw, oldh);
-
-        road.init(w, h);  // 計算道路幾何（需要螢幕寬高）
-
-        // 車輛初始位置：中間車道中心、畫面下方 1/3 處
-        float[] lanes = road.getLanes();
-        car.setPosition(lanes[1], h * 2f / 3f);  // lanes[1] = 中間車道
-    }
-
-    /**
-     * GameLoop.Callback 實作 — 每幀更新邏輯（每 16ms 執行一次）
-     *
-     * 更新順序很重要：
-     * 1. road.update()  → 虛線動畫偏移
-     * 2. car.update()   → 物理引擎計算（angle → sin → 左右移動，Y 軸固定）
-     * 3. clampToRoad()  → 碰撞偵測（確保車輛在道路範圍內）
-     */
-    @Override
-    public void onUpdate() {
-        road.update();                              // 虛線動畫
-        car.update();                               // 物理計算（左右轉向移動，Y 軸固定）
-        CollisionDetector.clampToRoad(car, road);   // 邊界碰撞修正
+        world.resize(w, h);
     }
 
     /**
      * 繪製回呼（Android VSYNC 觸發後 Framework 呼叫）
      *
-     * 繪製順序 = 圖層順序（後畫的覆蓋先畫的）：
-     * 1. road.draw() → 綠色草地 → 灰色道路 → 白色虛線
-     * 2. car.draw()  → 紅色車輛（含 canvas 旋轉）
+     * alpha：距離下一個模擬步長的比例，讓 90/120 Hz 螢幕在兩步之間平滑插值
      */
     @Override
     protected void onDraw(@NonNull Canvas canvas) {
         super.onDraw(canvas);
-        road.draw(canvas);  // Layer 1-3: 背景 + 道路 + 虛線
-        car.draw(canvas);   // Layer 4: 車輛（旋轉繪製）
+        renderer.draw(canvas, world, gameLoop.getInterpolationAlpha());
+    }
+
+    // ===== 外部輸入轉發（MainActivity 按鈕 → GameView → GameWorld 的輸入佇列 → 下一個 tick 套用到 Car） =====
+
+    @Override
+    public void submitInput(byte type, long eventTimeNanos) {
+        world.submitInput(type, eventTimeNanos);
+    }
+
+    /** 幀階段量測（遊戲迴圈停止後才可從 UI 執行緒讀取） */
+    @Override
+    public FrameTelemetry getTelemetry() {
+        return world.getTelemetry();
     }
 
-    // ===== 外部輸入轉發（MainActivity 按鈕 → GameView → Car） =====
+    @Override
+    public QualityGovernor getQualityGovernor() {
+        return world.getQualityGovernor();
+    }
 
-    /** 左轉：設定車輛轉向角度為 -30° */
-    public void moveLeft() {
-        car.moveLeft();
+    @Override
+    public void setInputRecorder(InputRecorder recorder) {
+        world.setInputRecorder(recorder);
     }
 
-    /** 右轉：設定車輛轉向角度為 +30° */
-    public void moveRight() {
-        car.moveRight();
+    @Override
+    public void setRunWriter(RunWriter writer) {
+        world.setRunWriter(writer);
+    }
+
+    @Override
+    public void setAutopilot(DrivingPolicy policy) {
+        world.setAutopilot(policy);
+    }
+
+    @Override
+    public byte[] saveState() {
+        return world.saveState();
+    }
+
+    @Override
+    public void restoreState(byte[] state) {
+        world.restoreState(state);
     }
 
     // ===== 生命週期管理（由 MainActivity 呼叫） =====
 
     /** Activity 不可見時暫停遊戲迴圈（省電、防止背景運算） */
+    @Override
     public void pause() {
         gameLoop.stop();
+        world.stopBackgroundWork();   // 下一個 tick 會自動重新啟動
     }
 
     /** Activity 回到前景時恢復遊戲迴圈 */
+    @Override
     public void resume() {
         gameLoop.start();
     }
@@ -1,30 +1,81 @@
 package com.example.firstapp;
 
+import android.os.Build;
 import android.os.Bundle;
+import android.os.PowerManager;
+import android.util.Log;
+import android.view.MotionEvent;
+import android.view.View;
 import android.widget.Button;
+import android.widget.FrameLayout;
 
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 
+import com.example.firstapp.core.DrivingPolicy;
+import com.example.firstapp.core.GameConfig;
+import com.example.firstapp.core.GameWorld;
+import com.example.firstapp.core.InputRecorder;
+import com.example.firstapp.core.QualityGovernor;
+import com.example.firstapp.core.RunWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
 /**
  * 主 Activity — 負責 UI 綁定 + 生命週期管理
  *
  * 職責：
- * 1. 綁定 XML 佈局中的 View（GameView、左右按鈕）
- * 2. 設定按鈕點擊事件 → 轉發給 GameView
+ * 1. 建立遊戲畫面（GameView 或 GameSurfaceView）並綁定左右按鈕
+ * 2. 設定按鈕觸控事件（按下/放開）→ 轉發給 GameView
  * 3. 管理 Activity 生命週期 → 通知 GameView 暫停/恢復
  *
  * 輸入流程：
- * 用戶按按鈕 → onClick → gameView.moveLeft/moveRight()
- *           → car.moveLeft/moveRight()
- *           → 設定 car.steeringAngle = ±30°
- *           → 下一幀 car.update() 中 angle Lerp 向目標角度
+ * 用戶按住按鈕 → onTouch(ACTION_DOWN) → gameView.submitInput(PRESS_*, 事件時間)
+ *           → GameWorld 的無鎖輸入佇列（UI 執行緒只寫、模擬執行緒只讀）
+ *           → 下一個 tick 開頭套用 car.moveLeft/moveRight() → car.steeringAngle = ±30°
+ *           → car.update() 中 angle Lerp 向目標角度
+ * 放開按鈕 → onTouch(ACTION_UP / ACTION_CANCEL) → RELEASE_* → 回正
+ *
+ * 後端切換（A/B 比較用）：
+ * adb shell am start -n com.example.firstapp/.MainActivity --ez surface_view true
+ *
+ * 效能量測（GameConfig.TELEMETRY_ENABLED）：每次 onPause 把統計寫到
+ * 外部 App 目錄的 frame-telemetry.csv（adb pull 後可與其他版本直接 diff）
+ *
+ * 畫質調節（GameConfig.QUALITY_GOVERNOR_ENABLED）：Android 10+ 監聽系統溫度狀態，
+ * 轉成 QualityGovernor 的 THERMAL_* → 過熱時壓低畫質等級與幀率
+ *
+ * 輸入錄製（GameConfig.INPUT_RECORDING_ENABLED）：整場的轉向輸入寫到 input-log.bin，
+ * 在電腦上用 ./gradlew :core:replay -Plog=input-log.bin 無畫面重播
+ *
+ * 狀態保存：onSaveInstanceState 把整個模擬狀態（GameWorld.saveState，幾 KB 的 byte[]）放進 Bundle，
+ * 系統回收 Activity 後重建時在 onCreate 還原 → 回到離開時的同一個 tick
+ * 畫面鎖定直向（AndroidManifest）；大螢幕 / 分割畫面仍可能以不同尺寸重建 → 之後的 GameWorld.resize
+ * 依比例換算位置，還原的這一局照常進行
+ * 倒帶按鈕（GameConfig.REWIND_ENABLED）：送出 INPUT_REWIND → 下一個 tick 回到約 2 秒前的快照
+ *
+ * 跑局紀錄（GameConfig.RUN_LOG_ENABLED）：每一局（撞車為止；切到背景只是暫停，回來接著記）的統計與軌跡由 RunWriter
+ * 在背景執行緒寫進內部目錄的 run-log.bin（記憶體映射），撐最久的一局在下一局以鬼影車播放
+ *
+ * AI 駕駛策略：啟動時從 assets 載入 ./gradlew :core:train 訓練出的 rival-policy.bin（幾百 bytes）
+ * GameConfig.AUTOPILOT_ENABLED 時由它駕駛玩家車（轉向照常錄製 → 重播不需要策略檔）
  */
 public class MainActivity extends AppCompatActivity {
 
-    private GameView gameView;  // 遊戲畫面（協調者角色）
+    private static final String TAG = "MainActivity";
+    private static final String TELEMETRY_FILE = "frame-telemetry.csv"; // 量測輸出檔名
+    private static final String INPUT_LOG_FILE = "input-log.bin";       // 輸入錄製檔名
+    private static final String STATE_KEY = "world_state";             // Bundle 中的模擬狀態快照
+
+    private GameSurface gameView;  // 遊戲畫面（GameView 或 GameSurfaceView）
+    private InputRecorder inputRecorder; // 輸入錄製（null = 未開啟）
+    private RunWriter runWriter;         // 跑局紀錄 + 鬼影（null = 未開啟）
+    private DrivingPolicy drivingPolicy; // AI 駕駛策略（null = 載入失敗）
+    private PowerManager.OnThermalStatusChangedListener thermalListener; // 溫度狀態監聽（null = 未註冊）
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -40,14 +91,85 @@ public class MainActivity extends AppCompatActivity {
                 }
         );
 
-        // 初始化視圖：從 XML 佈局中取得 View 引用
-        gameView = findViewById(R.id.gameView);
+        // 建立遊戲畫面：Intent extra 優先，否則使用 GameConfig 預設後端
+        boolean useSurfaceView = getIntent().getBooleanExtra(
+                GameConfig.EXTRA_SURFACE_VIEW, GameConfig.USE_SURFACE_VIEW);
+        View view = useSurfaceView ? new GameSurfaceView(this) : new GameView(this);
+        FrameLayout container = findViewById(R.id.gameContainer);
+        container.addView(view);
+        gameView = (GameSurface) view;
+        if (GameConfig.TELEMETRY_ENABLED) {
+            gameView.getTelemetry().setGcCounter(TelemetryOverlay::readGcCount);
+        }
+        if (savedInstanceState != null) {
+            restoreWorldState(savedInstanceState.getByteArray(STATE_KEY)); // 在錄製開始前：錄製從還原後的 tick 接著記
+        }
+        if (GameConfig.INPUT_RECORDING_ENABLED) {
+            startInputRecording();  // 迴圈尚未啟動（onResume 才啟動）→ 可以安全設定
+        }
+        if (GameConfig.RUN_LOG_ENABLED) {
+            runWriter = new RunWriter(new File(getFilesDir(), GameConfig.RUN_LOG_FILE)); // 檔案在它自己的執行緒上開啟
+            gameView.setRunWriter(runWriter);  // 同上：迴圈尚未啟動；onPause 不拔掉 → 暫停不會把一局切成兩局
+        }
+        drivingPolicy = loadDrivingPolicy();
+        if (GameConfig.AUTOPILOT_ENABLED && drivingPolicy != null) {
+            gameView.setAutopilot(drivingPolicy);  // 同上：迴圈尚未啟動
+        }
+        if (GameConfig.QUALITY_GOVERNOR_ENABLED && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            listenThermalStatus();
+        }
+
+        // 初始化按鈕：從 XML 佈局中取得 View 引用
         Button btnLeft = findViewById(R.id.btnLeft);
         Button btnRight = findViewById(R.id.btnRight);
 
-        // 設置按鈕點擊事件：按鈕 → GameView → Car → 設定轉向角度
-        btnLeft.setOnClickListener(v -> gameView.moveLeft());
-        btnRight.setOnClickListener(v -> gameView.moveRight());
+        // 設置按鈕觸控事件：按住轉向、放開回正（按鈕 → GameSurface → GameWorld 輸入佇列 → Car）
+        btnLeft.setOnTouchListener(steeringListener(GameWorld.INPUT_PRESS_LEFT, GameWorld.INPUT_RELEASE_LEFT));
+        btnRight.setOnTouchListener(steeringListener(GameWorld.INPUT_PRESS_RIGHT, GameWorld.INPUT_RELEASE_RIGHT));
+
+        Button btnRewind = findViewById(R.id.btnRewind);
+        if (GameConfig.REWIND_ENABLED) {
+            btnRewind.setOnTouchListener((v, event) -> {
+                if (event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+                    gameView.submitInput(GameWorld.INPUT_REWIND, eventTimeNanos(event));
+                }
+                return false;
+            });
+        } else {
+            btnRewind.setVisibility(View.GONE);
+        }
+    }
+
+    /**
+     * 按鈕觸控 → 按下/放開事件（帶觸控事件本身的時間 → 量到的延遲包含 UI 執行緒排隊的時間）
+     * 回傳 false：按鈕照常處理按壓外觀與無障礙點擊
+     */
+    private View.OnTouchListener steeringListener(byte press, byte release) {
+        return (v, event) -> {
+            switch (event.getActionMasked()) {
+                case MotionEvent.ACTION_DOWN:
+                    gameView.submitInput(press, eventTimeNanos(event));
+                    break;
+                case MotionEvent.ACTION_UP:
+                case MotionEvent.ACTION_CANCEL:
+                    gameView.submitInput(release, eventTimeNanos(event));
+                    break;
+                default:
+                    break;
+            }
+            return false;
+        };
+    }
+
+    /**
+     * 觸控事件時間（System.nanoTime 時間軸）
+     * getEventTime() 是 uptimeMillis，與 System.nanoTime 同為 CLOCK_MONOTONIC → 只差單位
+     */
+    private static long eventTimeNanos(MotionEvent event) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE) {
+            return event.getEventTimeNanos();
+        }
+        return event.getEventTime() * 1_000_000L;
     }
 
     /**
@@ -59,6 +181,126 @@ public class MainActivity extends AppCompatActivity {
     protected void onPause() {
         super.onPause();
         gameView.pause();   // 通知 GameView 停止遊戲迴圈
+        if (GameConfig.TELEMETRY_ENABLED) {
+            dumpTelemetry(); // 迴圈已停止 → 統計不會再被寫入，可以安全讀取
+        }
+        if (inputRecorder != null) {
+            inputRecorder.flush(); // 程序可能在背景被系統殺掉 → 先把緩衝寫出去
+        }
+        if (runWriter != null) {
+            runWriter.requestSync();     // 這一局只是暫停（迴圈停了就不再記錄）；已完成的局不等待地 force
+        }
+    }
+
+    /**
+     * 保存模擬狀態（targetSdk 28+ 在 onStop 之後呼叫 → 遊戲迴圈已在 onPause 停止）
+     * 快照是固定長度的二進位，直接寫進 byte[] → 只需幾微秒，不會拖慢切到背景
+     */
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        long start = System.nanoTime();
+        byte[] state = gameView.saveState();
+        outState.putByteArray(STATE_KEY, state);
+        Log.d(TAG, "Saved " + state.length + " bytes of world state in " + (System.nanoTime() - start) / 1000 + " µs");
+    }
+
+    /** 還原 onSaveInstanceState 存的狀態；格式不符（例如 App 更新後）就從頭開始 */
+    private void restoreWorldState(byte[] state) {
+        if (state == null) return;
+        try {
+            gameView.restoreState(state);
+        } catch (IllegalArgumentException e) {
+            Log.w(TAG, "Discarding saved world state", e);
+        }
+    }
+
+    /**
+     * Activity 生命週期：銷毀
+     * onPause 一定先執行 → 迴圈已停止，可以結束錄製
+     */
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (thermalListener != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            getSystemService(PowerManager.class).removeThermalStatusListener(thermalListener);
+            thermalListener = null;
+        }
+        if (inputRecorder != null) {
+            gameView.setInputRecorder(null);
+            try {
+                inputRecorder.close();
+            } catch (IOException e) {
+                Log.w(TAG, "Failed to finish input log", e);
+            }
+            inputRecorder = null;
+        }
+        if (runWriter != null) {
+            gameView.setRunWriter(null); // 結束進行中的一局（迴圈已在 onPause 停止）→ 交給 I/O 執行緒
+            try {
+                runWriter.close();       // 寫完剩下的批次並等 I/O 執行緒收尾
+            } catch (IOException e) {
+                Log.w(TAG, "Failed to write run log", e);
+            }
+            runWriter = null;
+        }
+    }
+
+    /**
+     * 註冊溫度狀態監聽（Android 10+；註冊時會先回呼一次目前狀態）
+     * 回呼在主執行緒 → requestThermalLevel 是 volatile 交接，遊戲執行緒下一幀套用
+     */
+    private void listenThermalStatus() {
+        PowerManager powerManager = getSystemService(PowerManager.class);
+        if (powerManager == null) return;
+        thermalListener = status -> gameView.getQualityGovernor().requestThermalLevel(toThermalLevel(status));
+        powerManager.addThermalStatusListener(thermalListener);
+    }
+
+    /** 系統溫度狀態 → QualityGovernor.THERMAL_*（LIGHT 以下視為正常） */
+    private static int toThermalLevel(int status) {
+        if (status >= PowerManager.THERMAL_STATUS_CRITICAL) return QualityGovernor.THERMAL_CRITICAL;
+        if (status >= PowerManager.THERMAL_STATUS_MODERATE) return QualityGovernor.THERMAL_THROTTLED;
+        return QualityGovernor.THERMAL_NORMAL;
+    }
+
+    /** 開始錄製輸入（覆寫上一次的檔案） */
+    private void startInputRecording() {
+        File file = new File(outputDir(), INPUT_LOG_FILE);
+        try {
+            inputRecorder = InputRecorder.open(file);
+            gameView.setInputRecorder(inputRecorder);
+            Log.i(TAG, "Recording input to " + file);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to start input recording", e);
+        }
+    }
+
+    /** 從 assets 載入 AI 駕駛策略（檔案只有幾百 bytes → 直接在 UI 執行緒讀）；失敗時回傳 null */
+    private DrivingPolicy loadDrivingPolicy() {
+        try (InputStream in = getAssets().open(GameConfig.DRIVING_POLICY_ASSET)) {
+            return DrivingPolicy.read(in);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to load driving policy", e);
+            return null;
+        }
+    }
+
+    /** 輸出檔目錄：外部 App 目錄（adb pull 不需要 root），不可用時退回內部目錄 */
+    private File outputDir() {
+        File dir = getExternalFilesDir(null);
+        return dir != null ? dir : getFilesDir();
+    }
+
+    /** 把幀階段量測寫到檔案（只有幾行文字，直接在 UI 執行緒寫） */
+    private void dumpTelemetry() {
+        File file = new File(outputDir(), TELEMETRY_FILE);
+        try {
+            gameView.getTelemetry().dump(file);
+            Log.i(TAG, "Frame telemetry written to " + file);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to write frame telemetry", e);
+        }
     }
 
     /**
@@ -0,0 +1,36 @@
+package com.example.firstapp;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+import com.example.firstapp.core.ObstaclePool;
+
+/**
+ * 車流繪製器（ObstaclePool 的 Android 繪製部分）
+ *
+ * 只迭代存活的 slot；不建立任何物件（座標直接從池的陣列讀取）
+ */
+public class ObstacleRenderer {
+
+    private final Paint paint;      // 障礙物畫筆（藍色）
+
+    public ObstacleRenderer() {
+        paint = new Paint();
+        paint.setColor(Color.BLUE);
+    }
+
+    /**
+     * @param alpha 插值係數（0 = 上一步狀態，1 = 目前狀態）
+     */
+    public void draw(Canvas canvas, ObstaclePool obstacles, float alpha) {
+        float halfW = obstacles.getWidth() / 2f;
+        float height = obstacles.getHeight();
+        for (int i = 0, n = obstacles.getActiveCount(); i < n; i++) {
+            int slot = obstacles.getActiveSlot(i);
+            float x = obstacles.getX(slot);
+            float y = obstacles.getInterpolatedY(slot, alpha);
+            canvas.drawRect(x - halfW, y, x + halfW, y + height, paint);
+        }
+    }
+}
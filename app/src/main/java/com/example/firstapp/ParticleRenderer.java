@@ -0,0 +1,54 @@
+package com.example.firstapp;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+import com.example.firstapp.core.ParticleSystem;
+
+/**
+ * 粒子繪製器（ParticleSystem 的 Android 繪製部分）
+ *
+ * 每一種粒子每幀只有一次 drawPoints()：
+ * - 座標由 ParticleSystem.fillPoints() 寫進預先配置的 float[]（容量 × 2，第一次繪製時配置一次）
+ * - 粒子的大小/顏色由 Paint 決定（圓形端點 + 線寬 = 點的直徑）→ 不需要逐顆 drawCircle
+ * 沒有存活粒子時直接返回，不送出任何繪製指令
+ */
+public class ParticleRenderer {
+
+    private final Paint sparkPaint;    // 火花：小而亮的橘黃色點
+    private final Paint smokePaint;    // 輪胎煙：大而半透明的淺灰色點
+    private float[] sparkPoints = new float[0]; // 火花座標緩衝區（x0, y0, x1, y1, ...）
+    private float[] smokePoints = new float[0]; // 輪胎煙座標緩衝區
+
+    public ParticleRenderer() {
+        sparkPaint = new Paint();
+        sparkPaint.setColor(Color.rgb(255, 200, 40));
+        sparkPaint.setStrokeWidth(6f);
+        sparkPaint.setStrokeCap(Paint.Cap.ROUND);
+
+        smokePaint = new Paint();
+        smokePaint.setColor(Color.LTGRAY);
+        smokePaint.setAlpha(140);
+        smokePaint.setStrokeWidth(22f);
+        smokePaint.setStrokeCap(Paint.Cap.ROUND);
+    }
+
+    /** 輪胎煙（畫在車輛下面） */
+    public void drawSmoke(Canvas canvas, ParticleSystem smoke, float alpha) {
+        if (smokePoints.length < smoke.getCapacity() * 2) smokePoints = new float[smoke.getCapacity() * 2];
+        draw(canvas, smoke, smokePoints, smokePaint, alpha);
+    }
+
+    /** 火花（畫在車輛上面） */
+    public void drawSparks(Canvas canvas, ParticleSystem sparks, float alpha) {
+        if (sparkPoints.length < sparks.getCapacity() * 2) sparkPoints = new float[sparks.getCapacity() * 2];
+        draw(canvas, sparks, sparkPoints, sparkPaint, alpha);
+    }
+
+    private static void draw(Canvas canvas, ParticleSystem system, float[] points, Paint paint, float alpha) {
+        int count = system.fillPoints(points, alpha);
+        if (count == 0) return;                            // 閒置：不送出繪製指令
+        canvas.drawPoints(points, 0, count, paint);
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.firstapp;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+
+import com.example.firstapp.core.GameConfig;
+import com.example.firstapp.core.Road;
+
+/**
+ * 道路繪製器（從 Road 拆出來的 Android 繪製部分）
+ *
+ * 三層畫面：綠色草地 → 灰色道路 → 白色虛線
+ * 幾何與虛線偏移量由 Road（core 模組）提供
+ *
+ * 快取策略：
+ * - 草地 + 道路每幀都一樣 → 每個 Road.init 尺寸只畫一次到背景 Bitmap
+ *   每幀一次 drawBitmap（取代 drawColor + 全高 drawRect 兩次全畫面填色）
+ * - 只有虛線偏移量會變 → 所有虛線段寫進預先配置的 float[]，
+ *   一次 drawLines() 送出（取代每個週期兩次 drawLine）
+ *
+ * 程序化道路（Road.isProcedural()）：形狀每幀都在捲動，不能快取成 Bitmap
+ * → drawColor 草地 + 一條重用的 Path（每個路段取樣一次左右邊界）+ 沿著彎道的虛線（同一個 drawLines 批次）
+ */
+public class RoadRenderer {
+
+    private static final int FLOATS_PER_LINE = 4;   // 一段線 = x0, y0, x1, y1
+    private static final int DIVIDER_COUNT = GameConfig.LANE_COUNT - 1; // 分隔線條數
+
+    private final Paint roadPaint;  // 道路畫筆（灰色，只在重建背景時使用）
+    private final Paint linePaint;  // 分隔線畫筆（白色虛線）
+
+    // ===== 背景快取（尺寸改變時重建） =====
+    private Bitmap background;      // 草地 + 道路
+    private int cachedWidth;        // 快取對應的畫面寬度
+    private int cachedHeight;       // 快取對應的畫面高度
+    private float cachedRoadLeft;   // 快取對應的道路左邊界（幾何改變也要重建）
+    private float cachedRoadRight;  // 快取對應的道路右邊界
+
+    // ===== 虛線批次緩衝區（尺寸改變時重新配置，每幀只覆寫內容） =====
+    private float[] linePoints = new float[0];
+
+    // ===== 程序化道路的路面輪廓（每幀 rewind 重用，不配置新物件） =====
+    private final Path roadPath = new Path();
+
+    public RoadRenderer() {
+        // 道路畫筆：灰色填滿
+        roadPaint = new Paint();
+        roadPaint.setColor(Color.GRAY);
+
+        // 分隔線畫筆：白色線條
+        linePaint = new Paint();
+        linePaint.setColor(Color.WHITE);
+        linePaint.setStrokeWidth(GameConfig.LINE_STROKE_WIDTH); // 線寬 8px
+    }
+
+    /**
+     * 繪製道路（三層結構）
+     *
+     * Layer 1+2: 快取的背景 Bitmap（綠色草地 + 灰色道路）
+     * Layer 3:   白色虛線分隔線（一次 drawLines 批次）
+     *
+     * @param alpha      插值係數（0 = 上一步狀態，1 = 目前狀態），由 GameLoop 提供
+     * @param dashStride 每幾段虛線畫一段（畫質等級，1 = 全部）
+     */
+    public void draw(Canvas canvas, Road road, float alpha, int dashStride) {
+        if (road.isProcedural()) {
+            drawProcedural(canvas, road, alpha, dashStride);
+            return;
+        }
+        ensureCache(road);
+
+        // Layer 1+2: 背景（不需要透明度，Paint 傳 null）
+        canvas.drawBitmap(background, 0f, 0f, null);
+
+        // Layer 3: 白色虛線分隔線（2 條線分隔 3 個車道），全部寫入同一個緩衝區
+        float roadLeft = road.getRoadLeft();
+        float roadWidth = road.getRoadWidth();
+        int screenHeight = road.getScreenHeight();
+        float period = GameConfig.DASH_LENGTH + GameConfig.GAP_LENGTH; // 一個週期 = 100px
+        float step = period * dashStride;
+        float startY = dashStartY(road, alpha, dashStride);
+
+        int count = 0;
+        for (int divider = 1; divider <= DIVIDER_COUNT; divider++) {
+            // 分隔線位置：道路寬度的 1/3 和 2/3 處
+            float lineX = roadLeft + roadWidth * divider / GameConfig.LANE_COUNT;
+            for (float y = startY; y < screenHeight; y += step) {
+                linePoints[count++] = lineX;
+                linePoints[count++] = y;
+                linePoints[count++] = lineX;
+                linePoints[count++] = y + GameConfig.DASH_LENGTH;
+            }
+        }
+        canvas.drawLines(linePoints, 0, count, linePaint);
+    }
+
+    /**
+     * 程序化道路：每幀依插值後的行駛距離取樣邊界
+     *
+     * 虛線每段取兩端高度的分隔線位置 → 彎道上的虛線會跟著斜；
+     * 車道數取虛線中點所在路段（車道合併時分隔線條數跟著變）
+     */
+    private void drawProcedural(Canvas canvas, Road road, float alpha, int dashStride) {
+        ensureLineBuffer(road.getScreenHeight());
+        int height = road.getScreenHeight();
+        double base = road.getInterpolatedDistance(alpha);
+        float step = GameConfig.ROAD_SEGMENT_LENGTH;
+
+        // Layer 1: 草地
+        canvas.drawColor(Color.GREEN);
+
+        // Layer 2: 路面輪廓（左邊界由上往下，右邊界由下往上）
+        roadPath.rewind();
+        roadPath.moveTo(road.getLeftEdgeAtDistance(road.distanceAt(0f, base)), 0f);
+        for (float y = step; y < height + step; y += step) {
+            float sampleY = Math.min(y, height);
+            roadPath.lineTo(road.getLeftEdgeAtDistance(road.distanceAt(sampleY, base)), sampleY);
+        }
+        for (float y = height; y > -step; y -= step) {
+            float sampleY = Math.max(y, 0f);
+            roadPath.lineTo(road.getRightEdgeAtDistance(road.distanceAt(sampleY, base)), sampleY);
+        }
+        roadPath.close();
+        canvas.drawPath(roadPath, roadPaint);
+
+        // Layer 3: 沿著彎道的虛線
+        float period = GameConfig.DASH_LENGTH + GameConfig.GAP_LENGTH;
+        float dashStep = period * dashStride;
+        float startY = dashStartY(road, alpha, dashStride);
+        int count = 0;
+        for (float y = startY; y < height; y += dashStep) {
+            float endY = y + GameConfig.DASH_LENGTH;
+            double d0 = road.distanceAt(y, base);
+            double d1 = road.distanceAt(endY, base);
+            float left0 = road.getLeftEdgeAtDistance(d0);
+            float width0 = road.getRightEdgeAtDistance(d0) - left0;
+            float left1 = road.getLeftEdgeAtDistance(d1);
+            float width1 = road.getRightEdgeAtDistance(d1) - left1;
+            int lanes = road.getLaneCountAtDistance(road.distanceAt(y + GameConfig.DASH_LENGTH / 2f, base));
+            for (int divider = 1; divider < lanes; divider++) {
+                linePoints[count++] = left0 + width0 * divider / lanes;
+                linePoints[count++] = y;
+                linePoints[count++] = left1 + width1 * divider / lanes;
+                linePoints[count++] = endY;
+            }
+        }
+        canvas.drawLines(linePoints, 0, count, linePaint);
+    }
+
+    /**
+     * 第一段虛線的 Y
+     * 全部都畫：沿用 Road 的虛線偏移量（與原本完全相同）
+     * 隔段畫：偏移量只有一個週期，每次歸零會讓「畫哪幾段」換一批 → 改用行駛距離對 stride 個週期取餘數，
+     * 從畫面上方外側一段開始（緩衝區大小不變：步長變大，段數只會更少）
+     */
+    private static float dashStartY(Road road, float alpha, int dashStride) {
+        if (dashStride <= 1) return road.getInterpolatedLineOffset(alpha);
+        float step = (GameConfig.DASH_LENGTH + GameConfig.GAP_LENGTH) * dashStride;
+        return (float) (road.getInterpolatedDistance(alpha) % step) - step;
+    }
+
+    /**
+     * 尺寸或道路幾何改變時，重建背景 Bitmap 與虛線緩衝區（不在每幀執行）
+     *
+     * RGB_565：背景只有兩種不透明純色，不需要 alpha 通道 → 記憶體與頻寬減半
+     */
+    private void ensureCache(Road road) {
+        int width = road.getScreenWidth();
+        int height = road.getScreenHeight();
+        if (background != null && width == cachedWidth && height == cachedHeight
+                && road.getRoadLeft() == cachedRoadLeft && road.getRoadRight() == cachedRoadRight) {
+            return;
+        }
+
+        if (background != null) background.recycle();
+        background = Bitmap.createBitmap(Math.max(1, width), Math.max(1, height), Bitmap.Config.RGB_565);
+        Canvas cacheCanvas = new Canvas(background);
+        cacheCanvas.drawColor(Color.GREEN);                                                  // 草地
+        cacheCanvas.drawRect(road.getRoadLeft(), 0, road.getRoadRight(), height, roadPaint); // 道路
+
+        ensureLineBuffer(height);
+
+        cachedWidth = width;
+        cachedHeight = height;
+        cachedRoadLeft = road.getRoadLeft();
+        cachedRoadRight = road.getRoadRight();
+    }
+
+    /**
+     * 虛線緩衝區：每條分隔線最多 ceil(高度 / 週期) + 1 段（偏移量 < 一個週期）
+     * 分隔線最多 LANE_COUNT - 1 條（程序化道路合併車道時只會更少）
+     */
+    private void ensureLineBuffer(int height) {
+        float period = GameConfig.DASH_LENGTH + GameConfig.GAP_LENGTH;
+        int dashesPerDivider = (int) Math.ceil(height / period) + 1;
+        int size = dashesPerDivider * DIVIDER_COUNT * FLOATS_PER_LINE;
+        if (linePoints.length != size) {
+            linePoints = new float[size];
+        }
+    }
+}
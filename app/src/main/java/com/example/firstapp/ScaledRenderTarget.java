@@ -0,0 +1,126 @@
+package com.example.firstapp;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RecordingCanvas;
+import android.graphics.RenderNode;
+import android.os.Build;
+
+import com.example.firstapp.core.GameConfig;
+
+/**
+ * 降低內部解析度的繪製目標（場景在小尺寸上點陣化 → 由 GPU / 顯示硬體放大到畫面）
+ *
+ * 問題：1440p 面板每幀要填滿約 460 萬像素（背景 + 道路 + 車流），低階 GPU 卡在填充率
+ * 做法（像素數 ∝ scale²，0.5x = 1/4；全程不經過 CPU 點陣化）：
+ * - 縮小的 Surface（GameSurfaceView 以 SurfaceHolder.setFixedSize 設定緩衝區尺寸）：
+ *   畫布本身就比世界小 → 只要 scale(緩衝寬 / 世界寬, …)，放大由顯示合成器（HWC）免費完成
+ * - 硬體加速的 View 畫布（GameView，API 29+）：場景錄進 RenderNode，開啟合成層（compositing layer）
+ *   → RenderThread 在 (世界 × scale) 大小的 GPU 離屏層點陣化，再以雙線性濾波放大畫到畫面
+ * - 其他情況（API < 29 的硬體畫布、軟體畫布）直接以原生解析度畫 — 不會退回 CPU 的 Bitmap 緩衝區
+ *   （軟體點陣化 + 每幀上傳貼圖比省下的填充率更貴）
+ *
+ * 世界座標不受影響：Road.init / Car / 碰撞都還是 View 的畫面像素（GameWorld.resize），
+ * 縮放只存在於畫布矩陣裡 → 換畫質等級不會改變模擬結果（確定性/錄製重播）
+ *
+ * scale ≥ 1 時直接畫在畫面上（和沒有這個類別時完全相同）
+ * RenderNode 只在尺寸或倍率改變時重設屬性（畫質等級很少變）→ 平常每幀零配置
+ *
+ * 只能在繪製執行緒上使用（GameView 的 UI 執行緒 / GameThread）
+ *
+ * 類比後端：縮圖服務 — 先在小尺寸上處理，最後一次縮放輸出（而且交給專用硬體做）
+ */
+public class ScaledRenderTarget {
+
+    private static final int MODE_DIRECT = 0;   // 直接畫在畫面上（原生解析度）
+    private static final int MODE_SURFACE = 1;  // 畫面本身是縮小的 Surface（畫布矩陣換算）
+    private static final int MODE_LAYER = 2;    // 錄進 RenderNode 的 GPU 合成層
+
+    private RenderNode layer;       // 縮小的合成層（第一次需要時建立；API 29+）
+    private Paint layerPaint;       // 合成層放大時的雙線性濾波
+    private int layerWidth;         // 合成層寬（像素）
+    private int layerHeight;        // 合成層高（像素）
+    private int mode = MODE_DIRECT; // 這一幀的繪製方式（begin ~ end 之間）
+
+    /**
+     * 開始一幀：回傳這一幀要畫的畫布（世界座標）
+     *
+     * @param screen      畫面的畫布
+     * @param worldWidth  世界寬（= View 的畫面寬）
+     * @param worldHeight 世界高
+     * @param scale       內部解析度（相對畫面，≥ 1 = 不縮放；縮小的 Surface 不看這個值）
+     */
+    public Canvas begin(Canvas screen, int worldWidth, int worldHeight, float scale) {
+        mode = MODE_DIRECT;
+        if (worldWidth <= 0 || worldHeight <= 0) return screen;
+
+        int screenWidth = screen.getWidth();
+        int screenHeight = screen.getHeight();
+        if (screenWidth < worldWidth || screenHeight < worldHeight) { // SurfaceHolder.setFixedSize 縮小的緩衝區
+            screen.save();
+            screen.scale((float) screenWidth / worldWidth, (float) screenHeight / worldHeight);
+            mode = MODE_SURFACE;
+            return screen;
+        }
+        if (scale >= 1f || !isLayerSupported(screen)) {
+            release();                              // 回到原生解析度 → 不再佔住合成層的 GPU 記憶體
+            return screen;
+        }
+
+        scale = Math.max(scale, GameConfig.RENDER_SCALE_MIN);
+        int w = Math.max(1, Math.round(worldWidth * scale));
+        int h = Math.max(1, Math.round(worldHeight * scale));
+        if (layer == null || w != layerWidth || h != layerHeight) {
+            configureLayer(w, h, worldWidth, worldHeight);
+        }
+        RecordingCanvas recording = layer.beginRecording();
+        // 用實際的合成層尺寸換算（四捨五入後兩軸比例可能略有差異）→ 世界邊緣剛好對齊合成層邊緣
+        recording.scale((float) w / worldWidth, (float) h / worldHeight);
+        mode = MODE_LAYER;
+        return recording;
+    }
+
+    /**
+     * 結束一幀：縮小的 Surface 還原畫布矩陣；合成層畫到畫面上（由 GPU 放大）
+     */
+    public void end(Canvas screen) {
+        if (mode == MODE_SURFACE) {
+            screen.restore();
+        } else if (mode == MODE_LAYER) {
+            layer.endRecording();
+            screen.drawRenderNode(layer);
+        }
+        mode = MODE_DIRECT;
+    }
+
+    /**
+     * 釋放合成層的顯示清單與 GPU 離屏層（下一次 begin 需要時再錄製）
+     * scale ≥ 1 時 begin 每幀都會呼叫 → 已釋放（layerWidth == 0）就直接返回，不重複 discard
+     */
+    public void release() {
+        if (layer == null || layerWidth == 0) return;
+        layer.discardDisplayList();
+        layerWidth = 0;
+        layerHeight = 0;
+    }
+
+    /** RenderNode 只能畫在硬體加速的畫布上（API 29 起才是公開 API） */
+    private static boolean isLayerSupported(Canvas screen) {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && screen.isHardwareAccelerated();
+    }
+
+    private void configureLayer(int w, int h, int worldWidth, int worldHeight) {
+        if (layer == null) {
+            layer = new RenderNode("ScaledRenderTarget");
+            layerPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+        }
+        layer.setPosition(0, 0, w, h);              // 合成層的像素尺寸 = 錄製時的畫布大小
+        layer.setPivotX(0f);
+        layer.setPivotY(0f);
+        layer.setScaleX((float) worldWidth / w);    // 畫到畫面時放大回世界尺寸
+        layer.setScaleY((float) worldHeight / h);
+        layer.setUseCompositingLayer(true, layerPaint); // 強制離屏層 → 在小尺寸上點陣化
+        layerWidth = w;
+        layerHeight = h;
+    }
+}
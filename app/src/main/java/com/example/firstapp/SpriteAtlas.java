@@ -0,0 +1,66 @@
+package com.example.firstapp;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+import com.example.firstapp.core.GameConfig;
+import com.example.firstapp.core.SpriteBatch;
+
+/**
+ * 車輛 + 車流的圖集（所有精靈畫在同一張 Bitmap 上 → SpriteRenderer 一個 BitmapShader 就能畫全部）
+ *
+ * 版面（由左到右，各區域之間留 PADDING 像素的透明邊）：
+ * | 玩家車（CAR_WIDTH × CAR_HEIGHT） | 鬼影車（同玩家車） | 車流（OBSTACLE_WIDTH × OBSTACLE_HEIGHT） |
+ *
+ * 目前的圖與原本 drawRect 的純色相同（紅色玩家車、半透明白色鬼影、藍色車流）→ 換成批次繪製畫面不變；
+ * 鬼影的透明度直接畫在 atlas 裡（BitmapShader 取樣帶 alpha）→ 不需要另一支畫筆或另一次繪製；
+ * 之後要換成真的美術圖，只要改 paint() 或改成從資源載入，區域座標照舊
+ *
+ * region 座標往內縮半個像素：雙線性濾波取樣時不會混到隔壁的透明邊（texture bleeding）
+ * 建構時畫一次，之後唯讀
+ */
+public final class SpriteAtlas {
+
+    private static final int PADDING = 2;           // 區域之間的透明邊（像素）
+    private static final float INSET = 0.5f;        // 取樣內縮（像素）
+
+    private final Bitmap bitmap;
+    private final float[] carRegion;
+    private final float[] ghostRegion;
+    private final float[] obstacleRegion;
+
+    public SpriteAtlas() {
+        int carW = (int) Math.ceil(GameConfig.CAR_WIDTH);
+        int carH = (int) Math.ceil(GameConfig.CAR_HEIGHT);
+        int obstacleW = (int) Math.ceil(GameConfig.OBSTACLE_WIDTH);
+        int obstacleH = (int) Math.ceil(GameConfig.OBSTACLE_HEIGHT);
+
+        int carLeft = PADDING;
+        int ghostLeft = carLeft + carW + PADDING;
+        int obstacleLeft = ghostLeft + carW + PADDING;
+        int width = obstacleLeft + obstacleW + PADDING;
+        int height = Math.max(carH, obstacleH) + 2 * PADDING;
+
+        bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        bitmap.eraseColor(Color.TRANSPARENT);
+        Canvas canvas = new Canvas(bitmap);
+        Paint paint = new Paint();
+        carRegion = paint(canvas, paint, Color.RED, carLeft, PADDING, carW, carH);
+        ghostRegion = paint(canvas, paint, CarRenderer.GHOST_COLOR, ghostLeft, PADDING, carW, carH);
+        obstacleRegion = paint(canvas, paint, Color.BLUE, obstacleLeft, PADDING, obstacleW, obstacleH);
+    }
+
+    /** 畫一個區域，回傳內縮後的 region */
+    private static float[] paint(Canvas canvas, Paint paint, int color, int left, int top, int width, int height) {
+        paint.setColor(color);
+        canvas.drawRect(left, top, left + width, top + height, paint);
+        return SpriteBatch.region(left + INSET, top + INSET, left + width - INSET, top + height - INSET);
+    }
+
+    public Bitmap getBitmap() { return bitmap; }
+    public float[] getCarRegion() { return carRegion; }
+    public float[] getGhostRegion() { return ghostRegion; }
+    public float[] getObstacleRegion() { return obstacleRegion; }
+}
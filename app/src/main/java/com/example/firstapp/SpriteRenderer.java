@@ -0,0 +1,75 @@
+package com.example.firstapp;
+
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Shader;
+import android.os.Build;
+
+import com.example.firstapp.core.GameConfig;
+import com.example.firstapp.core.GameWorld;
+import com.example.firstapp.core.RunWriter;
+import com.example.firstapp.core.SpriteBatch;
+
+/**
+ * 精靈繪製器：車流 + 鬼影車 + 玩家車寫進 SpriteBatch → 每幀一次 drawVertices（取代 CarRenderer + ObstacleRenderer）
+ *
+ * 貼圖：Paint 的 BitmapShader 指向 SpriteAtlas → texCoords 就是 atlas 的像素座標
+ * 頂點顏色傳 null → 顏色完全來自 atlas
+ *
+ * 硬體加速的 Canvas 要 Android 10（API 29）才支援 drawVertices
+ * → isSupported() 為 false 時 WorldRenderer 改走原本的逐台 drawRect（軟體 Canvas / RenderNode 合成層都支援）
+ *
+ * 只在繪製執行緒上使用；每幀 0 配置
+ */
+public class SpriteRenderer {
+
+    private final SpriteAtlas atlas = new SpriteAtlas();
+    private final SpriteBatch batch;
+    private final Paint paint;
+
+    public SpriteRenderer() {
+        this(GameConfig.SPRITE_BATCH_CAPACITY);
+    }
+
+    /**
+     * @param capacity 每幀最多精靈數
+     */
+    public SpriteRenderer(int capacity) {
+        batch = new SpriteBatch(capacity);
+        paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+        paint.setShader(new BitmapShader(atlas.getBitmap(), Shader.TileMode.CLAMP, Shader.TileMode.CLAMP));
+    }
+
+    /** 這個 Canvas 能不能用 drawVertices（硬體加速要 API 29+） */
+    public static boolean isSupported(Canvas canvas) {
+        return !canvas.isHardwareAccelerated() || Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q;
+    }
+
+    /**
+     * 車流 → 鬼影車 → 玩家車（寫入順序 = 圖層順序，與逐台繪製的路徑相同）
+     *
+     * @param alpha 插值係數（0 = 上一步狀態，1 = 目前狀態）
+     */
+    public void draw(Canvas canvas, GameWorld world, float alpha) {
+        batch.setViewport(world.getWidth(), world.getHeight());
+        batch.begin();
+        batch.addObstacles(world.getObstacles(), alpha, atlas.getObstacleRegion());
+        RunWriter ghost = world.getRunWriter();
+        if (ghost != null) batch.addGhost(ghost, world.getCar(), alpha, atlas.getGhostRegion());
+        batch.addCar(world.getCar(), alpha, atlas.getCarRegion());
+        submit(canvas);
+    }
+
+    /** 送出目前 batch 裡的所有精靈（一次 drawVertices；沒有精靈時不送出） */
+    public void submit(Canvas canvas) {
+        if (batch.getSpriteCount() == 0) return;
+        canvas.drawVertices(Canvas.VertexMode.TRIANGLES, batch.getVertexCount(),
+                batch.getVertices(), 0, batch.getTexCoords(), 0, null, 0,
+                batch.getIndices(), 0, batch.getIndexCount(), paint);
+    }
+
+    /** 直接寫入精靈（基準測試 / 之後的 AI 車隊用；寫完呼叫 submit） */
+    public SpriteBatch getBatch() { return batch; }
+    public SpriteAtlas getAtlas() { return atlas; }
+}
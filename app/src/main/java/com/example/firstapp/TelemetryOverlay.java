@@ -0,0 +1,117 @@
+package com.example.firstapp;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.os.Debug;
+import android.view.Display;
+import android.view.View;
+
+import com.example.firstapp.core.FrameTelemetry;
+import com.example.firstapp.core.GameConfig;
+import com.example.firstapp.core.GameWorld;
+import com.example.firstapp.core.LatencyHistogram;
+import com.example.firstapp.core.QualityGovernor;
+
+import java.util.Locale;
+
+/**
+ * 效能量測畫面疊加層（左上角顯示 p50/p99 幀時間、輸入延遲、畫質等級、掉幀數、GC 次數）
+ *
+ * 只在 GameConfig.TELEMETRY_ENABLED && TELEMETRY_OVERLAY 時由 WorldRenderer 呼叫
+ *
+ * 文字每 TELEMETRY_OVERLAY_REFRESH_NANOS（0.5 秒）才重新組一次：
+ * - 每幀 String.format 會配置字串 → 量測工具本身變成 GC 來源
+ * - 兩次更新之間直接重畫快取的字串（drawText 不配置）
+ *
+ * 另外提供平台相關的量測來源（core 模組不依賴 Android）：
+ * - readGcCount()：ART 的累計 GC 次數
+ * - vsyncPeriodNanos()：螢幕刷新率換算成 VSYNC 週期
+ */
+public class TelemetryOverlay {
+
+    private static final float TEXT_SIZE = 36f;     // 字級（像素）
+    private static final float MARGIN = 24f;        // 距離畫面左上角的邊距
+    private static final int[] SHOWN_PHASES = {
+            FrameTelemetry.PHASE_FRAME, FrameTelemetry.PHASE_SIM, FrameTelemetry.PHASE_DRAW
+    };
+
+    private final Paint textPaint;      // 文字畫筆（白字）
+    private final Paint backgroundPaint; // 半透明黑底（任何背景色上都看得清楚）
+    private final String[] lines = new String[SHOWN_PHASES.length + 3]; // 快取的顯示文字
+    private long lastRefreshNanos;      // 上次重組文字的時間
+
+    public TelemetryOverlay() {
+        textPaint = new Paint();
+        textPaint.setColor(Color.WHITE);
+        textPaint.setTextSize(TEXT_SIZE);
+        textPaint.setAntiAlias(true);
+
+        backgroundPaint = new Paint();
+        backgroundPaint.setColor(Color.argb(160, 0, 0, 0));
+    }
+
+    /**
+     * 繪製疊加層（在繪製執行緒上呼叫 → 與寫入統計的執行緒相同，不需要鎖）
+     */
+    public void draw(Canvas canvas, GameWorld world) {
+        long now = System.nanoTime();
+        if (lines[0] == null || now - lastRefreshNanos >= GameConfig.TELEMETRY_OVERLAY_REFRESH_NANOS) {
+            refresh(world.getTelemetry(), world.getInputLatency(), world.getQualityGovernor());
+            lastRefreshNanos = now;
+        }
+
+        float lineHeight = TEXT_SIZE * 1.2f;
+        canvas.drawRect(0, 0, MARGIN * 2 + TEXT_SIZE * 14, MARGIN * 2 + lineHeight * lines.length, backgroundPaint);
+        float y = MARGIN + TEXT_SIZE;
+        for (String line : lines) {
+            canvas.drawText(line, MARGIN, y, textPaint);
+            y += lineHeight;
+        }
+    }
+
+    /** 重組顯示文字（每 0.5 秒一次） */
+    private void refresh(FrameTelemetry telemetry, LatencyHistogram inputLatency, QualityGovernor quality) {
+        for (int i = 0; i < SHOWN_PHASES.length; i++) {
+            int phase = SHOWN_PHASES[i];
+            LatencyHistogram h = telemetry.getHistogram(phase);
+            lines[i] = String.format(Locale.US, "%-5s p50 %5.2f  p99 %5.2f ms",
+                    FrameTelemetry.phaseName(phase),
+                    h.getPercentile(50) / 1e6, h.getPercentile(99) / 1e6);
+        }
+        lines[SHOWN_PHASES.length] = String.format(Locale.US, "input p50 %5.2f  p99 %5.2f ms",
+                inputLatency.getPercentile(50) / 1e6, inputLatency.getPercentile(99) / 1e6);
+        lines[SHOWN_PHASES.length + 1] = String.format(Locale.US, "tier %s  %.0f fps  thermal %d",
+                QualityGovernor.tierName(quality.getTier()), quality.getTargetFrameRate(), quality.getThermalLevel());
+        lines[SHOWN_PHASES.length + 2] = String.format(Locale.US, "missed vsync %d  gc %d",
+                telemetry.getMissedVsyncCount(), telemetry.getGcCount());
+    }
+
+    // ===== 平台量測來源 =====
+
+    /**
+     * ART 的累計 GC 次數（不支援時回傳 0）
+     * Debug.getRuntimeStat 會配置字串 → 只在 reset/dump/overlay 更新時呼叫，不在每幀呼叫
+     */
+    public static long readGcCount() {
+        String value = Debug.getRuntimeStat("art.gc.gc-count");
+        if (value == null) return 0;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /** View 所在螢幕的 VSYNC 週期（尚未附加到視窗時回傳 0 → FrameTelemetry 保留預設值） */
+    public static long vsyncPeriodNanos(View view) {
+        float hz = refreshRate(view);
+        return hz <= 0f ? 0 : (long) (1_000_000_000L / hz);
+    }
+
+    /** View 所在螢幕的刷新率（Hz；尚未附加到視窗時回傳 0 → 呼叫端保留預設值） */
+    public static float refreshRate(View view) {
+        Display display = view.getDisplay();
+        return display == null ? 0f : display.getRefreshRate();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.firstapp;
+
+import android.graphics.Canvas;
+
+import com.example.firstapp.core.FrameTelemetry;
+import com.example.firstapp.core.GameConfig;
+import com.example.firstapp.core.GameWorld;
+import com.example.firstapp.core.QualityGovernor;
+import com.example.firstapp.core.RunWriter;
+
+/**
+ * 遊戲世界繪製器（GameView 與 GameThread 共用）
+ *
+ * 繪製順序 = 圖層順序（後畫的覆蓋先畫的）：
+ * 1. RoadRenderer     → 綠色草地 → 灰色道路 → 白色虛線
+ * 2. ParticleRenderer → 輪胎煙（路面上，車流與車輛下面）
+ * 3. ObstacleRenderer → 藍色車流
+ * 4. CarRenderer      → 半透明鬼影車（有跑局紀錄時）→ 紅色車輛（含 canvas 旋轉）
+ * 5. ParticleRenderer → 擦牆火花（車輛上面）
+ * 6. TelemetryOverlay → 效能量測文字（GameConfig.TELEMETRY_ENABLED 時）
+ *
+ * 精靈批次（GameConfig.SPRITE_BATCHING）：3 + 4（車流 → 鬼影 → 車輛）合併成 SpriteRenderer 的一次 drawVertices，
+ * 兩條路徑的圖層順序完全相同
+ * 硬體加速且 API < 29 的 Canvas 不支援 drawVertices → 自動走上面的逐台路徑
+ *
+ * 內部解析度（ScaledRenderTarget）：Layer 1-7 在 renderScale() 的解析度上點陣化，由 GPU / 顯示硬體放大
+ * （GameSurfaceView = 縮小的 Surface；GameView = RenderNode 合成層）；量測文字在 end() 之後畫
+ * （GameView 保持全解析度；縮小的 Surface 上以緩衝區像素畫，與場景一起被放大）
+ *
+ * 畫質等級（QualityGovernor）：虛線密度與內部解析度每幀從調節器讀取；繪製耗時也回報給調節器
+ *
+ * 繪製耗時記入 FrameTelemetry.PHASE_DRAW（只含送出繪製指令；
+ * GameView 的實際 GPU 繪製在 RenderThread，不在這個數字裡）
+ *
+ * 只能在模擬執行緒上呼叫（與 GameWorld.onUpdate 同一條執行緒），
+ * 因為它直接讀取 Car/Road 的狀態
+ */
+public class WorldRenderer {
+
+    private final RoadRenderer roadRenderer = new RoadRenderer(); // 道路繪製
+    private final ObstacleRenderer obstacleRenderer = new ObstacleRenderer(); // 車流繪製
+    private final CarRenderer carRenderer = new CarRenderer();    // 車輛繪製
+    private final SpriteRenderer spriteRenderer =
+            GameConfig.SPRITE_BATCHING ? new SpriteRenderer() : null; // 車流 + 車輛一次 drawVertices（關閉時不建立）
+    private final ParticleRenderer particleRenderer = new ParticleRenderer(); // 粒子繪製（每種一次 drawPoints）
+    private final ScaledRenderTarget target = new ScaledRenderTarget(); // 內部解析度縮放
+    private final TelemetryOverlay telemetryOverlay =
+            GameConfig.TELEMETRY_ENABLED ? new TelemetryOverlay() : null; // 量測疊加層（關閉時不建立）
+
+    /**
+     * @param alpha 插值係數（0 = 上一步狀態，1 = 目前狀態）
+     */
+    public void draw(Canvas canvas, GameWorld world, float alpha) {
+        long start = GameConfig.TELEMETRY_ENABLED || GameConfig.QUALITY_GOVERNOR_ENABLED ? System.nanoTime() : 0L;
+        QualityGovernor quality = world.getQualityGovernor();
+        int dashStride = GameConfig.QUALITY_GOVERNOR_ENABLED ? quality.getDashStride() : 1;
+        float scale = renderScale(quality);
+
+        Canvas scene = target.begin(canvas, world.getWidth(), world.getHeight(), scale); // 世界座標的畫布
+        roadRenderer.draw(scene, world.getRoad(), alpha, dashStride); // Layer 1-3: 背景 + 道路 + 虛線
+        particleRenderer.drawSmoke(scene, world.getSmoke(), alpha); // Layer 4: 輪胎煙（沒有粒子時不繪製）
+        if (GameConfig.SPRITE_BATCHING && SpriteRenderer.isSupported(scene)) {
+            spriteRenderer.draw(scene, world, alpha);       // Layer 5-6: 車流 → 鬼影 → 車輛（一次 drawVertices）
+        } else {
+            obstacleRenderer.draw(scene, world.getObstacles(), alpha); // Layer 5: 車流
+            drawGhost(scene, world, alpha);                 // 鬼影車（車流上面、玩家車下面）
+            carRenderer.draw(scene, world.getCar(), alpha); // Layer 6: 車輛（旋轉繪製）
+        }
+        particleRenderer.drawSparks(scene, world.getSparks(), alpha); // Layer 7: 擦牆火花
+        target.end(canvas);                                 // 縮放時：合成層由 GPU 放大畫到畫面
+
+        if (GameConfig.TELEMETRY_ENABLED || GameConfig.QUALITY_GOVERNOR_ENABLED) {
+            long drawNanos = System.nanoTime() - start;
+            if (GameConfig.QUALITY_GOVERNOR_ENABLED) quality.addWork(drawNanos);
+            if (GameConfig.TELEMETRY_ENABLED) {
+                world.getTelemetry().record(FrameTelemetry.PHASE_DRAW, drawNanos);
+                if (GameConfig.TELEMETRY_OVERLAY) {
+                    telemetryOverlay.draw(canvas, world);     // Layer 8: 量測文字（不計入 DRAW）
+                }
+            }
+        }
+    }
+
+    /** 內部解析度（相對畫面）：GameConfig.RENDER_SCALE × 畫質等級的倍率 */
+    static float renderScale(QualityGovernor quality) {
+        return GameConfig.QUALITY_GOVERNOR_ENABLED
+                ? GameConfig.RENDER_SCALE * quality.getRenderScale() : GameConfig.RENDER_SCALE;
+    }
+
+    private void drawGhost(Canvas scene, GameWorld world, float alpha) {
+        RunWriter ghost = world.getRunWriter();
+        if (ghost != null) carRenderer.drawGhost(scene, world.getCar(), ghost, alpha);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.firstapp.benchmark;
+
+import com.example.firstapp.core.CollisionBatch;
+import com.example.firstapp.core.SpatialGrid;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Broad Phase 基準測試：SpatialGrid vs O(N²) 暴力法
+ *
+ * 場景：3 車道的長直路，實體密度固定（路長隨實體數增加），每個 tick 所有實體向下移動
+ * 兩種方法都包含「移動 + 找出所有重疊配對」，差別只在配對搜尋
+ *
+ * 執行：./gradlew :benchmark:jmh -Pjmh.includes=BroadPhaseBenchmark
+ */
+@State(Scope.Thread)
+public class BroadPhaseBenchmark {
+
+    private static final float LANE_WIDTH = 216f;      // 1080p 直向畫面的車道寬
+    private static final int LANES = 3;
+    private static final float CELL_HEIGHT = 200f;     // ≥ 最高實體
+    private static final float SPACING = 60f;          // 平均每個實體佔用的路長（控制密度）
+
+    @Param({"10", "100", "1000", "10000"})
+    public int entityCount;
+
+    private SpatialGrid grid;
+    private CollisionBatch batch;
+    private float[] x;        // 中心 X
+    private float[] y;        // 中心 Y
+    private float[] speed;    // 每 tick 向下移動距離
+    private float worldHeight;
+
+    @Setup
+    public void setUp() {
+        worldHeight = entityCount * SPACING;
+        int rows = (int) Math.ceil(worldHeight / CELL_HEIGHT);
+        grid = new SpatialGrid(entityCount);
+        grid.configure(0f, 0f, LANE_WIDTH, CELL_HEIGHT, LANES, rows);
+        batch = new CollisionBatch(entityCount * 8);
+
+        Random random = new Random(7);
+        x = new float[entityCount];
+        y = new float[entityCount];
+        speed = new float[entityCount];
+        for (int i = 0; i < entityCount; i++) {
+            x[i] = LANE_WIDTH * (random.nextInt(LANES) + 0.5f);
+            y[i] = random.nextFloat() * worldHeight;
+            speed[i] = 2f + random.nextFloat() * 6f;
+            grid.insert(i, x[i], y[i], 50f, 90f);   // 100 × 180 的車
+        }
+    }
+
+    @Benchmark
+    public int spatialGrid() {
+        step();
+        batch.clear();
+        grid.findPairs(batch);
+        return batch.size();
+    }
+
+    @Benchmark
+    public int bruteForce() {
+        step();
+        batch.clear();
+        grid.findPairsBruteForce(batch);
+        return batch.size();
+    }
+
+    /** 所有實體向下移動，超出路尾就繞回路頭 */
+    private void step() {
+        for (int i = 0; i < entityCount; i++) {
+            float ny = y[i] + speed[i];
+            if (ny > worldHeight) ny -= worldHeight;
+            y[i] = ny;
+            grid.move(i, x[i], ny);
+        }
+    }
+}
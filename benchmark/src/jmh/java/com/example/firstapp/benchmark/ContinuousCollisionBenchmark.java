@@ -0,0 +1,88 @@
+package com.example.firstapp.benchmark;
+
+import com.example.firstapp.core.Aabb;
+import com.example.firstapp.core.CollisionDetector;
+import com.example.firstapp.core.GameConfig;
+import com.example.firstapp.core.OrientedBox;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * 連續碰撞的每 tick 成本：車輛 vs 整個車流池（GameWorld 高速路徑的最壞情況）
+ *
+ * 場景：1080p 直向畫面、3 車道，OBSTACLE_CAPACITY 台障礙物散布在畫面內
+ * 車輛斜向移動 displacement 像素（橫向 + 相對車流的縱向）
+ * - discrete   → 只測終點（原本的 Narrow Phase）
+ * - continuous → sweptHit（≤ CCD_SUBSTEP_DISTANCE 時等同 discrete；
+ *                超過時掃掠 AABB 排除 + 每個配對最多 CCD_MAX_SUBSTEPS 個子步）
+ * 位移再大，成本上限也是「容量 × (1 + CCD_MAX_SUBSTEPS) 次 OBB 測試」
+ *
+ * 執行：./gradlew :benchmark:jmh -Pjmh.includes=ContinuousCollisionBenchmark
+ */
+@State(Scope.Thread)
+public class ContinuousCollisionBenchmark {
+
+    private static final float WIDTH = 1080f;
+    private static final float HEIGHT = 1920f;
+    private static final int POSITIONS = 256;          // 預先產生的車輛終點（輪流使用，避免常數折疊）
+
+    @Param({"0", "20", "100", "1000"})
+    public float displacement;
+
+    private final OrientedBox box = new OrientedBox();
+    private final float[] hit = new float[2];
+    private final Aabb[] obstacles = new Aabb[GameConfig.OBSTACLE_CAPACITY];
+    private final float[] carX = new float[POSITIONS];
+    private final float[] carAngle = new float[POSITIONS];
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(17);
+        float laneWidth = WIDTH / GameConfig.LANE_COUNT;
+        for (int i = 0; i < obstacles.length; i++) {
+            float cx = laneWidth * (random.nextInt(GameConfig.LANE_COUNT) + 0.5f);
+            float top = random.nextFloat() * HEIGHT;
+            obstacles[i] = new Aabb(cx - GameConfig.OBSTACLE_WIDTH / 2f, top,
+                    cx + GameConfig.OBSTACLE_WIDTH / 2f, top + GameConfig.OBSTACLE_HEIGHT);
+        }
+        for (int i = 0; i < POSITIONS; i++) {
+            carX[i] = GameConfig.CAR_WIDTH + random.nextFloat() * (WIDTH - 2f * GameConfig.CAR_WIDTH);
+            carAngle[i] = (random.nextFloat() * 2f - 1f) * GameConfig.CAR_MAX_STEER_ANGLE;
+        }
+    }
+
+    @Benchmark
+    public int discrete() {
+        nextCar();
+        int hits = 0;
+        for (Aabb obstacle : obstacles) {
+            if (box.intersects(obstacle)) hits++;
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int continuous() {
+        nextCar();
+        float dx = (index & 1) == 0 ? displacement : -displacement;   // 左右交替
+        int hits = 0;
+        for (Aabb obstacle : obstacles) {
+            if (CollisionDetector.sweptHit(box, dx, -displacement, obstacle, hit)) hits++;
+        }
+        return hits;
+    }
+
+    private void nextCar() {
+        int i = index = (index + 1) & (POSITIONS - 1);
+        double radians = Math.toRadians(carAngle[i]);
+        box.set(carX[i], HEIGHT * 2f / 3f, GameConfig.CAR_WIDTH / 2f, GameConfig.CAR_HEIGHT / 2f,
+                (float) Math.cos(radians), (float) Math.sin(radians));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.firstapp.benchmark;
+
+import com.example.firstapp.core.Car;
+import com.example.firstapp.core.CarFleet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 大量車輛更新：Struct of Arrays（CarFleet）vs 物件陣列（Car[]，每台車各自一份狀態）
+ *
+ * 執行：./gradlew :benchmark:jmh -Pjmh.includes=FleetBenchmark
+ * Score = 更新「全部」車輛一個 tick 的耗時；除以 carCount 得到每台車的成本
+ */
+@State(Scope.Thread)
+public class FleetBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int carCount;
+
+    private CarFleet fleet;   // 一個車隊，全部欄位連續排列
+    private Car[] cars;       // 每台車各自的 CarFleet(1) → 狀態散在 heap 各處（舊版 Car 物件的佈局）
+
+    @Setup
+    public void setUp() {
+        fleet = new CarFleet(carCount);
+        cars = new Car[carCount];
+        for (int i = 0; i < carCount; i++) {
+            float x = 200f + (i % 600);
+            float target = (i & 1) == 0 ? 30f : -30f;   // 一半左轉、一半右轉 → 角度持續變化
+            fleet.setPosition(i, x, 1000f);
+            fleet.setSteeringAngle(i, target);
+
+            cars[i] = new Car();
+            cars[i].setPosition(x, 1000f);
+            if (target > 0) cars[i].moveRight(); else cars[i].moveLeft();
+        }
+    }
+
+    @Benchmark
+    public float fleetBatchUpdate() {
+        fleet.update(carCount);
+        return fleet.getX(carCount - 1);
+    }
+
+    @Benchmark
+    public float objectArrayUpdate() {
+        for (Car car : cars) car.update();
+        return cars[carCount - 1].getX();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.firstapp.benchmark;
+
+import com.example.firstapp.core.CarFleet;
+import com.example.firstapp.core.ParallelFleetUpdater;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * 車隊平行更新的擴展性（1 ~ N 條執行緒）
+ *
+ * 執行：./gradlew :benchmark:jmh -Pjmh.includes=ParallelFleetBenchmark
+ * threads = 1 是序列基準；理想情況下 Score 隨執行緒數反比下降，
+ * 車輛少時分派 + 屏障的固定成本會吃掉大部分加速（所以 GameConfig 有序列門檻）
+ */
+@State(Scope.Thread)
+public class ParallelFleetBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"10000", "100000"})
+    public int carCount;
+
+    private CarFleet fleet;
+    private ParallelFleetUpdater updater;
+
+    @Setup
+    public void setUp() {
+        fleet = new CarFleet(carCount);
+        for (int i = 0; i < carCount; i++) {
+            fleet.setPosition(i, 200f + (i % 600), 1000f);
+            fleet.setSteeringAngle(i, (i & 1) == 0 ? 30f : -30f);
+        }
+        updater = new ParallelFleetUpdater(threads, 0);   // 門檻 0 → 一律走平行路徑（threads = 1 除外）
+    }
+
+    @TearDown
+    public void tearDown() {
+        updater.shutdown();
+    }
+
+    @Benchmark
+    public float update() {
+        updater.update(fleet, carCount);
+        return fleet.getX(carCount - 1);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.firstapp.benchmark;
+
+import com.example.firstapp.core.ParticleSystem;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 粒子系統每幀成本：update（一個 tick）+ fillPoints（準備一次 drawPoints 的座標）
+ *
+ * 場景：ring 一直保持滿載（每 tick 補充壽命到期的數量），liveCount = 粒子數
+ * - 0      → 閒置：應該只有方法呼叫的成本
+ * - 10000  → 目標：遠低於 60 fps 的 16.7 ms 幀預算（gc profiler 的 alloc.rate.norm 應為 0）
+ *
+ * 執行：./gradlew :benchmark:jmh -Pjmh.includes=ParticleBenchmark
+ */
+@State(Scope.Thread)
+public class ParticleBenchmark {
+
+    private static final int LIFETIME = 40;            // 與輪胎煙相同的壽命
+
+    @Param({"0", "1000", "10000"})
+    public int particleCount;
+
+    private ParticleSystem system;
+    private float[] points;
+    private int perTick;                               // 穩態下每 tick 生成數
+
+    @Setup
+    public void setUp() {
+        system = new ParticleSystem(Math.max(1, particleCount), LIFETIME, 0.97f, 7);
+        points = new float[system.getCapacity() * 2];
+        perTick = particleCount / LIFETIME;
+        for (int tick = 0; tick < LIFETIME; tick++) {  // 暖身到穩態：每個年齡都有粒子
+            emit();
+            system.update();
+        }
+    }
+
+    @Benchmark
+    public int updateAndFill() {
+        emit();
+        system.update();
+        return system.fillPoints(points, 0.5f);
+    }
+
+    private void emit() {
+        system.burst(540f, 1280f, 0f, 5f, 2f, perTick);
+    }
+}
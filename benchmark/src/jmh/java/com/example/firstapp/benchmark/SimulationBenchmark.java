@@ -0,0 +1,95 @@
+package com.example.firstapp.benchmark;
+
+import com.example.firstapp.core.Aabb;
+import com.example.firstapp.core.Car;
+import com.example.firstapp.core.CollisionDetector;
+import com.example.firstapp.core.GameWorld;
+import com.example.firstapp.core.OrientedBox;
+import com.example.firstapp.core.Road;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 模擬熱路徑基準測試（每個 @Benchmark 方法 = 一個 tick 的某個階段）
+ *
+ * 執行：./gradlew :benchmark:jmh
+ * 報告：
+ * - Score（ns/op）          → 每 tick 耗時
+ * - gc.alloc.rate.norm      → 每 tick 配置的 bytes（應為 0）
+ */
+@State(Scope.Thread)
+public class SimulationBenchmark {
+
+    private static final int SCREEN_WIDTH = 1080;   // 典型 1080p 直向畫面
+    private static final int SCREEN_HEIGHT = 2340;
+
+    private GameWorld world;  // 完整 tick 用
+    private Car car;          // 單一階段用（與 world 內的物件相同）
+    private Road road;
+    private int tick;         // 用來週期性切換轉向，讓 sin() 看到非零角度
+    private final OrientedBox carBox = new OrientedBox(); // OBB scratch
+    private final Aabb nearMiss = new Aabb();              // 落在包圍盒內、但不碰到車身的方塊
+
+    @Setup
+    public void setUp() {
+        world = new GameWorld();
+        world.resize(SCREEN_WIDTH, SCREEN_HEIGHT);
+        car = world.getCar();
+        road = world.getRoad();
+
+        car.moveRight();
+        for (int i = 0; i < 60; i++) car.update();     // 轉到 30°
+        carBox.setFromCar(car);
+        Aabb enclosing = new Aabb();
+        carBox.getEnclosingBounds(enclosing);
+        nearMiss.set(enclosing.right - 10f, enclosing.top, enclosing.right, enclosing.top + 10f);
+    }
+
+    @Benchmark
+    public float carUpdate() {
+        steer();
+        car.update();
+        return car.getX();
+    }
+
+    @Benchmark
+    public float roadUpdate() {
+        road.update();
+        return road.getLineOffset();
+    }
+
+    @Benchmark
+    public float clampToRoad() {
+        CollisionDetector.clampToRoad(car, road);
+        return car.getX();
+    }
+
+    /** 旋轉車輛 OBB vs 障礙物：setFromCar + SAT（最壞情況：通過 AABB 提早排除，要測完 4 條軸） */
+    @Benchmark
+    public boolean obbVsObstacle() {
+        carBox.setFromCar(car);
+        return carBox.intersects(nearMiss);
+    }
+
+    /** 完整 tick：輸入 → road.update → car.update → clampToRoad（與 GameView 每步相同） */
+    @Benchmark
+    public void fullTick(Blackhole bh) {
+        steer();
+        world.onUpdate();
+        bh.consume(car.getX());
+    }
+
+    /** 每 120 tick 左右交替轉向（車輛會撞牆 → clampToRoad 也會走到修正分支） */
+    private void steer() {
+        int phase = (tick++ / 120) & 1;
+        if (phase == 0) {
+            car.moveLeft();
+        } else {
+            car.moveRight();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.firstapp.benchmark;
+
+import com.example.firstapp.core.Car;
+import com.example.firstapp.core.CarFleet;
+import com.example.firstapp.core.SpriteBatch;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 精靈批次的 CPU 成本：每幀把 N 台（旋轉的）車寫進 SpriteBatch 的頂點陣列
+ *
+ * 這是批次繪製多出來的工作（逐台路徑把旋轉交給 Canvas 的矩陣）；
+ * Canvas 端的比較（每幀一次 drawVertices vs N 次 save/rotate/drawRect/restore）要在裝置上量：
+ * app 的 androidTest SpriteRenderBenchmark
+ *
+ * 執行：./gradlew :benchmark:jmh -Pjmh.includes=SpriteBatchBenchmark
+ * Score = 寫入全部精靈一次（一幀）的耗時；gc.alloc.rate.norm 應為 0
+ */
+@State(Scope.Thread)
+public class SpriteBatchBenchmark {
+
+    private static final float[] REGION = SpriteBatch.region(2.5f, 2.5f, 101.5f, 201.5f);
+
+    @Param({"10", "100", "1000"})
+    public int spriteCount;
+
+    private Car[] cars;
+    private SpriteBatch batch;
+
+    @Setup
+    public void setUp() {
+        CarFleet fleet = new CarFleet(spriteCount);
+        cars = new Car[spriteCount];
+        for (int i = 0; i < spriteCount; i++) {
+            float x = 100f + (i * 37) % 880;
+            fleet.setPosition(i, x, (i * 53) % 1700);
+            fleet.restore(i, x, (i % 61) - 30f, 0f);            // 每台車角度不同 → 每個四邊形都要旋轉
+            cars[i] = new Car(fleet, i);
+        }
+        batch = new SpriteBatch(spriteCount);
+        batch.setViewport(1080f, 1920f);
+    }
+
+    @Benchmark
+    public int fillBatch() {
+        batch.begin();
+        for (Car car : cars) batch.addCar(car, 1f, REGION);
+        return batch.getVertexCount();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.firstapp.benchmark;
+
+import com.example.firstapp.core.GameWorld;
+import com.example.firstapp.core.StateRing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 狀態快照的成本：存一份進倒帶 ring、從 ring 還原、存成 byte[]（onSaveInstanceState）
+ *
+ * 世界先跑到穩態（車流池有車、ring 已滿）→ 量到的是實際遊戲中的大小
+ *
+ * 執行：./gradlew :benchmark:jmh -Pjmh.includes=StateSnapshotBenchmark
+ * Score = 一次操作的耗時；capture / rewind 的 gc.alloc.rate.norm 應為 0，
+ * saveToArray 只有快照本身的 byte[]
+ */
+@State(Scope.Thread)
+public class StateSnapshotBenchmark {
+
+    private GameWorld world;
+    private StateRing ring;
+
+    @Setup
+    public void setUp() {
+        world = new GameWorld();
+        world.resize(1080, 1920);
+        for (int i = 0; i < 3_000; i++) {
+            if (i % 97 == 0) world.moveLeft();
+            if (i % 97 == 48) world.moveRight();
+            world.onUpdate();
+        }
+        ring = world.getRewindRing();
+    }
+
+    /** 存一份進 ring（每 REWIND_INTERVAL_TICKS 個 tick 一次的成本） */
+    @Benchmark
+    public int capture() {
+        ring.capture(world);
+        return ring.size();
+    }
+
+    /** 從 ring 還原最新一份（含網格重建與碰撞重算） */
+    @Benchmark
+    public long rewind() {
+        return world.rewind(1);
+    }
+
+    /** onSaveInstanceState 的路徑：配置 byte[] + 寫入 */
+    @Benchmark
+    public byte[] saveToArray() {
+        return world.saveState();
+    }
+}
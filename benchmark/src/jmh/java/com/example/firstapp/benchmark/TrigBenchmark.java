@@ -0,0 +1,74 @@
+package com.example.firstapp.benchmark;
+
+import com.example.firstapp.core.Car;
+import com.example.firstapp.core.FastMath;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 三角函數：Math（精確）vs FastMath（查表 + 內插）
+ *
+ * 執行：./gradlew :benchmark:jmh -Pjmh.includes=TrigBenchmark
+ * - mathSin / fastSin       → 單次 sin（角度依序變化，避免 JIT 常數折疊）
+ * - carUpdateExact / Fast   → 完整 Car.update()（含 sin + cos 快取）
+ */
+@State(Scope.Thread)
+public class TrigBenchmark {
+
+    private static final int ANGLE_COUNT = 1024;
+
+    private final float[] angles = new float[ANGLE_COUNT]; // ±30° 之間的角度（與實際轉向範圍相同）
+    private int index;
+    private Car exactCar;
+    private Car fastCar;
+    private int tick;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < ANGLE_COUNT; i++) {
+            angles[i] = -30f + 60f * i / ANGLE_COUNT;
+        }
+        exactCar = new Car(false);
+        fastCar = new Car(true);
+    }
+
+    @Benchmark
+    public float mathSin() {
+        return (float) Math.sin(Math.toRadians(nextAngle()));
+    }
+
+    @Benchmark
+    public float fastSin() {
+        return FastMath.sinDeg(nextAngle());
+    }
+
+    @Benchmark
+    public float carUpdateExact() {
+        steer(exactCar);
+        exactCar.update();
+        return exactCar.getX();
+    }
+
+    @Benchmark
+    public float carUpdateFast() {
+        steer(fastCar);
+        fastCar.update();
+        return fastCar.getX();
+    }
+
+    private float nextAngle() {
+        return angles[index++ & (ANGLE_COUNT - 1)];
+    }
+
+    /** 每 120 tick 左右交替轉向（角度持續變化） */
+    private void steer(Car car) {
+        if (((tick++ / 120) & 1) == 0) {
+            car.moveLeft();
+        } else {
+            car.moveRight();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.firstapp.core;
+
+/**
+ * 軸對齊包圍盒（Axis-Aligned Bounding Box）
+ *
+ * 取代 android.graphics.RectF，讓 core 模組不依賴 Android。
+ * 欄位語意與 RectF 相同：left/top/right/bottom，Y 軸向下。
+ */
+public final class Aabb {
+
+    public float left;    // 左邊界 X
+    public float top;     // 上邊界 Y
+    public float right;   // 右邊界 X
+    public float bottom;  // 下邊界 Y
+
+    public Aabb() {}
+
+    public Aabb(float left, float top, float right, float bottom) {
+        set(left, top, right, bottom);
+    }
+
+    /** 設定四個邊界（可重複使用同一個物件，避免每幀 new） */
+    public void set(float left, float top, float right, float bottom) {
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+    }
+
+    public float width() { return right - left; }
+    public float height() { return bottom - top; }
+
+    /**
+     * 兩個包圍盒是否相交（與 RectF.intersects 相同：貼邊不算相交）
+     */
+    public static boolean intersects(Aabb a, Aabb b) {
+        return a.left < b.right && b.left < a.right
+                && a.top < b.bottom && b.top < a.bottom;
+    }
+}
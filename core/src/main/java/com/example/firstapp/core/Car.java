@@ -0,0 +1,171 @@
+package com.example.firstapp.core;
+
+/**
+ * 車輛實體（含物理引擎：位置/速度/角度）
+ *
+ * 純 Java（不依賴 Android）：繪製由 app 模組的 CarRenderer 負責，
+ * 這裡只保存狀態與每步物理計算 → 可以在 JVM 上測試與 JMH 壓測
+ *
+ * 物理模型：
+ * - 按鈕控制的是「轉向角度」（steeringAngle），不是直接切車道
+ * - 每幀透過 sin/cos 將角度分解為 X/Y 速度分量
+ * - Lerp 平滑轉向，讓方向盤有「轉動」手感
+ *
+ * 三角函數：
+ * - 每 tick 只在 update() 算一次 sin/cos 並快取（碰撞、包圍盒直接讀快取）
+ * - fastTrig = true → FastMath 查表（誤差 ≤ FastMath.MAX_ERROR）；false → Math.sin/cos 精確值
+ *
+ * 資料存放：
+ * - 狀態實際存在 CarFleet 的陣列裡，Car 只是「某個 slot 的 view」（不複製資料）
+ * - new Car() → 自帶容量 1 的車隊，用 slot 0（單台車的用法與以前完全相同）
+ * - new Car(fleet, slot) → 大量 AI 車時，由 fleet.update(count) 一次批次更新
+ *
+ * 座標系：
+ *   0° = 正下方（Y+ 方向）
+ *   正值 = 右轉（順時針）
+ *   負值 = 左轉（逆時針）
+ */
+public class Car {
+
+    private final CarFleet fleet;   // 實際儲存狀態的車隊
+    private final int slot;         // 在車隊中的索引
+
+    // ===== 尺寸 =====
+    private final float width;      // 車寬（從 GameConfig 讀取）
+    private final float height;     // 車高（從 GameConfig 讀取）
+
+    /**
+     * 建構子：初始化物理參數（三角函數實作依 GameConfig.CAR_FAST_TRIG）
+     * 位置稍後由 GameWorld.resize() 設定
+     */
+    public Car() {
+        this(GameConfig.CAR_FAST_TRIG);
+    }
+
+    /**
+     * @param fastTrig true = FastMath 查表，false = Math.sin/cos（精確，測試與基準比較用）
+     */
+    public Car(boolean fastTrig) {
+        this(new CarFleet(1, fastTrig), 0);
+    }
+
+    /**
+     * 車隊中某個 slot 的 view
+     *
+     * @param fleet 車隊（物理參數、三角函數實作由車隊決定）
+     * @param slot  0 ~ fleet.getCapacity()-1
+     */
+    public Car(CarFleet fleet, int slot) {
+        if (slot < 0 || slot >= fleet.getCapacity()) {
+            throw new IndexOutOfBoundsException("slot " + slot + " out of fleet capacity " + fleet.getCapacity());
+        }
+        this.fleet = fleet;
+        this.slot = slot;
+        // 從 GameConfig 讀取常數（消除魔術數字）
+        this.width = GameConfig.CAR_WIDTH;
+        this.height = GameConfig.CAR_HEIGHT;
+    }
+
+    /**
+     * 每個固定步長的物理計算（核心物理引擎）
+     *
+     * 執行順序（實作在 CarFleet.update，這裡只更新自己這個 slot）：
+     * 0. 記錄上一步狀態（給繪製插值用）
+     * 1. 轉向平滑（Lerp）：angle += (steeringAngle - angle) × 0.15
+     *    → 按下按鈕後角度漸變，不會瞬間轉向
+     * 2. 角度 → X 方向速度分量（sin）
+     *    angle=0° → sin=0 → 直行；angle=±30° → sin=±0.5 → 一半速度往右/左
+     * 3. 更新 X 位置（左右移動）
+     *
+     * 注意：Y 軸不移動 — 前進感由 Road 虛線滾動提供
+     * 同一個車隊有很多台車時，請改用 fleet.update(count) 一次更新全部
+     */
+    public void update() {
+        fleet.update(slot, slot + 1);
+    }
+
+    // ===== 轉向控制（由 GameWorld 在模擬執行緒上呼叫，來源是 MainActivity 按鈕） =====
+
+    /** 按下左按鈕 → 設定目標轉向角為負值（左轉） */
+    public void moveLeft() {
+        fleet.setSteeringAngle(slot, -GameConfig.CAR_MAX_STEER_ANGLE);
+    }
+
+    /** 按下右按鈕 → 設定目標轉向角為正值（右轉） */
+    public void moveRight() {
+        fleet.setSteeringAngle(slot, GameConfig.CAR_MAX_STEER_ANGLE);
+    }
+
+    /** 放開按鈕 → 方向盤回正（目標角度歸零） */
+    public void stopSteering() {
+        fleet.setSteeringAngle(slot, 0f);
+    }
+
+    // ===== Getter/Setter（碰撞偵測、繪製和初始化用） =====
+
+    public float getX() { return fleet.getX(slot); }
+    public float getY() { return fleet.getY(slot); }
+    public float getAngle() { return fleet.getAngle(slot); }
+    public float getAngleSin() { return fleet.getAngleSin(slot); }  // sin(angle)，與 angle 同步更新
+    public float getAngleCos() { return fleet.getAngleCos(slot); }  // cos(angle)
+    public boolean isFastTrig() { return fleet.isFastTrig(); }
+    public float getSteeringAngle() { return fleet.getSteeringAngle(slot); }
+    public float getWidth() { return width; }
+    public float getHeight() { return height; }
+    public CarFleet getFleet() { return fleet; }
+    public int getSlot() { return slot; }
+
+    /** 取得插值後的 X 座標（繪製用：0 = 上一步，1 = 目前） */
+    public float getInterpolatedX(float alpha) {
+        float prevX = fleet.getPrevX(slot);
+        return prevX + (fleet.getX(slot) - prevX) * alpha;
+    }
+
+    /** 取得插值後的車頭角度（繪製用：0 = 上一步，1 = 目前） */
+    public float getInterpolatedAngle(float alpha) {
+        float prevAngle = fleet.getPrevAngle(slot);
+        return prevAngle + (fleet.getAngle(slot) - prevAngle) * alpha;
+    }
+
+    /** 設定 X 座標（碰撞偵測修正用） */
+    public void setX(float x) { fleet.setX(slot, x); }
+
+    /** 設定初始位置（由 GameWorld.resize 呼叫） */
+    public void setPosition(float x, float y) {
+        fleet.setPosition(slot, x, y);  // 瞬移：不在舊位置和新位置之間插值
+    }
+
+    /**
+     * 旋轉後車身在 X 軸上的投影半徑（碰撞邊界用）
+     * 0° 時 = width/2；30° 時 ≈ 0.87·width/2 + 0.5·height/2（車角比車身中段更外側）
+     */
+    public float getHalfExtentX() {
+        return Math.abs(getAngleCos()) * width / 2f + Math.abs(getAngleSin()) * height / 2f;
+    }
+
+    /**
+     * 取得碰撞框（AABB — 包住旋轉後車身的軸對齊包圍盒）
+     * 精確的旋轉碰撞請用 OrientedBox.setFromCar() + intersects()
+     *
+     * 每次呼叫都配置一個新的 Aabb → 只給測試與一次性用途；
+     * 每 tick 的熱路徑請用 getBounds(Aabb out)（ZeroAllocationTest 會抓到熱路徑上的配置）
+     */
+    public Aabb getBounds() {
+        Aabb bounds = new Aabb();
+        getBounds(bounds);
+        return bounds;
+    }
+
+    /**
+     * 取得碰撞框，寫入呼叫端提供的 Aabb（每幀呼叫也不配置新物件）
+     */
+    public void getBounds(Aabb out) {
+        float absCos = Math.abs(getAngleCos());
+        float absSin = Math.abs(getAngleSin());
+        float extentX = absCos * width / 2f + absSin * height / 2f;
+        float extentY = absSin * width / 2f + absCos * height / 2f;
+        float x = getX();
+        float centerY = getY() + height / 2f;  // 旋轉軸心 = 幾何中心
+        out.set(x - extentX, centerY - extentY, x + extentX, centerY + extentY);
+    }
+}
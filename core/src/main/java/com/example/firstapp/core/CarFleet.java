@@ -0,0 +1,180 @@
+package com.example.firstapp.core;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 車隊資料（Struct of Arrays：每個欄位一條 float[]，第 i 台車 = 每條陣列的第 i 格）
+ *
+ * 為什麼不用 Car[]：
+ * - Car[] 是指標陣列 → 每台車的欄位散在 heap 各處，批次更新時一直 cache miss
+ * - 這裡同一個欄位連續排列 → update(count) 循序掃描，硬體預取 + JIT 自動向量化（SIMD）
+ * - 類比後端：欄式資料庫（Columnar Store）vs 列式 — 整欄掃描比逐筆讀物件快得多
+ *
+ * 物理模型與 Car 完全相同（Lerp 轉向 → sin 分解 → 只改 X），同一組輸入結果逐位元相同
+ * Car 本身只是 slot 的 view（見 Car），單台車的 API 完全不變
+ *
+ * 批次更新分成三段迴圈，而不是一個大迴圈：
+ * 1. 保存上一步 + Lerp：純 float 四則運算 → 可以向量化
+ * 2. sin/cos：查表（gather）或 Math 呼叫 → 無法向量化，獨立出來不拖累其他段
+ * 3. x += speed × sin：純 float 運算 → 可以向量化
+ *
+ * 不是執行緒安全的 — 只在模擬執行緒上更新
+ */
+public class CarFleet {
+
+    private final int capacity;     // 最大車輛數
+    private final boolean fastTrig; // true = FastMath 查表，false = Math 精確計算
+
+    // ===== 每台車的狀態（Struct of Arrays） =====
+    private final float[] x;             // 中心 X 座標
+    private final float[] y;             // 頂部 Y 座標
+    private final float[] prevX;         // 上一步的 X（繪製插值用）
+    private final float[] angle;         // 車頭角度（度，0° = 正下方）
+    private final float[] prevAngle;     // 上一步的角度（繪製插值用）
+    private final float[] steeringAngle; // 目標轉向角度
+    private final float[] speed;         // 前進速度（像素/tick）
+    private final float[] angleSin;      // sin(angle)（update 時計算）
+    private final float[] angleCos;      // cos(angle)
+
+    /**
+     * @param capacity 最大車輛數（一次配置，之後不擴容）
+     * @param fastTrig true = FastMath 查表，false = Math.sin/cos
+     */
+    public CarFleet(int capacity, boolean fastTrig) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        this.capacity = capacity;
+        this.fastTrig = fastTrig;
+        x = new float[capacity];
+        y = new float[capacity];
+        prevX = new float[capacity];
+        angle = new float[capacity];
+        prevAngle = new float[capacity];
+        steeringAngle = new float[capacity];
+        speed = new float[capacity];
+        angleSin = new float[capacity];
+        angleCos = new float[capacity];
+        for (int i = 0; i < capacity; i++) {
+            speed[i] = GameConfig.CAR_SPEED;
+            angleCos[i] = 1f;             // angle = 0° → cos = 1
+        }
+    }
+
+    /** 三角函數實作依 GameConfig.CAR_FAST_TRIG */
+    public CarFleet(int capacity) {
+        this(capacity, GameConfig.CAR_FAST_TRIG);
+    }
+
+    /**
+     * 批次更新前 count 台車（slot 0 ~ count-1）
+     * 結果與對每個 slot 呼叫 update(slot) 逐位元相同
+     */
+    public void update(int count) {
+        update(0, count);
+    }
+
+    /**
+     * 批次更新 slot [from, to)（平行更新時每個工作者負責一段）
+     */
+    public void update(int from, int to) {
+        final float lerp = GameConfig.CAR_STEER_LERP;
+
+        // ===== Pass 1: 保存上一步 + 轉向 Lerp（可向量化） =====
+        for (int i = from; i < to; i++) {
+            prevX[i] = x[i];
+            prevAngle[i] = angle[i];
+            angle[i] += (steeringAngle[i] - angle[i]) * lerp;
+        }
+
+        // ===== Pass 2: sin/cos（每台車每 tick 一次） =====
+        if (fastTrig) {
+            for (int i = from; i < to; i++) {
+                angleSin[i] = FastMath.sinDeg(angle[i]);
+                angleCos[i] = FastMath.cosDeg(angle[i]);
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                double radians = Math.toRadians(angle[i]);
+                angleSin[i] = (float) Math.sin(radians);
+                angleCos[i] = (float) Math.cos(radians);
+            }
+        }
+
+        // ===== Pass 3: 只更新 X（可向量化；Y 軸不動，前進感由 Road 捲動提供） =====
+        for (int i = from; i < to; i++) {
+            x[i] += speed[i] * angleSin[i];
+        }
+    }
+
+    // ===== 單台車存取（Car view 與初始化用） =====
+
+    public int getCapacity() { return capacity; }
+    public boolean isFastTrig() { return fastTrig; }
+
+    public float getX(int slot) { return x[slot]; }
+    public float getY(int slot) { return y[slot]; }
+    public float getPrevX(int slot) { return prevX[slot]; }
+    public float getAngle(int slot) { return angle[slot]; }
+    public float getPrevAngle(int slot) { return prevAngle[slot]; }
+    public float getSteeringAngle(int slot) { return steeringAngle[slot]; }
+    public float getSpeed(int slot) { return speed[slot]; }
+    public float getAngleSin(int slot) { return angleSin[slot]; }
+    public float getAngleCos(int slot) { return angleCos[slot]; }
+
+    public void setX(int slot, float value) { x[slot] = value; }
+    public void setSteeringAngle(int slot, float value) { steeringAngle[slot] = value; }
+    public void setSpeed(int slot, float value) { speed[slot] = value; }
+
+    /**
+     * 還原轉向相關的狀態（連線對戰的伺服器校正：回到伺服器的狀態再重跑之後的輸入）
+     * sin/cos 用與 update() 相同的實作重算 → 之後的 update / clampToRoad 與從未離開過這個狀態一樣
+     */
+    public void restore(int slot, float x, float angle, float steeringAngle) {
+        this.x[slot] = x;
+        this.angle[slot] = angle;
+        this.steeringAngle[slot] = steeringAngle;
+        if (fastTrig) {
+            angleSin[slot] = FastMath.sinDeg(angle);
+            angleCos[slot] = FastMath.cosDeg(angle);
+        } else {
+            double radians = Math.toRadians(angle);
+            angleSin[slot] = (float) Math.sin(radians);
+            angleCos[slot] = (float) Math.cos(radians);
+        }
+    }
+
+    // ===== 狀態快照（GameWorld.saveState / restoreState） =====
+
+    /** 每台車在快照中的 bytes（9 個 float，sin/cos 也存 → 還原後不必重算，逐位元相同） */
+    static final int STATE_BYTES_PER_CAR = 9 * 4;
+
+    /** 寫入 slot 0 ~ count-1 的完整狀態（固定長度） */
+    void writeState(ByteBuffer out, int count) {
+        for (int i = 0; i < count; i++) {
+            out.putFloat(x[i]).putFloat(y[i]).putFloat(prevX[i])
+                    .putFloat(angle[i]).putFloat(prevAngle[i]).putFloat(steeringAngle[i])
+                    .putFloat(speed[i]).putFloat(angleSin[i]).putFloat(angleCos[i]);
+        }
+    }
+
+    /** writeState 的反向 */
+    void readState(ByteBuffer in, int count) {
+        for (int i = 0; i < count; i++) {
+            x[i] = in.getFloat();
+            y[i] = in.getFloat();
+            prevX[i] = in.getFloat();
+            angle[i] = in.getFloat();
+            prevAngle[i] = in.getFloat();
+            steeringAngle[i] = in.getFloat();
+            speed[i] = in.getFloat();
+            angleSin[i] = in.getFloat();
+            angleCos[i] = in.getFloat();
+        }
+    }
+
+    /** 瞬移到 (x, y)：上一步位置也一起設定 → 不在舊位置和新位置之間插值 */
+    public void setPosition(int slot, float x, float y) {
+        this.x[slot] = x;
+        this.y[slot] = y;
+        this.prevX[slot] = x;
+    }
+}
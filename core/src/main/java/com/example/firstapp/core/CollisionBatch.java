@@ -0,0 +1,51 @@
+package com.example.firstapp.core;
+
+/**
+ * 一個 tick 的碰撞結果（成對的實體 id，批次回報）
+ *
+ * 預先配置固定容量的 int 陣列，每個 tick 開頭 clear() 重用 → 不配置記憶體
+ * 超過容量的配對會被丟棄並設定 overflow 旗標（由呼叫端決定要不要加大容量）
+ */
+public final class CollisionBatch {
+
+    private final int[] first;   // 配對中的第一個 id
+    private final int[] second;  // 配對中的第二個 id
+    private int count;           // 本 tick 的配對數
+    private boolean overflow;    // 是否有配對因容量不足被丟棄
+
+    public CollisionBatch(int capacity) {
+        first = new int[capacity];
+        second = new int[capacity];
+    }
+
+    /** 清空（每個 tick 開頭呼叫） */
+    public void clear() {
+        count = 0;
+        overflow = false;
+    }
+
+    /** 加入一個配對；容量已滿時回傳 false */
+    public boolean add(int a, int b) {
+        if (count == first.length) {
+            overflow = true;
+            return false;
+        }
+        first[count] = a;
+        second[count] = b;
+        count++;
+        return true;
+    }
+
+    public int size() { return count; }
+    public int getFirst(int i) { return first[i]; }
+    public int getSecond(int i) { return second[i]; }
+    public boolean isOverflow() { return overflow; }
+    public int capacity() { return first.length; }
+
+    /** 配對 i 是否包含 id；包含時回傳另一方，否則回傳 -1 */
+    public int otherOf(int i, int id) {
+        if (first[i] == id) return second[i];
+        if (second[i] == id) return first[i];
+        return -1;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.firstapp.core;
+
+/**
+ * 碰撞偵測器（職責單一：只負責碰撞邏輯）
+ *
+ * 目前實作：
+ * - 道路邊界碰撞（clampToRoad）— 使用旋轉後車角的實際位置
+ * - 車輛 vs 障礙物（hitsObstacle）— OBB 分離軸測試，先做 AABB 提早排除
+ * - 連續碰撞（hitsObstacleSwept / sweptHit）— 一個 tick 內位移很大時，掃掠 AABB 求進入/離開時間，
+ *   再在重疊區間內分子步做 OBB 測試 → 高速時薄物體不會被直接「穿過去」
+ * Broad Phase（哪些配對需要檢查）由 SpatialGrid 負責
+ *
+ * 類比後端：類似 Validator 工具類 — 靜態方法、無狀態
+ */
+public class CollisionDetector {
+
+    // ===== clampToRoad 的回傳值（這一步是否被路邊推回） =====
+    public static final int CLAMP_NONE = 0;   // 沒碰到路邊
+    public static final int CLAMP_LEFT = -1;  // 被左邊界推回
+    public static final int CLAMP_RIGHT = 1;  // 被右邊界推回
+
+    /**
+     * 道路邊界碰撞：確保車輛不會開出道路
+     *
+     * 邏輯：
+     * - 如果車輛最左的車角 < 道路左邊界 → 修正 car.x（貼齊左邊界）
+     * - 如果車輛最右的車角 > 道路右邊界 → 修正 car.x（貼齊右邊界）
+     *
+     * 旋轉後最外側車角離中心的水平距離 = |cos|·半寬 + |sin|·半高（而不是 width/2）
+     * → 轉向 ±30° 時，視覺上的車角剛好停在路邊，不會插進草地也不會提早被推回
+     *
+     * 效果：車輛碰到道路邊緣就被「推回去」，不會開到草地上
+     *
+     * 高速也不會穿牆：路邊外側是半平面（草地沒有「另一邊」），移動後直接投影回路面
+     * 就等於沿路徑求撞擊時間再停在接觸點 → 不需要掃掠或子步
+     *
+     * 邊界在「車輛中心的高度」查詢（程序化道路會彎、會變寬變窄；直路則是兩個常數）
+     * 查詢是 O(1)：距離 → 路段編號 → ring buffer 索引
+     *
+     * @param car  車輛實體（讀取 x、angle 和尺寸，可能修正 x）
+     * @param road 道路實體（依車輛高度提供左右邊界）
+     * @return 被哪一邊推回（CLAMP_NONE / CLAMP_LEFT / CLAMP_RIGHT），給擦牆火花等效果使用
+     */
+    public static int clampToRoad(Car car, Road road) {
+        float halfW = car.getHalfExtentX();  // 旋轉後的半寬（車輛以中心座標定位）
+        float centerY = car.getY() + car.getHeight() / 2f;
+        float left = road.getLeftEdgeAt(centerY);
+        float right = road.getRightEdgeAt(centerY);
+
+        // 檢查左邊界：車輛左邊緣 = car.x - halfW
+        if (car.getX() - halfW < left) {
+            car.setX(left + halfW);   // 貼齊左邊界
+            return CLAMP_LEFT;
+        }
+
+        // 檢查右邊界：車輛右邊緣 = car.x + halfW
+        if (car.getX() + halfW > right) {
+            car.setX(right - halfW);  // 貼齊右邊界
+            return CLAMP_RIGHT;
+        }
+        return CLAMP_NONE;
+    }
+
+    /**
+     * 車輛（旋轉 OBB）是否撞到障礙物
+     *
+     * @param carBox    已 setFromCar() 的車輛 OBB（呼叫端重複使用）
+     * @param obstacles 車流物件池
+     * @param slot      障礙物 slot
+     * @param scratch   呼叫端提供的暫存 Aabb（避免每次 new）
+     */
+    public static boolean hitsObstacle(OrientedBox carBox, ObstaclePool obstacles, int slot, Aabb scratch) {
+        obstacles.getBounds(slot, scratch);
+        return carBox.intersects(scratch);  // 內含 AABB 提早排除
+    }
+
+    /**
+     * 車輛是否在這個 tick 內撞到障礙物（連續碰撞：考慮兩者整個 tick 的路徑）
+     *
+     * 車輛只有 X 位移、障礙物只有 Y 位移 → 在障礙物的座標系裡，車輛走一條直線：
+     * 相對位移 = (車輛 dx, −障礙物 dy)，終點 = 目前位置
+     *
+     * @param carBox 已 setFromCar() 的車輛 OBB（tick 結束時的位置；函式返回前會還原）
+     * @param carDx  車輛這個 tick 的 X 位移
+     * @param hit    呼叫端提供的暫存陣列（長度 ≥ 2）
+     */
+    public static boolean hitsObstacleSwept(OrientedBox carBox, float carDx, ObstaclePool obstacles, int slot,
+                                            Aabb scratch, float[] hit) {
+        obstacles.getBounds(slot, scratch);
+        float obstacleDy = obstacles.getY(slot) - obstacles.getPrevY(slot);
+        return sweptHit(carBox, carDx, -obstacleDy, scratch, hit);
+    }
+
+    /**
+     * 連續碰撞：OBB 沿 (dx, dy) 移動到目前位置的路上，是否碰到靜止的 AABB
+     *
+     * 1. 位移不超過 CCD_SUBSTEP_DISTANCE → 離散測試（只測終點，與 hitsObstacle 相同）
+     * 2. 掃掠 AABB（起點的包圍盒沿位移移動）→ 兩個包圍盒重疊的時間區間 [tEnter, tExit]
+     *    沒有重疊區間 → 不可能相撞（大部分配對在這裡就結束）
+     * 3. 在重疊區間內取 n 個子步做 OBB 分離軸測試（每步移動 ≤ CCD_SUBSTEP_DISTANCE，
+     *    n ≤ CCD_MAX_SUBSTEPS）→ 第一個相交的子步就是撞擊時間
+     *
+     * 子步的移動距離小於最薄物體的一半 → 不會整個跳過；只可能漏掉比一個子步更短的擦邊
+     * 車身角度用 tick 結束時的值（一個 tick 內最多轉 CAR_STEER_LERP 比例，影響可忽略）
+     * 終點一定會被取樣 → 離散測試相交的配對，連續測試也一定相交
+     *
+     * @param box 移動的 OBB（終點位置；函式返回前會還原）
+     * @param dx  這個 tick 的 X 位移（起點 = 終點 − dx）
+     * @param dy  這個 tick 的 Y 位移
+     * @param hit 輸出：hit[0] = 撞擊時間（0 = 起點，1 = 終點），hit[1] = 使用的子步數
+     */
+    public static boolean sweptHit(OrientedBox box, float dx, float dy, Aabb target, float[] hit) {
+        float distance = Math.max(Math.abs(dx), Math.abs(dy));
+        if (distance <= GameConfig.CCD_SUBSTEP_DISTANCE) {
+            hit[0] = 1f;
+            hit[1] = 1f;
+            return box.intersects(target);
+        }
+
+        // ===== 掃掠 AABB：每一軸各自求進入/離開時間，取交集 =====
+        float endX = box.cx;
+        float endY = box.cy;
+        float startX = endX - dx;
+        float startY = endY - dy;
+        float ex = box.extentX();
+        float ey = box.extentY();
+        float tEnter = 0f;
+        float tExit = 1f;
+
+        if (dx != 0f) {
+            float t0 = (target.left - ex - startX) / dx;
+            float t1 = (target.right + ex - startX) / dx;
+            tEnter = Math.max(tEnter, Math.min(t0, t1));
+            tExit = Math.min(tExit, Math.max(t0, t1));
+        } else if (startX + ex <= target.left || startX - ex >= target.right) {
+            return false;
+        }
+        if (dy != 0f) {
+            float t0 = (target.top - ey - startY) / dy;
+            float t1 = (target.bottom + ey - startY) / dy;
+            tEnter = Math.max(tEnter, Math.min(t0, t1));
+            tExit = Math.min(tExit, Math.max(t0, t1));
+        } else if (startY + ey <= target.top || startY - ey >= target.bottom) {
+            return false;
+        }
+        if (tEnter > tExit) return false;                  // 包圍盒從未重疊
+
+        // ===== 重疊區間內分子步做 OBB 測試 =====
+        int steps = (int) Math.ceil((tExit - tEnter) * distance / GameConfig.CCD_SUBSTEP_DISTANCE);
+        steps = Math.max(1, Math.min(steps, GameConfig.CCD_MAX_SUBSTEPS));
+        boolean collided = false;
+        for (int i = 0; i <= steps; i++) {
+            float t = i == steps ? tExit : tEnter + (tExit - tEnter) * i / steps;
+            box.cx = t == 1f ? endX : startX + dx * t;     // 終點用原值（避免捨入誤差讓離散相交的配對漏掉）
+            box.cy = t == 1f ? endY : startY + dy * t;
+            if (box.intersects(target)) {
+                hit[0] = t;
+                collided = true;
+                break;
+            }
+        }
+        hit[1] = steps;
+        box.cx = endX;                                     // 還原終點（呼叫端繼續使用）
+        box.cy = endY;
+        return collided;
+    }
+}
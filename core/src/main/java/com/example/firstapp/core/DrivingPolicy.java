@@ -0,0 +1,167 @@
+package com.example.firstapp.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * AI 駕駛策略（小型前饋神經網路：感測值 → 隱藏層 tanh → 三個動作分數，取最大）
+ *
+ * 網路只是一串 float（genome）：
+ *   [隱藏層權重 HIDDEN × INPUTS][隱藏層偏差 HIDDEN][輸出層權重 ACTIONS × HIDDEN][輸出層偏差 ACTIONS]
+ * → PolicyTrainer 直接對這個陣列做突變/選擇，不需要反向傳播
+ *
+ * 感測值的定義在 PolicyDriver.sense()；動作 = 呼叫 Car 的 moveLeft / stopSteering / moveRight
+ *
+ * 二進位格式（big-endian，437 bytes → 直接放進 APK 的 assets）：
+ *   int MAGIC, short VERSION, byte INPUTS, byte HIDDEN, byte ACTIONS, float × 參數數
+ * 尺寸寫在檔頭：改了網路結構後，舊檔案會被拒絕而不是讀成錯的權重
+ *
+ * 不可變（建構時複製 genome）→ 多個 PolicyDriver / 訓練執行緒可以共用同一個實例
+ * act() 需要呼叫端提供 hidden scratch → 每 tick 0 配置
+ *
+ * 類比後端：序列化好的 ML 模型檔（例如 ONNX）— 訓練在離線環境做，服務端只載入做推論
+ */
+public final class DrivingPolicy {
+
+    // ===== 動作 =====
+    public static final int ACTION_LEFT = 0;     // car.moveLeft()
+    public static final int ACTION_CENTER = 1;   // car.stopSteering()
+    public static final int ACTION_RIGHT = 2;    // car.moveRight()
+
+    // ===== 網路結構 =====
+    public static final int INPUTS = 9;          // 感測值數（PolicyDriver.sense）
+    public static final int HIDDEN = 8;          // 隱藏層神經元數
+    public static final int ACTIONS = 3;         // 輸出動作數
+    /** genome 長度（權重 + 偏差） */
+    public static final int PARAMETER_COUNT = HIDDEN * INPUTS + HIDDEN + ACTIONS * HIDDEN + ACTIONS;
+
+    static final int MAGIC = 0x46504F4C;         // "FPOL"
+    static final short VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 2 + 3;
+
+    private final float[] genome;
+
+    /**
+     * @param genome 長度 PARAMETER_COUNT 的參數（會複製一份）
+     */
+    public DrivingPolicy(float[] genome) {
+        if (genome.length != PARAMETER_COUNT) {
+            throw new IllegalArgumentException("genome length " + genome.length + " != " + PARAMETER_COUNT);
+        }
+        this.genome = genome.clone();
+    }
+
+    /**
+     * 推論：感測值 → 動作
+     *
+     * @param inputs 長度 INPUTS 的感測值（約 -1 ~ 1）
+     * @param hidden 長度 HIDDEN 的 scratch（呼叫端預先配置）
+     * @return ACTION_LEFT / ACTION_CENTER / ACTION_RIGHT（同分時取索引小的）
+     */
+    public int act(float[] inputs, float[] hidden) {
+        final float[] g = genome;
+        int w = 0;
+        int b = HIDDEN * INPUTS;
+        for (int h = 0; h < HIDDEN; h++) {
+            float sum = g[b + h];
+            for (int i = 0; i < INPUTS; i++) {
+                sum += g[w++] * inputs[i];
+            }
+            hidden[h] = (float) Math.tanh(sum);
+        }
+
+        w = b + HIDDEN;
+        b = w + ACTIONS * HIDDEN;
+        int best = 0;
+        float bestScore = Float.NEGATIVE_INFINITY;
+        for (int a = 0; a < ACTIONS; a++) {
+            float score = g[b + a];
+            for (int h = 0; h < HIDDEN; h++) {
+                score += g[w++] * hidden[h];
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                best = a;
+            }
+        }
+        return best;
+    }
+
+    /** 參數的複本（訓練時突變用） */
+    public float[] getGenome() {
+        return genome.clone();
+    }
+
+    // ===== 二進位格式 =====
+
+    /** 編碼成二進位（檔頭 + 參數） */
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + PARAMETER_COUNT * 4);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.put((byte) INPUTS);
+        buffer.put((byte) HIDDEN);
+        buffer.put((byte) ACTIONS);
+        for (float v : genome) buffer.putFloat(v);
+        return buffer.array();
+    }
+
+    /**
+     * 解碼
+     *
+     * @throws IOException 不是策略檔、版本不支援、網路結構不符或長度不足
+     */
+    public static DrivingPolicy fromBytes(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a driving policy");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) throw new IOException("Unsupported driving policy version " + version);
+        int inputs = buffer.get();
+        int hidden = buffer.get();
+        int actions = buffer.get();
+        if (inputs != INPUTS || hidden != HIDDEN || actions != ACTIONS) {
+            throw new IOException("Policy shape " + inputs + "x" + hidden + "x" + actions
+                    + " does not match " + INPUTS + "x" + HIDDEN + "x" + ACTIONS);
+        }
+        if (buffer.remaining() < PARAMETER_COUNT * 4) throw new IOException("Truncated driving policy");
+        float[] genome = new float[PARAMETER_COUNT];
+        for (int i = 0; i < genome.length; i++) genome[i] = buffer.getFloat();
+        return new DrivingPolicy(genome);
+    }
+
+    /** 從串流讀取（例如 Android 的 AssetManager.open）；不會關閉串流 */
+    public static DrivingPolicy read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(HEADER_SIZE + PARAMETER_COUNT * 4);
+        byte[] chunk = new byte[512];
+        int n;
+        while ((n = in.read(chunk)) != -1) out.write(chunk, 0, n);
+        return fromBytes(out.toByteArray());
+    }
+
+    /** 寫到檔案（覆寫） */
+    public void write(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(toBytes());
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DrivingPolicy && Arrays.equals(genome, ((DrivingPolicy) o).genome);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(genome);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.firstapp.core;
+
+/**
+ * 快速三角函數（float 查表 + 線性內插，角度單位 = 度）
+ *
+ * 為什麼需要：
+ * - Car.update() 每 tick 都做 Math.toRadians + Math.sin（double 運算 + 轉型回 float）
+ * - 一台車無感，但同一套模型跑幾百台 AI 車時，三角函數就變成可量測的成本
+ *   （Math.sin 要做精確的引數化簡，JIT 也不一定換成硬體指令）
+ *
+ * 作法：
+ * - 建表：一圈 360° 切成 TABLE_SIZE = 4096 格，存 sin 值（多一格方便內插，不用檢查邊界）
+ * - 查表：角度 × (4096/360) → 整數部分取索引（& 遮罩 = 免費的 mod 360°），小數部分做線性內插
+ * - cos(θ) = sin(θ + 90°) → 同一張表，偏移 1/4 圈（1024 格）
+ *
+ * 誤差（與 Math.sin 比較，[-360°, 360°] 每 0.001° 掃描驗證，見 FastMathTest）：
+ * - 線性內插誤差上界 = h²/8，h = 2π/4096 → 約 2.9e-7
+ * - 加上 float 捨入 → MAX_ERROR = 5e-7（絕對誤差）
+ * - |角度| 超過 360° 時，float 輸入本身的精度下降，誤差會跟著變大（車輛角度只在 ±30° 內）
+ * - 對 Car 來說：速度 5 px/tick × 5e-7 = 每 tick 最多 2.5e-6 px，跑一小時也不到 1 px
+ *
+ * 表只有 16 KB，建構一次、唯讀 → 多執行緒共用安全
+ * 類比後端：快取預先計算的結果（Cache-Aside），用記憶體換 CPU
+ */
+public final class FastMath {
+
+    private static final int TABLE_BITS = 12;
+    private static final int TABLE_SIZE = 1 << TABLE_BITS;     // 一圈 4096 格
+    private static final int TABLE_MASK = TABLE_SIZE - 1;      // 取餘數用（& 取代 %）
+    private static final int QUARTER_TURN = TABLE_SIZE / 4;    // 90° 對應的格數
+    private static final float INDEX_PER_DEGREE = TABLE_SIZE / 360f;
+
+    /** |degrees| ≤ 360 時，與 Math.sin/cos 相比的最大絕對誤差（FastMathTest 驗證） */
+    public static final float MAX_ERROR = 5e-7f;
+
+    private static final float[] SIN_TABLE = new float[TABLE_SIZE + 1]; // 最後一格 = 第 0 格（內插時不用回捲）
+
+    static {
+        for (int i = 0; i <= TABLE_SIZE; i++) {
+            SIN_TABLE[i] = (float) Math.sin(i * 2.0 * Math.PI / TABLE_SIZE);
+        }
+    }
+
+    private FastMath() {} // 防止實例化（工具類模式）
+
+    /** sin(degrees)，任意角度（負值、超過 360° 都可以） */
+    public static float sinDeg(float degrees) {
+        return lookup(degrees * INDEX_PER_DEGREE, 0);
+    }
+
+    /** cos(degrees) = sin(degrees + 90°) */
+    public static float cosDeg(float degrees) {
+        return lookup(degrees * INDEX_PER_DEGREE, QUARTER_TURN);
+    }
+
+    /**
+     * 查表 + 線性內插
+     *
+     * @param position 以「格」為單位的位置（可為負）
+     * @param offset   額外偏移的格數（cos 用 1/4 圈）
+     */
+    private static float lookup(float position, int offset) {
+        int whole = (int) position;
+        if (position < whole) whole--;               // 負數也要向下取整（(int) 是向 0 取整）
+        float fraction = position - whole;
+        int index = (whole + offset) & TABLE_MASK;   // 負數的補數 & 遮罩 = 正確的 mod
+        float a = SIN_TABLE[index];
+        return a + (SIN_TABLE[index + 1] - a) * fraction;
+    }
+}
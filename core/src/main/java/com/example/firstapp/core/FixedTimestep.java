@@ -0,0 +1,113 @@
+package com.example.firstapp.core;
+
+/**
+ * 固定步長累加器（Fixed Timestep + Accumulator）
+ *
+ * 問題：
+ * - 舊版 postDelayed(16ms) 每呼叫一次 onUpdate() 就前進固定距離
+ * - 迴圈間隔會被 update/draw 耗時拉長 → 物理速度取決於 UI 執行緒有多忙
+ * - 60/90/120 Hz 螢幕的遊戲速度也會不同
+ *
+ * 解法：
+ * - 每個 VSYNC 帶入「真實經過時間」累加到 accumulator
+ * - accumulator 每滿一個 stepNanos 就執行一次 onUpdate()（固定模擬頻率）
+ * - 剩下不足一步的時間 → alpha = 剩餘 / stepNanos，交給繪製做插值
+ *
+ * 類比後端：類似 Token Bucket 限流 — 時間是 token，每次 update 消耗一個 step
+ *
+ * 純 Java 類別（不依賴 Android），可以在 JVM 單元測試中用假時鐘驅動
+ */
+public class FixedTimestep {
+
+    /**
+     * 回呼介面：每個模擬步長呼叫一次
+     * 類比 Spring 的 @EventListener — 事件驅動模式
+     */
+    public interface Callback {
+        void onUpdate();  // 每個固定步長回呼（由 GameWorld 實作）
+    }
+
+    private static final long NO_FRAME = Long.MIN_VALUE; // 尚未收到第一幀的標記
+
+    private final long stepNanos;     // 每個模擬步長（奈秒）
+    private final int maxSubSteps;    // 單幀最多追趕幾步（防止「死亡螺旋」）
+
+    private long lastFrameNanos = NO_FRAME; // 上一幀的時間戳
+    private long accumulator = 0L;          // 尚未消化的時間（奈秒）
+    private float alpha = 0f;               // 插值係數（0 ~ 1）
+    private long droppedSteps = 0L;         // 超過 maxSubSteps 而被丟棄的步數（統計用）
+
+    /**
+     * 建構子
+     * @param stepNanos   每個模擬步長（奈秒），例如 1e9 / 60
+     * @param maxSubSteps 單幀最多執行幾次 onUpdate()
+     */
+    public FixedTimestep(long stepNanos, int maxSubSteps) {
+        if (stepNanos <= 0) throw new IllegalArgumentException("stepNanos must be > 0");
+        if (maxSubSteps <= 0) throw new IllegalArgumentException("maxSubSteps must be > 0");
+        this.stepNanos = stepNanos;
+        this.maxSubSteps = maxSubSteps;
+    }
+
+    /**
+     * 推進時鐘到 frameTimeNanos，並依累積時間執行 0 ~ maxSubSteps 次 onUpdate()
+     *
+     * 執行流程：
+     * 1. 第一幀只記錄時間（沒有 delta 可以用）
+     * 2. accumulator += 本幀經過時間
+     * 3. while (accumulator >= step) → onUpdate()，最多 maxSubSteps 次
+     * 4. 追不完的時間直接丟棄（只保留不足一步的餘數），避免下一幀繼續爆量追趕
+     * 5. alpha = accumulator / step
+     *
+     * @param frameTimeNanos 本幀時間戳（Choreographer 的 VSYNC 時間或假時鐘）
+     * @param callback       每個模擬步長要呼叫的對象
+     * @return 本幀實際執行的步數
+     */
+    public int advance(long frameTimeNanos, Callback callback) {
+        if (lastFrameNanos == NO_FRAME) {
+            lastFrameNanos = frameTimeNanos;  // 第一幀：只對齊時間基準
+            return 0;
+        }
+
+        long delta = frameTimeNanos - lastFrameNanos;
+        lastFrameNanos = frameTimeNanos;
+        if (delta > 0) {
+            accumulator += delta;             // 時間倒退（不該發生）就當作 0
+        }
+
+        int steps = 0;
+        while (accumulator >= stepNanos && steps < maxSubSteps) {
+            callback.onUpdate();              // 固定步長模擬
+            accumulator -= stepNanos;
+            steps++;
+        }
+
+        // 追趕上限：剩下的整數步直接丟棄（卡頓後遊戲「慢一拍」，而不是瞬移）
+        if (accumulator >= stepNanos) {
+            droppedSteps += accumulator / stepNanos;
+            accumulator %= stepNanos;
+        }
+
+        alpha = accumulator / (float) stepNanos;
+        return steps;
+    }
+
+    /**
+     * 重置時鐘（暫停後恢復時呼叫）
+     * 避免把暫停期間的時間當作需要追趕的模擬時間
+     */
+    public void reset() {
+        lastFrameNanos = NO_FRAME;
+        accumulator = 0L;
+        alpha = 0f;
+    }
+
+    /** 取得插值係數：0 = 上一個模擬狀態，1 = 最新模擬狀態 */
+    public float getAlpha() { return alpha; }
+
+    /** 取得每步長度（奈秒） */
+    public long getStepNanos() { return stepNanos; }
+
+    /** 取得累計丟棄的步數（卡頓指標） */
+    public long getDroppedSteps() { return droppedSteps; }
+}
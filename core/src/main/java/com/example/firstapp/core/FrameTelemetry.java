@@ -0,0 +1,170 @@
+package com.example.firstapp.core;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * 幀階段量測（每幀的 16 ms 花在哪裡）
+ *
+ * 量測點：
+ * - FRAME：相鄰兩幀的間隔（GameLoop 的 VSYNC 時間 / GameThread 的送出時間）
+ * - SIM：  timestep.advance() 整體（0~N 個 tick）
+ * - DRAW： WorldRenderer.draw() 整體
+ * - ROAD / OBSTACLES / CAR / CLAMP / COLLISION：GameWorld.onUpdate() 每個 tick 的各階段
+ *
+ * 另外統計：
+ * - 掉幀（missed vsync）：幀間隔超過 1.5 個 VSYNC 週期 → 記錄錯過了幾個 VSYNC
+ * - GC 次數：由平台提供（app 模組用 Debug.getRuntimeStat），core 不依賴 Android
+ *
+ * 關閉時零成本：所有呼叫點都包在 if (GameConfig.TELEMETRY_ENABLED) 裡，
+ * 編譯期常數 false → javac 直接刪掉整段程式碼（連 System.nanoTime() 都不會呼叫）
+ *
+ * 類比後端：APM 的 span（每個階段一段計時）+ Micrometer 的 Timer
+ *
+ * 執行緒模型與 LatencyHistogram 相同：寫入都在模擬/繪製執行緒；
+ * 讀取要在同一條執行緒（例如 overlay 在 draw 裡讀），或在遊戲迴圈停止之後（例如 onPause 後 dump）
+ */
+public final class FrameTelemetry {
+
+    // ===== 階段索引 =====
+    public static final int PHASE_FRAME = 0;      // 幀間隔
+    public static final int PHASE_SIM = 1;        // 模擬（整幀的所有 tick）
+    public static final int PHASE_DRAW = 2;       // 繪製
+    public static final int PHASE_ROAD = 3;       // tick：road.update()
+    public static final int PHASE_OBSTACLES = 4;  // tick：obstacles.update()
+    public static final int PHASE_CAR = 5;        // tick：car.update()
+    public static final int PHASE_CLAMP = 6;      // tick：clampToRoad()
+    public static final int PHASE_COLLISION = 7;  // tick：detectCollisions()
+    public static final int PHASE_COUNT = 8;
+
+    private static final String[] PHASE_NAMES = {
+            "frame", "sim", "draw", "road", "obstacles", "car", "clamp", "collision"
+    };
+
+    /** 超過幾個 VSYNC 週期才算掉幀（1.5 → 容忍排程抖動） */
+    private static final double MISSED_VSYNC_THRESHOLD = 1.5;
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[PHASE_COUNT];
+    private long vsyncPeriodNanos = GameConfig.SIM_STEP_NANOS; // 預設 60 Hz，平台知道真實刷新率時覆寫
+    private long lastFrameNanos;      // 上一幀的時間戳（0 = 尚未開始）
+    private long frameCount;          // 已量測的幀數
+    private long missedVsyncCount;    // 累計錯過的 VSYNC 數
+    private LongSupplier gcCounter;   // 平台 GC 次數來源（null = 不支援）
+    private long gcCountAtReset;      // reset() 時的 GC 次數（回報差值）
+
+    public FrameTelemetry() {
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    // ===== 寫入（熱路徑，0 配置） =====
+
+    /**
+     * 記錄一個階段從 startNanos 到現在的耗時，回傳「現在」給下一個階段當起點
+     *
+     * 用法：t = telemetry.mark(PHASE_ROAD, t); → 連續階段只需要一次 nanoTime()
+     */
+    public long mark(int phase, long startNanos) {
+        long now = System.nanoTime();
+        histograms[phase].record(now - startNanos);
+        return now;
+    }
+
+    /** 直接記錄一筆耗時 */
+    public void record(int phase, long nanos) {
+        histograms[phase].record(nanos);
+    }
+
+    /**
+     * 每幀呼叫一次：記錄幀間隔 + 掉幀數
+     *
+     * @param frameTimeNanos 這一幀的時間戳（Choreographer 的 VSYNC 時間或 System.nanoTime()）
+     */
+    public void onFrame(long frameTimeNanos) {
+        if (lastFrameNanos != 0) {
+            long interval = frameTimeNanos - lastFrameNanos;
+            histograms[PHASE_FRAME].record(interval);
+            if (interval > vsyncPeriodNanos * MISSED_VSYNC_THRESHOLD) {
+                missedVsyncCount += Math.round((double) interval / vsyncPeriodNanos) - 1;
+            }
+        }
+        lastFrameNanos = frameTimeNanos;
+        frameCount++;
+    }
+
+    /**
+     * 遊戲迴圈暫停/恢復時呼叫：暫停期間不算一幀（否則回到前景會記一次超長掉幀）
+     */
+    public void onLoopRestart() {
+        lastFrameNanos = 0;
+    }
+
+    /** 清除所有統計（GC 次數改為從現在開始計算） */
+    public void reset() {
+        for (LatencyHistogram histogram : histograms) histogram.reset();
+        lastFrameNanos = 0;
+        frameCount = 0;
+        missedVsyncCount = 0;
+        gcCountAtReset = gcCounter != null ? gcCounter.getAsLong() : 0;
+    }
+
+    // ===== 設定 =====
+
+    /** 螢幕 VSYNC 週期（例如 120 Hz → 8_333_333 ns） */
+    public void setVsyncPeriodNanos(long nanos) {
+        if (nanos > 0) vsyncPeriodNanos = nanos;
+    }
+
+    /** 設定 GC 次數來源（累計值；null = 不支援） */
+    public void setGcCounter(LongSupplier gcCounter) {
+        this.gcCounter = gcCounter;
+        gcCountAtReset = gcCounter != null ? gcCounter.getAsLong() : 0;
+    }
+
+    // ===== 查詢 =====
+
+    public LatencyHistogram getHistogram(int phase) { return histograms[phase]; }
+    public long getFrameCount() { return frameCount; }
+    public long getMissedVsyncCount() { return missedVsyncCount; }
+    public long getVsyncPeriodNanos() { return vsyncPeriodNanos; }
+
+    /** reset() 之後發生的 GC 次數（不支援時回傳 -1） */
+    public long getGcCount() {
+        return gcCounter != null ? gcCounter.getAsLong() - gcCountAtReset : -1;
+    }
+
+    public static String phaseName(int phase) { return PHASE_NAMES[phase]; }
+
+    // ===== 輸出（離線比較用） =====
+
+    /**
+     * 以純文字表格輸出（每個階段一行：樣本數、平均、p50、p99、最大值，單位 µs）
+     * 格式固定 → 不同版本的輸出可以直接 diff
+     */
+    public void writeTo(Writer out) throws IOException {
+        out.write(String.format(Locale.US, "# frames=%d missedVsync=%d gc=%d vsyncPeriodUs=%.1f%n",
+                frameCount, missedVsyncCount, getGcCount(), vsyncPeriodNanos / 1000.0));
+        out.write("phase,count,meanUs,p50Us,p99Us,maxUs\n");
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            LatencyHistogram h = histograms[i];
+            out.write(String.format(Locale.US, "%s,%d,%.1f,%.1f,%.1f,%.1f%n",
+                    PHASE_NAMES[i], h.getCount(),
+                    h.getMeanNanos() / 1000.0,
+                    h.getPercentile(50) / 1000.0,
+                    h.getPercentile(99) / 1000.0,
+                    h.getMaxNanos() / 1000.0));
+        }
+    }
+
+    /** 輸出到檔案（覆寫） */
+    public void dump(File file) throws IOException {
+        try (Writer out = new FileWriter(file)) {
+            writeTo(out);
+        }
+    }
+}
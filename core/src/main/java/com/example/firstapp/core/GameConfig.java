@@ -0,0 +1,143 @@
+package com.example.firstapp.core;
+
+/**
+ * 遊戲常數集中管理（消除所有魔術數字）
+ * 類比 Spring 的 application.properties — 所有設定值在這裡定義
+ */
+public final class GameConfig {
+
+    // ===== 模擬頻率（固定步長，與螢幕刷新率無關） =====
+    public static final int SIM_TICK_RATE_HZ = 60;                             // 每秒模擬次數
+    public static final long SIM_STEP_NANOS = 1_000_000_000L / SIM_TICK_RATE_HZ; // 每步長度（奈秒）
+    public static final int MAX_SUB_STEPS = 5;             // 單幀最多追趕步數（卡頓時防止死亡螺旋）
+
+    // ===== 繪製後端 =====
+    public static final boolean USE_SURFACE_VIEW = false;  // true = GameSurfaceView（獨立遊戲執行緒），false = GameView（UI 執行緒）
+    public static final String EXTRA_SURFACE_VIEW = "surface_view"; // Intent extra：執行時覆寫上面的預設值（A/B 比較用）
+
+    // ===== 內部解析度（ScaledRenderTarget） =====
+    public static final float RENDER_SCALE = 1f;           // 內部解析度上限（相對畫面，再乘上畫質等級的倍率）
+    public static final float RENDER_SCALE_MIN = 0.25f;    // 內部解析度下限（再小字與虛線會糊成一片）
+
+    // ===== 精靈批次（SpriteBatch / SpriteRenderer） =====
+    public static final boolean SPRITE_BATCHING = true;    // true = 車輛 + 車流用一次 drawVertices，false = 每台車一次 drawRect
+    public static final int SPRITE_BATCH_CAPACITY = 64;    // 每幀最多精靈數（車流池容量 + 玩家車，留餘裕）
+
+    // ===== 畫質/幀率調節（QualityGovernor） =====
+    public static final boolean QUALITY_GOVERNOR_ENABLED = true; // false = 固定最高畫質、跟隨螢幕刷新率
+    public static final int QUALITY_WINDOW_FRAMES = 30;       // 每幾幀評估一次
+    public static final float QUALITY_BUDGET_RATIO = 0.8f;    // 每幀工作時間預算 = 幀間隔 × 0.8（留給合成器）
+    public static final float QUALITY_DOWNGRADE_RATIO = 0.15f; // 窗口內超預算幀 ≥ 15% → 降級
+    public static final float QUALITY_UPGRADE_HEADROOM = 0.5f; // 平均工作時間 < 預算 × 0.5 才算有餘裕
+    public static final int QUALITY_UPGRADE_WINDOWS = 4;      // 連續幾個有餘裕的窗口才升級
+    public static final int QUALITY_MAX_UPGRADE_WINDOWS = 256; // 反覆升降時，升級等待的上限（窗口，60 fps 約 2 分鐘）
+    public static final int QUALITY_COOLDOWN_WINDOWS = 2;     // 每次調整後忽略幾個窗口（量新設定的暖身期）
+
+    // ===== 車輛尺寸 =====
+    public static final float CAR_WIDTH = 100f;            // 車寬（像素）
+    public static final float CAR_HEIGHT = 200f;           // 車高（像素）
+
+    // ===== 車輛物理 =====
+    public static final float CAR_SPEED = 5f;              // 每步前進速度（像素/tick）
+    public static final float CAR_STEER_LERP = 0.15f;      // 轉向平滑因子（0~1，越大越靈敏）
+    public static final float CAR_MAX_STEER_ANGLE = 30f;   // 最大轉向角度（度）
+    public static final float CAR_FRICTION = 0.98f;        // 摩擦力衰減係數（每 tick 角度乘以此值）
+    public static final boolean CAR_FAST_TRIG = true;      // true = FastMath 查表 sin/cos，false = Math 精確值
+
+    // ===== 車隊平行更新 =====
+    public static final int FLEET_MAX_THREADS = 4;          // 平行更新的執行緒上限（實際 = min(核心數 - 1, 此值)）
+    public static final int FLEET_PARALLEL_THRESHOLD = 2048; // 車輛數低於此值時序列更新（分派成本 > 更新成本）
+
+    // ===== 道路比例 =====
+    public static final float ROAD_LEFT_RATIO = 0.2f;      // 道路左邊界 = 螢幕寬度 × 0.2
+    public static final float ROAD_RIGHT_RATIO = 0.8f;     // 道路右邊界 = 螢幕寬度 × 0.8
+    public static final int LANE_COUNT = 3;                 // 車道數量
+
+    // ===== 輸入 =====
+    public static final int INPUT_QUEUE_CAPACITY = 64;     // 輸入事件佇列容量（一個 tick 內的按下/放開遠少於此）
+
+    // ===== 程序化道路（彎道 / 車道合併 / 路寬變化） =====
+    public static final boolean PROCEDURAL_ROAD = false;   // true = 無限延伸的程序化道路，false = 固定直路
+    public static final float ROAD_SEGMENT_LENGTH = 20f;   // 路段長度（像素，邊界在路段之間線性內插）
+    public static final int ROAD_CHUNK_SEGMENTS = 64;      // 每個形狀區塊的路段數（1280 像素換一次彎道/車道數）
+    public static final int ROAD_RING_SEGMENTS = 1024;     // 背景預先產生的路段數（約 8 個畫面高）
+    public static final float ROAD_CURVE_AMPLITUDE_RATIO = 0.15f; // 彎道最大偏移 = 螢幕寬度 × 0.15
+    public static final int ROAD_MIN_LANES = 2;            // 車道合併後的最少車道數
+    public static final float ROAD_MIN_LANE_WIDTH_RATIO = 0.15f;  // 車道寬下限 = 螢幕寬度 × 0.15
+    public static final float ROAD_MAX_LANE_WIDTH_RATIO = 0.22f;  // 車道寬上限 = 螢幕寬度 × 0.22
+    public static final int ROAD_SEED = 0x0AD5EED;         // 道路形狀種子（固定 → 可重現）
+
+    // ===== 障礙物/車流 =====
+    public static final int OBSTACLE_CAPACITY = 32;        // 物件池容量（同時存在的最大障礙物數）
+    public static final float OBSTACLE_WIDTH = 100f;       // 障礙物寬度（像素，與車寬相同）
+    public static final float OBSTACLE_HEIGHT = 180f;      // 障礙物高度（像素）
+    public static final int OBSTACLE_SPAWN_INTERVAL_TICKS = 45; // 嘗試生成的間隔（tick）
+    public static final float OBSTACLE_MIN_GAP = 220f;     // 同車道前一台至少要離開畫面頂端多遠才生成下一台（像素）
+    public static final int OBSTACLE_SEED = 0x5EED;        // 車流亂數種子（固定 → 可重現）
+    public static final float[] TRAFFIC_LANE_SCROLL_FACTORS = {1.4f, 1.0f, 0.6f}; // 各車道相對捲動速度（× LINE_SCROLL_SPEED）
+
+    // ===== 碰撞偵測 =====
+    public static final int COLLISION_BATCH_CAPACITY = 64; // 每 tick 最多回報的碰撞配對數
+    public static final boolean CCD_ENABLED = true;        // 連續碰撞（false = 只測 tick 結束時的位置）
+    public static final float CCD_SUBSTEP_DISTANCE = 20f;  // 位移超過這個值才分子步；每個子步最多移動這麼遠（< 最薄物體寬的一半）
+    public static final int CCD_MAX_SUBSTEPS = 16;         // 每個配對最多幾個子步（每 tick 成本上限）
+
+    // ===== 粒子特效（ParticleSystem，純視覺；畫質等級 LOW 時不生成） =====
+    public static final boolean PARTICLES_ENABLED = true;  // false = 完全不生成、不更新（編譯期常數）
+    public static final int SPARK_CAPACITY = 256;          // 火花同時存活上限
+    public static final int SPARK_LIFETIME_TICKS = 18;     // 火花壽命（tick）
+    public static final float SPARK_DRAG = 0.9f;           // 火花每 tick 速度衰減
+    public static final int SPARKS_PER_TICK = 6;           // 擦牆時每 tick 生成數
+    public static final float SPARK_SPEED = 6f;            // 火花散布速度（像素/tick）
+    public static final int SMOKE_CAPACITY = 256;          // 輪胎煙同時存活上限
+    public static final int SMOKE_LIFETIME_TICKS = 40;     // 輪胎煙壽命（tick）
+    public static final float SMOKE_DRAG = 0.97f;          // 輪胎煙每 tick 速度衰減
+    public static final int SMOKE_PER_WHEEL_PER_TICK = 1;  // 急轉時每個後輪每 tick 生成數
+    public static final float SMOKE_SPREAD = 0.8f;         // 輪胎煙散布速度（像素/tick）
+    public static final float SKID_ANGLE = 24f;            // |車頭角度| 超過這個值才冒煙（度，最大 CAR_MAX_STEER_ANGLE）
+    public static final int PARTICLE_SEED = 0x5A4C;        // 粒子散布亂數種子（與車流亂數分開，不影響模擬）
+
+    // ===== 虛線參數 =====
+    public static final float DASH_LENGTH = 60f;           // 虛線段長度（像素）
+    public static final float GAP_LENGTH = 40f;            // 虛線間隔長度（像素）
+    public static final float LINE_STROKE_WIDTH = 8f;      // 分隔線寬度（像素）
+    public static final float LINE_SCROLL_SPEED = 5f;      // 虛線每步滾動速度（像素/tick）
+
+    // ===== 效能量測（編譯期常數：false 時 javac 直接刪掉所有量測程式碼） =====
+    public static final boolean TELEMETRY_ENABLED = false; // 幀階段計時 + 掉幀/GC 統計（FrameTelemetry）
+    public static final boolean TELEMETRY_OVERLAY = true;  // 量測開啟時是否在畫面左上角顯示 p50/p99
+    public static final long TELEMETRY_OVERLAY_REFRESH_NANOS = 500_000_000L; // overlay 文字更新間隔（避免每幀組字串）
+
+    // ===== 輸入錄製（重現問題 / 無畫面重播用） =====
+    public static final boolean INPUT_RECORDING_ENABLED = false; // true = 每次啟動把轉向輸入錄到 input-log.bin
+
+    // ===== AI 駕駛策略（PolicyTrainer 離線訓練 → app 的 assets） =====
+    public static final String DRIVING_POLICY_ASSET = "rival-policy.bin"; // 啟動時載入的策略檔（./gradlew :core:train 產生）
+    public static final boolean AUTOPILOT_ENABLED = false;  // true = 由載入的策略駕駛玩家車（展示 / 檢查訓練結果）
+
+    // ===== 連線對戰（NetServer / NetClient，UDP 快照同步） =====
+    public static final int NET_MAX_PLAYERS = 4;           // 一場的最多玩家數（= 伺服器車隊容量）
+    public static final int NET_WORLD_WIDTH = 1080;        // 連線時的世界尺寸（各裝置解析度不同 → 模擬用固定尺寸）
+    public static final int NET_WORLD_HEIGHT = 1920;
+    public static final int NET_MAX_PACKET_BYTES = 512;    // 單一封包上限（遠小於 MTU → 不會被 IP 分片）
+    public static final int NET_HISTORY_TICKS = 128;       // 輸入 / 預測 / 快照歷史（2 的次方；約 2 秒，超過的延遲視為斷線）
+    public static final int NET_INPUT_REDUNDANCY = 8;      // 每個輸入封包重送最近幾個 tick 的輸入（掉包不需要重傳）
+    public static final int NET_MAX_INPUTS_PER_TICK = 4;   // 伺服器每 tick 最多消化幾個輸入（延遲抖動後追上進度）
+
+    // ===== 狀態快照 / 倒帶（GameWorld.saveState、StateRing） =====
+    public static final boolean REWIND_ENABLED = true;     // 每隔一段時間把整個模擬狀態存進 ring（可倒帶）
+    public static final int REWIND_INTERVAL_TICKS = 30;    // 每幾個 tick 存一份（0.5 秒）
+    public static final int REWIND_RING_SIZE = 16;         // 保留幾份（16 × 0.5 秒 = 最多倒回 8 秒）
+    public static final int REWIND_STEPS = 4;              // 倒帶按鈕一次倒回幾份（約 2 秒）
+
+    // ===== 跑局紀錄 / 鬼影車（RunLog 記憶體映射檔 + RunWriter 背景寫入） =====
+    public static final boolean RUN_LOG_ENABLED = true;    // 每一局的統計 + 軌跡寫到 run-log.bin，並播放最佳一局的鬼影
+    public static final String RUN_LOG_FILE = "run-log.bin";
+    public static final int RUN_LOG_CHUNK_BYTES = 4 * 1024; // 遊戲執行緒 → I/O 執行緒的批次大小（約 1000 幀）
+    public static final int RUN_LOG_CHUNKS = 16;           // 批次 ring 的格數（I/O 執行緒落後時的緩衝；滿了丟棄這一局）
+    public static final int RUN_LOG_SEGMENT_BYTES = 1 << 20; // 附加時每次延伸的映射區（1 MB）
+    public static final int RUN_LOG_PAGE_BYTES = 64 * 1024;  // 鬼影串流讀取每次映射的頁面大小
+    public static final int GHOST_BUFFER_FRAMES = 1024;    // 預先解碼的鬼影幀數（2 的次方；約 17 秒）
+
+    private GameConfig() {} // 防止實例化（工具類模式）
+}
@@ -0,0 +1,663 @@
+package com.example.firstapp.core;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 遊戲世界（Car + Road + 碰撞的更新順序，與「誰來驅動」無關）
+ *
+ * 為什麼從 GameView 抽出來：
+ * - GameView（UI 執行緒 + invalidate）和 GameSurfaceView（獨立遊戲執行緒 + lockCanvas）
+ *   兩種後端要跑完全相同的模擬 → 共用同一個 GameWorld
+ * - 類比後端：Service 層（商業邏輯）與 Controller 層（HTTP / MQ 入口）分離
+ *
+ * 執行緒模型：
+ * - onUpdate()/resize() 只在「模擬執行緒」呼叫（UI 執行緒或 GameThread 其中之一）
+ *   繪製（app 模組的 WorldRenderer）也在同一條執行緒上讀取 Car/Road
+ * - 輸入（submitInput / moveLeft / ...）由單一輸入執行緒呼叫（通常是 UI 執行緒的按鈕觸控）
+ *   → 帶時間戳放進無鎖的 InputQueue，下一個 tick 開頭才依序套用到 Car
+ *   → Car 的欄位永遠只有模擬執行緒在讀寫，不會出現「半更新」的狀態
+ *
+ * 轉向是「按住才轉」：按下左/右 → 轉向，放開 → 回正；兩邊都按住時以最後按下的為準
+ *
+ * 狀態快照：saveState() 把完整的模擬狀態寫成固定長度的二進位（onSaveInstanceState / 倒帶 ring）
+ * restoreState() 之後繼續跑，與沒有中斷時逐位元相同
+ *
+ * 純 Java（不依賴 Android）：可在 JVM 上無畫面執行（單元測試、JMH 基準測試）
+ */
+public class GameWorld implements FixedTimestep.Callback {
+
+    // ===== 輸入事件類型（InputQueue 的 type） =====
+    public static final byte INPUT_PRESS_LEFT = 1;    // 按下左鍵
+    public static final byte INPUT_RELEASE_LEFT = 2;  // 放開左鍵
+    public static final byte INPUT_PRESS_RIGHT = 3;   // 按下右鍵
+    public static final byte INPUT_RELEASE_RIGHT = 4; // 放開右鍵
+    public static final byte INPUT_STEER_LEFT = 5;    // 直接設定：左轉（不需要按住；重播/測試用）
+    public static final byte INPUT_STEER_RIGHT = 6;   // 直接設定：右轉
+    public static final byte INPUT_STEER_CENTER = 7;  // 直接設定：回正
+    public static final byte INPUT_REWIND = 8;        // 倒帶 REWIND_STEPS 份快照（GameConfig.REWIND_ENABLED）
+
+    // ===== 轉向狀態（套用到 Car 的結果） =====
+    private static final int STEER_CENTER = 0; // 回正
+    private static final int STEER_LEFT = 1;   // 左轉
+    private static final int STEER_RIGHT = 2;  // 右轉
+
+    /** 車輛在 SpatialGrid / CollisionBatch 中的 id（障礙物直接使用 slot 0 ~ OBSTACLE_CAPACITY-1） */
+    public static final int CAR_ENTITY_ID = GameConfig.OBSTACLE_CAPACITY;
+
+    // ===== 狀態快照格式 =====
+    private static final int STATE_MAGIC = 0x46505354;   // "FPST"
+    private static final short STATE_VERSION = 4;  // 2：車流不再存 forward；3：不存生成間隔；4：鏡頭只存 long 距離
+    private static final int STATE_HEADER_BYTES = 4 + 2 + 2 + 4 + 4 + 4 + 8 + 4; // magic/版本/車數/池容量/寬/高/tick/轉向
+
+    private final CarFleet fleet; // 車隊資料（slot 0 = 玩家車；AI 車流之後加在後面的 slot）
+    private final int fleetCount; // 車隊中使用中的車輛數
+    private final ParallelFleetUpdater fleetUpdater; // 車隊更新（超過門檻自動平行）
+    private final Car car;      // 玩家車輛（fleet slot 0 的 view）
+    private final Road road;    // 道路實體
+    private final ObstaclePool obstacles; // 車流（預先配置的物件池）
+    private final SpatialGrid grid;       // 碰撞 Broad Phase（車輛 + 障礙物）
+    private final CollisionBatch candidates; // Broad Phase 候選配對（包圍盒重疊）
+    private final CollisionBatch collisions; // 本 tick 確認的碰撞配對
+    private final OrientedBox carBox = new OrientedBox(); // 車輛 OBB（scratch，每 tick 覆寫）
+    private final Aabb scratchBounds = new Aabb();         // 障礙物碰撞框（scratch）
+    private final float[] sweepHit = new float[2];          // 連續碰撞的撞擊時間/子步數（scratch）
+    private final float[] carCorners = new float[8];        // 車輛四個角（輪胎煙位置，scratch）
+    private final ParticleSystem sparks = new ParticleSystem(GameConfig.SPARK_CAPACITY,
+            GameConfig.SPARK_LIFETIME_TICKS, GameConfig.SPARK_DRAG, GameConfig.PARTICLE_SEED);       // 擦牆火花
+    private final ParticleSystem smoke = new ParticleSystem(GameConfig.SMOKE_CAPACITY,
+            GameConfig.SMOKE_LIFETIME_TICKS, GameConfig.SMOKE_DRAG, GameConfig.PARTICLE_SEED + 1);   // 輪胎煙
+    private final FrameTelemetry telemetry = new FrameTelemetry(); // 幀階段量測（GameConfig.TELEMETRY_ENABLED 時才寫入）
+    private final QualityGovernor quality = new QualityGovernor(); // 畫質/幀率調節（幀驅動端餵入工作時間）
+
+    // ===== 輸入管線（輸入執行緒 → InputQueue → tick 開頭套用） =====
+    private final InputQueue inputQueue = new InputQueue(GameConfig.INPUT_QUEUE_CAPACITY);
+    private final InputQueue.Handler inputHandler = this::applyInput; // 預先建立，drain 不配置
+    private final LatencyHistogram inputLatency = new LatencyHistogram(); // 輸入 → 車輛狀態改變的延遲（奈秒）
+    private boolean leftHeld;       // 左鍵按住中（模擬執行緒狀態）
+    private boolean rightHeld;      // 右鍵按住中
+    private int lastPressed = STEER_CENTER; // 兩鍵都按住時以最後按下的為準
+    private int latchedSteer = STEER_CENTER; // 沒有按鍵按住時的轉向（STEER_* 直接設定的結果）
+    private int appliedSteer = STEER_CENTER; // 目前套用在 Car 上的轉向
+    private long oldestInputNanos;  // 本 tick 取出的事件中最早的時間戳（量測延遲用）
+    private boolean rewindRequested; // 本 tick 取出的事件中有 INPUT_REWIND
+
+    private PolicyDriver autopilot;  // 自動駕駛（null = 玩家操作）
+
+    private long tick;          // 已執行的 tick 數（輸入錄製/重播的時間軸）
+    private InputRecorder recorder; // 輸入錄製（null = 不錄製）
+    private RunWriter runWriter;    // 跑局紀錄 + 鬼影（null = 不紀錄）
+    private boolean carWasHit;      // 上一個 tick 車輛是否正在碰撞（撞上的那一刻才算一局結束）
+
+    private int width;          // 目前世界寬度（= 畫面寬度）
+    private int height;         // 目前世界高度（= 畫面高度）
+
+    private final StateRing rewindRing; // 倒帶用的定期快照（null = 倒帶關閉）
+
+    public GameWorld() {
+        this(GameConfig.OBSTACLE_SEED);
+    }
+
+    /**
+     * @param obstacleSeed 車流亂數種子（PolicyTrainer 每個 episode 換一個，避免策略背下固定的車流）
+     */
+    public GameWorld(int obstacleSeed) {
+        this(obstacleSeed, GameConfig.REWIND_ENABLED);
+    }
+
+    /**
+     * @param rewind false = 不配置倒帶 ring、不定期擷取快照（PolicyTrainer 的無畫面 episode 用不到倒帶）
+     *               快照只是讀取狀態 → 有沒有倒帶，模擬結果都相同
+     */
+    public GameWorld(int obstacleSeed, boolean rewind) {
+        road = new Road();
+        fleet = new CarFleet(1);
+        fleetCount = 1;
+        fleetUpdater = new ParallelFleetUpdater();
+        car = new Car(fleet, 0);
+        obstacles = new ObstaclePool(GameConfig.OBSTACLE_CAPACITY, obstacleSeed);
+        grid = new SpatialGrid(GameConfig.OBSTACLE_CAPACITY + 1);  // +1 給車輛
+        candidates = new CollisionBatch(GameConfig.COLLISION_BATCH_CAPACITY);
+        collisions = new CollisionBatch(GameConfig.COLLISION_BATCH_CAPACITY);
+        rewindRing = rewind ? new StateRing(GameConfig.REWIND_RING_SIZE, getStateSize()) : null;
+
+        // 障礙物生成/回收時同步加入/移除網格（之後每 tick 只做增量 move）
+        obstacles.setListener(new ObstaclePool.Listener() {
+            @Override
+            public void onSpawn(int slot) {
+                grid.insert(slot, obstacles.getX(slot), obstacles.getY(slot) + obstacles.getHeight() / 2f,
+                        obstacles.getWidth() / 2f, obstacles.getHeight() / 2f);
+            }
+
+            @Override
+            public void onDespawn(int slot) {
+                grid.remove(slot);
+            }
+        });
+    }
+
+    /**
+     * 畫面尺寸確定或改變時呼叫
+     *
+     * 執行順序：
+     * 1. road.init() → 根據螢幕尺寸計算道路邊界 + 車道位置（鏡頭距離不變）
+     * 2. 第一次配置：車輛定位到道路中央車道、畫面下方，清空車流
+     *    尺寸改變（旋轉、分割畫面、還原快照後 View 的尺寸不同）：這一局照常進行
+     *    → 車輛與車流的位置依新舊尺寸的比例換算（道路佔畫面寬的固定比例 → 車道內的相對位置不變）
+     * 3. grid.configureForRoad() → 依新車道寬度重建網格，放入車輛與車流
+     *    格子要比任何實體都大：車輛旋轉後最大可到對角線長度
+     *
+     * 倒帶 ring 仍然清空（舊尺寸的快照還原時會把世界改回舊尺寸）；錄製時記下這次改變 → 重播時同樣換算
+     * 尺寸沒變就不重設（SurfaceView 每次重建 Surface 都會回呼 surfaceChanged）
+     */
+    public void resize(int w, int h) {
+        if (w == width && h == height) return;
+        int oldWidth = width;
+        int oldHeight = height;
+        width = w;
+        height = h;
+        if (recorder != null) recorder.recordResize(tick, w, h);
+
+        road.init(w, h);  // 計算道路幾何（需要螢幕寬高）
+
+        if (oldWidth <= 0 || oldHeight <= 0) {
+            // 車輛初始位置：中間車道中心、畫面下方 1/3 處
+            float[] lanes = road.getLanes();
+            car.setPosition(lanes[1], h * 2f / 3f);  // lanes[1] = 中間車道
+            obstacles.clear();
+        } else {
+            float scaleX = (float) w / oldWidth;
+            float scaleY = (float) h / oldHeight;
+            car.setPosition(car.getX() * scaleX, h * 2f / 3f);  // Y 軸固定在畫面下方 1/3 處
+            obstacles.rescale(scaleX, scaleY);
+        }
+        sparks.clear();
+        smoke.clear();
+        collisions.clear();
+        if (rewindRing != null) rewindRing.clear();   // 舊尺寸的快照已不適用
+        float carDiagonal = (float) Math.hypot(GameConfig.CAR_WIDTH, GameConfig.CAR_HEIGHT);
+        grid.configureForRoad(road,
+                Math.max(carDiagonal, GameConfig.OBSTACLE_WIDTH),
+                Math.max(carDiagonal, GameConfig.OBSTACLE_HEIGHT));
+        insertObstacles();
+        carBox.setFromCar(car);
+        grid.insert(CAR_ENTITY_ID, carBox.cx, carBox.cy, carBox.extentX(), carBox.extentY());
+    }
+
+    /** 清空網格並放入所有存活障礙物（池的內容整批換掉 / 換算之後；車輛由呼叫端放入） */
+    private void insertObstacles() {
+        grid.clear();
+        for (int i = 0, n = obstacles.getActiveCount(); i < n; i++) {
+            int slot = obstacles.getActiveSlot(i);
+            grid.insert(slot, obstacles.getX(slot), obstacles.getY(slot) + obstacles.getHeight() / 2f,
+                    obstacles.getWidth() / 2f, obstacles.getHeight() / 2f);
+        }
+    }
+
+    /**
+     * 停止背景執行緒（道路產生器、車隊工作執行緒）
+     * 遊戲迴圈停止後呼叫（例如 onPause）；之後的 onUpdate 會依需要重新建立
+     */
+    public void stopBackgroundWork() {
+        road.stopGenerator();
+        fleetUpdater.shutdown();
+    }
+
+    /**
+     * FixedTimestep.Callback 實作 — 每個固定步長的更新邏輯
+     *
+     * 更新順序很重要：
+     * 0. drainInput()   → 依序套用輸入執行緒送來的按下/放開事件（自動駕駛開啟時由策略決定轉向）
+     * 1. road.update()  → 虛線動畫偏移
+     * 2. 車隊更新       → 物理引擎計算（angle → sin → 左右移動，Y 軸固定）
+     *                     車輛多時分段平行；回傳時全部完成（屏障）→ 碰撞階段看到的都是同一個 tick
+     * 3. clampToRoad()  → 碰撞偵測（確保車輛在道路範圍內）
+     * 4. detectCollisions() → 網格增量更新 + Broad/Narrow Phase，結果寫入 collisions
+     * 5. updateEffects() → 擦牆火花 / 輪胎煙（純視覺，不影響上面任何狀態）
+     *
+     * 車流在 road.update() 之後更新（生成/捲動/回收，穩態不配置記憶體）
+     *
+     * 輸入延遲：車隊更新完成（轉向已反映到車輛狀態）時，記錄「最早的事件時間戳 → 現在」
+     *
+     * 量測：TELEMETRY_ENABLED 時每個階段記錄一次耗時（相鄰階段共用時間戳）
+     * 關閉時 if 條件是編譯期常數 false → 這些行在 bytecode 裡不存在
+     */
+    @Override
+    public void onUpdate() {
+        long t = GameConfig.TELEMETRY_ENABLED ? System.nanoTime() : 0L;
+        boolean hadInput = drainInput();            // 跨執行緒輸入 → Car
+        if (autopilot != null) applySteer(toSteer(autopilot.decide(car, road, obstacles))); // 自動駕駛覆蓋輸入
+        road.update();                              // 虛線動畫
+        if (GameConfig.TELEMETRY_ENABLED) t = telemetry.mark(FrameTelemetry.PHASE_ROAD, t);
+        obstacles.update(road);                     // 車流生成/捲動/回收
+        if (GameConfig.TELEMETRY_ENABLED) t = telemetry.mark(FrameTelemetry.PHASE_OBSTACLES, t);
+        fleetUpdater.update(fleet, fleetCount);     // 物理計算（左右轉向移動，Y 軸固定；屏障）
+        if (hadInput) inputLatency.record(System.nanoTime() - oldestInputNanos);
+        if (GameConfig.TELEMETRY_ENABLED) t = telemetry.mark(FrameTelemetry.PHASE_CAR, t);
+        int scrape = CollisionDetector.clampToRoad(car, road); // 邊界碰撞修正（回傳擦到哪一邊）
+        if (GameConfig.TELEMETRY_ENABLED) t = telemetry.mark(FrameTelemetry.PHASE_CLAMP, t);
+        detectCollisions();                         // 車輛/障礙物碰撞（批次）
+        if (GameConfig.TELEMETRY_ENABLED) telemetry.mark(FrameTelemetry.PHASE_COLLISION, t);
+        if (GameConfig.PARTICLES_ENABLED) updateEffects(scrape);  // 粒子特效（視覺）
+
+        if (recorder != null) {
+            if (tick % InputRecorder.CHECKSUM_INTERVAL == 0) recorder.recordChecksum(tick, stateChecksum());
+            recorder.recordTickEnd(tick);
+        }
+        if (runWriter != null) recordRun();
+        tick++;
+        if (rewindRing != null && tick % GameConfig.REWIND_INTERVAL_TICKS == 0) rewindRing.capture(this);
+    }
+
+    /**
+     * 模擬狀態檢查碼（FNV-1a，逐位元比較 float）
+     *
+     * 涵蓋會影響之後每一個 tick 的狀態：車輛位置/角度/轉向、虛線偏移、每個障礙物的位置、碰撞數
+     * 錄製與重播在同一個 tick 算出不同的值 → 模擬行為已經分歧
+     */
+    public int stateChecksum() {
+        int hash = 0x811C9DC5;
+        hash = mix(hash, Float.floatToIntBits(car.getX()));
+        hash = mix(hash, Float.floatToIntBits(car.getAngle()));
+        hash = mix(hash, Float.floatToIntBits(car.getSteeringAngle()));
+        hash = mix(hash, Float.floatToIntBits(road.getLineOffset()));
+        for (int i = 0, n = obstacles.getActiveCount(); i < n; i++) {
+            int slot = obstacles.getActiveSlot(i);
+            hash = mix(hash, slot);
+            hash = mix(hash, Float.floatToIntBits(obstacles.getX(slot)));
+            hash = mix(hash, Float.floatToIntBits(obstacles.getY(slot)));
+        }
+        return mix(hash, collisions.size());
+    }
+
+    private static int mix(int hash, int value) {
+        for (int i = 0; i < 4; i++) {
+            hash ^= (value >>> (i * 8)) & 0xFF;
+            hash *= 0x01000193;
+        }
+        return hash;
+    }
+
+    // ===== 狀態快照 =====
+
+    /** 一份快照的 bytes（固定：只取決於車隊數與車流池容量，與目前有幾台車無關） */
+    public int getStateSize() {
+        return STATE_HEADER_BYTES + fleetCount * CarFleet.STATE_BYTES_PER_CAR + Road.STATE_BYTES
+                + obstacles.getStateBytes();
+    }
+
+    /**
+     * 把完整的模擬狀態寫進 out（getStateSize() bytes，從 out 目前的 position 開始）
+     *
+     * 內容：尺寸、tick、按鍵/轉向狀態、車隊、道路（虛線 + 鏡頭距離）、車流池（含亂數狀態與空閒清單）
+     * 不存：可由尺寸重算的幾何（道路邊界、網格）、碰撞結果（由位置重算）、粒子（純視覺）、
+     * 車流生成間隔（畫質設定 → 還原後以 QualityGovernor 目前的等級為準）
+     * 只能在模擬執行緒上、或遊戲迴圈停止時呼叫；不配置記憶體
+     */
+    public void saveState(ByteBuffer out) {
+        out.putInt(STATE_MAGIC).putShort(STATE_VERSION).putShort((short) fleetCount).putInt(obstacles.getCapacity());
+        out.putInt(width).putInt(height).putLong(tick);
+        out.put((byte) ((leftHeld ? 1 : 0) | (rightHeld ? 2 : 0)))
+                .put((byte) lastPressed).put((byte) latchedSteer).put((byte) appliedSteer);
+        fleet.writeState(out, fleetCount);
+        road.writeState(out);
+        obstacles.writeState(out);
+    }
+
+    /** saveState 到新的 byte[]（onSaveInstanceState 的 Bundle 用） */
+    public byte[] saveState() {
+        byte[] state = new byte[getStateSize()];
+        saveState(ByteBuffer.wrap(state));
+        return state;
+    }
+
+    /**
+     * 還原 saveState 的結果（包含 tick 與按鍵狀態 → 之後繼續跑與沒中斷時逐位元相同）
+     * 尺寸與目前不同時先 resize 成快照的尺寸
+     *
+     * @throws IllegalArgumentException 不是這個版本/這種世界的快照（world 保持原狀）
+     */
+    public void restoreState(ByteBuffer in) {
+        restoreState(in, false);
+    }
+
+    public void restoreState(byte[] state) {
+        restoreState(ByteBuffer.wrap(state), false);
+    }
+
+    /**
+     * @param rewind true = 倒帶（StateRing）：只還原物理狀態，tick 與按鍵狀態保持目前的值
+     *               → 時間線單調遞增（錄製/延遲量測不會倒退），按住的鍵放開後照常回正
+     */
+    void restoreState(ByteBuffer in, boolean rewind) {
+        if (in.remaining() < getStateSize()) throw new IllegalArgumentException("Truncated state");
+        int start = in.position();
+        if (in.getInt(start) != STATE_MAGIC) throw new IllegalArgumentException("Not a world state");
+        if (in.getShort(start + 4) != STATE_VERSION) {
+            throw new IllegalArgumentException("Unsupported state version " + in.getShort(start + 4));
+        }
+        if (in.getShort(start + 6) != fleetCount || in.getInt(start + 8) != obstacles.getCapacity()) {
+            throw new IllegalArgumentException("State was saved by a differently sized world");
+        }
+        in.position(start + 12);
+        int w = in.getInt();
+        int h = in.getInt();
+        long savedTick = in.getLong();
+        int held = in.get();
+        int savedLastPressed = in.get();
+        int savedLatched = in.get();
+        int savedApplied = in.get();
+
+        resize(w, h);                               // 尺寸相同時什麼都不做
+        if (!rewind) {
+            tick = savedTick;
+            leftHeld = (held & 1) != 0;
+            rightHeld = (held & 2) != 0;
+            lastPressed = savedLastPressed;
+            latchedSteer = savedLatched;
+        }
+        appliedSteer = savedApplied;                // 與還原的 Car 轉向一致
+        fleet.readState(in, fleetCount);
+        road.readState(in);
+        obstacles.readState(in);
+
+        sparks.clear();
+        smoke.clear();
+        insertObstacles();                          // 池整個換掉 → 網格重建（detectCollisions 會放回車輛）
+        detectCollisions();                         // 碰撞結果由位置重算（stateChecksum 含碰撞數）
+        // 生成間隔不在快照裡：倒帶時目前的值本來就對（重播時由 SPAWN_INTERVAL 事件重建，不能再改）；
+        // 完整還原（新的世界）才跟隨調節器目前的等級（改變時照常錄成事件）
+        if (!rewind) applyQuality();
+    }
+
+    /**
+     * 倒帶：還原 ring 中第 back 新的快照（1 = 最近一份，最多 REWIND_RING_SIZE 份以前）
+     * tick 不倒退（見 restoreState 的 rewind 參數）；錄製中會記下這次倒帶 → 重播時在同一個 tick 做同樣的倒帶
+     * 只能在模擬執行緒上呼叫（玩家操作走 INPUT_REWIND）
+     *
+     * @return 還原的快照存下時的 tick；沒有快照（或倒帶關閉）回傳 -1
+     */
+    public long rewind(int back) {
+        if (rewindRing == null) return -1L;
+        long restored = rewindRing.rewind(this, back);
+        if (restored >= 0 && recorder != null) recorder.recordRewind(tick, back);
+        return restored;
+    }
+
+    /** 倒帶用的快照 ring（null = 倒帶關閉） */
+    public StateRing getRewindRing() { return rewindRing; }
+
+    /**
+     * 碰撞偵測（三段式）
+     * 1. 把移動後的位置同步到網格（只有跨格才重新分桶）；車輛用旋轉後的包圍盒
+     * 2. Broad Phase：grid.findPairs() → 包圍盒重疊的候選配對
+     * 3. Narrow Phase：含車輛的配對再做 OBB 分離軸測試（障礙物之間都是 AABB，候選即結果）
+     *
+     * 高速（GameConfig.CCD_ENABLED，且這個 tick 的車輛或車流位移 > CCD_SUBSTEP_DISTANCE）：
+     * 網格只保證「終點」重疊的配對會被找到，路上擦過的配對不會 → 車輛改成逐一檢查所有存活障礙物
+     * （池容量固定，O(容量)），每一個都做連續碰撞（掃掠 AABB 先排除 → 重疊區間內分子步 OBB）
+     * 低速時完全走原本的離散路徑，結果逐位元相同
+     */
+    private void detectCollisions() {
+        float maxObstacleDy = 0f;                   // 這個 tick 車流最大的位移
+        for (int i = 0, n = obstacles.getActiveCount(); i < n; i++) {
+            int slot = obstacles.getActiveSlot(i);
+            grid.move(slot, obstacles.getX(slot), obstacles.getY(slot) + obstacles.getHeight() / 2f);
+            maxObstacleDy = Math.max(maxObstacleDy, obstacles.getY(slot) - obstacles.getPrevY(slot));
+        }
+        carBox.setFromCar(car);
+        grid.insert(CAR_ENTITY_ID, carBox.cx, carBox.cy, carBox.extentX(), carBox.extentY()); // 已存在 → 移動 + 更新半徑
+
+        float carDx = car.getX() - fleet.getPrevX(car.getSlot()); // 含 clampToRoad 的修正 = 實際路徑
+        boolean continuous = GameConfig.CCD_ENABLED
+                && Math.max(Math.abs(carDx), maxObstacleDy) > GameConfig.CCD_SUBSTEP_DISTANCE;
+
+        candidates.clear();
+        grid.findPairs(candidates);
+
+        collisions.clear();
+        for (int i = 0, n = candidates.size(); i < n; i++) {
+            int other = candidates.otherOf(i, CAR_ENTITY_ID);
+            if (other < 0) {
+                collisions.add(candidates.getFirst(i), candidates.getSecond(i)); // 障礙物之間
+            } else if (!continuous && CollisionDetector.hitsObstacle(carBox, obstacles, other, scratchBounds)) {
+                collisions.add(candidates.getFirst(i), candidates.getSecond(i));
+            }
+        }
+        if (continuous) {
+            for (int i = 0, n = obstacles.getActiveCount(); i < n; i++) {
+                int slot = obstacles.getActiveSlot(i);
+                if (CollisionDetector.hitsObstacleSwept(carBox, carDx, obstacles, slot, scratchBounds, sweepHit)) {
+                    collisions.add(slot, CAR_ENTITY_ID);
+                }
+            }
+        }
+    }
+
+    /**
+     * 粒子特效（在 detectCollisions 之後：carBox 已是這個 tick 的車身）
+     * - 擦牆（clampToRoad 推回）→ 車身側邊、沿車長隨機位置噴火花，往路面內側 + 向後飛
+     * - |車頭角度| ≥ SKID_ANGLE → 兩個後輪各冒一團煙，跟著路面向後捲
+     * 畫質等級關閉特效時不生成；已存在的粒子照常更新到自然消失（不會突然全部不見）
+     * 用自己的亂數 → 開關特效不會改變車流或任何模擬結果
+     */
+    private void updateEffects(int scrape) {
+        boolean enabled = !GameConfig.QUALITY_GOVERNOR_ENABLED || quality.isEffectsEnabled();
+        if (enabled && scrape != CollisionDetector.CLAMP_NONE) {
+            float sideX = car.getX() + scrape * car.getHalfExtentX();   // 碰到路邊的那一側
+            float sideY = carBox.cy + carBox.extentY() * ((tick & 7) / 3.5f - 1f); // 沿車長輪流換位置
+            sparks.burst(sideX, sideY, -scrape * GameConfig.SPARK_SPEED * 0.5f,
+                    GameConfig.LINE_SCROLL_SPEED + GameConfig.SPARK_SPEED * 0.5f,
+                    GameConfig.SPARK_SPEED * 0.5f, GameConfig.SPARKS_PER_TICK);
+        }
+        if (enabled && Math.abs(car.getAngle()) >= GameConfig.SKID_ANGLE) {
+            carBox.getCorners(carCorners);          // [4,5] = 右下角、[6,7] = 左下角（車尾）
+            smoke.burst(carCorners[4], carCorners[5], 0f, GameConfig.LINE_SCROLL_SPEED,
+                    GameConfig.SMOKE_SPREAD, GameConfig.SMOKE_PER_WHEEL_PER_TICK);
+            smoke.burst(carCorners[6], carCorners[7], 0f, GameConfig.LINE_SCROLL_SPEED,
+                    GameConfig.SMOKE_SPREAD, GameConfig.SMOKE_PER_WHEEL_PER_TICK);
+        }
+        sparks.update();                            // 沒有存活粒子時立即返回
+        smoke.update();
+    }
+
+    // ===== Getter（繪製、測試和基準測試用） =====
+
+    public Car getCar() { return car; }
+    public CarFleet getFleet() { return fleet; }
+    public Road getRoad() { return road; }
+    public ObstaclePool getObstacles() { return obstacles; }
+    public ParticleSystem getSparks() { return sparks; }
+    public ParticleSystem getSmoke() { return smoke; }
+
+    /** 世界寬高（世界單位 = resize 時的畫面像素；內部解析度縮放只影響繪製） */
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    /** 已執行的 tick 數 */
+    public long getTick() { return tick; }
+
+    /**
+     * 開始/停止錄製輸入（null = 停止）
+     * 只能在模擬執行緒上、或遊戲迴圈停止時呼叫；關閉 recorder 是呼叫端的責任
+     */
+    public void setInputRecorder(InputRecorder recorder) {
+        this.recorder = recorder;
+        if (recorder != null && width > 0) recorder.recordResize(tick, width, height); // 中途開始：先記下目前尺寸
+    }
+
+    /**
+     * 開始/停止跑局紀錄（停止時結束進行中的一局；開始時馬上開始新的一局）
+     * 只能在模擬執行緒上、或遊戲迴圈停止時呼叫；關閉 writer 是呼叫端的責任
+     */
+    public void setRunWriter(RunWriter writer) {
+        double distance = road.getCamera().getDistance();
+        if (runWriter != null) runWriter.endRun(distance);
+        runWriter = writer;
+        carWasHit = false;
+        if (writer != null) writer.beginRun(tick, distance);
+    }
+
+    /** 跑局紀錄（null = 不紀錄；繪製端從這裡取鬼影位置） */
+    public RunWriter getRunWriter() { return runWriter; }
+
+    /**
+     * 記錄這一 tick 的軌跡；撞上障礙物的那一刻結束這一局，下一個 tick 開始新的一局
+     * （撐最久的一局 = 下一局的鬼影）
+     */
+    private void recordRun() {
+        runWriter.recordFrame(car);
+        boolean hit = isCarHit();
+        if (hit && !carWasHit) {
+            double distance = road.getCamera().getDistance();
+            runWriter.endRun(distance);
+            runWriter.beginRun(tick + 1, distance);
+        }
+        carWasHit = hit;
+    }
+
+    /** 幀階段量測（遊戲迴圈與繪製也寫入同一個實例） */
+    public FrameTelemetry getTelemetry() { return telemetry; }
+
+    /** 畫質/幀率調節器（幀驅動端與繪製器共用） */
+    public QualityGovernor getQualityGovernor() { return quality; }
+
+    /**
+     * 套用調節器目前等級中「影響模擬」的設定（車流密度）
+     * 在 quality.onFrame() 回傳 true 後、下一個 tick 之前呼叫（模擬執行緒）
+     * 繪製相關的設定（解析度/虛線/特效）由繪製器每幀直接讀取
+     */
+    public void applyQuality() {
+        setObstacleSpawnInterval(quality.getObstacleSpawnInterval());
+    }
+
+    /**
+     * 設定車流生成間隔（tick）
+     * 會影響之後的每一個 tick → 有錄製時記成事件，重播時在同一個 tick 套用
+     */
+    public void setObstacleSpawnInterval(int ticks) {
+        if (ticks == obstacles.getSpawnInterval()) return;
+        obstacles.setSpawnInterval(ticks);
+        if (recorder != null) recorder.recordSpawnInterval(tick, ticks);
+    }
+
+    /**
+     * 開啟/關閉自動駕駛（null = 關閉，回到玩家輸入）
+     * 開啟時每個 tick 由策略決定轉向，玩家的按鍵事件照常取出但被覆蓋
+     * 只能在模擬執行緒上、或遊戲迴圈停止時呼叫
+     */
+    public void setAutopilot(DrivingPolicy policy) {
+        autopilot = policy != null ? new PolicyDriver(policy) : null;
+    }
+
+    /** 這個 tick 玩家車輛是否撞到車流 */
+    public boolean isCarHit() {
+        for (int i = 0, n = collisions.size(); i < n; i++) {
+            if (collisions.otherOf(i, CAR_ENTITY_ID) >= 0) return true;
+        }
+        return false;
+    }
+
+    /** 本 tick 的碰撞配對（id = 障礙物 slot 或 CAR_ENTITY_ID；下一個 tick 會被覆寫） */
+    public CollisionBatch getCollisions() { return collisions; }
+
+    /** 輸入 → 車輛狀態改變的延遲分佈（奈秒；在模擬執行緒或遊戲迴圈停止後讀取） */
+    public LatencyHistogram getInputLatency() { return inputLatency; }
+
+    /** 因輸入佇列滿而丟棄的事件數 */
+    public long getDroppedInputCount() { return inputQueue.getDroppedCount(); }
+
+    // ===== 外部輸入（單一輸入執行緒呼叫，通常是 UI 執行緒） =====
+
+    /**
+     * 送出一個輸入事件（INPUT_*），下一個 tick 開頭套用
+     *
+     * @param timestampNanos 事件發生時間（System.nanoTime 時間軸，例如觸控事件的時間）
+     * @return false = 佇列已滿，事件被丟棄
+     */
+    public boolean submitInput(byte type, long timestampNanos) {
+        return inputQueue.offer(type, timestampNanos);
+    }
+
+    /** 左轉：下一個 tick 將車輛轉向角度設為 -30°（不需要按住） */
+    public void moveLeft() {
+        submitInput(INPUT_STEER_LEFT, System.nanoTime());
+    }
+
+    /** 右轉：下一個 tick 將車輛轉向角度設為 +30°（不需要按住） */
+    public void moveRight() {
+        submitInput(INPUT_STEER_RIGHT, System.nanoTime());
+    }
+
+    /** 回正：下一個 tick 將車輛目標角度歸零 */
+    public void stopSteering() {
+        submitInput(INPUT_STEER_CENTER, System.nanoTime());
+    }
+
+    /**
+     * 在模擬執行緒上取出本 tick 的所有事件，算出最後的轉向並套用到 Car
+     * 一個 tick 內的多個事件只有「最後結果」影響物理 → 錄製也只記結果有改變的那一次
+     *
+     * @return 本 tick 是否有輸入事件
+     */
+    private boolean drainInput() {
+        oldestInputNanos = Long.MAX_VALUE;
+        if (inputQueue.drain(inputHandler) == 0) return false;
+
+        if (rewindRequested) {
+            rewindRequested = false;
+            // 還原的轉向可能與目前按住的鍵不同 → 強制重新套用並錄製（重播時 REWIND 之後緊接這一筆）
+            if (rewind(GameConfig.REWIND_STEPS) >= 0) appliedSteer = -1;
+        }
+        int steer = leftHeld || rightHeld
+                ? (leftHeld && rightHeld ? lastPressed : (leftHeld ? STEER_LEFT : STEER_RIGHT))
+                : latchedSteer;
+        applySteer(steer);
+        return true;
+    }
+
+    /** 轉向有改變時套用到 Car 並錄製（玩家輸入與自動駕駛共用 → 重播不需要策略檔） */
+    private void applySteer(int steer) {
+        if (steer == appliedSteer) return;
+        switch (steer) {
+            case STEER_LEFT:  car.moveLeft();     break;
+            case STEER_RIGHT: car.moveRight();    break;
+            default:          car.stopSteering(); break;
+        }
+        appliedSteer = steer;
+        if (recorder != null) recorder.recordSteer(tick, toRecordedCommand(steer));
+    }
+
+    /** DrivingPolicy.ACTION_* → 轉向狀態 */
+    private static int toSteer(int action) {
+        switch (action) {
+            case DrivingPolicy.ACTION_LEFT:  return STEER_LEFT;
+            case DrivingPolicy.ACTION_RIGHT: return STEER_RIGHT;
+            default:                         return STEER_CENTER;
+        }
+    }
+
+    /** 更新按鍵狀態（InputQueue.Handler，依事件順序呼叫） */
+    private void applyInput(byte type, long timestampNanos) {
+        if (timestampNanos < oldestInputNanos) oldestInputNanos = timestampNanos;
+        switch (type) {
+            case INPUT_PRESS_LEFT:    leftHeld = true;  lastPressed = STEER_LEFT;  break;
+            case INPUT_RELEASE_LEFT:  leftHeld = false; latchedSteer = STEER_CENTER; break;
+            case INPUT_PRESS_RIGHT:   rightHeld = true; lastPressed = STEER_RIGHT; break;
+            case INPUT_RELEASE_RIGHT: rightHeld = false; latchedSteer = STEER_CENTER; break;
+            case INPUT_STEER_LEFT:    latchedSteer = STEER_LEFT;   leftHeld = rightHeld = false; break;
+            case INPUT_STEER_RIGHT:   latchedSteer = STEER_RIGHT;  leftHeld = rightHeld = false; break;
+            case INPUT_STEER_CENTER:  latchedSteer = STEER_CENTER; leftHeld = rightHeld = false; break;
+            case INPUT_REWIND:        rewindRequested = true; break;
+            default: break;
+        }
+    }
+
+    /** 轉向狀態 → 錄製檔的事件類型 */
+    private static byte toRecordedCommand(int steer) {
+        switch (steer) {
+            case STEER_LEFT:  return InputRecorder.STEER_LEFT;
+            case STEER_RIGHT: return InputRecorder.STEER_RIGHT;
+            default:          return InputRecorder.STEER_CENTER;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.firstapp.core;
+
+/**
+ * 輸入事件佇列（單一生產者 / 單一消費者的無鎖 ring buffer）
+ *
+ * - 生產者：UI 執行緒（按鈕按下/放開）→ offer()，只寫 head
+ * - 消費者：模擬執行緒，每個 tick 開頭 drain() 一次，只寫 tail
+ * - 事件 = 類型 + 時間戳（System.nanoTime 時間軸）→ 可以量測「按下 → 車輛開始動」的延遲
+ *
+ * 記憶體順序：生產者先寫 types/timestamps 再寫 volatile head（release），
+ * 消費者先讀 head 再讀內容（acquire）；tail 同理 → 不需要鎖，也不需要 CAS
+ *
+ * 滿了就丟棄新事件並計數（UI 執行緒絕對不能等模擬執行緒）；
+ * 容量 64 遠大於一個 tick 內手指能產生的事件數，正常情況不會發生
+ *
+ * 類比後端：LMAX Disruptor 的單生產者 RingBuffer
+ */
+public class InputQueue {
+
+    /** 消費端回呼（drain 時依序呼叫，不配置記憶體） */
+    public interface Handler {
+        void onInput(byte type, long timestampNanos);
+    }
+
+    private final int mask;
+    private final byte[] types;
+    private final long[] timestamps;
+    private volatile long head;     // 生產者：下一個要寫的位置
+    private volatile long tail;     // 消費者：下一個要讀的位置
+    private volatile long dropped;  // 因佇列滿而丟棄的事件數（只有生產者寫）
+
+    /**
+     * @param capacity 容量（會向上取到 2 的次方）
+     */
+    public InputQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = size - 1;
+        types = new byte[size];
+        timestamps = new long[size];
+    }
+
+    /**
+     * 放入一個事件（只能由單一生產者執行緒呼叫）
+     *
+     * @return false = 佇列已滿，事件被丟棄
+     */
+    public boolean offer(byte type, long timestampNanos) {
+        long h = head;
+        if (h - tail > mask) {
+            dropped = dropped + 1;
+            return false;
+        }
+        int index = (int) (h & mask);
+        types[index] = type;
+        timestamps[index] = timestampNanos;
+        head = h + 1;                   // 發布（volatile write）
+        return true;
+    }
+
+    /**
+     * 依序取出所有已發布的事件（只能由單一消費者執行緒呼叫）
+     *
+     * @return 取出的事件數
+     */
+    public int drain(Handler handler) {
+        long t = tail;
+        long h = head;                  // 只讀一次：drain 期間新進的事件留給下一個 tick
+        for (long i = t; i < h; i++) {
+            int index = (int) (i & mask);
+            handler.onInput(types[index], timestamps[index]);
+        }
+        tail = h;                       // 釋放格子給生產者
+        return (int) (h - t);
+    }
+
+    /** 目前等待中的事件數（近似值，兩端可能正在移動） */
+    public int size() {
+        return (int) (head - tail);
+    }
+
+    public int getCapacity() { return mask + 1; }
+
+    /** 因佇列滿而丟棄的事件數 */
+    public long getDroppedCount() { return dropped; }
+}
@@ -0,0 +1,176 @@
+package com.example.firstapp.core;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 輸入錄製（緊湊二進位格式，經由緩衝的 NIO Channel 寫入）
+ *
+ * 為什麼錄「輸入」而不是錄「狀態」：
+ * - 模擬是確定性的（固定步長 + 固定亂數種子），同樣的輸入序列 → 同樣的每一個 tick
+ * - 一場 10 分鐘的遊戲只有幾百次按鍵 → 檔案只有幾 KB，可以直接附在 bug report 裡
+ * - 類比後端：Event Sourcing — 存事件（指令），需要時重播出狀態
+ *
+ * 檔案格式（big-endian）：
+ *   Header: int MAGIC, short VERSION, int SIM_TICK_RATE_HZ
+ *   事件：  byte 類型 + varint tick 差值（相對上一個事件）+ 類型專屬內容
+ *     STEER_LEFT / STEER_RIGHT / STEER_CENTER → 無內容（該 tick 開頭套用的轉向指令）
+ *     RESIZE   → varint 寬 + varint 高（該 tick 之前呼叫的 world.resize）
+ *     CHECKSUM → int（該 tick 結束後的 GameWorld.stateChecksum()，每 CHECKSUM_INTERVAL 個 tick 一筆）
+ *     END      → 無內容（tick = 錄製的總 tick 數）
+ *     SPAWN_INTERVAL → varint 生成間隔（該 tick 之前畫質調節改變了車流密度）
+ *     REWIND   → varint 倒回幾份快照（該 tick 開頭的 GameWorld.rewind）
+ *
+ * 寫入：事件先進預先配置的 ByteBuffer，滿了才寫到 Channel → 模擬執行緒幾乎不碰 I/O
+ * 錯誤處理：I/O 失敗不能讓遊戲當掉 → 記下第一個例外、停止錄製，呼叫端用 getFailure() 檢查
+ *
+ * 不是執行緒安全的 — 只在模擬執行緒上呼叫（GameWorld 負責），flush/close 要在遊戲迴圈停止後
+ */
+public class InputRecorder implements Closeable {
+
+    static final int MAGIC = 0x46414950;     // "FAIP"
+    static final short VERSION = 3;          // 2：新增 SPAWN_INTERVAL；3：新增 REWIND（舊版本的檔案仍可重播）
+
+    // ===== 事件類型 =====
+    static final byte STEER_LEFT = 1;
+    static final byte STEER_RIGHT = 2;
+    static final byte STEER_CENTER = 3;
+    static final byte RESIZE = 4;
+    static final byte CHECKSUM = 5;
+    static final byte END = 6;
+    static final byte SPAWN_INTERVAL = 7;
+    static final byte REWIND = 8;
+
+    /** 每幾個 tick 記錄一次狀態檢查碼（60 = 每秒一次，重播時最晚 1 秒內發現分歧） */
+    public static final int CHECKSUM_INTERVAL = 60;
+
+    private static final int BUFFER_SIZE = 8 * 1024;   // 一個 buffer ≈ 數千個事件
+    private static final int MAX_EVENT_SIZE = 1 + 10 + 5 + 5; // 類型 + tick varint + 兩個 varint
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE); // direct → 寫入 Channel 不多一次複製
+    private long lastTick;          // 上一個事件的 tick（算差值用）
+    private long tickCount;         // 已完成的 tick 數（close 時寫進 END）
+    private boolean closed;
+    private IOException failure;    // 第一個 I/O 錯誤（之後不再錄製）
+
+    /**
+     * @param channel 輸出目的地（檔案或測試用的記憶體 Channel）；close() 時一併關閉
+     */
+    public InputRecorder(WritableByteChannel channel) {
+        this.channel = channel;
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putInt(GameConfig.SIM_TICK_RATE_HZ);
+    }
+
+    /** 建立（覆寫）檔案並開始錄製 */
+    public static InputRecorder open(File file) throws IOException {
+        return new InputRecorder(FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    // ===== 事件（GameWorld 在模擬執行緒上呼叫） =====
+
+    /** 在 tick 開頭套用了一個轉向指令（STEER_LEFT / STEER_RIGHT / STEER_CENTER） */
+    void recordSteer(long tick, byte type) {
+        writeEvent(type, tick);
+    }
+
+    /** 在 tick 之前改變了世界尺寸 */
+    void recordResize(long tick, int width, int height) {
+        if (!writeEvent(RESIZE, tick)) return;
+        putVarLong(width);
+        putVarLong(height);
+    }
+
+    /** 在 tick 之前改變了車流生成間隔（畫質調節依裝置效能決定 → 必須錄下來才能重播） */
+    void recordSpawnInterval(long tick, int ticks) {
+        if (!writeEvent(SPAWN_INTERVAL, tick)) return;
+        putVarLong(ticks);
+    }
+
+    /** 在 tick 開頭倒帶了 back 份快照（之後的 STEER 事件是倒帶後重新套用的轉向） */
+    void recordRewind(long tick, int back) {
+        if (!writeEvent(REWIND, tick)) return;
+        putVarLong(back);
+    }
+
+    /** tick 結束後的狀態檢查碼 */
+    void recordChecksum(long tick, int checksum) {
+        if (!writeEvent(CHECKSUM, tick)) return;
+        buffer.putInt(checksum);
+    }
+
+    /** tick 執行完畢（不寫檔，只記下總數給 END 用） */
+    void recordTickEnd(long tick) {
+        tickCount = tick + 1;
+    }
+
+    /**
+     * 寫入事件的共同部分（類型 + tick 差值）
+     * @return false = 已關閉或已失敗，呼叫端不要再寫內容
+     */
+    private boolean writeEvent(byte type, long tick) {
+        if (closed || failure != null) return false;
+        if (buffer.remaining() < MAX_EVENT_SIZE) {
+            drain();
+            if (failure != null) return false;
+        }
+        buffer.put(type);
+        putVarLong(tick - lastTick);
+        lastTick = tick;
+        return true;
+    }
+
+    /** 無號 varint（每 byte 7 bits，最高位 = 後面還有）→ 小數字只佔 1 byte */
+    private void putVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    // ===== 輸出 =====
+
+    /** 把緩衝區寫到 Channel（遊戲迴圈停止後呼叫，例如 onPause） */
+    public void flush() {
+        if (!closed) drain();
+    }
+
+    /**
+     * 寫入 END 事件（tick = 錄製的總 tick 數）並關閉
+     * 遊戲迴圈停止後呼叫（例如 onDestroy）
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        writeEvent(END, tickCount);
+        drain();
+        closed = true;
+        channel.close();
+        if (failure != null) throw failure;
+    }
+
+    /** 第一個 I/O 錯誤（null = 正常） */
+    public IOException getFailure() { return failure; }
+
+    private void drain() {
+        if (failure != null) return;
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+        buffer.clear();
+    }
+}
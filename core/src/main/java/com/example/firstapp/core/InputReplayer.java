@@ -0,0 +1,231 @@
+package com.example.firstapp.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 無畫面重播（以 CPU 最快速度重跑 InputRecorder 錄下的輸入）
+ *
+ * 用途：
+ * - 效能剖析：沒有 VSYNC、沒有繪製 → 量到的就是純模擬成本（ticks/sec）
+ * - 回歸測試：每個 tick 計算 GameWorld.stateChecksum()，與錄製時的檢查碼比對
+ *   → 改了物理/碰撞後，第一個對不上的 tick 就是行為分歧的位置
+ *
+ * 重播順序與錄製完全相同：
+ *   tick t：套用 RESIZE / SPAWN_INTERVAL / REWIND / 轉向指令(t)（依錄製順序）→ world.onUpdate() → 比對 CHECKSUM(t)
+ *
+ * 命令列：./gradlew :core:replay -Plog=input-log.bin
+ * 類比後端：Event Sourcing 的 replay — 從事件日誌重建狀態並驗證
+ */
+public class InputReplayer {
+
+    /** 每個 tick 的回呼（例如輸出完整的檢查碼序列做 diff） */
+    public interface TickListener {
+        void onTick(long tick, int checksum);
+    }
+
+    /** 重播結果 */
+    public static final class Result {
+        public final long ticks;              // 重播的 tick 數
+        public final long elapsedNanos;       // 模擬耗時
+        public final int finalChecksum;       // 最後一個 tick 的狀態檢查碼
+        public final int checksumsVerified;   // 比對過的檢查碼數
+        public final long firstDivergentTick; // 第一個不一致的 tick（-1 = 全部一致）
+
+        Result(long ticks, long elapsedNanos, int finalChecksum, int checksumsVerified, long firstDivergentTick) {
+            this.ticks = ticks;
+            this.elapsedNanos = elapsedNanos;
+            this.finalChecksum = finalChecksum;
+            this.checksumsVerified = checksumsVerified;
+            this.firstDivergentTick = firstDivergentTick;
+        }
+
+        public double getTicksPerSecond() {
+            return elapsedNanos == 0 ? 0 : ticks * 1e9 / elapsedNanos;
+        }
+
+        public boolean isDiverged() { return firstDivergentTick >= 0; }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "ticks=%d elapsedMs=%.1f ticksPerSec=%.0f checksum=%08x verified=%d %s",
+                    ticks, elapsedNanos / 1e6, getTicksPerSecond(), finalChecksum, checksumsVerified,
+                    isDiverged() ? "DIVERGED at tick " + firstDivergentTick : "OK");
+        }
+    }
+
+    // ===== 解碼後的事件（平行陣列，重播迴圈中只讀陣列） =====
+    private byte[] types = new byte[64];
+    private long[] ticks = new long[64];
+    private int[] argA = new int[64];     // RESIZE 寬 / CHECKSUM 值 / SPAWN_INTERVAL 間隔 / REWIND 份數
+    private int[] argB = new int[64];     // RESIZE 高
+    private int eventCount;
+    private long totalTicks = -1;         // END 事件的 tick（-1 = 檔案沒有 END，例如錄製中當機）
+
+    /**
+     * 解碼日誌
+     *
+     * @throws IOException 格式錯誤（magic/版本/tick 頻率不符）
+     */
+    public InputReplayer(ByteBuffer log) throws IOException {
+        if (log.remaining() < 10 || log.getInt() != InputRecorder.MAGIC) {
+            throw new IOException("Not an input log");
+        }
+        short version = log.getShort();
+        if (version < 1 || version > InputRecorder.VERSION) {
+            throw new IOException("Unsupported input log version " + version);
+        }
+        int tickRate = log.getInt();
+        if (tickRate != GameConfig.SIM_TICK_RATE_HZ) {
+            throw new IOException("Log recorded at " + tickRate + " Hz, simulation runs at " + GameConfig.SIM_TICK_RATE_HZ);
+        }
+
+        long tick = 0;
+        try {
+            while (log.hasRemaining()) {
+                byte type = log.get();
+                tick += getVarLong(log);
+                int a = 0;
+                int b = 0;
+                switch (type) {
+                    case InputRecorder.STEER_LEFT:
+                    case InputRecorder.STEER_RIGHT:
+                    case InputRecorder.STEER_CENTER:
+                        break;
+                    case InputRecorder.RESIZE:
+                        a = (int) getVarLong(log);
+                        b = (int) getVarLong(log);
+                        break;
+                    case InputRecorder.SPAWN_INTERVAL:
+                    case InputRecorder.REWIND:
+                        a = (int) getVarLong(log);
+                        break;
+                    case InputRecorder.CHECKSUM:
+                        a = log.getInt();
+                        break;
+                    case InputRecorder.END:
+                        totalTicks = tick;
+                        return;
+                    default:
+                        throw new IOException("Unknown event type " + type);
+                }
+                add(type, tick, a, b);
+            }
+        } catch (BufferUnderflowException e) {
+            // 最後一個事件不完整（錄製中被強制結束）→ 保留已解碼的部分
+        }
+    }
+
+    /** 讀取整個檔案（日誌只有幾 KB → 一次讀進記憶體） */
+    public static InputReplayer read(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // 讀到滿為止
+            }
+            buffer.flip();
+            return new InputReplayer(buffer);
+        }
+    }
+
+    /** 以最快速度重播到 END（沒有 END 時重播到最後一個事件） */
+    public Result replay(GameWorld world) {
+        return replay(world, null);
+    }
+
+    /**
+     * 以最快速度重播
+     *
+     * @param world    全新的 GameWorld（與錄製時相同的初始狀態）
+     * @param listener 每個 tick 的檢查碼回呼（null = 不需要）
+     */
+    public Result replay(GameWorld world, TickListener listener) {
+        long endTick = totalTicks >= 0 ? totalTicks : (eventCount == 0 ? 0 : ticks[eventCount - 1] + 1);
+        int cursor = 0;
+        int verified = 0;
+        long divergedAt = -1;
+        int checksum = 0;
+
+        long start = System.nanoTime();
+        for (long tick = 0; tick < endTick; tick++) {
+            // ===== tick 開頭：尺寸 + 轉向指令 =====
+            while (cursor < eventCount && ticks[cursor] == tick && types[cursor] != InputRecorder.CHECKSUM) {
+                switch (types[cursor]) {
+                    case InputRecorder.RESIZE:       world.resize(argA[cursor], argB[cursor]); break;
+                    case InputRecorder.SPAWN_INTERVAL: world.setObstacleSpawnInterval(argA[cursor]); break;
+                    case InputRecorder.REWIND:       world.rewind(argA[cursor]); break;
+                    case InputRecorder.STEER_LEFT:   world.moveLeft();     break;
+                    case InputRecorder.STEER_RIGHT:  world.moveRight();    break;
+                    case InputRecorder.STEER_CENTER: world.stopSteering(); break;
+                    default: break;
+                }
+                cursor++;
+            }
+
+            world.onUpdate();
+            checksum = world.stateChecksum();
+            if (listener != null) listener.onTick(tick, checksum);
+
+            // ===== tick 結束：比對檢查碼 =====
+            while (cursor < eventCount && ticks[cursor] == tick && types[cursor] == InputRecorder.CHECKSUM) {
+                verified++;
+                if (argA[cursor] != checksum && divergedAt < 0) divergedAt = tick;
+                cursor++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Result(endTick, elapsed, checksum, verified, divergedAt);
+    }
+
+    /** 錄製的總 tick 數（-1 = 沒有 END 事件） */
+    public long getTotalTicks() { return totalTicks; }
+
+    public int getEventCount() { return eventCount; }
+
+    private void add(byte type, long tick, int a, int b) {
+        if (eventCount == types.length) {
+            int capacity = eventCount * 2;
+            types = Arrays.copyOf(types, capacity);
+            ticks = Arrays.copyOf(ticks, capacity);
+            argA = Arrays.copyOf(argA, capacity);
+            argB = Arrays.copyOf(argB, capacity);
+        }
+        types[eventCount] = type;
+        ticks[eventCount] = tick;
+        argA[eventCount] = a;
+        argB[eventCount] = b;
+        eventCount++;
+    }
+
+    private static long getVarLong(ByteBuffer in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    /** 命令列入口：java ... InputReplayer <log> [repeat] */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: InputReplayer <input-log.bin> [repeat]");
+            System.exit(2);
+        }
+        InputReplayer replayer = read(new File(args[0]));
+        int repeat = args.length > 1 ? Integer.parseInt(args[1]) : 5;   // 前幾輪是 JIT 暖身
+        Result result = null;
+        for (int i = 0; i < repeat; i++) {
+            result = replayer.replay(new GameWorld());
+            System.out.println("run " + (i + 1) + ": " + result);
+        }
+        if (result != null && result.isDiverged()) System.exit(1);
+    }
+}
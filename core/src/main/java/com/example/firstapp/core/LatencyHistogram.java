@@ -0,0 +1,103 @@
+package com.example.firstapp.core;
+
+/**
+ * 延遲直方圖（奈秒，對數-線性分桶，預先配置）
+ *
+ * 為什麼不存每一筆樣本再排序：
+ * - 每幀記錄 10 個階段 × 60 fps → 存樣本就得一直擴容或配置 → 量測本身造成 GC 掉幀
+ * - 這裡建構時配置一個固定的 long[]，record() 只做一次位元運算 + 陣列遞增 → 0 配置
+ *
+ * 分桶方式（HdrHistogram 的簡化版）：
+ * - 每個 2 的次方區間再切成 16 格 → 相對誤差 ≤ 1/16（約 6%）
+ * - 0~15 ns 各自一格；上限 2^MAX_EXPONENT ns（約 18 分鐘），超過的放最後一格
+ *   例：1 ms 附近的分桶寬度 = 65 µs，16.6 ms 附近 = 1 ms
+ *
+ * 類比後端：Micrometer 的 Timer / Prometheus histogram — 固定分桶、只累加計數
+ *
+ * 執行緒模型：單一寫入者（模擬/繪製執行緒）、無鎖
+ * 讀取（百分位數、dump）必須在同一條執行緒，或在寫入執行緒停止（join）之後
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;                        // 每個 2 的次方切 16 格
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;                          // 上限 2^40 ns
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+
+    private final long[] counts = new long[BUCKET_COUNT]; // 每格的樣本數
+    private long totalCount;    // 樣本總數
+    private long totalNanos;    // 樣本總和（算平均用）
+    private long maxNanos;      // 最大值（精確，不受分桶誤差影響）
+
+    /** 記錄一筆樣本（負值視為 0） */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts[bucketOf(nanos)]++;
+        totalCount++;
+        totalNanos += nanos;
+        if (nanos > maxNanos) maxNanos = nanos;
+    }
+
+    /** 清除所有樣本（不配置記憶體） */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) counts[i] = 0;
+        totalCount = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+    }
+
+    /**
+     * 百分位數（奈秒）：回傳第一個累計比例 ≥ percentile 的分桶中點
+     *
+     * @param percentile 0 ~ 100（例如 50 = 中位數、99 = p99）
+     * @return 沒有樣本時回傳 0
+     */
+    public long getPercentile(double percentile) {
+        if (totalCount == 0) return 0;
+        long rank = (long) Math.ceil(totalCount * Math.min(100.0, Math.max(0.0, percentile)) / 100.0);
+        if (rank < 1) rank = 1;
+
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(midpointOf(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    public long getCount() { return totalCount; }
+    public long getMaxNanos() { return maxNanos; }
+
+    /** 平均值（奈秒，精確） */
+    public long getMeanNanos() {
+        return totalCount == 0 ? 0 : totalNanos / totalCount;
+    }
+
+    // ===== 分桶換算 =====
+
+    /** 數值 → 分桶索引 */
+    static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKET_COUNT) return (int) nanos;
+        int msb = 63 - Long.numberOfLeadingZeros(nanos);
+        if (msb > MAX_EXPONENT) return BUCKET_COUNT - 1;               // 超出上限 → 最後一格
+        int shift = msb - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) ((nanos >>> shift) & (SUB_BUCKET_COUNT - 1));
+    }
+
+    /** 分桶下界（含） */
+    static long lowerBoundOf(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) return bucket;
+        int shift = bucket / SUB_BUCKET_COUNT - 1;
+        long sub = bucket % SUB_BUCKET_COUNT;
+        return (SUB_BUCKET_COUNT + sub) << shift;
+    }
+
+    /** 分桶中點（回報用） */
+    static long midpointOf(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) return bucket;
+        int shift = bucket / SUB_BUCKET_COUNT - 1;
+        return lowerBoundOf(bucket) + ((1L << shift) >> 1);
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.firstapp.core;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 連線對戰的客戶端（本機預測 + 伺服器校正）
+ *
+ * 客戶端預測（client-side prediction）：按下轉向的那一 tick 就在本機模擬 → 手感與單機相同，不必等來回延遲
+ * 校正（reconciliation）：快照帶著「伺服器已套用到第 k 個輸入」
+ * → 拿第 k 步的預測與伺服器狀態比對（量化後的整數）
+ * → 一樣：什麼都不做；不一樣：還原成伺服器狀態，再把 k+1 ~ 目前的輸入重跑一次
+ * 伺服器與客戶端跑同一段 NetServer.step()，所以沒掉輸入時預測永遠正確（校正次數 = 0）
+ *
+ * 端到端延遲：輸入在第 t tick 送出，第一份確認 k ≥ t 的快照在第 now tick 收到 → (now - t) 個 tick
+ * → 記進 LatencyHistogram（含雙向的網路延遲 + 伺服器等待 tick 的時間）
+ * 流量：NetLink 的統計 ÷ tick 數（getReport）
+ *
+ * 穩態 0 配置：輸入歷史、預測歷史、快照 ring 都是建構時配置的陣列；封包用兩個重用的 direct ByteBuffer
+ * 其他玩家：最新一份快照的量化狀態（getPlayerMask / getRemoteX ...），尚未做插值
+ *
+ * 類比後端：樂觀更新（optimistic UI）— 先假設請求會成功並立即更新畫面，回應不同時再以伺服器為準
+ */
+public final class NetClient implements AutoCloseable {
+
+    private static final int HISTORY = GameConfig.NET_HISTORY_TICKS;
+    private static final int HISTORY_MASK = HISTORY - 1;
+    private static final int PLAYERS = GameConfig.NET_MAX_PLAYERS;
+    private static final int FIELDS = SnapshotCodec.FIELDS;
+
+    private final NetLink link;
+    private final Road road = new Road(false);                // 與伺服器相同的直路
+    private final CarFleet fleet = new CarFleet(1);
+    private final Car car = new Car(fleet, 0);
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(GameConfig.NET_MAX_PACKET_BYTES);
+    private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(GameConfig.NET_MAX_PACKET_BYTES);
+
+    // ===== 本機輸入 + 預測歷史（依客戶端 tick） =====
+    private final byte[] inputs = new byte[HISTORY];
+    private final int[] predicted = new int[HISTORY * FIELDS];   // 第 t 步「之後」的量化狀態
+    private long tick;                                           // 下一個輸入的 tick
+
+    // ===== 收到的快照（依伺服器 tick） =====
+    private final int[][] snapshots = new int[HISTORY][PLAYERS * FIELDS];
+    private final int[] snapshotMask = new int[HISTORY];
+    private final long[] snapshotTick = new long[HISTORY];
+    private long newestSnapshot = -1L;                           // 收到過最新的伺服器 tick
+    private long newestAck = -1L;                                // 最新快照確認的輸入 tick
+    private int slot = -1;                                       // 伺服器分配的 slot（-1 = 還沒加入）
+    private boolean joined;                                      // 已經依 slot 重新起步
+
+    // ===== 統計 =====
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private long lastLatencyAck = -1L;
+    private long corrections;                                    // 預測與伺服器不同而重跑的次數
+    private long replayedTicks;                                  // 校正時重跑的步數
+    private long malformedPackets;
+
+    /**
+     * @param link 已連線的端點（NetLink.connect）；close() 時一併關閉
+     */
+    public NetClient(NetLink link) {
+        this.link = link;
+        road.init(GameConfig.NET_WORLD_WIDTH, GameConfig.NET_WORLD_HEIGHT);
+        NetServer.spawn(car, road, 0);                           // 加入前先預測：第一份快照會把車搬到正確的 slot
+        Arrays.fill(snapshotTick, -1L);
+    }
+
+    public static NetClient connect(InetSocketAddress server) throws IOException {
+        return new NetClient(NetLink.connect(server));
+    }
+
+    /**
+     * 一個客戶端 tick：收快照並校正 → 套用這一 tick 的輸入（預測）→ 送出最近幾個輸入
+     *
+     * @param steer SnapshotCodec.STEER_LEFT / STEER_CENTER / STEER_RIGHT
+     */
+    public void tick(byte steer) throws IOException {
+        if (receiveAll()) reconcile();
+
+        int h = (int) tick & HISTORY_MASK;
+        inputs[h] = steer;
+        NetServer.step(car, road, steer);
+        SnapshotCodec.quantize(fleet, 0, predicted, h * FIELDS);
+
+        sendInputs();
+        link.flush(tick);
+        tick++;
+    }
+
+    // ===== 收 =====
+
+    /** @return 是否收到比之前更新的快照 */
+    private boolean receiveAll() throws IOException {
+        boolean fresh = false;
+        while (link.receive(receiveBuffer) != null) {
+            try {
+                if (receiveBuffer.get() == SnapshotCodec.TYPE_SNAPSHOT && readSnapshot(receiveBuffer)) fresh = true;
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                malformedPackets++;
+            }
+        }
+        return fresh;
+    }
+
+    private boolean readSnapshot(ByteBuffer in) {
+        long serverTick = SnapshotCodec.getVarInt(in) & 0xFFFFFFFFL;
+        int distance = SnapshotCodec.getVarInt(in);
+        long ack = SnapshotCodec.getVarInt(in) - 1L;
+        int yourSlot = in.get();
+        int mask = in.get() & 0xFF;
+        if (yourSlot < 0 || yourSlot >= PLAYERS || (mask & (1 << yourSlot)) == 0) {
+            throw new IllegalArgumentException("bad slot " + yourSlot);
+        }
+        if (serverTick <= newestSnapshot) return false;             // 亂序 / 重複：已經有更新的
+
+        int[] baseline = null;
+        int baselineMask = 0;
+        if (distance != 0) {
+            long baseTick = serverTick - distance;
+            int b = (int) baseTick & HISTORY_MASK;
+            if (baseTick < 0 || snapshotTick[b] != baseTick) return false;   // baseline 已被覆蓋：等下一份
+            baseline = snapshots[b];
+            baselineMask = snapshotMask[b];
+        }
+        int h = (int) serverTick & HISTORY_MASK;
+        int[] out = snapshots[h];
+        for (int p = 0; p < PLAYERS; p++) {
+            if ((mask & (1 << p)) == 0) continue;
+            int offset = p * FIELDS;
+            SnapshotCodec.getCar(in, (baselineMask & (1 << p)) != 0 ? baseline : null, offset, out, offset);
+        }
+        snapshotTick[h] = serverTick;
+        snapshotMask[h] = mask;
+        newestSnapshot = serverTick;
+        newestAck = ack;
+        slot = yourSlot;
+        return true;
+    }
+
+    // ===== 校正 =====
+
+    private void reconcile() {
+        int[] server = snapshots[(int) newestSnapshot & HISTORY_MASK];
+        int offset = slot * FIELDS;
+        long ack = newestAck;
+
+        if (ack > lastLatencyAck) {
+            latency.record((tick - ack) * GameConfig.SIM_STEP_NANOS);
+            lastLatencyAck = ack;
+        }
+        if (!joined) {                                              // 第一份快照：從 slot 的起點重跑全部輸入
+            joined = true;
+            NetServer.spawn(car, road, slot);
+            replay(0L);
+        }
+        if (ack < 0) return;                                        // 伺服器還沒套用任何輸入
+        if (ack >= tick || tick - ack >= HISTORY) {                 // 確認超出預測歷史（不該發生）→ 直接採用
+            SnapshotCodec.restore(fleet, 0, server, offset);
+            return;
+        }
+        if (SnapshotCodec.matches(predicted, ((int) ack & HISTORY_MASK) * FIELDS, server, offset, 1)) {
+            return;                                                 // 預測正確
+        }
+        corrections++;
+        SnapshotCodec.restore(fleet, 0, server, offset);
+        replay(ack + 1);
+    }
+
+    /** 從第 from 個輸入重跑到目前（最多 NET_HISTORY_TICKS 步），順便更新預測歷史 */
+    private void replay(long from) {
+        for (long t = Math.max(from, tick - HISTORY + 1); t < tick; t++) {
+            int h = (int) t & HISTORY_MASK;
+            NetServer.step(car, road, inputs[h]);
+            SnapshotCodec.quantize(fleet, 0, predicted, h * FIELDS);
+            replayedTicks++;
+        }
+    }
+
+    // ===== 送 =====
+
+    private void sendInputs() throws IOException {
+        int count = (int) Math.min(GameConfig.NET_INPUT_REDUNDANCY, tick + 1);
+        ByteBuffer out = sendBuffer;
+        out.clear();
+        out.put(SnapshotCodec.TYPE_INPUT);
+        SnapshotCodec.putVarInt(out, (int) tick);
+        SnapshotCodec.putVarInt(out, (int) (newestSnapshot + 1));
+        out.put((byte) count);
+        for (long t = tick - count + 1; t <= tick; t++) out.put(inputs[(int) t & HISTORY_MASK]);
+        out.flip();
+        link.send(out, null, tick);
+    }
+
+    // ===== 查詢 =====
+
+    public Car getCar() { return car; }
+    public Road getRoad() { return road; }
+    public long getTick() { return tick; }
+    public int getSlot() { return slot; }
+    public long getNewestSnapshot() { return newestSnapshot; }
+    /** 最新快照確認的輸入 tick（-1 = 還沒有） */
+    public long getAckedInput() { return newestAck; }
+    public long getCorrections() { return corrections; }
+    public long getReplayedTicks() { return replayedTicks; }
+    public long getMalformedPackets() { return malformedPackets; }
+    public LatencyHistogram getLatency() { return latency; }
+    public NetLink getLink() { return link; }
+
+    /** 最新快照中有哪些玩家（bit i = slot i，包含自己） */
+    public int getPlayerMask() {
+        return newestSnapshot < 0 ? 0 : snapshotMask[(int) newestSnapshot & HISTORY_MASK];
+    }
+
+    /** 最新快照中某位玩家的 x / angle（伺服器狀態，不含本機預測） */
+    public float getRemoteX(int player) {
+        return SnapshotCodec.dequantizeX(latestField(player, SnapshotCodec.FIELD_X));
+    }
+
+    public float getRemoteAngle(int player) {
+        return SnapshotCodec.dequantizeAngle(latestField(player, SnapshotCodec.FIELD_ANGLE));
+    }
+
+    private int latestField(int player, int field) {
+        return snapshots[(int) newestSnapshot & HISTORY_MASK][player * FIELDS + field];
+    }
+
+    /** 上行/下行每 tick 的 payload bytes、端到端延遲、校正次數 */
+    public String getReport() {
+        double ticks = Math.max(1L, tick);
+        return String.format(Locale.US,
+                "upBytesPerTick=%.1f downBytesPerTick=%.1f latencyP50=%.1fms latencyP99=%.1fms corrections=%d replayed=%d dropped=%d",
+                link.getBytesSent() / ticks, link.getBytesReceived() / ticks,
+                latency.getPercentile(50) / 1e6, latency.getPercentile(99) / 1e6,
+                corrections, replayedTicks, link.getPacketsDropped());
+    }
+
+    @Override
+    public void close() throws IOException {
+        link.close();
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.firstapp.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.PortUnreachableException;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * 非阻塞 UDP 端點（DatagramChannel + 預先配置的 ByteBuffer + 可選的網路狀況模擬）
+ *
+ * 為什麼是 UDP：快照每 tick 都會被下一份取代 → 掉了就掉了，TCP 的重傳反而讓新資料卡在舊資料後面
+ * （head-of-line blocking）；需要可靠的部分（輸入）用「每個封包重送最近 N 個輸入」解決
+ *
+ * 非阻塞：receive() 沒有資料就立即回傳 null → 模擬執行緒每 tick 把收到的封包全部取完，不會被網路卡住
+ * 0 配置：
+ * - 客戶端用 connect() 的 channel → read()/write() 不需要 SocketAddress 物件
+ * - 伺服器未連線的 channel 每次 receive() 換了來源就會 new 一個 InetSocketAddress（JDK 只快取上一個）
+ *   → 每位玩家加入時 accept() 一個同 port 的 connected channel，之後那位玩家的封包由核心直接分派過去
+ *   （connected socket 的比對分數較高），用 read() 收 → 穩態 0 配置；未連線的 channel 只收新玩家
+ * - 延遲模擬的佇列是建構時配置好的 direct ByteBuffer ring
+ *
+ * 網路狀況模擬（simulate）：送出時依機率丟棄、或延遲固定 tick 數才真的送出（flush 時）
+ * → 在 127.0.0.1 上就能重現手機網路的掉包與延遲，而且用種子 → 每次測試結果相同
+ *
+ * 統計：送出/收到的封包數與 payload bytes（不含 28 bytes 的 IP/UDP 標頭）、被模擬丟棄的封包數
+ *
+ * 不是執行緒安全的 — 只在模擬執行緒上呼叫
+ * 類比後端：Netty 的 NioDatagramChannel + 測試用的 chaos proxy（Toxiproxy）
+ */
+public final class NetLink implements Closeable {
+
+    private final DatagramChannel channel;
+    private final SocketAddress remote;     // connect() 的對象（null = 未連線，送出時指定目的地）
+    private final NetLink stats;            // 統計記到哪個端點（accept() 的端點記到伺服器的端點）
+
+    // ===== 網路狀況模擬（延遲佇列：ring of 預先配置的 buffer） =====
+    private float lossRate;                 // 掉包機率（0 ~ 1）
+    private int delayTicks;                 // 送出延遲（tick）
+    private int rngState = 1;               // xorshift（掉包判定）
+    private final ByteBuffer[] delayed = new ByteBuffer[GameConfig.NET_HISTORY_TICKS];
+    private final SocketAddress[] delayedTarget = new SocketAddress[GameConfig.NET_HISTORY_TICKS];
+    private final long[] delayedRelease = new long[GameConfig.NET_HISTORY_TICKS];
+    private int delayedHead;                // 下一個要送出的位置
+    private int delayedCount;
+
+    // ===== 統計 =====
+    private long packetsSent;
+    private long bytesSent;
+    private long packetsReceived;
+    private long bytesReceived;
+    private long packetsDropped;            // 模擬掉包 + 延遲佇列滿
+
+    private NetLink(DatagramChannel channel, SocketAddress remote, NetLink stats) throws IOException {
+        this.channel = channel;
+        this.remote = remote;
+        this.stats = stats != null ? stats : this;
+        channel.configureBlocking(false);
+        if (stats != null) return;                   // accept() 的端點只收不送 → 不需要延遲佇列
+        for (int i = 0; i < delayed.length; i++) {
+            delayed[i] = ByteBuffer.allocateDirect(GameConfig.NET_MAX_PACKET_BYTES);
+        }
+    }
+
+    /** 伺服器端：綁定本機位址（port 0 = 系統指定，用 getLocalAddress 取得） */
+    public static NetLink bind(InetSocketAddress local) throws IOException {
+        DatagramChannel channel = DatagramChannel.open();
+        try {
+            channel.setOption(StandardSocketOptions.SO_REUSEADDR, true); // accept() 的 channel 要綁同一個 port
+            channel.bind(local);
+            return new NetLink(channel, null, null);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** 客戶端：連線到伺服器（UDP 的 connect 只是固定對象，不會送任何封包） */
+    public static NetLink connect(InetSocketAddress server) throws IOException {
+        DatagramChannel channel = DatagramChannel.open();
+        try {
+            channel.connect(server);
+            return new NetLink(channel, server, null);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 伺服器端：只收 peer 封包的端點（同一個本機位址 + connect(peer)；玩家加入時呼叫一次）
+     * 統計記在這個端點上；送出仍用這個端點（send 指定目的地不配置）
+     *
+     * @throws IOException 平台不允許同 port 的第二個 socket → 呼叫端繼續用這個端點收
+     */
+    public NetLink accept(SocketAddress peer) throws IOException {
+        DatagramChannel peerChannel = DatagramChannel.open();
+        try {
+            peerChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            peerChannel.bind(channel.getLocalAddress());
+            peerChannel.connect(peer);
+            return new NetLink(peerChannel, peer, this);
+        } catch (IOException | RuntimeException e) {
+            peerChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 開啟網路狀況模擬（只影響這個端點送出的封包）
+     *
+     * @param lossRate   掉包機率（0 ~ 1）
+     * @param delayTicks 單程延遲（tick；0 = 立即送出）
+     * @param seed       掉包亂數種子
+     */
+    public void simulate(float lossRate, int delayTicks, int seed) {
+        if (stats != this) throw new IllegalStateException("accept() links only receive");
+        if (delayTicks < 0 || delayTicks >= delayed.length) {
+            throw new IllegalArgumentException("delayTicks must be 0.." + (delayed.length - 1));
+        }
+        this.lossRate = lossRate;
+        this.delayTicks = delayTicks;
+        this.rngState = seed != 0 ? seed : 1;
+    }
+
+    /**
+     * 送出一個封包（packet 的 position ~ limit；呼叫後 buffer 可以立即重用）
+     *
+     * @param target 目的地（connect() 的端點傳 null）
+     * @param now    目前的 tick（延遲模擬用）
+     */
+    public void send(ByteBuffer packet, SocketAddress target, long now) throws IOException {
+        if (lossRate > 0f && nextUnit() < lossRate) {
+            packetsDropped++;
+            return;
+        }
+        if (delayTicks == 0) {
+            write(packet, target);
+            return;
+        }
+        if (delayedCount == delayed.length) {        // 延遲佇列滿 → 當作掉包
+            packetsDropped++;
+            return;
+        }
+        int i = (delayedHead + delayedCount++) & (delayed.length - 1);
+        ByteBuffer copy = delayed[i];
+        copy.clear();
+        copy.put(packet);
+        copy.flip();
+        delayedTarget[i] = target;
+        delayedRelease[i] = now + delayTicks;
+    }
+
+    /** 送出延遲時間已到的封包（每 tick 呼叫一次） */
+    public void flush(long now) throws IOException {
+        while (delayedCount > 0 && delayedRelease[delayedHead] <= now) {
+            write(delayed[delayedHead], delayedTarget[delayedHead]);
+            delayedTarget[delayedHead] = null;
+            delayedHead = (delayedHead + 1) & (delayed.length - 1);
+            delayedCount--;
+        }
+    }
+
+    /**
+     * 收一個封包（非阻塞）
+     *
+     * @param dst 會被 clear()，收到後 flip() 成可讀狀態
+     * @return 來源位址；沒有封包時回傳 null（connect() 的端點回傳連線對象）
+     */
+    public SocketAddress receive(ByteBuffer dst) throws IOException {
+        dst.clear();
+        SocketAddress source;
+        if (remote != null) {
+            try {
+                if (channel.read(dst) <= 0) return null;
+            } catch (PortUnreachableException e) {
+                return null;                         // 伺服器還沒啟動 / 已關閉（ICMP 回報）→ 視為沒有封包
+            }
+            source = remote;
+        } else {
+            source = channel.receive(dst);
+            if (source == null) return null;
+        }
+        dst.flip();
+        stats.packetsReceived++;
+        stats.bytesReceived += dst.remaining();
+        return source;
+    }
+
+    private void write(ByteBuffer packet, SocketAddress target) throws IOException {
+        int bytes = packet.remaining();
+        int written;
+        try {
+            written = target == null ? channel.write(packet) : channel.send(packet, target);
+        } catch (PortUnreachableException e) {
+            written = 0;                             // 對方還沒啟動 → 與掉包相同
+        }
+        if (written == 0) {                          // 送出緩衝區滿（非阻塞）→ 等同掉包
+            packetsDropped++;
+            return;
+        }
+        packetsSent++;
+        bytesSent += bytes;
+    }
+
+    /** 0 ~ 1 的亂數（xorshift） */
+    private float nextUnit() {
+        int s = rngState;
+        s ^= s << 13;
+        s ^= s >>> 17;
+        s ^= s << 5;
+        rngState = s;
+        return (s >>> 8) * (1f / (1 << 24));
+    }
+
+    public SocketAddress getLocalAddress() throws IOException { return channel.getLocalAddress(); }
+    public long getPacketsSent() { return packetsSent; }
+    public long getBytesSent() { return bytesSent; }
+    public long getPacketsReceived() { return packetsReceived; }
+    public long getBytesReceived() { return bytesReceived; }
+    public long getPacketsDropped() { return packetsDropped; }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,346 @@
+package com.example.firstapp.core;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * 連線對戰的權威伺服器（每位玩家一台車，同一條直路；每 tick 送出差量快照）
+ *
+ * 權威（authoritative）：車輛位置只有伺服器說了算；客戶端送的是「輸入」不是「位置」
+ * → 作弊的客戶端最多只能按自己的按鈕；客戶端的預測錯了就以伺服器為準校正（NetClient）
+ *
+ * 每個玩家的車只在「收到那位玩家的下一個輸入」時前進一步（輸入 tick 一個對一個）
+ * → 伺服器上的狀態可以精確對應到「客戶端第 k 個輸入之後」，客戶端拿同一個 k 比對自己的預測
+ * 掉包：每個輸入封包帶最近 NET_INPUT_REDUNDANCY 個輸入 → 單一封包掉了，下一個封包補上
+ * 連續掉太多（超過重送範圍）→ 沿用上一個轉向補齊，客戶端會在下一份快照校正
+ *
+ * 斷線：UDP 沒有連線狀態 → 連續 NET_HISTORY_TICKS 個 tick 沒收到某位玩家的封包就視為離開，
+ * 清掉位址、playerMask 與輸入歷史，slot 讓給下一位加入的玩家（超過歷史長度的延遲本來就無法同步）
+ *
+ * 快照：每 tick 每位玩家一份，相對「該玩家已確認收到的快照」做差量（SnapshotCodec）
+ * 伺服器保留最近 NET_HISTORY_TICKS 個 tick 的量化狀態當 baseline；確認太舊就送完整快照
+ *
+ * 單執行緒：tick() 在同一條執行緒上依序「收 → 模擬 → 記錄 → 送」，不需要鎖
+ * 穩態 0 配置：所有 buffer / 歷史陣列建構時配置；新玩家加入時才記下對方位址並 accept() 一個只收他封包的端點
+ * （未連線的 channel 每換一個來源就配置一個位址物件 → 穩態的封包都走 connected 的端點）
+ *
+ * 命令列（loopback 量測）：./gradlew :core:netLoopback -Ploss=0.05 -Pdelay=6
+ * 類比後端：遊戲伺服器的 tick loop — 與 request/response 不同，伺服器主動以固定頻率推送狀態
+ */
+public final class NetServer implements AutoCloseable {
+
+    private static final int HISTORY_MASK = GameConfig.NET_HISTORY_TICKS - 1;
+    private static final int PLAYERS = GameConfig.NET_MAX_PLAYERS;
+
+    private final NetLink link;
+    private final Road road = new Road(false);                // 直路（兩端的路邊必須完全相同）
+    private final CarFleet fleet = new CarFleet(PLAYERS);
+    private final Car[] cars = new Car[PLAYERS];
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(GameConfig.NET_MAX_PACKET_BYTES);
+    private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(GameConfig.NET_MAX_PACKET_BYTES);
+
+    // ===== 每位玩家（slot） =====
+    private final SocketAddress[] addresses = new SocketAddress[PLAYERS]; // null = 空位
+    private final NetLink[] peers = new NetLink[PLAYERS];     // 只收這位玩家封包的端點（null = 平台不支援，改由 link 收）
+    private final byte[][] inputs = new byte[PLAYERS][GameConfig.NET_HISTORY_TICKS];  // 轉向（依客戶端 tick）
+    private final long[][] inputTicks = new long[PLAYERS][GameConfig.NET_HISTORY_TICKS]; // 這一格是哪個 tick 的
+    private final long[] nextInput = new long[PLAYERS];       // 下一個要套用的客戶端 tick
+    private final long[] newestInput = new long[PLAYERS];     // 收到過最新的客戶端 tick
+    private final long[] lastProcessed = new long[PLAYERS];   // 最後套用的客戶端 tick（-1 = 還沒有）
+    private final long[] ackedSnapshot = new long[PLAYERS];   // 客戶端確認收到的快照 tick（-1 = 還沒有）
+    private final byte[] lastSteer = new byte[PLAYERS];
+    private final long[] lastHeard = new long[PLAYERS];       // 最後收到這位玩家封包的伺服器 tick
+    private int playerMask;                                   // 有人的 slot（bit i = slot i）
+
+    // ===== 快照歷史（baseline 用） =====
+    private final int[][] history = new int[GameConfig.NET_HISTORY_TICKS][PLAYERS * SnapshotCodec.FIELDS];
+    private final int[] historyMask = new int[GameConfig.NET_HISTORY_TICKS];
+    private final long[] historyTick = new long[GameConfig.NET_HISTORY_TICKS];
+
+    private long tick;                  // 伺服器 tick
+    private long extrapolatedInputs;    // 因連續掉包而沿用上一個轉向的輸入數
+    private long malformedPackets;      // 格式錯誤被丟棄的封包數
+    private long evictedPlayers;        // 因為太久沒有封包而被移除的玩家數
+
+    /**
+     * @param link 已綁定的端點（NetLink.bind）；close() 時一併關閉
+     */
+    public NetServer(NetLink link) {
+        this.link = link;
+        road.init(GameConfig.NET_WORLD_WIDTH, GameConfig.NET_WORLD_HEIGHT);
+        for (int i = 0; i < PLAYERS; i++) cars[i] = new Car(fleet, i);
+        Arrays.fill(historyTick, -1L);
+    }
+
+    /** 綁定 host:port（port 0 = 系統指定） */
+    public static NetServer bind(InetSocketAddress local) throws IOException {
+        return new NetServer(NetLink.bind(local));
+    }
+
+    /** 玩家 slot 的起始位置：依序排在各車道，畫面下方 1/3 處（客戶端收到第一份快照前也用這個預測） */
+    public static void spawn(Car car, Road road, int slot) {
+        float[] lanes = road.getLanes();
+        car.setPosition(lanes[(slot + 1) % lanes.length], GameConfig.NET_WORLD_HEIGHT * 2f / 3f);
+        car.getFleet().restore(car.getSlot(), car.getX(), 0f, 0f);
+    }
+
+    /**
+     * 一個伺服器 tick：收完所有封包 → 移除斷線的玩家 → 依輸入推進每位玩家的車 → 記錄快照 → 送給每位玩家
+     */
+    public void tick() throws IOException {
+        receiveAll();
+        evictIdle();
+        for (int slot = 0; slot < PLAYERS; slot++) {
+            if ((playerMask & (1 << slot)) != 0) simulate(slot);
+        }
+        record();
+        for (int slot = 0; slot < PLAYERS; slot++) {
+            if ((playerMask & (1 << slot)) != 0) sendSnapshot(slot);
+        }
+        link.flush(tick);
+        tick++;
+    }
+
+    // ===== 收 =====
+
+    /** 先收新玩家（未連線的端點；也包含 accept 之前就排進佇列的封包），再收每位玩家自己的端點 */
+    private void receiveAll() throws IOException {
+        receiveFrom(link);
+        for (int slot = 0; slot < PLAYERS; slot++) {
+            if (peers[slot] != null) receiveFrom(peers[slot]);
+        }
+    }
+
+    private void receiveFrom(NetLink from) throws IOException {
+        SocketAddress source;
+        while ((source = from.receive(receiveBuffer)) != null) {
+            try {
+                if (receiveBuffer.get() == SnapshotCodec.TYPE_INPUT) readInput(source, receiveBuffer);
+                else malformedPackets++;
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                malformedPackets++;             // 截斷 / 損毀的封包：丟掉，不影響其他玩家
+            }
+        }
+    }
+
+    private void readInput(SocketAddress source, ByteBuffer in) {
+        long newest = SnapshotCodec.getVarInt(in);
+        long acked = SnapshotCodec.getVarInt(in) - 1L;
+        int count = in.get();
+        if (count <= 0 || count > GameConfig.NET_INPUT_REDUNDANCY || in.remaining() < count) {
+            throw new IllegalArgumentException("bad input count " + count);
+        }
+
+        int slot = slotOf(source);
+        if (slot < 0) {
+            slot = join(source, newest - count + 1);
+            if (slot < 0) return;               // 滿了
+        }
+        for (int i = 0; i < count; i++) {
+            long inputTick = newest - count + 1 + i;
+            byte steer = in.get();
+            if (inputTick < nextInput[slot] || inputTick >= nextInput[slot] + GameConfig.NET_HISTORY_TICKS) continue;
+            int h = (int) inputTick & HISTORY_MASK;
+            inputs[slot][h] = steer;
+            inputTicks[slot][h] = inputTick;
+        }
+        lastHeard[slot] = tick;
+        if (newest > newestInput[slot]) newestInput[slot] = newest;
+        if (acked > ackedSnapshot[slot]) ackedSnapshot[slot] = acked;
+    }
+
+    /** 位址 → slot（最多 NET_MAX_PLAYERS 個，線性比對就夠快） */
+    private int slotOf(SocketAddress source) {
+        for (int slot = 0; slot < PLAYERS; slot++) {
+            if (addresses[slot] != null && addresses[slot].equals(source)) return slot;
+        }
+        return -1;
+    }
+
+    private int join(SocketAddress source, long firstInput) {
+        for (int slot = 0; slot < PLAYERS; slot++) {
+            if (addresses[slot] != null) continue;
+            addresses[slot] = source;
+            peers[slot] = accept(source);
+            nextInput[slot] = Math.max(0L, firstInput);
+            newestInput[slot] = -1L;
+            lastProcessed[slot] = -1L;
+            ackedSnapshot[slot] = -1L;
+            lastSteer[slot] = SnapshotCodec.STEER_CENTER;
+            Arrays.fill(inputTicks[slot], -1L);
+            spawn(cars[slot], road, slot);
+            playerMask |= 1 << slot;
+            return slot;
+        }
+        return -1;
+    }
+
+    private NetLink accept(SocketAddress source) {
+        try {
+            return link.accept(source);
+        } catch (IOException e) {
+            return null;                        // 照樣能玩，只是這位玩家的封包由未連線的端點收（會配置位址）
+        }
+    }
+
+    /** 連續 NET_HISTORY_TICKS 個 tick 沒有封包的玩家 → 空出 slot（之後同一個位址再送輸入會重新加入） */
+    private void evictIdle() {
+        for (int slot = 0; slot < PLAYERS; slot++) {
+            if ((playerMask & (1 << slot)) == 0 || tick - lastHeard[slot] < GameConfig.NET_HISTORY_TICKS) continue;
+            addresses[slot] = null;
+            closePeer(slot);
+            playerMask &= ~(1 << slot);
+            Arrays.fill(inputTicks[slot], -1L);   // 舊輸入不能被下一位玩家的同一個 tick 誤用
+            lastProcessed[slot] = -1L;
+            evictedPlayers++;
+        }
+    }
+
+    // ===== 模擬 =====
+
+    /** 套用這位玩家已經到達的輸入（一個輸入 = 一步；延遲抖動後每 tick 最多追 NET_MAX_INPUTS_PER_TICK 步） */
+    private void simulate(int slot) {
+        byte[] steers = inputs[slot];
+        long[] tags = inputTicks[slot];
+        for (int n = 0; n < GameConfig.NET_MAX_INPUTS_PER_TICK && nextInput[slot] <= newestInput[slot]; n++) {
+            long next = nextInput[slot];
+            int h = (int) next & HISTORY_MASK;
+            byte steer;
+            if (tags[h] == next) {
+                steer = steers[h];
+            } else if (newestInput[slot] - next >= GameConfig.NET_INPUT_REDUNDANCY) {
+                steer = lastSteer[slot];        // 所有帶著它的封包都掉了 → 沿用上一個轉向
+                extrapolatedInputs++;
+            } else {
+                break;                          // 亂序：等帶著它的封包
+            }
+            step(cars[slot], road, steer);
+            lastSteer[slot] = steer;
+            lastProcessed[slot] = next;
+            nextInput[slot] = next + 1;
+        }
+    }
+
+    /** 一步車輛模擬（伺服器與客戶端預測共用 → 同樣的輸入得到逐位元相同的結果） */
+    static void step(Car car, Road road, byte steer) {
+        switch (steer) {
+            case SnapshotCodec.STEER_LEFT:  car.moveLeft();     break;
+            case SnapshotCodec.STEER_RIGHT: car.moveRight();    break;
+            default:                        car.stopSteering(); break;
+        }
+        car.update();
+        CollisionDetector.clampToRoad(car, road);
+    }
+
+    // ===== 記錄 + 送 =====
+
+    private void record() {
+        int h = (int) tick & HISTORY_MASK;
+        historyTick[h] = tick;
+        historyMask[h] = playerMask;
+        int[] states = history[h];
+        for (int slot = 0; slot < PLAYERS; slot++) {
+            if ((playerMask & (1 << slot)) != 0) SnapshotCodec.quantize(fleet, slot, states, slot * SnapshotCodec.FIELDS);
+        }
+    }
+
+    private void sendSnapshot(int slot) throws IOException {
+        long acked = ackedSnapshot[slot];
+        int b = (int) acked & HISTORY_MASK;
+        boolean hasBaseline = acked >= 0 && tick - acked < GameConfig.NET_HISTORY_TICKS && historyTick[b] == acked;
+        int[] baseline = hasBaseline ? history[b] : null;
+        int baselineMask = hasBaseline ? historyMask[b] : 0;
+        int[] states = history[(int) tick & HISTORY_MASK];
+
+        ByteBuffer out = sendBuffer;
+        out.clear();
+        out.put(SnapshotCodec.TYPE_SNAPSHOT);
+        SnapshotCodec.putVarInt(out, (int) tick);
+        SnapshotCodec.putVarInt(out, hasBaseline ? (int) (tick - acked) : 0);
+        SnapshotCodec.putVarInt(out, (int) (lastProcessed[slot] + 1));
+        out.put((byte) slot);
+        out.put((byte) playerMask);
+        for (int p = 0; p < PLAYERS; p++) {
+            if ((playerMask & (1 << p)) == 0) continue;
+            int offset = p * SnapshotCodec.FIELDS;
+            SnapshotCodec.putCar(out, states, offset, (baselineMask & (1 << p)) != 0 ? baseline : null, offset);
+        }
+        out.flip();
+        link.send(out, addresses[slot], tick);
+    }
+
+    // ===== 查詢 =====
+
+    public long getTick() { return tick; }
+    public int getPlayerMask() { return playerMask; }
+    public Car getCar(int slot) { return cars[slot]; }
+    /** 這位玩家最後套用的客戶端輸入 tick（-1 = 還沒有） */
+    public long getLastProcessedInput(int slot) { return lastProcessed[slot]; }
+    public long getExtrapolatedInputs() { return extrapolatedInputs; }
+    public long getMalformedPackets() { return malformedPackets; }
+    public long getEvictedPlayers() { return evictedPlayers; }
+    public NetLink getLink() { return link; }
+    public SocketAddress getLocalAddress() throws IOException { return link.getLocalAddress(); }
+
+    private void closePeer(int slot) {
+        if (peers[slot] == null) return;
+        try {
+            peers[slot].close();
+        } catch (IOException e) {
+            // 只收不送的端點：關閉失敗也沒有要清的資料
+        }
+        peers[slot] = null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (int slot = 0; slot < PLAYERS; slot++) closePeer(slot);
+        link.close();
+    }
+
+    // ===== 命令列：loopback 量測 =====
+
+    /**
+     * 在 127.0.0.1 上跑一台伺服器 + 兩個客戶端（隨機轉向），輸出每 tick 流量、端到端延遲、校正次數
+     * java ... NetServer [ticks] [lossRate] [delayTicks]
+     */
+    public static void main(String[] args) throws IOException {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 60 * GameConfig.SIM_TICK_RATE_HZ;
+        float loss = args.length > 1 ? Float.parseFloat(args[1]) : 0.05f;
+        int delay = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+
+        try (NetServer server = bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            server.getLink().simulate(loss, delay, 0x5E4);
+            InetSocketAddress address = (InetSocketAddress) server.getLocalAddress();
+            NetClient[] clients = { NetClient.connect(address), NetClient.connect(address) };
+            Random random = new Random(1);
+            byte[] steer = new byte[clients.length];
+            for (int i = 0; i < clients.length; i++) clients[i].getLink().simulate(loss, delay, 0xC1 + i);
+
+            for (int t = 0; t < ticks; t++) {
+                for (int i = 0; i < clients.length; i++) {
+                    if (random.nextInt(20) == 0) steer[i] = (byte) random.nextInt(3);
+                    clients[i].tick(steer[i]);
+                }
+                server.tick();
+            }
+
+            System.out.println(String.format(Locale.US, "ticks=%d loss=%.0f%% delay=%d ticks each way (%.0f ms)",
+                    ticks, loss * 100, delay, delay * GameConfig.SIM_STEP_NANOS / 1e6));
+            for (int i = 0; i < clients.length; i++) {
+                System.out.println("client " + i + ": " + clients[i].getReport());
+                clients[i].close();
+            }
+            System.out.println(String.format(Locale.US, "server: upBytesPerTick=%.1f downBytesPerTick=%.1f extrapolatedInputs=%d",
+                    server.link.getBytesReceived() / (double) ticks, server.link.getBytesSent() / (double) ticks,
+                    server.extrapolatedInputs));
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.firstapp.core;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 障礙物/車流系統（預先配置的物件池 + 基本型別陣列）
+ *
+ * 為什麼不用 List&lt;Obstacle&gt;：
+ * - 每幀 new Obstacle / new RectF → GC 每隔幾秒就停頓一次（掉幀）
+ * - 這裡所有狀態在建構子一次配置完，之後生成/捲動/回收都只改陣列內容 → 穩態 0 配置
+ *
+ * 資料結構（Sparse Set）：
+ * - 每個障礙物佔一個固定的 slot（0 ~ capacity-1），slot 編號在存活期間不變
+ * - freeSlots：可用 slot 的堆疊（生成時 pop、回收時 push）
+ * - activeSlots[0..activeCount)：存活 slot 的緊密列表（迭代用）
+ * - activeIndex[slot]：slot 在 activeSlots 中的位置（-1 = 未使用）→ O(1) 移除
+ *
+ * 類比後端：資料庫連線池 — 預先建立、借出、歸還，不在熱路徑上建立新物件
+ *
+ * 座標系與 Car 相同：x = 中心，y = 頂部；車流相對畫面向下捲動（玩家往前開）
+ * 只存畫面座標 y（永遠在畫面範圍附近 → float 精度不隨行駛距離下降）；
+ * 需要道路距離時以 road.distanceAt(y, 鏡頭距離) 換成 double
+ */
+public class ObstaclePool {
+
+    /**
+     * 生成/回收通知（例如讓 SpatialGrid 同步加入/移除）
+     * 類比後端：JPA 的 @PostPersist / @PostRemove
+     */
+    public interface Listener {
+        void onSpawn(int slot);
+        void onDespawn(int slot);
+    }
+
+    private static final int NO_SLOT = -1; // 沒有 slot 的標記
+
+    // ===== 每個 slot 的狀態（Struct of Arrays） =====
+    private final float[] x;        // 中心 X 座標（= 所在車道中心）
+    private final float[] y;        // 頂部 Y 座標
+    private final float[] prevY;    // 上一步的 Y 座標（繪製插值用）
+    private final float[] speed;    // 每步向下捲動距離（像素/tick）
+    private final int[] lane;       // 所在車道索引
+
+    // ===== Slot 管理 =====
+    private final int capacity;         // 池容量（同時存在的最大障礙物數）
+    private final int[] freeSlots;      // 可用 slot 堆疊
+    private int freeCount;              // 堆疊內的 slot 數
+    private final int[] activeSlots;    // 存活 slot 的緊密列表
+    private final int[] activeIndex;    // slot → activeSlots 中的位置（NO_SLOT = 未使用）
+    private int activeCount;            // 存活數
+
+    // ===== 生成控制 =====
+    private final int[] laneLastSlot = new int[GameConfig.LANE_COUNT]; // 每條車道最近生成的 slot（防止重疊）
+    private int spawnTimer;             // 距離下一次嘗試生成的 tick 數
+    private int spawnInterval = GameConfig.OBSTACLE_SPAWN_INTERVAL_TICKS; // 生成間隔（密度越高越短）
+    private int rngState;               // xorshift 亂數狀態（可重現：同種子 → 同車流）
+    private final int seed;             // 初始種子（clear() 時還原）
+    private Listener listener;          // 生成/回收通知對象（可為 null）
+
+    /**
+     * 建構子：一次配置所有陣列（之後不再 new）
+     *
+     * @param capacity 同時存在的最大障礙物數
+     * @param seed     亂數種子（相同種子 + 相同輸入 → 相同車流，方便重播與測試）
+     */
+    public ObstaclePool(int capacity, int seed) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        this.capacity = capacity;
+        this.seed = seed;
+        x = new float[capacity];
+        y = new float[capacity];
+        prevY = new float[capacity];
+        speed = new float[capacity];
+        lane = new int[capacity];
+        freeSlots = new int[capacity];
+        activeSlots = new int[capacity];
+        activeIndex = new int[capacity];
+        clear();
+    }
+
+    /**
+     * 回收所有障礙物並重設亂數（例如重新開局）
+     * 不會逐一通知 Listener — 呼叫端自行清空相關索引
+     */
+    public void clear() {
+        activeCount = 0;
+        freeCount = capacity;
+        for (int i = 0; i < capacity; i++) {
+            freeSlots[i] = capacity - 1 - i;  // 由小到大 pop
+            activeIndex[i] = NO_SLOT;
+        }
+        for (int i = 0; i < laneLastSlot.length; i++) {
+            laneLastSlot[i] = NO_SLOT;
+        }
+        rngState = seed != 0 ? seed : 1;      // xorshift 的狀態不能是 0
+        spawnTimer = spawnInterval;
+    }
+
+    /**
+     * 畫面尺寸改變時依比例換算存活障礙物的位置（GameWorld.resize；不通知 Listener — 呼叫端自行重建索引）
+     * 速度是「每 tick 的像素數」且與尺寸無關 → 不換算
+     */
+    void rescale(float scaleX, float scaleY) {
+        for (int i = 0; i < activeCount; i++) {
+            int slot = activeSlots[i];
+            x[slot] *= scaleX;
+            y[slot] *= scaleY;
+            prevY[slot] *= scaleY;
+        }
+    }
+
+    /**
+     * 每個固定步長：生成 → 捲動 → 回收
+     *
+     * @param road 道路（提供車道中心座標與畫面高度）
+     */
+    public void update(Road road) {
+        // ===== Step 1: 生成（計時器到了才嘗試） =====
+        if (--spawnTimer <= 0) {
+            spawnTimer = spawnInterval;
+            int laneIdx = nextInt(GameConfig.LANE_COUNT);
+            if (isLaneClear(laneIdx)) {
+                spawn(laneIdx, -GameConfig.OBSTACLE_HEIGHT, road);
+            }
+        }
+
+        // ===== Step 2+3: 捲動 + 回收（由後往前迭代，swap-remove 不會跳過元素） =====
+        // 程序化道路會彎：每步把 X 對齊所在車道在該高度的中心（直路時 X 不變）
+        float despawnY = road.getScreenHeight();
+        boolean followLanes = road.isProcedural();
+        for (int i = activeCount - 1; i >= 0; i--) {
+            int slot = activeSlots[i];
+            prevY[slot] = y[slot];
+            y[slot] += speed[slot];
+            if (y[slot] > despawnY) {
+                despawn(slot);                // 完全離開畫面下緣
+            } else if (followLanes) {
+                x[slot] = road.getLaneCenterAt(lane[slot], y[slot] + GameConfig.OBSTACLE_HEIGHT / 2f);
+            }
+        }
+    }
+
+    /**
+     * 在指定車道生成一個障礙物
+     *
+     * @param laneIdx 車道索引（0 ~ LANE_COUNT-1）
+     * @param startY  頂部 Y 座標（通常在畫面上方外側）
+     * @return 取得的 slot；池已滿時回傳 -1
+     */
+    public int spawn(int laneIdx, float startY, Road road) {
+        if (freeCount == 0) return NO_SLOT;   // 池已滿：放棄這次生成（不擴容）
+
+        int slot = freeSlots[--freeCount];
+        x[slot] = road.getLaneCenterAt(laneIdx, startY + GameConfig.OBSTACLE_HEIGHT / 2f);
+        y[slot] = startY;
+        prevY[slot] = startY;
+        speed[slot] = GameConfig.LINE_SCROLL_SPEED * GameConfig.TRAFFIC_LANE_SCROLL_FACTORS[laneIdx];
+        lane[slot] = laneIdx;
+
+        activeIndex[slot] = activeCount;
+        activeSlots[activeCount++] = slot;
+        laneLastSlot[laneIdx] = slot;
+        if (listener != null) listener.onSpawn(slot);
+        return slot;
+    }
+
+    /**
+     * 回收一個障礙物（O(1)：用最後一個存活 slot 填補空位）
+     */
+    public void despawn(int slot) {
+        int index = activeIndex[slot];
+        if (index == NO_SLOT) return;         // 已經回收過
+
+        int lastSlot = activeSlots[--activeCount];
+        activeSlots[index] = lastSlot;
+        activeIndex[lastSlot] = index;
+        activeIndex[slot] = NO_SLOT;
+        freeSlots[freeCount++] = slot;
+
+        if (laneLastSlot[lane[slot]] == slot) {
+            laneLastSlot[lane[slot]] = NO_SLOT;
+        }
+        if (listener != null) listener.onDespawn(slot);
+    }
+
+    // ===== 狀態快照（GameWorld.saveState / restoreState） =====
+
+    /**
+     * 快照大小（固定：每個 slot 都寫，不論存活與否 → 同一個池的快照永遠一樣長，可以放進固定大小的 ring）
+     * 每個 slot：x, y, prevY, speed + lane, activeIndex, freeSlots, activeSlots
+     * 共用：freeCount, activeCount, laneLastSlot[], spawnTimer, rngState
+     * 不存 spawnInterval：那是畫質設定（QualityGovernor → GameWorld.applyQuality），不是模擬狀態
+     */
+    int getStateBytes() {
+        return capacity * (4 * 4 + 4 * 4) + (4 + GameConfig.LANE_COUNT) * 4;
+    }
+
+    void writeState(ByteBuffer out) {
+        for (int i = 0; i < capacity; i++) {
+            out.putFloat(x[i]).putFloat(y[i]).putFloat(prevY[i]).putFloat(speed[i]);
+            out.putInt(lane[i]).putInt(activeIndex[i]).putInt(freeSlots[i]).putInt(activeSlots[i]);
+        }
+        out.putInt(freeCount).putInt(activeCount);
+        for (int slot : laneLastSlot) out.putInt(slot);
+        out.putInt(spawnTimer).putInt(rngState);
+    }
+
+    /**
+     * writeState 的反向（不通知 Listener：池的內容整個換掉 → 呼叫端自行重建索引，例如 SpatialGrid）
+     */
+    void readState(ByteBuffer in) {
+        for (int i = 0; i < capacity; i++) {
+            x[i] = in.getFloat();
+            y[i] = in.getFloat();
+            prevY[i] = in.getFloat();
+            speed[i] = in.getFloat();
+            lane[i] = in.getInt();
+            activeIndex[i] = in.getInt();
+            freeSlots[i] = in.getInt();
+            activeSlots[i] = in.getInt();
+        }
+        freeCount = in.getInt();
+        activeCount = in.getInt();
+        for (int i = 0; i < laneLastSlot.length; i++) laneLastSlot[i] = in.getInt();
+        spawnTimer = in.getInt();
+        rngState = in.getInt();
+    }
+
+    /**
+     * 車道入口是否淨空（同車道速度相同，只要最近生成的那台已經走遠就不會重疊）
+     */
+    private boolean isLaneClear(int laneIdx) {
+        int last = laneLastSlot[laneIdx];
+        return last == NO_SLOT || y[last] > GameConfig.OBSTACLE_MIN_GAP;
+    }
+
+    /** xorshift32：無配置、可重現的亂數（java.util.Random 內部有 AtomicLong CAS） */
+    private int nextInt(int bound) {
+        int s = rngState;
+        s ^= s << 13;
+        s ^= s >>> 17;
+        s ^= s << 5;
+        rngState = s;
+        return (s >>> 1) % bound;
+    }
+
+    // ===== 查詢（碰撞偵測、繪製用；slot 來自 getActiveSlot） =====
+
+    /** 存活障礙物數量 */
+    public int getActiveCount() { return activeCount; }
+
+    /** 第 i 個存活障礙物的 slot（0 ≤ i < getActiveCount()） */
+    public int getActiveSlot(int i) { return activeSlots[i]; }
+
+    /** 池容量 */
+    public int getCapacity() { return capacity; }
+
+    /** slot 是否存活 */
+    public boolean isActive(int slot) { return activeIndex[slot] != NO_SLOT; }
+
+    public float getX(int slot) { return x[slot]; }
+    public float getY(int slot) { return y[slot]; }
+    public float getPrevY(int slot) { return prevY[slot]; }   // 上一步的 Y（連續碰撞求這個 tick 的位移）
+    public int getLane(int slot) { return lane[slot]; }
+    public float getWidth() { return GameConfig.OBSTACLE_WIDTH; }
+    public float getHeight() { return GameConfig.OBSTACLE_HEIGHT; }
+
+    /** 取得插值後的 Y 座標（繪製用：0 = 上一步，1 = 目前） */
+    public float getInterpolatedY(int slot, float alpha) {
+        return prevY[slot] + (y[slot] - prevY[slot]) * alpha;
+    }
+
+    /**
+     * 取得碰撞框，寫入呼叫端提供的 Aabb（不配置新物件）
+     */
+    public void getBounds(int slot, Aabb out) {
+        float halfW = GameConfig.OBSTACLE_WIDTH / 2f;
+        out.set(x[slot] - halfW, y[slot], x[slot] + halfW, y[slot] + GameConfig.OBSTACLE_HEIGHT);
+    }
+
+    /** 設定生成/回收通知對象（null = 不通知） */
+    public void setListener(Listener listener) { this.listener = listener; }
+
+    /**
+     * 設定生成間隔（tick），數值越小車流越密
+     */
+    public void setSpawnInterval(int ticks) {
+        spawnInterval = Math.max(1, ticks);
+        if (spawnTimer > spawnInterval) spawnTimer = spawnInterval;
+    }
+
+    /** 目前的生成間隔（tick） */
+    public int getSpawnInterval() { return spawnInterval; }
+}
@@ -0,0 +1,73 @@
+package com.example.firstapp.core;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 行駛距離：long 定點數的總距離（鏡頭 = 畫面下緣的位置）
+ *
+ * 問題：float 只有 24 位元有效數字 → 距離超過 2^24 像素（60 Hz、每 tick 5 像素約 15 小時；
+ * 車速或解析度提高後只要幾小時）之後，每步 +5 會被捨入成 +4 或 +8 → 抖動、程序化路段對不上
+ *
+ * 做法：權威的總距離存成 long 定點數（1/SUBUNITS 像素）→ 累加永遠精確，不會漂移
+ * 讀取時換成 double（精確到 2^53 單位），程序化道路依 double 距離查路段
+ *
+ * 不需要 float 原點搬移（origin rebasing）：所有實體都存畫面座標（車輛 Y 固定、車流與粒子
+ * 都在畫面範圍內），沒有任何 float 的世界前進座標會隨行駛距離變大
+ *
+ * 類比後端：資料庫的 epoch 時間戳（存成 long 整數，不用 float 秒數）
+ */
+public class Odometer {
+
+    /** 定點數的小數位：1 像素 = 1024 單位（2 的次方 → 換算成 double 是精確的） */
+    public static final int SUBUNITS = 1 << 10;
+    private static final double UNIT = 1.0 / SUBUNITS;
+
+    private long travelled;         // 總行駛距離（定點數）
+    private long prevTravelled;     // 上一步的總行駛距離（插值用）
+
+    /** 回到起點（例如程序化道路重新產生） */
+    public void reset() {
+        travelled = 0;
+        prevTravelled = 0;
+    }
+
+    /**
+     * 前進一步
+     *
+     * @param delta 這一步的距離（像素；量化到 1/SUBUNITS 像素，每一步的量化都一樣 → 不漂移）
+     */
+    public void advance(float delta) {
+        prevTravelled = travelled;
+        travelled += Math.round(delta * SUBUNITS);
+    }
+
+    // ===== 查詢 =====
+
+    /** 總行駛距離（像素；double 精確到 2^53 單位 ≈ 8.8 × 10^12 像素） */
+    public double getDistance() {
+        return travelled * UNIT;
+    }
+
+    /** 插值後的總行駛距離（0 = 上一步，1 = 目前） */
+    public double getInterpolatedDistance(float alpha) {
+        return (prevTravelled + (travelled - prevTravelled) * (double) alpha) * UNIT;
+    }
+
+    /** 總行駛距離（整數像素，計分用） */
+    public long getWholeDistance() {
+        return travelled / SUBUNITS;
+    }
+
+    // ===== 狀態快照（Road.writeState / readState） =====
+
+    static final int STATE_BYTES = 2 * 8;
+
+    void writeState(ByteBuffer out) {
+        out.putLong(travelled).putLong(prevTravelled);
+    }
+
+    void readState(ByteBuffer in) {
+        travelled = in.getLong();
+        prevTravelled = in.getLong();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.firstapp.core;
+
+/**
+ * 旋轉後的車輛碰撞框（OBB — Oriented Bounding Box）
+ *
+ * 問題：
+ * - CarRenderer 以車輛中心旋轉 angle 度繪製，但舊的碰撞只用未旋轉的 width/2
+ * - 轉向 ±30° 時：視覺上車角已經插進路邊，或是還沒碰到就被推回來
+ *
+ * 表示法：中心 (cx, cy) + 半寬/半高 + 車身軸向 (cos, sin)
+ * 旋轉方向與 Canvas.rotate() 相同（Y 軸向下，正角度 = 順時針）：
+ *   車身座標 (dx, dy) → 畫面座標 (cx + dx·cos − dy·sin, cy + dx·sin + dy·cos)
+ *
+ * 設計成可重複使用的 scratch 物件：每 tick setFromCar() 覆寫欄位，不配置記憶體
+ * 不是執行緒安全的 — 每條模擬執行緒各自持有一個
+ */
+public final class OrientedBox {
+
+    public float cx;      // 中心 X
+    public float cy;      // 中心 Y
+    public float halfW;   // 半寬（車身座標）
+    public float halfH;   // 半高（車身座標）
+    public float cos;     // cos(angle)
+    public float sin;     // sin(angle)
+
+    /**
+     * 以車輛目前狀態填入（旋轉軸心 = 車輛幾何中心，與 CarRenderer 相同）
+     * sin/cos 直接用 Car 在 update() 算好的快取值，不再重算三角函數
+     */
+    public void setFromCar(Car car) {
+        set(car.getX(), car.getY() + car.getHeight() / 2f,
+                car.getWidth() / 2f, car.getHeight() / 2f,
+                car.getAngleCos(), car.getAngleSin());
+    }
+
+    public void set(float cx, float cy, float halfW, float halfH, float cos, float sin) {
+        this.cx = cx;
+        this.cy = cy;
+        this.halfW = halfW;
+        this.halfH = halfH;
+        this.cos = cos;
+        this.sin = sin;
+    }
+
+    /**
+     * 旋轉後在 X 軸上的投影半徑（= 四個角的 X 座標離中心最遠的距離）
+     * |cos|·halfW + |sin|·halfH
+     */
+    public float extentX() {
+        return Math.abs(cos) * halfW + Math.abs(sin) * halfH;
+    }
+
+    /** 旋轉後在 Y 軸上的投影半徑：|sin|·halfW + |cos|·halfH */
+    public float extentY() {
+        return Math.abs(sin) * halfW + Math.abs(cos) * halfH;
+    }
+
+    /** 包住旋轉後車身的最小 AABB（Broad Phase 用），寫入 out */
+    public void getEnclosingBounds(Aabb out) {
+        float ex = extentX();
+        float ey = extentY();
+        out.set(cx - ex, cy - ey, cx + ex, cy + ey);
+    }
+
+    /**
+     * 取得四個旋轉後的角（順序：左上、右上、右下、左下），寫入 out[0..7] = x0,y0,x1,y1,...
+     * 呼叫端提供長度 ≥ 8 的 scratch 陣列（繪製除錯框或逐角檢查用）
+     */
+    public void getCorners(float[] out) {
+        float ax = cos * halfW;   // 車身 X 軸 × 半寬
+        float ay = sin * halfW;
+        float bx = -sin * halfH;  // 車身 Y 軸 × 半高
+        float by = cos * halfH;
+        out[0] = cx - ax - bx; out[1] = cy - ay - by;  // 左上
+        out[2] = cx + ax - bx; out[3] = cy + ay - by;  // 右上
+        out[4] = cx + ax + bx; out[5] = cy + ay + by;  // 右下
+        out[6] = cx - ax + bx; out[7] = cy - ay + by;  // 左下
+    }
+
+    /**
+     * 分離軸測試（SAT）：OBB 與 AABB 是否相交（貼邊不算）
+     *
+     * 兩個矩形只有 4 條候選分離軸：
+     * 1. 畫面 X 軸、Y 軸（AABB 的邊）→ 等同「包圍盒 AABB 是否重疊」，不重疊就提早結束
+     * 2. 車身的兩條軸 u=(cos, sin)、v=(−sin, cos)
+     * 任何一條軸上投影不重疊 → 存在分離軸 → 沒有相交
+     */
+    public boolean intersects(Aabb box) {
+        float boxHalfW = (box.right - box.left) * 0.5f;
+        float boxHalfH = (box.bottom - box.top) * 0.5f;
+        float dx = (box.left + boxHalfW) - cx;   // 中心差
+        float dy = (box.top + boxHalfH) - cy;
+
+        // ===== 軸 1、2：畫面 X/Y（Early AABB Reject） =====
+        if (Math.abs(dx) >= extentX() + boxHalfW) return false;
+        if (Math.abs(dy) >= extentY() + boxHalfH) return false;
+
+        float absCos = Math.abs(cos);
+        float absSin = Math.abs(sin);
+
+        // ===== 軸 3：車身 u 軸 =====
+        float distU = Math.abs(dx * cos + dy * sin);
+        if (distU >= halfW + boxHalfW * absCos + boxHalfH * absSin) return false;
+
+        // ===== 軸 4：車身 v 軸 =====
+        float distV = Math.abs(-dx * sin + dy * cos);
+        return distV < halfH + boxHalfW * absSin + boxHalfH * absCos;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.firstapp.core;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 車隊平行更新（Fork-Join，有上限的 work-stealing 執行緒池）
+ *
+ * 為什麼可以平行：
+ * - CarFleet.update(from, to) 只讀寫 [from, to) 這段 slot，每台車的下一步只取決於自己的狀態
+ *   → 把 slot 切成不重疊的區段（空間上就是車隊陣列的連續區塊），各區段互不干擾
+ * - 不需要合併結果：每個區段直接寫回自己那段陣列 → 結果與序列版逐位元相同，與執行緒數、排程順序無關
+ *
+ * 屏障（barrier）：
+ * - update() 用 pool.invoke() 等待所有區段完成才回傳
+ *   → GameWorld 接著跑 CollisionDetector 時，所有車都已經是這個 tick 的狀態
+ *   → ForkJoinTask 的 join 建立 happens-before，模擬執行緒看得到工作執行緒寫入的值
+ *
+ * 切塊：
+ * - 區段數 = 執行緒數 × CHUNKS_PER_THREAD → 某顆核心被搶走時，其他核心可以偷工作（work stealing）
+ * - 區段邊界對齊 16 個 float（64 bytes = 一條 cache line）→ 相鄰區段不會寫到同一條 cache line（false sharing）
+ * - 車輛數少於門檻時直接在呼叫端執行緒上序列更新（分派成本比更新本身還高）
+ *
+ * 0 配置：區段任務在建構時配置好，每 tick reinitialize() 後重用
+ * 執行緒池延遲建立：只有真的跑平行路徑才會啟動工作執行緒（單台車的世界不會多出執行緒）
+ *
+ * 類比後端：Spring Batch 的 partitioned step — 資料切片平行處理，全部完成才進入下一個 step
+ */
+public class ParallelFleetUpdater {
+
+    private static final int CHUNKS_PER_THREAD = 4;   // 每條執行緒平均分到幾個區段（越多越好平衡，但分派成本越高）
+    private static final int CACHE_LINE_FLOATS = 16;  // 64 bytes / 4 bytes
+
+    private final int parallelism;        // 執行緒池大小
+    private final int serialThreshold;    // 少於這個數量就序列更新
+    private final ChunkTask[] chunks;     // 預先配置的區段任務
+    private final RootTask root = new RootTask();
+    private ForkJoinPool pool;            // 延遲建立
+    private CarFleet fleet;               // 本次 update 的車隊（只在 invoke 期間有效）
+    private int activeChunks;             // 本次使用的區段數
+
+    /**
+     * @param parallelism     執行緒數（1 = 永遠序列）
+     * @param serialThreshold 車輛數低於此值時序列更新
+     */
+    public ParallelFleetUpdater(int parallelism, int serialThreshold) {
+        if (parallelism <= 0) throw new IllegalArgumentException("parallelism must be > 0");
+        this.parallelism = parallelism;
+        this.serialThreshold = serialThreshold;
+        chunks = new ChunkTask[parallelism * CHUNKS_PER_THREAD];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new ChunkTask();
+        }
+    }
+
+    /** 依 GameConfig：執行緒數 = min(CPU 核心數 - 1, FLEET_MAX_THREADS)（留一顆給 UI/RenderThread） */
+    public ParallelFleetUpdater() {
+        this(Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() - 1, GameConfig.FLEET_MAX_THREADS)),
+                GameConfig.FLEET_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * 更新前 count 台車，回傳時全部完成（屏障）
+     * 只能由單一模擬執行緒呼叫
+     */
+    public void update(CarFleet fleet, int count) {
+        if (parallelism == 1 || count < serialThreshold) {
+            fleet.update(count);
+            return;
+        }
+
+        // 區段大小向上對齊 cache line；車輛少時用較少的區段
+        int chunkSize = (count + chunks.length - 1) / chunks.length;
+        chunkSize = (chunkSize + CACHE_LINE_FLOATS - 1) / CACHE_LINE_FLOATS * CACHE_LINE_FLOATS;
+        int used = 0;
+        for (int from = 0; from < count; from += chunkSize) {
+            chunks[used++].prepare(from, Math.min(count, from + chunkSize));
+        }
+
+        this.fleet = fleet;
+        activeChunks = used;
+        root.reinitialize();
+        pool().invoke(root);   // 阻塞到所有區段完成
+        this.fleet = null;
+    }
+
+    public int getParallelism() { return parallelism; }
+
+    /** 停止工作執行緒（之後再呼叫 update 會重新建立） */
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    private ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism, p -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                thread.setName("FleetWorker-" + thread.getPoolIndex());
+                thread.setDaemon(true);        // 不阻止 JVM / App 結束
+                return thread;
+            }, null, false);
+        }
+        return pool;
+    }
+
+    /** 根任務：fork 其他區段、自己執行第 0 段，再 join 全部（屏障） */
+    @SuppressWarnings("serial")                 // ForkJoinTask 是 Serializable，但任務只在這個 pool 內重用、不會序列化
+    private final class RootTask extends RecursiveAction {
+        @Override
+        protected void compute() {
+            for (int i = 0; i < activeChunks; i++) {
+                chunks[i].reinitialize();
+            }
+            for (int i = 1; i < activeChunks; i++) {
+                chunks[i].fork();
+            }
+            chunks[0].invoke();
+            for (int i = 1; i < activeChunks; i++) {
+                chunks[i].join();
+            }
+        }
+    }
+
+    /** 一個區段：更新 slot [from, to) */
+    @SuppressWarnings("serial")                 // ForkJoinTask 是 Serializable，但任務只在這個 pool 內重用、不會序列化
+    private final class ChunkTask extends RecursiveAction {
+        private int from;
+        private int to;
+
+        void prepare(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            fleet.update(from, to);
+        }
+    }
+}
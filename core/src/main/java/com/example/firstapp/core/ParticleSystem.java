@@ -0,0 +1,141 @@
+package com.example.firstapp.core;
+
+/**
+ * 粒子系統（固定容量的 ring buffer + 基本型別陣列，一種粒子一個實例）
+ *
+ * 用途：撞牆火花（sparks）、急轉輪胎煙（smoke）— 純視覺，不影響模擬結果（不進 stateChecksum）
+ *
+ * 資料結構：
+ * - 狀態全部是 Struct of Arrays（x / y / vx / vy / age），建構子一次配置完 → 執行中 0 配置
+ * - 同一個實例的粒子壽命都一樣 → 先生成的一定先死 → 存活粒子永遠是 ring 裡連續的一段
+ *   [head - liveCount, head)；死亡只要縮短這一段，不需要 free list
+ * - 滿了就覆蓋最舊的粒子（最舊 = 最快消失的，視覺上看不出差別）
+ *
+ * 更新：一個緊湊迴圈（位置 += 速度、速度 ×= 阻力、年齡 + 1），沒有分支、沒有物件
+ * 閒置（沒有存活粒子）時 update() / fillPoints() 第一行就返回 → 成本 = 0
+ *
+ * 繪製：fillPoints() 把所有存活粒子的座標寫進呼叫端的 float[] → 一次 drawPoints() 送出
+ * 位置以 alpha 回推到兩個 tick 之間（x + vx·(alpha − 1)），不需要另存上一步位置
+ *
+ * 執行緒：只在模擬執行緒上呼叫（與 GameWorld.onUpdate、WorldRenderer 同一條）
+ *
+ * 類比後端：固定大小的環狀日誌（ring buffer log）— 寫滿就覆蓋最舊的紀錄
+ */
+public class ParticleSystem {
+
+    private final int capacity;     // 容量（2 的次方）
+    private final int mask;
+    private final int lifetime;     // 壽命（tick）
+    private final float drag;       // 每 tick 速度衰減係數（0~1）
+    private final float[] x;        // X 座標
+    private final float[] y;        // Y 座標
+    private final float[] vx;       // X 速度（像素/tick）
+    private final float[] vy;       // Y 速度（像素/tick）
+    private final int[] age;        // 已存活的 tick 數
+
+    private int head;               // 下一個要寫入的位置（只增不減，用 mask 取索引）
+    private int liveCount;          // 存活數（ring 中 [head - liveCount, head) 這一段）
+    private int rngState;           // xorshift 亂數狀態（只用在散布，視覺用）
+
+    /**
+     * @param capacity 同時存活的最大粒子數（會向上取到 2 的次方）
+     * @param lifetime 壽命（tick）
+     * @param drag     每 tick 速度乘上的係數（1 = 不減速）
+     * @param seed     散布用的亂數種子
+     */
+    public ParticleSystem(int capacity, int lifetime, float drag, int seed) {
+        if (lifetime <= 0) throw new IllegalArgumentException("lifetime must be > 0");
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.lifetime = lifetime;
+        this.drag = drag;
+        x = new float[size];
+        y = new float[size];
+        vx = new float[size];
+        vy = new float[size];
+        age = new int[size];
+        rngState = seed != 0 ? seed : 1;    // xorshift 的狀態不能是 0
+    }
+
+    /**
+     * 生成一個粒子（滿了就覆蓋最舊的）
+     */
+    public void emit(float px, float py, float pvx, float pvy) {
+        int i = head & mask;
+        x[i] = px;
+        y[i] = py;
+        vx[i] = pvx;
+        vy[i] = pvy;
+        age[i] = 0;
+        head++;
+        if (liveCount < capacity) liveCount++;
+    }
+
+    /**
+     * 一次生成 count 個粒子：速度 = 基本速度 + 每軸 ±spread 的隨機散布
+     */
+    public void burst(float px, float py, float baseVx, float baseVy, float spread, int count) {
+        for (int n = 0; n < count; n++) {
+            emit(px, py, baseVx + spread * nextSigned(), baseVy + spread * nextSigned());
+        }
+    }
+
+    /**
+     * 每個固定步長：移動所有存活粒子，回收壽命到了的粒子
+     */
+    public void update() {
+        if (liveCount == 0) return;                  // 閒置：不碰任何陣列
+        final float d = drag;
+        for (int n = head - liveCount; n != head; n++) {
+            int i = n & mask;
+            x[i] += vx[i];
+            y[i] += vy[i];
+            vx[i] *= d;
+            vy[i] *= d;
+            age[i]++;
+        }
+        // 壽命相同 → 最舊的在最前面；從前面縮短存活區段
+        while (liveCount > 0 && age[(head - liveCount) & mask] >= lifetime) {
+            liveCount--;
+        }
+    }
+
+    /**
+     * 把存活粒子的座標寫進 out（x0, y0, x1, y1, ...），給一次 drawPoints() 使用
+     *
+     * @param out   長度 ≥ 2 × getCapacity() 的緩衝區（呼叫端預先配置）
+     * @param alpha 插值係數（0 = 上一步位置，1 = 目前位置）
+     * @return 寫入的 float 數（= 2 × 存活數）
+     */
+    public int fillPoints(float[] out, float alpha) {
+        if (liveCount == 0) return 0;
+        float back = alpha - 1f;                     // 回推到上一步：位置 − 速度（阻力前的速度差異忽略）
+        int count = 0;
+        for (int n = head - liveCount; n != head; n++) {
+            int i = n & mask;
+            out[count++] = x[i] + vx[i] * back;
+            out[count++] = y[i] + vy[i] * back;
+        }
+        return count;
+    }
+
+    /** 清除所有粒子（例如重新開局、畫面尺寸改變） */
+    public void clear() {
+        liveCount = 0;
+    }
+
+    public int getLiveCount() { return liveCount; }
+    public int getCapacity() { return capacity; }
+    public int getLifetime() { return lifetime; }
+
+    /** -1 ~ 1 的隨機數（xorshift） */
+    private float nextSigned() {
+        int s = rngState;
+        s ^= s << 13;
+        s ^= s >>> 17;
+        s ^= s << 5;
+        rngState = s;
+        return (s >> 8) * (1f / (1 << 23));
+    }
+}
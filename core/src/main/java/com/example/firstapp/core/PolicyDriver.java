@@ -0,0 +1,96 @@
+package com.example.firstapp.core;
+
+/**
+ * 用 DrivingPolicy 駕駛一台車（AI 對手 / 自動駕駛 / 訓練用的共同「感測 → 決策 → 轉向」）
+ *
+ * 轉向走的是玩家按鈕同一組 API：Car.moveLeft / stopSteering / moveRight
+ * → AI 與玩家受同樣的物理限制（轉向平滑、最大角度），不會有「AI 專用」的捷徑
+ *
+ * 感測值（INPUTS = 9，全部約在 -1 ~ 1，與畫面解析度無關）：
+ *   0     車輛在路面上的橫向位置（-1 = 左邊界，1 = 右邊界）
+ *   1     車頭角度 / 最大轉向角
+ *   2     目標轉向角 / 最大轉向角
+ *   3~5   各車道中心相對車輛的橫向距離 / 路寬
+ *   6~8   各車道前方最近一台車的威脅度（0 = 畫面內沒有，1 = 已經貼上來）
+ *
+ * 每 tick 0 配置：感測值與隱藏層是建構時配置的 scratch
+ * 不是執行緒安全的 — 一個 driver 只給一台車、一條模擬執行緒用（DrivingPolicy 本身可以共用）
+ */
+public final class PolicyDriver {
+
+    private static final int LANE_INPUTS = 3;       // 感測值 3~5：車道中心
+    private static final int THREAT_INPUTS = 6;     // 感測值 6~8：前方威脅
+
+    private final DrivingPolicy policy;
+    private final float[] inputs = new float[DrivingPolicy.INPUTS];   // 感測值（scratch）
+    private final float[] hidden = new float[DrivingPolicy.HIDDEN];   // 隱藏層（scratch）
+    private int lastAction = -1;                    // 上一次套用的動作（-1 = 尚未套用）
+
+    public PolicyDriver(DrivingPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * 感測 + 決策（不改變車輛狀態）
+     *
+     * @return DrivingPolicy.ACTION_*
+     */
+    public int decide(Car car, Road road, ObstaclePool obstacles) {
+        sense(car, road, obstacles, inputs);
+        return policy.act(inputs, hidden);
+    }
+
+    /**
+     * 感測 + 決策 + 套用到車輛（動作沒變就不呼叫 Car，與按住按鈕的行為相同）
+     *
+     * @return 這個 tick 的動作
+     */
+    public int drive(Car car, Road road, ObstaclePool obstacles) {
+        int action = decide(car, road, obstacles);
+        if (action != lastAction) {
+            switch (action) {
+                case DrivingPolicy.ACTION_LEFT:  car.moveLeft();     break;
+                case DrivingPolicy.ACTION_RIGHT: car.moveRight();    break;
+                default:                         car.stopSteering(); break;
+            }
+            lastAction = action;
+        }
+        return action;
+    }
+
+    /**
+     * 把車輛周圍的狀態寫成感測值（定義見類別說明）
+     *
+     * @param out 長度 DrivingPolicy.INPUTS
+     */
+    public static void sense(Car car, Road road, ObstaclePool obstacles, float[] out) {
+        float x = car.getX();
+        float y = car.getY();
+        float left = road.getLeftEdgeAt(y);
+        float width = road.getRightEdgeAt(y) - left;
+        float maxAngle = GameConfig.CAR_MAX_STEER_ANGLE;
+
+        out[0] = (x - left) / width * 2f - 1f;
+        out[1] = car.getAngle() / maxAngle;
+        out[2] = car.getSteeringAngle() / maxAngle;
+        for (int lane = 0; lane < GameConfig.LANE_COUNT; lane++) {
+            out[LANE_INPUTS + lane] = (road.getLaneCenterAt(lane, y) - x) / width;
+            out[THREAT_INPUTS + lane] = 0f;
+        }
+
+        // 前方威脅：車道上還沒完全通過車尾的車，距離越近越接近 1（範圍 = 一個畫面高）
+        float range = road.getScreenHeight();
+        float carBottom = y + car.getHeight();
+        for (int i = 0, n = obstacles.getActiveCount(); i < n; i++) {
+            int slot = obstacles.getActiveSlot(i);
+            float top = obstacles.getY(slot);
+            if (top >= carBottom) continue;                          // 已經在車子後面
+            float gap = y - (top + obstacles.getHeight());          // < 0 = 縱向已經重疊
+            float threat = gap <= 0f ? 1f : Math.max(0f, 1f - gap / range);
+            int index = THREAT_INPUTS + obstacles.getLane(slot);
+            if (threat > out[index]) out[index] = threat;
+        }
+    }
+
+    public DrivingPolicy getPolicy() { return policy; }
+}
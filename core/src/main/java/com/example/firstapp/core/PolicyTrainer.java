@@ -0,0 +1,294 @@
+package com.example.firstapp.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 無畫面的神經演化訓練器（AI 對手的 DrivingPolicy）
+ *
+ * 為什麼不在遊戲裡調：60 tick/s 的即時畫面一分鐘只能看一場；
+ * 這裡每個 episode 是一個全新的 GameWorld（Car + Road + 車流 + CollisionDetector），
+ * 沒有 VSYNC、沒有繪製 → 以 CPU 最快速度跑，所有核心同時跑不同的 episode
+ *
+ * 演化（精英保留 + 高斯突變，不需要梯度）：
+ * 1. 族群 = POPULATION 個 genome（DrivingPolicy 的參數陣列）
+ * 2. 每一代：每個 genome 跑 EPISODES_PER_GENOME 場（同一代所有 genome 用同一組車流種子 → 公平比較）
+ *    適應度 = 平均撐過的 tick 數（撞到車流就結束，上限 EPISODE_TICKS）
+ * 3. 前 ELITES 名原封不動留到下一代，其餘由隨機一名精英加上 N(0, σ) 突變產生
+ * 4. 每一代換一組車流種子 → 策略要學會「閃車」而不是背下某一場的車流
+ *
+ * 確定性：亂數只在協調執行緒上用（種子 → 突變），每個 episode 的結果只取決於 genome + 車流種子
+ * → 同樣的設定，不論幾條執行緒、排程順序如何，訓練出的策略逐位元相同
+ *
+ * 平行：ForkJoinPool 把族群對半切到每段一個 genome（work stealing 平衡長短不一的 episode）；
+ * genome 之間互不共享狀態，每個 episode 自己建 GameWorld → 不需要任何鎖
+ *
+ * 命令列：./gradlew :core:train                     → 訓練並輸出到 app 的 assets/rival-policy.bin
+ *         ./gradlew :core:train -Pscaling            → 只量 1 ~ N 條執行緒的 episodes/sec
+ * 類比後端：超參數搜尋的 batch job — 每個 trial 獨立，丟進 worker pool 平行跑，最後只留最好的
+ */
+public class PolicyTrainer {
+
+    // ===== 預設設定 =====
+    public static final int POPULATION = 64;            // 族群大小
+    public static final int ELITES = 8;                 // 每代保留的精英數
+    public static final int GENERATIONS = 40;           // 代數
+    public static final int EPISODES_PER_GENOME = 4;    // 每個 genome 每代跑幾場
+    public static final int EPISODE_TICKS = 120 * GameConfig.SIM_TICK_RATE_HZ; // 每場上限（2 分鐘遊戲時間）
+    public static final float MUTATION_SIGMA = 0.2f;    // 突變標準差
+    public static final float INITIAL_SIGMA = 0.5f;     // 初始權重標準差
+    public static final int EPISODE_WIDTH = 1080;       // episode 的世界尺寸（感測值已正規化，與解析度無關）
+    public static final int EPISODE_HEIGHT = 1920;
+
+    /** 一次訓練的結果 */
+    public static final class Result {
+        public final DrivingPolicy best;      // 最後一代的第一名
+        public final float bestFitness;       // 第一名的平均存活 tick 數
+        public final int generations;
+        public final long episodes;           // 總 episode 數
+        public final long simulatedTicks;     // 總模擬 tick 數
+        public final long elapsedNanos;
+        public final int threads;
+
+        Result(DrivingPolicy best, float bestFitness, int generations, long episodes,
+               long simulatedTicks, long elapsedNanos, int threads) {
+            this.best = best;
+            this.bestFitness = bestFitness;
+            this.generations = generations;
+            this.episodes = episodes;
+            this.simulatedTicks = simulatedTicks;
+            this.elapsedNanos = elapsedNanos;
+            this.threads = threads;
+        }
+
+        public double getEpisodesPerSecond() {
+            return elapsedNanos == 0 ? 0 : episodes * 1e9 / elapsedNanos;
+        }
+
+        /** 比即時快幾倍（模擬 tick/s ÷ 60） */
+        public double getRealTimeFactor() {
+            return elapsedNanos == 0 ? 0 : simulatedTicks * 1e9 / elapsedNanos / GameConfig.SIM_TICK_RATE_HZ;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "generations=%d episodes=%d threads=%d elapsedMs=%.0f episodesPerSec=%.0f realTime=%.0fx bestFitness=%.0f/%d",
+                    generations, episodes, threads, elapsedNanos / 1e6, getEpisodesPerSecond(),
+                    getRealTimeFactor(), bestFitness, EPISODE_TICKS);
+        }
+    }
+
+    /** 每一代結束時的回呼（命令列輸出進度用） */
+    public interface GenerationListener {
+        void onGeneration(int generation, float bestFitness, float meanFitness);
+    }
+
+    private final int population;
+    private final int elites;
+    private final int episodesPerGenome;
+    private final int episodeTicks;
+    private final int threads;
+    private final long seed;
+
+    // ===== 每一代的工作資料（協調執行緒寫、工作執行緒讀 → ForkJoinPool.invoke 建立 happens-before） =====
+    private final DrivingPolicy[] genomes;
+    private final float[] fitness;
+    private final long[] ticksUsed;
+    private final int[] episodeSeeds;
+
+    /**
+     * @param population        族群大小
+     * @param elites            每代保留的精英數（1 ~ population）
+     * @param episodesPerGenome 每個 genome 每代跑幾場
+     * @param episodeTicks      每場的 tick 上限
+     * @param threads           執行緒數
+     * @param seed              訓練亂數種子（同種子 → 同結果）
+     */
+    public PolicyTrainer(int population, int elites, int episodesPerGenome, int episodeTicks, int threads, long seed) {
+        if (elites <= 0 || elites > population) throw new IllegalArgumentException("elites must be 1..population");
+        if (episodesPerGenome <= 0 || episodeTicks <= 0) throw new IllegalArgumentException("episodes must be > 0");
+        if (threads <= 0) throw new IllegalArgumentException("threads must be > 0");
+        this.population = population;
+        this.elites = elites;
+        this.episodesPerGenome = episodesPerGenome;
+        this.episodeTicks = episodeTicks;
+        this.threads = threads;
+        this.seed = seed;
+        genomes = new DrivingPolicy[population];
+        fitness = new float[population];
+        ticksUsed = new long[population];
+        episodeSeeds = new int[episodesPerGenome];
+    }
+
+    /** 預設設定，使用所有核心 */
+    public PolicyTrainer() {
+        this(POPULATION, ELITES, EPISODES_PER_GENOME, EPISODE_TICKS,
+                Runtime.getRuntime().availableProcessors(), 0x41F0);
+    }
+
+    /**
+     * 訓練
+     *
+     * @param generations 代數
+     * @param listener    每代回呼（null = 不需要）
+     */
+    public Result train(int generations, GenerationListener listener) {
+        Random random = new Random(seed);
+        for (int i = 0; i < population; i++) {
+            float[] genome = new float[DrivingPolicy.PARAMETER_COUNT];
+            for (int p = 0; p < genome.length; p++) genome[p] = (float) random.nextGaussian() * INITIAL_SIGMA;
+            genomes[i] = new DrivingPolicy(genome);
+        }
+
+        Integer[] order = new Integer[population];
+        long episodes = 0;
+        long simulated = 0;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        try {
+            for (int generation = 0; generation < generations; generation++) {
+                for (int e = 0; e < episodesPerGenome; e++) episodeSeeds[e] = random.nextInt() | 1; // 種子不能是 0
+                pool.invoke(new EvaluateTask(0, population));
+                episodes += (long) population * episodesPerGenome;
+                for (long t : ticksUsed) simulated += t;
+
+                // 排名（同分時索引小的在前 → 精英的相對順序穩定）
+                for (int i = 0; i < population; i++) order[i] = i;
+                Arrays.sort(order, (a, b) -> Float.compare(fitness[b], fitness[a]));
+                if (listener != null) {
+                    float sum = 0f;
+                    for (float f : fitness) sum += f;
+                    listener.onGeneration(generation, fitness[order[0]], sum / population);
+                }
+                if (generation == generations - 1) break;   // 最後一代不再突變，保留排名結果
+
+                DrivingPolicy[] next = new DrivingPolicy[population];
+                for (int i = 0; i < elites; i++) next[i] = genomes[order[i]];
+                for (int i = elites; i < population; i++) {
+                    next[i] = mutate(genomes[order[random.nextInt(elites)]], random);
+                }
+                System.arraycopy(next, 0, genomes, 0, population);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        int best = 0;
+        for (int i = 1; i < population; i++) {
+            if (fitness[i] > fitness[best]) best = i;
+        }
+        return new Result(genomes[best], fitness[best], generations, episodes, simulated, elapsed, threads);
+    }
+
+    /**
+     * 跑一場：全新的 GameWorld（不開倒帶 → episodes/sec 只量模擬本身）、指定的車流種子，策略自動駕駛直到撞車或到達上限
+     *
+     * @return 撐過的 tick 數
+     */
+    public static int runEpisode(DrivingPolicy policy, int obstacleSeed, int maxTicks) {
+        GameWorld world = new GameWorld(obstacleSeed, false);
+        world.resize(EPISODE_WIDTH, EPISODE_HEIGHT);
+        world.setAutopilot(policy);
+        try {
+            for (int tick = 0; tick < maxTicks; tick++) {
+                world.onUpdate();
+                if (world.isCarHit()) return tick;
+            }
+            return maxTicks;
+        } finally {
+            world.stopBackgroundWork();   // 程序化道路的產生器執行緒
+        }
+    }
+
+    /** 父代 + N(0, σ) 突變 */
+    private static DrivingPolicy mutate(DrivingPolicy parent, Random random) {
+        float[] genome = parent.getGenome();
+        for (int i = 0; i < genome.length; i++) genome[i] += (float) random.nextGaussian() * MUTATION_SIGMA;
+        return new DrivingPolicy(genome);
+    }
+
+    /** 評估一個 genome（工作執行緒上執行；只寫自己的 fitness[index] / ticksUsed[index]） */
+    private void evaluate(int index) {
+        long total = 0;
+        long ran = 0;
+        for (int e = 0; e < episodesPerGenome; e++) {
+            int survived = runEpisode(genomes[index], episodeSeeds[e], episodeTicks);
+            total += survived;
+            ran += Math.min(survived + 1, episodeTicks);   // 撞車的那一 tick 也有跑
+        }
+        fitness[index] = (float) total / episodesPerGenome;
+        ticksUsed[index] = ran;
+    }
+
+    /** 族群 [from, to) 對半切到一個 genome 一個任務 */
+    @SuppressWarnings("serial")                 // ForkJoinTask 是 Serializable，但任務只在訓練期間存在、不會序列化
+    private final class EvaluateTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+
+        EvaluateTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                evaluate(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new EvaluateTask(from, mid), new EvaluateTask(mid, to));
+        }
+    }
+
+    // ===== 命令列 =====
+
+    /**
+     * 執行緒數 1, 2, 4, ... 到核心數，各跑同樣的工作量，輸出 episodes/sec 與加速比
+     * 每種執行緒數先跑一輪暖身（JIT），量第二輪
+     */
+    public static void reportScaling(int generations) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        double baseline = 0;
+        for (int threads = 1; ; threads = Math.min(threads * 2, cores)) {
+            new PolicyTrainer(POPULATION, ELITES, EPISODES_PER_GENOME, EPISODE_TICKS, threads, 1).train(1, null);
+            Result result = new PolicyTrainer(POPULATION, ELITES, EPISODES_PER_GENOME, EPISODE_TICKS, threads, 1)
+                    .train(generations, null);
+            if (threads == 1) baseline = result.getEpisodesPerSecond();
+            double speedup = baseline == 0 ? 0 : result.getEpisodesPerSecond() / baseline;
+            System.out.println(String.format(Locale.US, "threads=%d episodesPerSec=%.0f speedup=%.2fx efficiency=%.0f%%",
+                    threads, result.getEpisodesPerSecond(), speedup, speedup / threads * 100));
+            if (threads == cores) break;
+        }
+    }
+
+    /** 命令列入口：java ... PolicyTrainer <output.bin> [generations] | --scaling [generations] */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: PolicyTrainer <rival-policy.bin> [generations] | --scaling [generations]");
+            System.exit(2);
+        }
+        if (args[0].equals("--scaling")) {
+            reportScaling(args.length > 1 ? Integer.parseInt(args[1]) : 3);
+            return;
+        }
+        int generations = args.length > 1 ? Integer.parseInt(args[1]) : GENERATIONS;
+        Result result = new PolicyTrainer().train(generations, (generation, best, mean) ->
+                System.out.println(String.format(Locale.US, "generation %d: best=%.0f mean=%.0f", generation, best, mean)));
+        System.out.println(result);
+
+        File out = new File(args[0]);
+        File dir = out.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+        result.best.write(out);
+        System.out.println("policy written to " + out + " (" + out.length() + " bytes)");
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.firstapp.core;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 程序化道路的路段快取（有界 ring buffer + 背景產生執行緒）
+ *
+ * 生產者/消費者（SPSC — 單一生產者、單一消費者）：
+ * - 生產者（RoadGenerator 執行緒）：在鏡頭前方預先計算路段，寫入 ring，再發布 head
+ * - 消費者（模擬執行緒）：碰撞與繪製只讀取 [tail, head) 之間已經算好的路段
+ *   每 tick 推進 tail（鏡頭下緣已經看不到的路段）→ 空出來的格子給生產者重用
+ * - head / tail 都是 volatile：生產者先寫資料再寫 head（release），消費者先讀 head 再讀資料（acquire）
+ *   → 不需要鎖
+ *
+ * 查詢：路段編號 = floor(行駛距離 / 路段長度) → ring 索引 = 編號 & mask → O(1)
+ * 生產者來不及時（例如剛 resize）：在模擬執行緒上用同一個純函數 RoadProfile 直接重算該路段
+ * → 結果完全相同，只是多花一點時間（計入 getMissCount()）
+ *
+ * 生產者滿了就 park；消費者釋放超過一半的空間時 unpark → 平常幾乎不佔 CPU
+ * stop() 之後下一次 advance() 會自動重新啟動（例如 Activity onPause → onResume）
+ *
+ * 類比後端：Kafka 的 consumer lag — 生產者保持領先，消費者只讀已提交的 offset
+ */
+public class ProceduralRoad {
+
+    private final int capacity;     // ring 容量（路段數，2 的次方）
+    private final int mask;
+    private final float[] left;     // 路段起點的左邊界（最後 2 格 = 模擬執行緒重算用的暫存格）
+    private final float[] right;    // 路段起點的右邊界
+    private final byte[] laneCount; // 路段的車道數
+    private final int scratchA;     // 暫存格索引（查詢路段 k）
+    private final int scratchB;     // 暫存格索引（查詢路段 k + 1）
+
+    private RoadProfile profile;             // 目前的形狀函數（configure 時替換）
+    private volatile long head;              // 生產者：下一個要算的路段（[tail, head) 已就緒）
+    private volatile long tail;              // 消費者：最舊的仍需要的路段
+    private long readyHead;                  // 消費者本地快取的 head（每 tick 讀一次 volatile）
+    private long missCount;                  // 查詢時路段尚未就緒的次數
+    private Thread generator;                // 背景產生執行緒（null = 未啟動）
+    private volatile boolean running;
+    private volatile boolean generatorParked; // 生產者是否因 ring 滿了而 park
+
+    /**
+     * @param capacity ring 容量（會向上取到 2 的次方）
+     */
+    public ProceduralRoad(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        left = new float[size + 2];
+        right = new float[size + 2];
+        laneCount = new byte[size + 2];
+        scratchA = size;
+        scratchB = size + 1;
+    }
+
+    /**
+     * 設定（或重設）道路形狀並啟動背景產生執行緒
+     * 只能在模擬執行緒上呼叫（例如 resize）；會先停止舊的生產者
+     *
+     * @param startDistance 目前鏡頭下緣的行駛距離（從這裡開始產生）
+     */
+    public void configure(RoadProfile profile, double startDistance) {
+        stop();
+        this.profile = profile;
+        long start = segmentOf(startDistance);
+        tail = start;
+        head = start;
+        readyHead = start;
+        missCount = 0;
+        start();
+    }
+
+    /**
+     * 同一個形狀、從另一個距離重新產生（GameWorld 還原快照 / 倒帶後呼叫；還沒 configure 過則忽略）
+     * 形狀是距離的純函數 → 重新產生的路段與原本逐位元相同
+     */
+    public void restart(double startDistance) {
+        if (profile != null) configure(profile, startDistance);
+    }
+
+    /** 啟動背景產生執行緒（已啟動則忽略） */
+    public void start() {
+        if (generator != null || profile == null) return;
+        running = true;
+        generator = new Thread(this::generateLoop, "RoadGenerator");
+        generator.setDaemon(true);
+        generator.setPriority(Thread.NORM_PRIORITY - 1);   // 比模擬/繪製執行緒低
+        generator.start();
+    }
+
+    /** 停止背景產生執行緒並等待結束（之後查詢仍可用，只是全部走重算） */
+    public void stop() {
+        Thread thread = generator;
+        if (thread == null) return;
+        running = false;
+        LockSupport.unpark(thread);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        generator = null;
+    }
+
+    /**
+     * 每 tick 呼叫一次（模擬執行緒）：釋放鏡頭下緣之後的路段，並取得最新的 head
+     *
+     * @param bottomDistance 畫面下緣的行駛距離（比它更小的路段不會再被查詢）
+     */
+    public void advance(double bottomDistance) {
+        if (generator == null) start();
+        long newTail = segmentOf(bottomDistance) - 1;      // 多留一段：內插會用到前一段
+        if (newTail > tail) tail = newTail;
+        readyHead = head;
+        if (generatorParked && readyHead - tail <= capacity / 2) {
+            LockSupport.unpark(generator);
+        }
+    }
+
+    // ===== 查詢（模擬/繪製執行緒，O(1)） =====
+
+    /** 行駛距離 distance 處的左邊界（兩個路段之間線性內插） */
+    public float leftAt(double distance) {
+        long segment = segmentOf(distance);
+        float t = fractionOf(distance, segment);
+        float a = left[resolve(segment, scratchA)];
+        float b = left[resolve(segment + 1, scratchB)];
+        return a + (b - a) * t;
+    }
+
+    /** 行駛距離 distance 處的右邊界 */
+    public float rightAt(double distance) {
+        long segment = segmentOf(distance);
+        float t = fractionOf(distance, segment);
+        float a = right[resolve(segment, scratchA)];
+        float b = right[resolve(segment + 1, scratchB)];
+        return a + (b - a) * t;
+    }
+
+    /** 行駛距離 distance 所在路段的車道數 */
+    public int laneCountAt(double distance) {
+        return laneCount[resolve(segmentOf(distance), scratchA)];
+    }
+
+    /** 查詢時路段尚未就緒、改在呼叫端重算的次數 */
+    public long getMissCount() { return missCount; }
+
+    /** 已就緒的路段數（生產者領先量） */
+    public long getReadyCount() { return head - tail; }
+
+    public int getCapacity() { return capacity; }
+
+    /**
+     * 路段 → 陣列索引：已就緒就直接讀 ring，否則重算到暫存格
+     */
+    private int resolve(long segment, int scratch) {
+        if (segment >= tail && segment < readyHead) {
+            return (int) (segment & mask);
+        }
+        missCount++;
+        profile.compute(segment, left, right, laneCount, scratch);
+        return scratch;
+    }
+
+    private static long segmentOf(double distance) {
+        return (long) Math.floor(distance / GameConfig.ROAD_SEGMENT_LENGTH);
+    }
+
+    private static float fractionOf(double distance, long segment) {
+        return (float) (distance / GameConfig.ROAD_SEGMENT_LENGTH - segment);
+    }
+
+    // ===== 生產者（背景執行緒） =====
+
+    private void generateLoop() {
+        RoadProfile shape = profile;   // configure 會先 stop → 生產期間形狀不會改變
+        while (running) {
+            long next = head;
+            if (next - tail >= capacity) {                  // ring 滿了 → 等消費者釋放空間
+                generatorParked = true;
+                if (next - tail >= capacity && running) {   // 設旗標後再檢查一次，避免錯過 unpark
+                    LockSupport.park(this);
+                }
+                generatorParked = false;
+                continue;
+            }
+            shape.compute(next, left, right, laneCount, (int) (next & mask));
+            head = next + 1;                                // 發布（volatile write）
+        }
+    }
+}
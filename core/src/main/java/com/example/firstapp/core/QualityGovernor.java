@@ -0,0 +1,282 @@
+package com.example.firstapp.core;
+
+/**
+ * 畫質/幀率調節器（依實測的每幀工作時間，分段調整畫質等級）
+ *
+ * 問題：所有設定都是固定值 → 低階機跑不動一直掉幀，旗艦機則閒置在 60 Hz
+ *
+ * 做法：
+ * - 每幀累計「模擬 + 繪製」的工作時間（addWork），onFrame() 結算上一幀
+ * - 每 QUALITY_WINDOW_FRAMES 幀評估一次：
+ *   - 超過預算（幀間隔 × QUALITY_BUDGET_RATIO）的幀佔比 ≥ QUALITY_DOWNGRADE_RATIO → 立刻降一級
+ *   - 連續 upgradeWindows 個窗口都沒有超預算、且平均工作時間 < 預算 × QUALITY_UPGRADE_HEADROOM → 升一級
+ * - 遲滯（避免在兩級之間來回跳）：
+ *   - 降級快、升級慢（1 個窗口 vs 數個窗口）
+ *   - 每次調整後冷卻 QUALITY_COOLDOWN_WINDOWS 個窗口（讓新設定的量測穩定）
+ *   - 升級後很快又被迫降級 → 這一級「撐不住」，下次升級要等兩倍的窗口數（上限 QUALITY_MAX_UPGRADE_WINDOWS）
+ *
+ * 每個等級的內容（getter 由繪製器/GameWorld 讀取）：
+ *   等級    內部解析度  虛線間隔  車流密度（生成間隔）  特效  幀率上限
+ *   LOW       0.5x      每隔一段     × 2              關     60
+ *   MEDIUM    0.75x     全部         × 4/3            開     60
+ *   HIGH      1.0x      全部         × 1              開     螢幕刷新率
+ *
+ * 目標幀率：min(螢幕刷新率, 等級上限, 溫度上限)，並取刷新率的整數分之一（120 Hz → 60，90 Hz → 45）
+ * → 每幀的顯示時間一致，不會 1-2-1-2 抖動
+ * 模擬頻率固定在 SIM_TICK_RATE_HZ 不受影響（確定性/錄製重播）；幀率只決定「多久畫一次」
+ *
+ * 溫度（requestThermalLevel）：THROTTLED → 最高 MEDIUM；CRITICAL → LOW + 30 fps
+ *
+ * 純 Java、不讀時鐘（時間由呼叫端帶入）→ 可以用合成的幀時間序列在 JVM 上測試
+ * 執行緒：只在幀驅動執行緒（GameLoop 的 UI 執行緒 / GameThread）上呼叫；
+ * 例外是 requestThermalLevel / requestDisplayRefreshRate（任何執行緒，volatile 交接，下一個 onFrame 套用）
+ *
+ * 類比後端：Kubernetes HPA — 依指標分段擴縮，加上 stabilization window 防止抖動
+ */
+public class QualityGovernor {
+
+    // ===== 等級 =====
+    public static final int TIER_LOW = 0;
+    public static final int TIER_MEDIUM = 1;
+    public static final int TIER_HIGH = 2;
+    public static final int TIER_COUNT = 3;
+
+    // ===== 溫度狀態（平台狀態由 app 模組對應過來） =====
+    public static final int THERMAL_NORMAL = 0;     // 正常
+    public static final int THERMAL_THROTTLED = 1;  // 系統開始降頻
+    public static final int THERMAL_CRITICAL = 2;   // 即將強制降頻/關機
+
+    // ===== 每個等級的設定（索引 = 等級） =====
+    private static final float[] RENDER_SCALE = {0.5f, 0.75f, 1f};       // 內部解析度（相對畫面）
+    private static final int[] DASH_STRIDE = {2, 1, 1};                   // 每幾段虛線畫一段
+    private static final float[] SPAWN_INTERVAL_SCALE = {2f, 4f / 3f, 1f}; // 車流生成間隔倍率
+    private static final boolean[] EFFECTS = {false, true, true};         // 特效（粒子等）
+    private static final float[] FRAME_RATE_CAP = {60f, 60f, Float.MAX_VALUE}; // 幀率上限
+    private static final float THROTTLED_FRAME_RATE_CAP = 60f;
+    private static final float CRITICAL_FRAME_RATE_CAP = 30f;
+
+    private int tier = TIER_HIGH;   // 樂觀起步：跑不動會在第一個窗口就降級
+    private int thermalLevel = THERMAL_NORMAL;
+    private float displayRefreshRate = GameConfig.SIM_TICK_RATE_HZ;
+    private volatile int requestedThermalLevel = THERMAL_NORMAL;  // 平台回呼寫入（任何執行緒）
+    private volatile float requestedRefreshRate;                   // 0 = 沒有新值
+    private float targetFrameRate;
+    private long targetFrameNanos;  // 目標幀間隔
+    private long budgetNanos;       // 每幀工作時間預算
+
+    // ===== 目前窗口 =====
+    private long pendingWork = -1;  // 目前這幀累計的工作時間（-1 = 還沒開始第一幀）
+    private int windowFrames;       // 窗口內的幀數
+    private int windowOverBudget;   // 窗口內超預算的幀數
+    private long windowWork;        // 窗口內的總工作時間
+
+    // ===== 遲滯 =====
+    private long windowIndex;       // 已評估的窗口數
+    private int goodWindows;        // 連續「有餘裕」的窗口數
+    private int cooldown;           // 剩餘冷卻窗口數
+    private int upgradeWindows = GameConfig.QUALITY_UPGRADE_WINDOWS; // 升級需要的連續窗口數（會退避加倍）
+    private long lastUpgradeWindow = Long.MIN_VALUE / 2; // 上次升級的窗口編號
+    private int changeCount;        // 累計調整次數（統計用）
+    private boolean changed;        // 自上次 consumeChange() 後是否有調整
+
+    // ===== 幀節奏 =====
+    private long lastFrameNanos = Long.MIN_VALUE; // 上一個「有畫」的幀時間
+
+    public QualityGovernor() {
+        updateTarget();
+    }
+
+    // ===== 量測輸入 =====
+
+    /** 累計本幀的工作時間（模擬、繪製各呼叫一次） */
+    public void addWork(long nanos) {
+        if (pendingWork >= 0) pendingWork += nanos;
+    }
+
+    /**
+     * 幀開始：結算上一幀的工作時間，窗口滿了就評估一次
+     *
+     * @return true = 等級有改變（呼叫端要套用新設定，例如 GameWorld.applyQuality()）
+     */
+    public boolean onFrame() {
+        applyPlatformState();
+        if (pendingWork >= 0) {
+            windowFrames++;
+            windowWork += pendingWork;
+            if (pendingWork > budgetNanos) windowOverBudget++;
+            if (windowFrames >= GameConfig.QUALITY_WINDOW_FRAMES) evaluate();
+        }
+        pendingWork = 0;
+        return consumeChange();
+    }
+
+    /**
+     * 這個 VSYNC 是否該畫（目標幀率低於螢幕刷新率時跳過中間的 VSYNC）
+     * 容許半個 VSYNC 的抖動；回傳 true 時記下這一幀的時間
+     */
+    public boolean isFrameDue(long frameTimeNanos) {
+        long vsync = (long) (1_000_000_000L / displayRefreshRate);
+        if (lastFrameNanos != Long.MIN_VALUE && frameTimeNanos - lastFrameNanos < targetFrameNanos - vsync / 2) {
+            return false;
+        }
+        lastFrameNanos = frameTimeNanos;
+        return true;
+    }
+
+    /** 距離下一個該畫的幀還有多久（沒有 VSYNC 回呼的迴圈用來 sleep；≤ 0 = 現在就畫） */
+    public long nanosUntilNextFrame(long nowNanos) {
+        if (lastFrameNanos == Long.MIN_VALUE) return 0;
+        return lastFrameNanos + targetFrameNanos - nowNanos;
+    }
+
+    /** 迴圈重新啟動（暫停期間不算一幀，也不延續節奏） */
+    public void onLoopRestart() {
+        pendingWork = -1;
+        lastFrameNanos = Long.MIN_VALUE;
+    }
+
+    // ===== 平台狀態（任何執行緒皆可呼叫，下一個 onFrame 套用） =====
+
+    /** 螢幕刷新率（Hz，≤ 0 忽略） */
+    public void requestDisplayRefreshRate(float hz) {
+        if (hz > 0f) requestedRefreshRate = hz;
+    }
+
+    /** 溫度狀態（THERMAL_*）：較熱時立刻壓低等級上限與幀率 */
+    public void requestThermalLevel(int level) {
+        requestedThermalLevel = level;
+    }
+
+    private void applyPlatformState() {
+        float hz = requestedRefreshRate;
+        if (hz > 0f && hz != displayRefreshRate) {
+            displayRefreshRate = hz;
+            updateTarget();
+            changed = true;
+        }
+        int level = requestedThermalLevel;
+        if (level == thermalLevel) return;
+        thermalLevel = level;
+        int cap = maxTierForThermal();
+        if (tier > cap) {
+            tier = cap;
+            changeCount++;
+        }
+        restartWindow();
+        updateTarget();
+        changed = true;
+    }
+
+    // ===== 評估 =====
+
+    private void evaluate() {
+        windowIndex++;
+        boolean overloaded = windowOverBudget >= windowFrames * GameConfig.QUALITY_DOWNGRADE_RATIO;
+        boolean relaxed = windowOverBudget == 0
+                && windowWork < (long) (windowFrames * (double) budgetNanos * GameConfig.QUALITY_UPGRADE_HEADROOM);
+        resetWindowCounters();
+
+        if (cooldown > 0) {                 // 剛調整過：這個窗口還在量新設定的暖身期
+            cooldown--;
+            return;
+        }
+        if (overloaded) {
+            goodWindows = 0;
+            if (tier > TIER_LOW) {
+                if (windowIndex - lastUpgradeWindow <= 2L * upgradeWindows) {  // 剛升上來就撐不住 → 退避
+                    upgradeWindows = Math.min(upgradeWindows * 2, GameConfig.QUALITY_MAX_UPGRADE_WINDOWS);
+                }
+                setTier(tier - 1);
+            }
+            return;
+        }
+        goodWindows = relaxed ? goodWindows + 1 : 0;
+        if (goodWindows >= upgradeWindows && tier < maxTierForThermal()) {
+            lastUpgradeWindow = windowIndex;
+            setTier(tier + 1);
+        }
+    }
+
+    private void setTier(int newTier) {
+        tier = newTier;
+        goodWindows = 0;
+        cooldown = GameConfig.QUALITY_COOLDOWN_WINDOWS;
+        changeCount++;
+        changed = true;
+        updateTarget();
+    }
+
+    private int maxTierForThermal() {
+        switch (thermalLevel) {
+            case THERMAL_THROTTLED: return TIER_MEDIUM;
+            case THERMAL_CRITICAL:  return TIER_LOW;
+            default:                return TIER_HIGH;
+        }
+    }
+
+    /** 目標幀率 = 螢幕刷新率的整數分之一，且不超過等級/溫度上限 */
+    private void updateTarget() {
+        float cap = FRAME_RATE_CAP[tier];
+        if (thermalLevel == THERMAL_THROTTLED) cap = Math.min(cap, THROTTLED_FRAME_RATE_CAP);
+        if (thermalLevel == THERMAL_CRITICAL) cap = Math.min(cap, CRITICAL_FRAME_RATE_CAP);
+        int divisor = Math.max(1, (int) Math.ceil(displayRefreshRate / cap - 1e-3));
+        targetFrameRate = displayRefreshRate / divisor;
+        targetFrameNanos = (long) (1_000_000_000L / targetFrameRate);
+        budgetNanos = (long) (targetFrameNanos * GameConfig.QUALITY_BUDGET_RATIO);
+    }
+
+    private void restartWindow() {
+        resetWindowCounters();
+        goodWindows = 0;
+        cooldown = GameConfig.QUALITY_COOLDOWN_WINDOWS;
+    }
+
+    private void resetWindowCounters() {
+        windowFrames = 0;
+        windowOverBudget = 0;
+        windowWork = 0;
+    }
+
+    private boolean consumeChange() {
+        boolean result = changed;
+        changed = false;
+        return result;
+    }
+
+    // ===== 目前等級的設定 =====
+
+    public int getTier() { return tier; }
+
+    /** 內部繪製解析度（相對畫面尺寸，0~1） */
+    public float getRenderScale() { return RENDER_SCALE[tier]; }
+
+    /** 虛線：每幾段畫一段（1 = 全部） */
+    public int getDashStride() { return DASH_STRIDE[tier]; }
+
+    /** 是否開啟特效 */
+    public boolean isEffectsEnabled() { return EFFECTS[tier]; }
+
+    /** 車流生成間隔（tick）：等級越低車越少 */
+    public int getObstacleSpawnInterval() {
+        return Math.round(GameConfig.OBSTACLE_SPAWN_INTERVAL_TICKS * SPAWN_INTERVAL_SCALE[tier]);
+    }
+
+    public float getTargetFrameRate() { return targetFrameRate; }
+    public long getTargetFrameNanos() { return targetFrameNanos; }
+    public long getBudgetNanos() { return budgetNanos; }
+    public int getThermalLevel() { return thermalLevel; }
+
+    /** 升級需要的連續窗口數（被迫降級後會加倍） */
+    public int getUpgradeWindows() { return upgradeWindows; }
+
+    /** 累計調整次數 */
+    public int getChangeCount() { return changeCount; }
+
+    public static String tierName(int tier) {
+        switch (tier) {
+            case TIER_LOW:    return "low";
+            case TIER_MEDIUM: return "medium";
+            default:          return "high";
+        }
+    }
+}
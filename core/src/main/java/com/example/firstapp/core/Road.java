@@ -0,0 +1,230 @@
+package com.example.firstapp.core;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 道路實體（車道/虛線動畫/邊界）
+ *
+ * 職責：
+ * 1. 根據螢幕尺寸計算道路邊界和車道位置
+ * 2. 更新虛線動畫偏移量
+ * 3. 提供邊界座標給 CollisionDetector 使用
+ *
+ * 純 Java（不依賴 Android）：三層畫面（草地 → 道路 → 虛線）由 app 模組的 RoadRenderer 繪製
+ *
+ * 兩種模式（GameConfig.PROCEDURAL_ROAD）：
+ * - 直路：左右邊界是 init() 算好的兩個常數（預設）
+ * - 程序化：無限延伸的彎道/合併車道/路寬變化，路段由背景執行緒預先算進 ProceduralRoad 的 ring buffer
+ * 碰撞與繪製一律用 getLeftEdgeAt(y) / getRightEdgeAt(y) 查詢「某個畫面高度」的邊界 → 兩種模式共用
+ *
+ * 行駛距離（distance）：每 tick 增加 LINE_SCROLL_SPEED；畫面上的 y 對應到距離 distance + (畫面高度 - y)
+ * （畫面頂端 = 最前方）
+ *
+ * 鏡頭（camera）：總距離存成 Odometer 的 long 定點數 → 開幾個小時都不會漂移
+ * 實體只存畫面座標；需要道路距離時以 distanceAt(y, 鏡頭距離) 換成 double 查詢
+ */
+public class Road {
+
+    // ===== 道路幾何（由 init() 計算） =====
+    private float roadLeft;         // 道路左邊界 X 座標
+    private float roadRight;        // 道路右邊界 X 座標
+    private float roadWidth;        // 道路寬度
+
+    // ===== 車道系統 =====
+    private final float[] lanes = new float[GameConfig.LANE_COUNT]; // 車道中心 X 座標陣列
+
+    // ===== 虛線動畫 =====
+    private float lineOffset = 0f;  // 虛線偏移量（每步增加，產生道路流動效果）
+    private float prevLineOffset = 0f; // 上一步的虛線偏移量（繪製插值用）
+
+    // ===== 程序化道路 =====
+    private final ProceduralRoad procedural; // null = 直路模式
+    private final Odometer camera = new Odometer(); // 鏡頭的行駛距離（long 定點數）
+
+    // ===== 螢幕資訊 =====
+    private int screenWidth;        // 畫面寬度（背景快取尺寸）
+    private int screenHeight;       // 畫面高度（虛線繪製終點）
+
+    /** 依 GameConfig.PROCEDURAL_ROAD 選擇模式 */
+    public Road() {
+        this(GameConfig.PROCEDURAL_ROAD);
+    }
+
+    /**
+     * @param procedural true = 程序化道路（背景產生路段），false = 直路
+     */
+    public Road(boolean procedural) {
+        this.procedural = procedural ? new ProceduralRoad(GameConfig.ROAD_RING_SEGMENTS) : null;
+    }
+
+    /**
+     * 根據螢幕尺寸計算道路/車道位置
+     * 在 GameWorld.resize() 中呼叫（螢幕尺寸確定後）
+     * 幾何計算不放在建構子，因為建構時還不知道螢幕尺寸
+     * 鏡頭距離不歸零：尺寸改變（旋轉、分割畫面）時這一局照常進行，程序化道路從目前的距離以新寬度重新產生
+     *
+     * @param screenWidth  螢幕寬度
+     * @param screenHeight 螢幕高度
+     */
+    public void init(int screenWidth, int screenHeight) {
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+
+        // 道路佔螢幕中間 60%（左 20% ~ 右 80%）
+        roadLeft = screenWidth * GameConfig.ROAD_LEFT_RATIO;   // 左邊界
+        roadRight = screenWidth * GameConfig.ROAD_RIGHT_RATIO; // 右邊界
+        roadWidth = roadRight - roadLeft;                       // 道路總寬
+
+        // 計算 3 條車道的中心 X 座標
+        // 將道路等分為 3 份，每份中心分別在 1/6、3/6、5/6 位置
+        lanes[0] = roadLeft + roadWidth / 6f;       // 左車道中心
+        lanes[1] = roadLeft + roadWidth / 2f;       // 中車道中心
+        lanes[2] = roadLeft + roadWidth * 5f / 6f;  // 右車道中心
+
+        // 程序化道路：形狀依賴畫面寬度 → 重新產生（第 0 個區塊與上面的直路相同）
+        if (procedural != null) {
+            procedural.configure(new RoadProfile(GameConfig.ROAD_SEED, screenWidth), camera.getDistance());
+        }
+    }
+
+    /**
+     * 每個固定步長更新虛線偏移量（產生道路向下流動的視覺效果）
+     * 偏移量達到一個完整週期（虛線段 + 間隔）後歸零
+     */
+    public void update() {
+        prevLineOffset = lineOffset;                 // 保存上一步（插值用）
+        lineOffset += GameConfig.LINE_SCROLL_SPEED;  // 每步偏移 5 像素
+        if (lineOffset > GameConfig.DASH_LENGTH + GameConfig.GAP_LENGTH) {
+            lineOffset = 0f;  // 重置偏移（一個週期 = 60 + 40 = 100 像素）
+        }
+
+        camera.advance(GameConfig.LINE_SCROLL_SPEED);
+        if (procedural != null) {
+            procedural.advance(distanceAt(screenHeight, camera.getDistance())); // 釋放畫面下緣之後的路段
+        }
+    }
+
+    /**
+     * 取得插值後的虛線偏移量（繪製用）
+     * 若本步剛好歸零（current < prev），視為多走了一個週期再取餘數
+     *
+     * @param alpha 插值係數（0 = 上一步狀態，1 = 目前狀態）
+     */
+    public float getInterpolatedLineOffset(float alpha) {
+        float period = GameConfig.DASH_LENGTH + GameConfig.GAP_LENGTH; // 一個週期 = 100px
+        float current = lineOffset < prevLineOffset ? lineOffset + period : lineOffset;
+        return (prevLineOffset + (current - prevLineOffset) * alpha) % period;
+    }
+
+    // ===== 依畫面高度查詢邊界（碰撞用，O(1)） =====
+
+    /** 畫面高度 y 處的道路左邊界 */
+    public float getLeftEdgeAt(float y) {
+        return procedural == null ? roadLeft : procedural.leftAt(distanceAt(y, camera.getDistance()));
+    }
+
+    /** 畫面高度 y 處的道路右邊界 */
+    public float getRightEdgeAt(float y) {
+        return procedural == null ? roadRight : procedural.rightAt(distanceAt(y, camera.getDistance()));
+    }
+
+    /** 畫面高度 y 處的車道數（直路固定 LANE_COUNT） */
+    public int getLaneCountAt(float y) {
+        return procedural == null ? GameConfig.LANE_COUNT : procedural.laneCountAt(distanceAt(y, camera.getDistance()));
+    }
+
+    /**
+     * 畫面高度 y 處第 lane 條車道的中心（車道合併後多出來的車道併入最外側車道）
+     * 直路模式直接回傳 getLanes()[lane]
+     */
+    public float getLaneCenterAt(int lane, float y) {
+        if (procedural == null) return lanes[lane];
+        double d = distanceAt(y, camera.getDistance());
+        float left = procedural.leftAt(d);
+        float width = procedural.rightAt(d) - left;
+        int count = procedural.laneCountAt(d);
+        int index = Math.min(lane, count - 1);
+        return left + width * (index + 0.5f) / count;
+    }
+
+    // ===== 依行駛距離查詢（繪製插值用：先用 getInterpolatedDistance 取得距離） =====
+
+    /** 插值後的行駛距離（0 = 上一步，1 = 目前） */
+    public double getInterpolatedDistance(float alpha) {
+        return camera.getInterpolatedDistance(alpha);
+    }
+
+    /** 在行駛距離 baseDistance 時，畫面高度 y 對應的道路距離 */
+    public double distanceAt(float y, double baseDistance) {
+        return baseDistance + (screenHeight - y);
+    }
+
+    // ===== 狀態快照（GameWorld.saveState / restoreState；幾何由 init 依尺寸重算，不存） =====
+
+    static final int STATE_BYTES = 2 * 4 + Odometer.STATE_BYTES;
+
+    void writeState(ByteBuffer out) {
+        out.putFloat(lineOffset).putFloat(prevLineOffset);
+        camera.writeState(out);
+    }
+
+    /** 程序化道路：從還原的鏡頭距離重新產生路段（倒帶時 ring 裡已經沒有舊路段） */
+    void readState(ByteBuffer in) {
+        lineOffset = in.getFloat();
+        prevLineOffset = in.getFloat();
+        camera.readState(in);
+        if (procedural != null) procedural.restart(camera.getDistance());
+    }
+
+    /** 鏡頭的行駛距離（long 定點數） */
+    public Odometer getCamera() { return camera; }
+
+    public float getLeftEdgeAtDistance(double d) {
+        return procedural == null ? roadLeft : procedural.leftAt(d);
+    }
+
+    public float getRightEdgeAtDistance(double d) {
+        return procedural == null ? roadRight : procedural.rightAt(d);
+    }
+
+    public int getLaneCountAtDistance(double d) {
+        return procedural == null ? GameConfig.LANE_COUNT : procedural.laneCountAt(d);
+    }
+
+    /** 停止背景產生執行緒（遊戲迴圈停止後呼叫；下一次 update 會自動重新啟動） */
+    public void stopGenerator() {
+        if (procedural != null) procedural.stop();
+    }
+
+    /** 是否為程序化道路（繪製器據此選擇直路快取或逐段繪製） */
+    public boolean isProcedural() { return procedural != null; }
+
+    /** 程序化道路的路段快取（直路模式為 null；統計用） */
+    public ProceduralRoad getProceduralRoad() { return procedural; }
+
+    /** 累計行駛距離 */
+    public double getDistance() { return camera.getDistance(); }
+
+    // ===== Getter（碰撞偵測、繪製和車輛初始定位用） =====
+
+    /** 取得車道中心座標陣列 */
+    public float[] getLanes() { return lanes; }
+
+    /** 取得道路左邊界 X 座標（直路；程序化道路請用 getLeftEdgeAt） */
+    public float getRoadLeft() { return roadLeft; }
+
+    /** 取得道路右邊界 X 座標（直路；程序化道路請用 getRightEdgeAt） */
+    public float getRoadRight() { return roadRight; }
+
+    /** 取得道路寬度 */
+    public float getRoadWidth() { return roadWidth; }
+
+    /** 取得畫面寬度 */
+    public int getScreenWidth() { return screenWidth; }
+
+    /** 取得畫面高度 */
+    public int getScreenHeight() { return screenHeight; }
+
+    /** 取得目前虛線偏移量 */
+    public float getLineOffset() { return lineOffset; }
+}
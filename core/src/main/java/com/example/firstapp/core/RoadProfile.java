@@ -0,0 +1,102 @@
+package com.example.firstapp.core;
+
+/**
+ * 程序化道路的形狀函數（純函數：同樣的種子 + 畫面寬度 + 路段編號 → 同樣的幾何）
+ *
+ * 道路沿著「行駛距離」切成固定長度的路段（ROAD_SEGMENT_LENGTH），
+ * 每 ROAD_CHUNK_SEGMENTS 個路段組成一個區塊（chunk），每個區塊用種子雜湊出三個參數：
+ * - 中心偏移（彎道）：-1 ~ 1 × 彎道幅度
+ * - 車道數：ROAD_MIN_LANES ~ LANE_COUNT（車道合併/增加）
+ * - 車道寬：ROAD_MIN/MAX_LANE_WIDTH_RATIO 之間（路寬變化）
+ * 區塊內的路段在「這個區塊」與「下一個區塊」的參數之間做 smoothstep 內插 → 道路連續、沒有折角
+ *
+ * 車道數是整數，在區塊中點切換；此時路寬已經內插到一半 → 視覺上是「兩條車道慢慢併成一條」
+ *
+ * 第 0 個區塊（含之前）固定是直路（與直線 Road 的幾何相同），第 1 個區塊才從直路慢慢內插進第一個彎
+ * → 開局時車輛所在的車道與 Road.getLanes() 一致，之後才開始轉彎
+ *
+ * 為什麼設計成純函數：
+ * - 背景執行緒先算好放進 ring buffer 只是「快取」；來不及算的路段可以在模擬執行緒上直接重算，
+ *   結果逐位元相同 → 模擬的確定性與背景執行緒的排程無關（錄製/重播仍然一致）
+ *
+ * 不可變（configure 後就不再改變）→ 多執行緒共用安全
+ */
+public final class RoadProfile {
+
+    /** 區塊編號 ≤ 這個值的參數都是直路（區塊 0 內插到區塊 1 仍然筆直） */
+    private static final int STRAIGHT_CHUNKS = 1;
+
+    private final int seed;             // 形狀種子
+    private final float screenWidth;    // 畫面寬度（所有比例的基準）
+    private final float centerX;        // 直路時的道路中心
+    private final float curveAmplitude; // 彎道最大偏移（像素）
+    private final float straightLaneWidth; // 第 0 個區塊的車道寬（= 直線 Road）
+
+    public RoadProfile(int seed, int screenWidth) {
+        this.seed = seed;
+        this.screenWidth = screenWidth;
+        float straightLeft = screenWidth * GameConfig.ROAD_LEFT_RATIO;
+        float straightRight = screenWidth * GameConfig.ROAD_RIGHT_RATIO;
+        this.centerX = (straightLeft + straightRight) / 2f;
+        this.straightLaneWidth = (straightRight - straightLeft) / GameConfig.LANE_COUNT;
+        this.curveAmplitude = screenWidth * GameConfig.ROAD_CURVE_AMPLITUDE_RATIO;
+    }
+
+    /**
+     * 計算第 segment 個路段起點的幾何，寫入 out[slot]（不配置記憶體）
+     *
+     * @param segment 路段編號（行駛距離 / ROAD_SEGMENT_LENGTH，向下取整）
+     */
+    public void compute(long segment, float[] outLeft, float[] outRight, byte[] outLanes, int slot) {
+        long chunk = Math.floorDiv(segment, GameConfig.ROAD_CHUNK_SEGMENTS);
+        int within = (int) Math.floorMod(segment, (long) GameConfig.ROAD_CHUNK_SEGMENTS);
+        float t = within / (float) GameConfig.ROAD_CHUNK_SEGMENTS;
+        float s = t * t * (3f - 2f * t);                    // smoothstep：兩端斜率為 0 → 區塊交界平滑
+
+        float center = lerp(offsetOf(chunk), offsetOf(chunk + 1), s);
+        int lanesA = lanesOf(chunk);
+        int lanesB = lanesOf(chunk + 1);
+        float width = lerp(lanesA * laneWidthOf(chunk), lanesB * laneWidthOf(chunk + 1), s);
+
+        float half = width / 2f;
+        float mid = centerX + center;
+        outLeft[slot] = Math.max(0f, mid - half);
+        outRight[slot] = Math.min(screenWidth, mid + half);
+        outLanes[slot] = (byte) (t < 0.5f ? lanesA : lanesB);
+    }
+
+    // ===== 區塊參數（種子雜湊 → 0~1） =====
+
+    /** 區塊的中心偏移（像素）；開頭的區塊都是直路 */
+    private float offsetOf(long chunk) {
+        if (chunk <= STRAIGHT_CHUNKS) return 0f;
+        return (hash01(chunk, 1) * 2f - 1f) * curveAmplitude;
+    }
+
+    /** 區塊的車道數 */
+    private int lanesOf(long chunk) {
+        if (chunk <= STRAIGHT_CHUNKS) return GameConfig.LANE_COUNT;
+        int range = GameConfig.LANE_COUNT - GameConfig.ROAD_MIN_LANES + 1;
+        return GameConfig.ROAD_MIN_LANES + Math.min(range - 1, (int) (hash01(chunk, 2) * range));
+    }
+
+    /** 區塊的車道寬（像素） */
+    private float laneWidthOf(long chunk) {
+        if (chunk <= STRAIGHT_CHUNKS) return straightLaneWidth;
+        float ratio = lerp(GameConfig.ROAD_MIN_LANE_WIDTH_RATIO, GameConfig.ROAD_MAX_LANE_WIDTH_RATIO, hash01(chunk, 3));
+        return screenWidth * ratio;
+    }
+
+    /** (種子, 區塊, 參數編號) → [0, 1)（SplitMix64 混合，無狀態） */
+    private float hash01(long chunk, int salt) {
+        long z = chunk * 0x9E3779B97F4A7C15L + seed * 0xBF58476D1CE4E5B9L + salt;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return (z >>> 40) / (float) (1 << 24);
+    }
+
+    private static float lerp(float a, float b, float t) {
+        return a + (b - a) * t;
+    }
+}
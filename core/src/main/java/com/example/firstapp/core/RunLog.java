@@ -0,0 +1,275 @@
+package com.example.firstapp.core;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * 跑局紀錄檔（只附加、記憶體映射）：每一局的統計 + 每個 tick 的車輛軌跡（鬼影車）
+ *
+ * 為什麼用記憶體映射：
+ * - 附加一筆紀錄 = 把 bytes 複製進映射區，沒有 write() 系統呼叫；髒頁由作業系統在背景寫回
+ * - 程序被系統殺掉也不會遺失（頁面屬於核心的 page cache）；只有斷電需要 force()
+ * - 讀鬼影不必把整局讀進記憶體：GhostReader 每次只映射一頁，讀到頁尾才映射下一頁（lazy paging）
+ *
+ * 檔案格式（big-endian）：
+ *   Header（HEADER_BYTES）：int MAGIC, short VERSION, short 保留, int SIM_TICK_RATE_HZ, int 保留, long 已提交的檔案長度
+ *   紀錄：int 紀錄長度（含這個標頭）, int 幀數, long 開始 tick, long 開始時間（epoch ms）, double 行駛距離,
+ *         軌跡：每幀兩個 zigzag varint — x、angle 與上一幀的量化差值（SnapshotCodec 的精度；第一幀相對 0）
+ * 提交：紀錄整筆寫完後才更新 header 的「已提交長度」→ 寫到一半被中斷的紀錄在下次開啟時被忽略並覆寫
+ * 映射區以 SEGMENT_BYTES 為單位往後延伸 → 檔案實際長度可能大於已提交長度（尾端是 0）
+ *
+ * 不是執行緒安全的 — 附加只在一條執行緒上（RunWriter 的 I/O 執行緒）；GhostReader 各自獨立
+ * 類比後端：Kafka 的 log segment（只附加 + mmap）+ 消費者依 offset 串流讀取
+ */
+public final class RunLog implements Closeable {
+
+    static final int MAGIC = 0x4650524C;        // "FPRL"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 24;
+    static final int RECORD_HEADER_BYTES = 4 + 4 + 8 + 8 + 8;
+    private static final int COMMITTED_OFFSET = 16;  // header 中「已提交長度」的位置
+
+    /** 一幀的最大 bytes（兩個 varint） */
+    static final int MAX_FRAME_BYTES = 10;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final int segmentBytes;
+    private MappedByteBuffer segment;           // 目前附加用的映射區
+    private long segmentStart;                  // segment 在檔案中的起點
+    private long committed;                     // 已提交的檔案長度（下一筆紀錄的位置）
+
+    // ===== 索引（開啟時掃描紀錄標頭，之後每次附加更新） =====
+    private long[] offsets = new long[16];
+    private int[] frames = new int[16];
+    private double[] distances = new double[16];
+    private long[] startTicks = new long[16];
+    private long[] startTimes = new long[16];
+    private int runCount;
+
+    private RunLog(FileChannel channel, int segmentBytes) throws IOException {
+        this.channel = channel;
+        this.segmentBytes = segmentBytes;
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+    }
+
+    /** 開啟（不存在則建立）；使用預設的映射區大小 */
+    public static RunLog open(File file) throws IOException {
+        return open(file, GameConfig.RUN_LOG_SEGMENT_BYTES);
+    }
+
+    /**
+     * @param segmentBytes 每次延伸映射區的大小（大的紀錄會單獨映射剛好的大小）
+     * @throws IOException 檔案存在但不是跑局紀錄（magic/版本/tick 頻率不符）
+     */
+    public static RunLog open(File file, int segmentBytes) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean fresh = channel.size() < HEADER_BYTES;
+            RunLog log = new RunLog(channel, segmentBytes);
+            if (fresh) {
+                log.header.putInt(0, MAGIC).putShort(4, VERSION).putShort(6, (short) 0)
+                        .putInt(8, GameConfig.SIM_TICK_RATE_HZ).putInt(12, 0).putLong(COMMITTED_OFFSET, HEADER_BYTES);
+            }
+            log.readIndex();
+            return log;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void readIndex() throws IOException {
+        if (header.getInt(0) != MAGIC) throw new IOException("Not a run log");
+        if (header.getShort(4) != VERSION) throw new IOException("Unsupported run log version " + header.getShort(4));
+        if (header.getInt(8) != GameConfig.SIM_TICK_RATE_HZ) {
+            throw new IOException("Run log recorded at " + header.getInt(8) + " Hz");
+        }
+        long end = header.getLong(COMMITTED_OFFSET);
+        if (end < HEADER_BYTES || end > channel.size()) throw new IOException("Corrupt run log length " + end);
+
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        long position = HEADER_BYTES;
+        while (position < end) {
+            recordHeader.clear();
+            while (recordHeader.hasRemaining() && channel.read(recordHeader, position + recordHeader.position()) > 0) {
+                // 讀到滿為止
+            }
+            int length = recordHeader.getInt(0);
+            if (recordHeader.hasRemaining() || length < RECORD_HEADER_BYTES || position + length > end) {
+                throw new IOException("Corrupt run record at " + position);
+            }
+            index(position, recordHeader.getInt(4), recordHeader.getLong(8), recordHeader.getLong(16),
+                    recordHeader.getDouble(24));
+            position += length;
+        }
+        committed = end;
+    }
+
+    private void index(long offset, int frameCount, long startTick, long startTime, double distance) {
+        if (runCount == offsets.length) {
+            int capacity = runCount * 2;
+            offsets = Arrays.copyOf(offsets, capacity);
+            frames = Arrays.copyOf(frames, capacity);
+            distances = Arrays.copyOf(distances, capacity);
+            startTicks = Arrays.copyOf(startTicks, capacity);
+            startTimes = Arrays.copyOf(startTimes, capacity);
+        }
+        offsets[runCount] = offset;
+        frames[runCount] = frameCount;
+        startTicks[runCount] = startTick;
+        startTimes[runCount] = startTime;
+        distances[runCount] = distance;
+        runCount++;
+    }
+
+    // ===== 附加 =====
+
+    /**
+     * 附加一局（整筆寫完後才提交）
+     *
+     * @param trajectory 編碼好的軌跡（position ~ limit；encodeFrame 的輸出）
+     * @return 這一局的編號（getRunCount() - 1）
+     */
+    public int append(int frameCount, long startTick, long startTime, double distance, ByteBuffer trajectory)
+            throws IOException {
+        int length = RECORD_HEADER_BYTES + trajectory.remaining();
+        ByteBuffer out = reserve(length);
+        out.putInt(length).putInt(frameCount).putLong(startTick).putLong(startTime).putDouble(distance);
+        out.put(trajectory);
+        long offset = committed;
+        committed += length;
+        header.putLong(COMMITTED_OFFSET, committed);   // 提交（紀錄內容已經在映射區裡）
+        index(offset, frameCount, startTick, startTime, distance);
+        return runCount - 1;
+    }
+
+    /** 附加位置的映射區（空間不夠時從 committed 開始映射新的一段） */
+    private ByteBuffer reserve(int length) throws IOException {
+        long position = committed - segmentStart;
+        if (segment == null || position < 0 || position + length > segment.capacity()) {
+            segmentStart = committed;
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, segmentStart, Math.max(segmentBytes, length));
+            position = 0;
+        }
+        segment.limit(segment.capacity()).position((int) position);
+        return segment;
+    }
+
+    /** 把已提交的內容寫到儲存裝置（msync；只有斷電保護需要，會阻塞 → 只在 I/O 執行緒呼叫） */
+    public void force() {
+        if (segment != null) segment.force();
+        header.force();
+    }
+
+    // ===== 查詢 =====
+
+    public int getRunCount() { return runCount; }
+    public int getFrameCount(int run) { return frames[run]; }
+    public double getDistance(int run) { return distances[run]; }
+    public long getStartTick(int run) { return startTicks[run]; }
+    public long getStartTime(int run) { return startTimes[run]; }
+    /** 已提交的資料長度（bytes，含 header） */
+    public long getCommittedBytes() { return committed; }
+
+    /** 最佳的一局（撐最久 = 幀數最多；同分取較早的）；沒有紀錄回傳 -1 */
+    public int getBestRun() {
+        int best = -1;
+        for (int i = 0; i < runCount; i++) {
+            if (best < 0 || frames[i] > frames[best]) best = i;
+        }
+        return best;
+    }
+
+    /** 串流讀取某一局的軌跡（獨立的讀取位置；之後的附加不影響它） */
+    public GhostReader openGhost(int run) {
+        long start = offsets[run] + RECORD_HEADER_BYTES;
+        long end = run + 1 < runCount ? offsets[run + 1] : committed;
+        return new GhostReader(channel, start, end, frames[run]);
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    // ===== 軌跡編碼（量化 + 差量 + zigzag varint） =====
+
+    /**
+     * 寫一幀（與上一幀的量化差值）
+     *
+     * @param previous 上一幀的量化值 [x, angle]；寫完後更新成這一幀
+     */
+    static void encodeFrame(ByteBuffer out, int qx, int qangle, int[] previous) {
+        SnapshotCodec.putVarInt(out, SnapshotCodec.zigzag(qx - previous[0]));
+        SnapshotCodec.putVarInt(out, SnapshotCodec.zigzag(qangle - previous[1]));
+        previous[0] = qx;
+        previous[1] = qangle;
+    }
+
+    /**
+     * 鬼影軌跡的串流讀取（lazy paging：一次只映射 PAGE_BYTES，讀到頁尾才映射下一頁）
+     *
+     * 只需要頁面大小的記憶體；映射不讀資料，真正的磁碟讀取發生在第一次碰到該頁時（page fault）
+     * → 在背景執行緒讀（RunWriter 的 I/O 執行緒），遊戲執行緒只拿解碼好的幀
+     * 不是執行緒安全的
+     */
+    public static final class GhostReader {
+
+        private final FileChannel channel;
+        private final long end;                 // 軌跡結束位置（檔案 offset）
+        private final int frameCount;
+        private final int pageBytes = GameConfig.RUN_LOG_PAGE_BYTES;
+        private MappedByteBuffer page;
+        private long pageStart;                 // page 在檔案中的起點
+        private long position;                  // 下一幀的檔案 offset
+        private int frame;                      // 已讀的幀數
+        private int x;                          // 目前幀的量化值
+        private int angle;
+        private int pagesMapped;
+
+        GhostReader(FileChannel channel, long start, long end, int frameCount) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+            this.frameCount = frameCount;
+        }
+
+        /** 讀下一幀；沒有了回傳 false */
+        public boolean next() throws IOException {
+            if (frame == frameCount) return false;
+            ByteBuffer in = page(Math.min(MAX_FRAME_BYTES, end - position));
+            x += SnapshotCodec.unzigzag(SnapshotCodec.getVarInt(in));
+            angle += SnapshotCodec.unzigzag(SnapshotCodec.getVarInt(in));
+            position = pageStart + in.position();
+            frame++;
+            return true;
+        }
+
+        /** 目前頁面中從 position 起至少 needed bytes 的視窗（不夠時映射下一頁） */
+        private ByteBuffer page(long needed) throws IOException {
+            if (page == null || position + needed > pageStart + page.capacity()) {
+                pageStart = position;
+                page = channel.map(FileChannel.MapMode.READ_ONLY, pageStart, Math.min(pageBytes, end - pageStart));
+                pagesMapped++;
+            }
+            page.position((int) (position - pageStart));
+            return page;
+        }
+
+        public float getX() { return SnapshotCodec.dequantizeX(x); }
+        public float getAngle() { return SnapshotCodec.dequantizeAngle(angle); }
+        /** 已讀的幀數（下一幀的索引） */
+        public int getFrame() { return frame; }
+        public int getFrameCount() { return frameCount; }
+        public int getPagesMapped() { return pagesMapped; }
+    }
+}
@@ -0,0 +1,460 @@
+package com.example.firstapp.core;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 跑局紀錄的背景寫入（write-behind）+ 最佳一局的鬼影串流
+ *
+ * 遊戲執行緒永遠不碰磁碟：
+ * - 每 tick 的軌跡先編碼進預先配置的批次（RUN_LOG_CHUNK_BYTES），滿了或一局結束才把整格交給 I/O 執行緒
+ *   交接是單一生產者/單一消費者的 ring（兩個 volatile 計數器），不上鎖、不配置
+ * - I/O 執行緒把同一局的批次接起來，一局結束時整筆附加到 RunLog（記憶體映射）
+ * - ring 滿了（I/O 執行緒落後）→ 這一局丟棄，遊戲照常進行（getDroppedRuns 計數）
+ *
+ * 鬼影：每一局開始時，I/O 執行緒從 RunLog 的最佳一局從頭串流解碼（GhostReader，一次映射一頁）
+ * → 放進 GHOST_BUFFER_FRAMES 幀的 ring；遊戲執行緒每 tick 取「與這一局同一幀」的位置
+ * 解碼跟不上時保持上一幀（getGhostUnderruns 計數），跟上後直接跳到對齊的那一幀
+ *
+ * 執行緒模型：beginRun / recordFrame / endRun / getGhost* 只在模擬執行緒上呼叫；close() 在遊戲迴圈停止後
+ * I/O 執行緒只在有工作時醒來（生產者看到它 park 才 unpark）
+ *
+ * 類比後端：write-behind cache（先回應、背景批次落盤）+ 串流讀取的預取（read-ahead）
+ */
+public final class RunWriter implements Closeable {
+
+    private static final int SLOTS = GameConfig.RUN_LOG_CHUNKS;
+    private static final int GHOST_FRAMES = GameConfig.GHOST_BUFFER_FRAMES;
+    private static final int GHOST_MASK = GHOST_FRAMES - 1;
+    private static final long PARK_NANOS = 100_000_000L;     // 保險：沒人叫醒時最多睡 100 ms
+
+    private final File file;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile boolean writerParked;                   // I/O 執行緒正在 park（生產者據此決定要不要 unpark）
+    private volatile boolean syncRequested;
+    private volatile boolean held;                           // 測試用：I/O 執行緒暫停取走批次（holdWriter）
+
+    // ===== 批次 ring（遊戲執行緒寫 → I/O 執行緒讀；每格一個 buffer + 中繼資料） =====
+    private final ByteBuffer[] chunks = new ByteBuffer[SLOTS];
+    private final long[] chunkRun = new long[SLOTS];         // 屬於第幾局（這個 RunWriter 內的序號）
+    private final boolean[] chunkEnd = new boolean[SLOTS];   // 該局的最後一格（附統計）
+    private final int[] chunkFrames = new int[SLOTS];
+    private final long[] chunkStartTick = new long[SLOTS];
+    private final long[] chunkStartTime = new long[SLOTS];
+    private final double[] chunkDistance = new double[SLOTS];
+    private volatile long published;                         // 遊戲執行緒已送出的格數
+    private volatile long consumed;                          // I/O 執行緒已處理完的格數
+
+    // ===== 遊戲執行緒：目前這一局 =====
+    private final int[] previous = new int[2];               // 上一幀的量化 x / angle（差量編碼）
+    private ByteBuffer current;                              // 正在寫的格子（null = 還沒取得）
+    private long runSequence;
+    private long run;                                        // 進行中的局（0 = 沒有）
+    private boolean runDropped;                              // ring 滿了 → 這一局不寫入
+    private int frames;
+    private long startTick;
+    private long startTime;
+    private double startDistance;
+    private long droppedRuns;
+
+    // ===== 鬼影（I/O 執行緒解碼 → 遊戲執行緒每 tick 取一幀） =====
+    private final float[] ghostXs = new float[GHOST_FRAMES];
+    private final float[] ghostAngles = new float[GHOST_FRAMES];
+    private volatile int ghostRequest;                       // 遊戲執行緒：每一局開始 +1（從頭播放）
+    private volatile int ghostGeneration;                    // I/O 執行緒：ring 裡的幀屬於哪一次要求
+    private volatile int ghostTotal;                         // 這次播放的總幀數（0 = 沒有鬼影）
+    private volatile long ghostWritten;                      // I/O 執行緒已解碼的幀數
+    private volatile long ghostRead;                         // 遊戲執行緒已取用到的幀數
+    private boolean ghostVisible;
+    private float ghostX;
+    private float ghostPrevX;
+    private float ghostAngle;
+    private float ghostPrevAngle;
+    private long ghostUnderruns;
+
+    // ===== I/O 執行緒 =====
+    private RunLog log;
+    private ByteBuffer staging = ByteBuffer.allocate(16 * 1024); // 進行中那一局的軌跡（接起來的批次）
+    private long stagingRun;
+    private RunLog.GhostReader ghostReader;
+    private int ghostServing;                                // 已處理的 ghostRequest
+    private volatile IOException failure;
+    private volatile int runsWritten;
+    private volatile long committedBytes;
+
+    /**
+     * 啟動 I/O 執行緒（檔案在 I/O 執行緒上開啟 → 建構本身不做磁碟 I/O，可在 UI 執行緒呼叫）
+     */
+    public RunWriter(File file) {
+        this.file = file;
+        for (int i = 0; i < SLOTS; i++) chunks[i] = ByteBuffer.allocate(GameConfig.RUN_LOG_CHUNK_BYTES);
+        thread = new Thread(this::ioLoop, "RunLogWriter");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1);        // 比模擬/繪製執行緒低
+        thread.start();
+    }
+
+    // ===== 遊戲執行緒 =====
+
+    /**
+     * 開始新的一局（上一局還沒結束則先結束）；鬼影從最佳一局的第一幀重新播放
+     *
+     * @param tick     GameWorld 的 tick（統計用）
+     * @param distance 目前的行駛距離（endRun 時相減 = 這一局的距離）
+     */
+    public void beginRun(long tick, double distance) {
+        if (run != 0) endRun(distance);
+        run = ++runSequence;
+        runDropped = false;
+        frames = 0;
+        previous[0] = 0;
+        previous[1] = 0;
+        startTick = tick;
+        startTime = System.currentTimeMillis();
+        startDistance = distance;
+
+        ghostVisible = false;
+        ghostRead = 0;                                       // 先歸零再發出要求 → I/O 執行緒看到要求時一定也看到 0
+        ghostRequest = ghostRequest + 1;
+        wakeWriter();
+    }
+
+    /** 記錄這一 tick 的車輛位置（每 tick 一次，在 onUpdate 結尾）並前進鬼影；0 配置 */
+    public void recordFrame(Car car) {
+        if (run == 0) return;
+        advanceGhost();
+        if (!runDropped) {
+            if (current == null || current.remaining() < RunLog.MAX_FRAME_BYTES) {
+                if (current != null) publish(false, 0.0);
+                if (!acquire()) runDropped = true;
+            }
+            if (!runDropped) {
+                RunLog.encodeFrame(current, SnapshotCodec.quantizeX(car.getX()),
+                        SnapshotCodec.quantizeAngle(car.getAngle()), previous);
+            }
+        }
+        frames++;
+    }
+
+    /**
+     * 結束這一局：最後一格帶著統計交給 I/O 執行緒（沒有幀或中途丟過幀的局不寫入）
+     *
+     * @param distance 目前的行駛距離
+     */
+    public void endRun(double distance) {
+        if (run == 0) return;
+        if (!runDropped && frames > 0) publish(true, distance - startDistance);
+        if (runDropped) droppedRuns++;
+        run = 0;
+        current = null;
+        ghostVisible = false;
+    }
+
+    /** 取得下一個空的格子；ring 滿了回傳 false */
+    private boolean acquire() {
+        long p = published;
+        if (p - consumed >= SLOTS) return false;
+        current = chunks[(int) (p % SLOTS)];
+        current.clear();
+        return true;
+    }
+
+    /** 把目前的格子交給 I/O 執行緒 */
+    private void publish(boolean end, double distance) {
+        long p = published;
+        int i = (int) (p % SLOTS);
+        chunkRun[i] = run;
+        chunkEnd[i] = end;
+        chunkFrames[i] = frames;
+        chunkStartTick[i] = startTick;
+        chunkStartTime[i] = startTime;
+        chunkDistance[i] = distance;
+        current.flip();
+        current = null;
+        published = p + 1;                                   // volatile 寫入：內容與中繼資料一起對 I/O 執行緒可見
+        wakeWriter();
+    }
+
+    /** 取「與這一局同一幀」的鬼影位置（跟不上時保持上一幀） */
+    private void advanceGhost() {
+        ghostPrevX = ghostX;
+        ghostPrevAngle = ghostAngle;
+        if (ghostGeneration != ghostRequest) return;         // I/O 執行緒還沒切換到這一局的播放
+        long target = frames;
+        if (target >= ghostTotal) {                          // 鬼影已經跑完（這一局撐得比最佳紀錄久）
+            ghostVisible = false;
+            return;
+        }
+        long written = ghostWritten;
+        if (target >= written || target < ghostRead) {
+            if (ghostVisible) ghostUnderruns++;
+            return;
+        }
+        int i = (int) target & GHOST_MASK;
+        ghostX = ghostXs[i];
+        ghostAngle = ghostAngles[i];
+        if (!ghostVisible) {                                 // 第一幀：不從舊位置插值過來
+            ghostPrevX = ghostX;
+            ghostPrevAngle = ghostAngle;
+            ghostVisible = true;
+        }
+        ghostRead = target + 1;
+        if (writerParked && written < ghostTotal && written - target <= GHOST_FRAMES / 2) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void wakeWriter() {
+        if (writerParked) LockSupport.unpark(thread);
+    }
+
+    /** 下一次有空時把已提交的內容 force 到儲存裝置（不阻塞呼叫端；例如 onPause） */
+    public void requestSync() {
+        syncRequested = true;
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * 暫停/恢復 I/O 執行緒取走批次（測試用：模擬儲存裝置卡住 → ring 會滿；遊戲中不要呼叫）
+     */
+    void holdWriter(boolean hold) {
+        held = hold;
+        LockSupport.unpark(thread);
+    }
+
+    // ===== 鬼影查詢（模擬/繪製執行緒） =====
+
+    /** 這一 tick 有鬼影可畫（有最佳紀錄、已解碼到、還沒跑完） */
+    public boolean isGhostVisible() { return ghostVisible; }
+
+    /** 鬼影中心 X（alpha 插值，與 Car.getInterpolatedX 相同） */
+    public float getGhostX(float alpha) { return ghostPrevX + (ghostX - ghostPrevX) * alpha; }
+
+    public float getGhostAngle(float alpha) { return ghostPrevAngle + (ghostAngle - ghostPrevAngle) * alpha; }
+
+    public long getGhostUnderruns() { return ghostUnderruns; }
+    public long getDroppedRuns() { return droppedRuns; }
+    /** 進行中這一局已記錄的幀數 */
+    public int getFrames() { return frames; }
+
+    // ===== 統計（任何執行緒） =====
+
+    public int getRunsWritten() { return runsWritten; }
+    public long getCommittedBytes() { return committedBytes; }
+    /** I/O 錯誤（null = 正常）；發生錯誤後紀錄停止，遊戲不受影響 */
+    public IOException getFailure() { return failure; }
+
+    /**
+     * 等到目前送出的批次全部寫完（測試/量測用；遊戲中不要呼叫）
+     *
+     * @return false = 逾時
+     */
+    public boolean awaitWritten(long timeoutNanos) {
+        long target = published;
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (consumed < target) {
+            if (System.nanoTime() > deadline) return false;
+            LockSupport.unpark(thread);
+            LockSupport.parkNanos(100_000L);
+        }
+        return true;
+    }
+
+    /**
+     * 寫完剩下的批次、force、關閉檔案並等 I/O 執行緒結束（在遊戲迴圈停止後呼叫；進行中的局不寫入）
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        LockSupport.unpark(thread);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        if (failure != null) throw failure;
+    }
+
+    // ===== I/O 執行緒 =====
+
+    private void ioLoop() {
+        try {
+            log = RunLog.open(file);
+            runsWritten = log.getRunCount();
+            committedBytes = log.getCommittedBytes();
+        } catch (IOException e) {
+            failure = e;                                     // 之後的批次照常取走（丟棄），遊戲不受影響
+        }
+        while (true) {
+            boolean worked = false;
+            while (consumed < published && (!held || !running)) {
+                writeChunk((int) (consumed % SLOTS));
+                consumed = consumed + 1;
+                worked = true;
+            }
+            worked |= serveGhost();
+            if (syncRequested) {
+                syncRequested = false;
+                if (log != null) log.force();
+            }
+            if (worked) continue;
+            if (!running) break;
+            writerParked = true;
+            if ((consumed == published || held) && ghostRequest == ghostServing && !syncRequested && running) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+            writerParked = false;
+        }
+        if (log != null) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                if (failure == null) failure = e;
+            }
+        }
+    }
+
+    /** 把一格接到 staging；最後一格 → 整局附加到 RunLog */
+    private void writeChunk(int i) {
+        ByteBuffer chunk = chunks[i];
+        if (chunkRun[i] != stagingRun) {                     // 新的一局（上一局沒有結尾 = 中途丟過幀 → 捨棄）
+            staging.clear();
+            stagingRun = chunkRun[i];
+        }
+        if (staging.remaining() < chunk.remaining()) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(staging.capacity() * 2, staging.position() + chunk.remaining()));
+            staging.flip();
+            grown.put(staging);
+            staging = grown;
+        }
+        staging.put(chunk);
+        if (!chunkEnd[i]) return;
+
+        staging.flip();
+        if (log != null && failure == null) {
+            try {
+                log.append(chunkFrames[i], chunkStartTick[i], chunkStartTime[i], chunkDistance[i], staging);
+                runsWritten = log.getRunCount();
+                committedBytes = log.getCommittedBytes();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        staging.clear();
+        stagingRun = 0;
+    }
+
+    /**
+     * 鬼影：新的要求 → 從最佳一局重新開始；ring 有空間 → 繼續解碼
+     *
+     * @return 是否做了事
+     */
+    private boolean serveGhost() {
+        int request = ghostRequest;
+        boolean worked = false;
+        if (request != ghostServing) {
+            ghostServing = request;
+            int best = log != null ? log.getBestRun() : -1;
+            ghostReader = best >= 0 ? log.openGhost(best) : null;
+            ghostWritten = 0;
+            ghostTotal = ghostReader != null ? ghostReader.getFrameCount() : 0;
+            ghostGeneration = request;                       // 發布：之後遊戲執行緒才讀 ring
+            worked = true;
+        }
+        RunLog.GhostReader reader = ghostReader;
+        if (reader == null) return worked;
+        long written = ghostWritten;
+        long limit = ghostRead + GHOST_FRAMES;
+        try {
+            while (written < limit && ghostRequest == request && reader.next()) {
+                int i = (int) written & GHOST_MASK;
+                ghostXs[i] = reader.getX();
+                ghostAngles[i] = reader.getAngle();
+                ghostWritten = ++written;
+                worked = true;
+            }
+        } catch (IOException | RuntimeException e) {        // 檔案損毀 → 這次不播鬼影
+            ghostTotal = 0;
+            ghostReader = null;
+            return true;
+        }
+        if (reader.getFrame() == reader.getFrameCount()) ghostReader = null;
+        return worked;
+    }
+
+    // ===== 量測：./gradlew :core:runLogBench =====
+
+    /**
+     * 寫入吞吐量（遊戲執行緒送出 → 映射檔提交）與鬼影幀的讀取延遲（含 lazy paging 的 page fault）
+     *
+     * 參數：[輸出檔] [局數] [每局幀數]
+     */
+    public static void main(String[] args) throws IOException {
+        File out = args.length > 0 ? new File(args[0]) : File.createTempFile("run-log", ".bin");
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int framesPerRun = args.length > 2 ? Integer.parseInt(args[2]) : 3_600;
+        if (out.exists() && !out.delete()) throw new IOException("Cannot replace " + out);
+
+        CarFleet fleet = new CarFleet(1);
+        Car car = new Car(fleet, 0);
+        RunWriter writer = new RunWriter(out);
+        LatencyHistogram recordLatency = new LatencyHistogram();
+        long start = System.nanoTime();
+        for (int r = 0; r < runs; r++) {
+            writer.beginRun(0, 0.0);
+            for (int f = 0; f < framesPerRun; f++) {
+                fleet.restore(0, 540f + 300f * FastMath.sinDeg(f * 0.7f + r), 20f * FastMath.sinDeg(f * 3f), 0f);
+                long t = System.nanoTime();
+                writer.recordFrame(car);
+                recordLatency.record(System.nanoTime() - t);
+            }
+            writer.endRun(framesPerRun * GameConfig.LINE_SCROLL_SPEED);
+            while (!writer.awaitWritten(1_000_000_000L)) {
+                // I/O 執行緒落後：等它追上（量的是持續吞吐量，不丟局）
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        writer.close();
+        long bytes = writer.getCommittedBytes();
+        System.out.println(String.format(Locale.US,
+                "write: runs=%d frames=%d bytes=%d (%.2f bytes/frame) %.1f MB/s %.2f Mframes/s recordFrame mean=%dns p99=%dns dropped=%d",
+                runs, (long) runs * framesPerRun, bytes, bytes / ((double) runs * framesPerRun),
+                bytes / 1e6 / (elapsed / 1e9), (double) runs * framesPerRun / 1e6 / (elapsed / 1e9),
+                recordLatency.getMeanNanos(), recordLatency.getPercentile(99), writer.getDroppedRuns()));
+
+        try (RunLog log = RunLog.open(out)) {
+            for (int pass = 0; pass < 3; pass++) {               // 第一輪含 JIT 暖身
+                LatencyHistogram readLatency = new LatencyHistogram();
+                long readStart = System.nanoTime();
+                long frames = 0;
+                int pages = 0;
+                for (int r = 0; r < log.getRunCount(); r++) {
+                    RunLog.GhostReader ghost = log.openGhost(r);
+                    while (true) {
+                        long t = System.nanoTime();
+                        if (!ghost.next()) break;
+                        readLatency.record(System.nanoTime() - t);
+                        frames++;
+                    }
+                    pages += ghost.getPagesMapped();
+                }
+                long readElapsed = System.nanoTime() - readStart;
+                System.out.println(String.format(Locale.US,
+                        "read pass %d: frames=%d pages=%d %.2f Mframes/s frame mean=%dns p50=%dns p99=%dns max=%dns",
+                        pass + 1, frames, pages, frames / 1e6 / (readElapsed / 1e9), readLatency.getMeanNanos(),
+                        readLatency.getPercentile(50), readLatency.getPercentile(99), readLatency.getMaxNanos()));
+            }
+        }
+        if (args.length == 0 && !out.delete()) out.deleteOnExit();
+    }
+}
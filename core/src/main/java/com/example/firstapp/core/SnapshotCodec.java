@@ -0,0 +1,138 @@
+package com.example.firstapp.core;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 連線封包的編碼（量化 + 差量 + varint），NetServer / NetClient 共用
+ *
+ * 車輛狀態只送三個欄位：x、angle、steeringAngle（其他都可以由這三個 + 固定的物理常數推出）
+ * - 量化：float → int（x 精度 1/16 像素，角度 1/1024 度）→ 兩端比較的是同一個整數，不受 float 捨入影響
+ * - 差量：相對「對方已確認收到」的那一份快照（baseline），每個欄位只送差值
+ *   → 直線行駛時 angle/steering 不變，一台車只要 1 byte 欄位遮罩 + 1~2 bytes 的 x 差值
+ * - varint + zigzag：小的差值（正負都一樣）只要 1 byte
+ *
+ * 快照封包（伺服器 → 客戶端）：
+ *   byte TYPE_SNAPSHOT, varint 伺服器 tick, varint baseline 距離（0 = 完整快照）,
+ *   varint 已處理的輸入 tick + 1（0 = 還沒有）, byte 你的 slot, byte 玩家遮罩,
+ *   每個玩家：byte 欄位遮罩 + 變動欄位的 zigzag varint 差值
+ * 輸入封包（客戶端 → 伺服器）：
+ *   byte TYPE_INPUT, varint 最新輸入的 tick, varint 已收到的快照 tick + 1（0 = 還沒有）,
+ *   byte 輸入數 n, n × byte 轉向（最舊的在前；同一個輸入會在連續 n 個封包裡重送）
+ *
+ * 類比後端：Protocol Buffers 的 varint/zigzag + CDC 的增量同步（只送變動的欄位）
+ */
+public final class SnapshotCodec {
+
+    // ===== 封包類型 =====
+    public static final byte TYPE_INPUT = 1;
+    public static final byte TYPE_SNAPSHOT = 2;
+
+    // ===== 轉向輸入 =====
+    public static final byte STEER_CENTER = 0;
+    public static final byte STEER_LEFT = 1;
+    public static final byte STEER_RIGHT = 2;
+
+    // ===== 量化 =====
+    public static final int FIELDS = 3;               // 每台車的欄位數
+    public static final int FIELD_X = 0;
+    public static final int FIELD_ANGLE = 1;
+    public static final int FIELD_STEERING = 2;
+    private static final float X_SCALE = 16f;         // 1/16 像素
+    private static final float ANGLE_SCALE = 1024f;   // 1/1024 度
+
+    private SnapshotCodec() {}
+
+    // ===== 量化 / 還原 =====
+
+    /** 把車輛狀態量化寫進 out[offset .. offset + FIELDS) */
+    public static void quantize(CarFleet fleet, int slot, int[] out, int offset) {
+        out[offset + FIELD_X] = quantizeX(fleet.getX(slot));
+        out[offset + FIELD_ANGLE] = quantizeAngle(fleet.getAngle(slot));
+        out[offset + FIELD_STEERING] = quantizeAngle(fleet.getSteeringAngle(slot));
+    }
+
+    public static int quantizeX(float x) { return Math.round(x * X_SCALE); }
+    public static int quantizeAngle(float angle) { return Math.round(angle * ANGLE_SCALE); }
+
+    /** 把量化狀態還原到車輛（CarFleet.restore：sin/cos 一起重算） */
+    public static void restore(CarFleet fleet, int slot, int[] state, int offset) {
+        fleet.restore(slot, state[offset + FIELD_X] / X_SCALE,
+                state[offset + FIELD_ANGLE] / ANGLE_SCALE,
+                state[offset + FIELD_STEERING] / ANGLE_SCALE);
+    }
+
+    public static float dequantizeX(int value) { return value / X_SCALE; }
+    public static float dequantizeAngle(int value) { return value / ANGLE_SCALE; }
+
+    /**
+     * 兩份量化狀態是否「一樣」（每個欄位最多差 tolerance 個量化單位）
+     * 客戶端從還原後的狀態繼續預測，會與伺服器差不到一個量化單位 → 允許 1 避免無謂的校正
+     */
+    public static boolean matches(int[] a, int aOffset, int[] b, int bOffset, int tolerance) {
+        for (int f = 0; f < FIELDS; f++) {
+            if (Math.abs(a[aOffset + f] - b[bOffset + f]) > tolerance) return false;
+        }
+        return true;
+    }
+
+    // ===== 單台車的差量 =====
+
+    /**
+     * 寫一台車：欄位遮罩 + 有變動欄位的差值
+     *
+     * @param baseline 對方手上的舊值（null = 沒有 baseline，相對 0 編碼）
+     */
+    public static void putCar(ByteBuffer out, int[] state, int offset, int[] baseline, int baseOffset) {
+        int mask = 0;
+        for (int f = 0; f < FIELDS; f++) {
+            int base = baseline == null ? 0 : baseline[baseOffset + f];
+            if (state[offset + f] != base) mask |= 1 << f;
+        }
+        out.put((byte) mask);
+        for (int f = 0; f < FIELDS; f++) {
+            if ((mask & (1 << f)) == 0) continue;
+            int base = baseline == null ? 0 : baseline[baseOffset + f];
+            putVarInt(out, zigzag(state[offset + f] - base));
+        }
+    }
+
+    /** 讀一台車（putCar 的反向）寫進 out[offset ..) */
+    public static void getCar(ByteBuffer in, int[] baseline, int baseOffset, int[] out, int offset) {
+        int mask = in.get();
+        for (int f = 0; f < FIELDS; f++) {
+            int base = baseline == null ? 0 : baseline[baseOffset + f];
+            out[offset + f] = (mask & (1 << f)) == 0 ? base : base + unzigzag(getVarInt(in));
+        }
+    }
+
+    // ===== varint / zigzag =====
+
+    /** 無號 varint（7 bits 一組，最高位 = 後面還有） */
+    public static void putVarInt(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    /** @throws IllegalArgumentException 超過 5 bytes（封包損毀） */
+    public static int getVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    /** 有號 → 無號（0, -1, 1, -2 ... → 0, 1, 2, 3 ...），小的負數也只要 1 byte */
+    public static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    public static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
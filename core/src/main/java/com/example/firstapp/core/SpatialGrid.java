@@ -0,0 +1,233 @@
+package com.example.firstapp.core;
+
+/**
+ * 碰撞偵測的 Broad Phase：以道路幾何切分的均勻網格（Spatial Hash）
+ *
+ * 問題：N 個移動實體兩兩比較 = O(N²)，1000 台車就是 50 萬次 AABB 檢查
+ * 解法：
+ * - 把畫面切成格子：欄 = 車道（cellW = 車道寬），列 = cellH（≥ 最高實體）
+ * - 每個實體只登記在「中心點」所在的格子
+ * - 只要格子比任何實體都大，會重疊的兩個實體一定在相同或相鄰格子
+ *   → 每格只檢查自己 + 右、左下、下、右下 4 個鄰格（每對只檢查一次）
+ * - Narrow Phase（精確 AABB 檢查）只對候選配對執行
+ *
+ * 增量更新：
+ * - 每個格子是一條以 int 陣列實作的雙向鏈結串列（cellHead / next / prev）
+ * - move() 只在實體跨格時才 unlink + link，大部分 tick 都是 O(1) 直接返回
+ *
+ * 所有陣列在建構子與 configure() 時配置，insert/move/remove/findPairs 不配置記憶體
+ * 類比後端：資料庫的 Hash Index — 先用索引縮小範圍，再逐筆比對
+ */
+public class SpatialGrid {
+
+    private static final int NONE = -1;  // 空鏈結 / 不在網格中
+
+    // ===== 每個實體（以 id 索引）的狀態 =====
+    private final int capacity;   // 最大實體 id + 1
+    private final float[] cx;     // 中心 X
+    private final float[] cy;     // 中心 Y
+    private final float[] halfW;  // 半寬
+    private final float[] halfH;  // 半高
+    private final int[] cellOf;   // 所在格子（NONE = 不在網格中）
+    private final int[] next;     // 同格子下一個實體
+    private final int[] prev;     // 同格子上一個實體
+    private int size;             // 網格中的實體數
+
+    // ===== 網格幾何（configure() 設定） =====
+    private int[] cellHead = new int[0]; // 每個格子的鏈結串列頭
+    private int cols;             // 欄數
+    private int rows;             // 列數
+    private float originX;        // 第 0 欄左邊界 X
+    private float originY;        // 第 0 列上邊界 Y
+    private float invCellW;       // 1 / 格子寬（乘法比除法快）
+    private float invCellH;       // 1 / 格子高
+
+    /**
+     * @param capacity 實體 id 的上限（id 範圍 0 ~ capacity-1）
+     */
+    public SpatialGrid(int capacity) {
+        this.capacity = capacity;
+        cx = new float[capacity];
+        cy = new float[capacity];
+        halfW = new float[capacity];
+        halfH = new float[capacity];
+        cellOf = new int[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        for (int i = 0; i < capacity; i++) cellOf[i] = NONE;
+        configure(0f, 0f, 1f, 1f, 1, 1);
+    }
+
+    /**
+     * 依道路幾何設定網格：一條車道一欄，列高 = 最高實體的高度
+     * 在 GameWorld.resize() 呼叫（尺寸改變時才配置新的 cellHead）
+     *
+     * @param road             已 init() 的道路
+     * @param maxEntityWidth   最寬實體的寬度（格子不能比它窄）
+     * @param maxEntityHeight  最高實體的高度（列高，也是畫面上下緣外的緩衝區）
+     */
+    public void configureForRoad(Road road, float maxEntityWidth, float maxEntityHeight) {
+        float roadWidth = road.getRoadWidth();
+        int laneCols = Math.max(1, Math.min(GameConfig.LANE_COUNT, (int) (roadWidth / maxEntityWidth)));
+        float margin = maxEntityHeight;   // 障礙物在畫面上方外側生成
+        int gridRows = (int) Math.ceil((road.getScreenHeight() + 2f * margin) / maxEntityHeight);
+        configure(road.getRoadLeft(), -margin, roadWidth / laneCols, maxEntityHeight, laneCols, Math.max(1, gridRows));
+    }
+
+    /**
+     * 設定網格幾何（已在網格中的實體會依新幾何重新分桶）
+     */
+    public void configure(float originX, float originY, float cellW, float cellH, int cols, int rows) {
+        this.originX = originX;
+        this.originY = originY;
+        this.invCellW = 1f / cellW;
+        this.invCellH = 1f / cellH;
+        this.cols = cols;
+        this.rows = rows;
+        if (cellHead.length != cols * rows) {
+            cellHead = new int[cols * rows];  // 只在尺寸改變時配置
+        }
+        for (int c = 0; c < cellHead.length; c++) cellHead[c] = NONE;
+
+        for (int id = 0; id < capacity; id++) {
+            if (cellOf[id] != NONE) {
+                cellOf[id] = NONE;
+                link(id, cellIndex(cx[id], cy[id]));
+            }
+        }
+    }
+
+    /** 移除所有實體 */
+    public void clear() {
+        for (int c = 0; c < cellHead.length; c++) cellHead[c] = NONE;
+        for (int id = 0; id < capacity; id++) cellOf[id] = NONE;
+        size = 0;
+    }
+
+    // ===== 增量更新 =====
+
+    /**
+     * 加入實體（已存在則視為 move + 更新尺寸）
+     */
+    public void insert(int id, float centerX, float centerY, float halfWidth, float halfHeight) {
+        halfW[id] = halfWidth;
+        halfH[id] = halfHeight;
+        if (cellOf[id] != NONE) {
+            move(id, centerX, centerY);
+            return;
+        }
+        cx[id] = centerX;
+        cy[id] = centerY;
+        link(id, cellIndex(centerX, centerY));
+        size++;
+    }
+
+    /**
+     * 更新實體位置；只有跨格時才重新掛到新格子的鏈結串列
+     */
+    public void move(int id, float centerX, float centerY) {
+        cx[id] = centerX;
+        cy[id] = centerY;
+        int oldCell = cellOf[id];
+        if (oldCell == NONE) return;          // 不在網格中（呼叫端應先 insert）
+        int newCell = cellIndex(centerX, centerY);
+        if (newCell == oldCell) return;       // 大部分 tick：同一格，O(1) 結束
+        unlink(id);
+        link(id, newCell);
+    }
+
+    /** 移除實體 */
+    public void remove(int id) {
+        if (cellOf[id] == NONE) return;
+        unlink(id);
+        size--;
+    }
+
+    public boolean contains(int id) { return cellOf[id] != NONE; }
+    public int size() { return size; }
+    public int getCols() { return cols; }
+    public int getRows() { return rows; }
+
+    // ===== 查詢 =====
+
+    /**
+     * Broad Phase + Narrow Phase：找出所有 AABB 重疊的配對，批次寫入 out
+     * 每對只回報一次（a 在前，b 在後，依掃描順序）
+     */
+    public void findPairs(CollisionBatch out) {
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                int cell = row * cols + col;
+                for (int a = cellHead[cell]; a != NONE; a = next[a]) {
+                    // 同格子：只和鏈結串列中排在後面的比較
+                    testAgainstList(a, next[a], out);
+                    // 前向鄰格：右、左下、下、右下（另外 4 個方向由鄰格負責）
+                    if (col + 1 < cols) testAgainstList(a, cellHead[cell + 1], out);
+                    if (row + 1 < rows) {
+                        int below = cell + cols;
+                        if (col > 0) testAgainstList(a, cellHead[below - 1], out);
+                        testAgainstList(a, cellHead[below], out);
+                        if (col + 1 < cols) testAgainstList(a, cellHead[below + 1], out);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 對照組：O(N²) 兩兩比較（測試正確性與基準測試用，遊戲中不要呼叫）
+     */
+    public void findPairsBruteForce(CollisionBatch out) {
+        for (int a = 0; a < capacity; a++) {
+            if (cellOf[a] == NONE) continue;
+            for (int b = a + 1; b < capacity; b++) {
+                if (cellOf[b] != NONE && overlaps(a, b)) {
+                    out.add(a, b);
+                }
+            }
+        }
+    }
+
+    /** a 與鏈結串列 head 起的每個實體做 Narrow Phase 檢查 */
+    private void testAgainstList(int a, int head, CollisionBatch out) {
+        for (int b = head; b != NONE; b = next[b]) {
+            if (overlaps(a, b)) {
+                out.add(a, b);
+            }
+        }
+    }
+
+    /** Narrow Phase：中心距離 < 半尺寸和 → AABB 重疊（貼邊不算） */
+    private boolean overlaps(int a, int b) {
+        return Math.abs(cx[a] - cx[b]) < halfW[a] + halfW[b]
+                && Math.abs(cy[a] - cy[b]) < halfH[a] + halfH[b];
+    }
+
+    // ===== 鏈結串列操作 =====
+
+    /** 座標 → 格子索引（超出網格的實體夾到邊界格子，不影響相鄰格判斷的正確性） */
+    private int cellIndex(float x, float y) {
+        int col = (int) ((x - originX) * invCellW);
+        int row = (int) ((y - originY) * invCellH);
+        if (col < 0) col = 0; else if (col >= cols) col = cols - 1;
+        if (row < 0) row = 0; else if (row >= rows) row = rows - 1;
+        return row * cols + col;
+    }
+
+    private void link(int id, int cell) {
+        int head = cellHead[cell];
+        prev[id] = NONE;
+        next[id] = head;
+        if (head != NONE) prev[head] = id;
+        cellHead[cell] = id;
+        cellOf[id] = cell;
+    }
+
+    private void unlink(int id) {
+        int p = prev[id];
+        int n = next[id];
+        if (p != NONE) next[p] = n; else cellHead[cellOf[id]] = n;
+        if (n != NONE) prev[n] = p;
+        cellOf[id] = NONE;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.firstapp.core;
+
+/**
+ * 精靈批次（所有車輛/車流的四邊形寫進同一組頂點陣列 → 一次 drawVertices 送出）
+ *
+ * 問題：CarRenderer 每台車 save() → rotate() → drawRect() → restore()
+ * → 車流一多，每台車一次矩陣推入 + 一次繪製指令，指令數隨車數線性成長
+ * 做法：
+ * - 圖都放在同一張 atlas（app 的 SpriteAtlas），每種圖是 atlas 上的一個矩形區域（region）
+ * - 每個可見的精靈在 CPU 上算好旋轉後的四個角，寫進 vertices；對應的 atlas 座標寫進 texCoords
+ * - 索引（每個四邊形兩個三角形）建構時一次填好，之後不變
+ * → 不論幾台車，每幀只有一次 Canvas.drawVertices(TRIANGLES, ...)
+ *
+ * 旋轉與 CarRenderer 的 canvas.rotate(angle, 中心) 相同（y 向下 → 正角度 = 順時針）
+ * 視窗外的精靈（含旋轉後的外接圓）不寫入 → 剛生成在畫面上方的車流不佔頂點
+ *
+ * 所有陣列建構時配置 → 每幀 0 配置；容量不夠時多出來的精靈不畫（add 回傳 false）
+ * 只在繪製執行緒上使用
+ *
+ * 類比後端：批次寫入（JDBC addBatch / executeBatch）— 把 N 次往返合併成一次
+ */
+public class SpriteBatch {
+
+    /** 索引是 short（Canvas.drawVertices 的限制）→ 頂點數 ≤ 65536，每個精靈 4 個頂點 */
+    public static final int MAX_CAPACITY = 65536 / 4;
+
+    private static final int FLOATS_PER_SPRITE = 8;    // 4 個頂點 × (x, y)
+    private static final int INDICES_PER_SPRITE = 6;   // 2 個三角形
+
+    private final int capacity;
+    private final float[] vertices;     // 畫面座標（x0, y0, x1, y1, ...）
+    private final float[] texCoords;    // atlas 像素座標（BitmapShader 的座標系）
+    private final short[] indices;      // 固定的三角形索引
+
+    private int spriteCount;            // 這一幀寫入的精靈數
+    private float viewWidth = Float.MAX_VALUE;   // 視窗（裁切用；預設不裁切）
+    private float viewHeight = Float.MAX_VALUE;
+
+    /**
+     * @param capacity 每幀最多精靈數（1 ~ MAX_CAPACITY）
+     */
+    public SpriteBatch(int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be 1.." + MAX_CAPACITY);
+        }
+        this.capacity = capacity;
+        vertices = new float[capacity * FLOATS_PER_SPRITE];
+        texCoords = new float[capacity * FLOATS_PER_SPRITE];
+        indices = new short[capacity * INDICES_PER_SPRITE];
+        for (int s = 0; s < capacity; s++) {
+            int v = s * 4;                              // 左上、右上、右下、左下
+            int i = s * INDICES_PER_SPRITE;
+            indices[i] = (short) v;
+            indices[i + 1] = (short) (v + 1);
+            indices[i + 2] = (short) (v + 2);
+            indices[i + 3] = (short) v;
+            indices[i + 4] = (short) (v + 2);
+            indices[i + 5] = (short) (v + 3);
+        }
+    }
+
+    /** atlas 上的區域（像素座標：左、上、右、下） */
+    public static float[] region(float left, float top, float right, float bottom) {
+        return new float[] {left, top, right, bottom};
+    }
+
+    /** 視窗尺寸（世界座標）：完全在視窗外的精靈不寫入 */
+    public void setViewport(float width, float height) {
+        viewWidth = width;
+        viewHeight = height;
+    }
+
+    /** 開始新的一幀（清空上一幀的精靈，不清陣列） */
+    public void begin() {
+        spriteCount = 0;
+    }
+
+    /**
+     * 加入一個旋轉的精靈
+     *
+     * @param cx     中心 X
+     * @param cy     中心 Y
+     * @param sin    sin(角度)（角度 0 → sin 0、cos 1）
+     * @param cos    cos(角度)
+     * @param region atlas 區域（region()）
+     * @return false = 容量已滿（沒有寫入）；在視窗外被裁切也回傳 true
+     */
+    public boolean add(float cx, float cy, float halfWidth, float halfHeight, float sin, float cos, float[] region) {
+        float reach = halfWidth + halfHeight;           // 外接圓半徑的上界（不用 sqrt）
+        if (cx + reach < 0f || cx - reach > viewWidth || cy + reach < 0f || cy - reach > viewHeight) return true;
+        if (spriteCount == capacity) return false;
+
+        // 旋轉後的半邊向量：寬方向 (cos, sin)·halfW、高方向 (−sin, cos)·halfH
+        float wx = cos * halfWidth;
+        float wy = sin * halfWidth;
+        float hx = -sin * halfHeight;
+        float hy = cos * halfHeight;
+
+        float[] v = vertices;
+        int o = spriteCount * FLOATS_PER_SPRITE;
+        v[o]     = cx - wx - hx;  v[o + 1] = cy - wy - hy;    // 左上
+        v[o + 2] = cx + wx - hx;  v[o + 3] = cy + wy - hy;    // 右上
+        v[o + 4] = cx + wx + hx;  v[o + 5] = cy + wy + hy;    // 右下
+        v[o + 6] = cx - wx + hx;  v[o + 7] = cy - wy + hy;    // 左下
+
+        float[] t = texCoords;
+        float left = region[0], top = region[1], right = region[2], bottom = region[3];
+        t[o]     = left;   t[o + 1] = top;
+        t[o + 2] = right;  t[o + 3] = top;
+        t[o + 4] = right;  t[o + 5] = bottom;
+        t[o + 6] = left;   t[o + 7] = bottom;
+
+        spriteCount++;
+        return true;
+    }
+
+    /** 玩家車（與 CarRenderer 相同的插值與旋轉軸心：車輛幾何中心） */
+    public boolean addCar(Car car, float alpha, float[] region) {
+        float angle = car.getInterpolatedAngle(alpha);
+        float halfHeight = car.getHeight() / 2f;
+        return add(car.getInterpolatedX(alpha), car.getY() + halfHeight, car.getWidth() / 2f, halfHeight,
+                FastMath.sinDeg(angle), FastMath.cosDeg(angle), region);
+    }
+
+    /**
+     * 鬼影車（最佳一局在同一幀的位置）：與玩家車同樣的 Y、尺寸與旋轉軸心（車輛 Y 固定在畫面上）
+     * 沒有可見的鬼影時不寫入（回傳 true）
+     */
+    public boolean addGhost(RunWriter ghost, Car car, float alpha, float[] region) {
+        if (!ghost.isGhostVisible()) return true;
+        float angle = ghost.getGhostAngle(alpha);
+        float halfHeight = car.getHeight() / 2f;
+        return add(ghost.getGhostX(alpha), car.getY() + halfHeight, car.getWidth() / 2f, halfHeight,
+                FastMath.sinDeg(angle), FastMath.cosDeg(angle), region);
+    }
+
+    /** 所有存活的車流（不旋轉）；容量滿時停止 */
+    public void addObstacles(ObstaclePool obstacles, float alpha, float[] region) {
+        float halfW = obstacles.getWidth() / 2f;
+        float halfH = obstacles.getHeight() / 2f;
+        for (int i = 0, n = obstacles.getActiveCount(); i < n; i++) {
+            int slot = obstacles.getActiveSlot(i);
+            if (!add(obstacles.getX(slot), obstacles.getInterpolatedY(slot, alpha) + halfH, halfW, halfH, 0f, 1f, region)) {
+                return;
+            }
+        }
+    }
+
+    // ===== drawVertices 的參數 =====
+
+    public float[] getVertices() { return vertices; }
+    public float[] getTexCoords() { return texCoords; }
+    public short[] getIndices() { return indices; }
+    public int getSpriteCount() { return spriteCount; }
+    public int getCapacity() { return capacity; }
+    /** drawVertices 的 vertexCount：陣列中使用的 float 數（每個頂點 2 個） */
+    public int getVertexCount() { return spriteCount * FLOATS_PER_SPRITE; }
+    public int getIndexCount() { return spriteCount * INDICES_PER_SPRITE; }
+}
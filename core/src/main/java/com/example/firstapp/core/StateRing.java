@@ -0,0 +1,83 @@
+package com.example.firstapp.core;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 狀態快照的環形緩衝（倒帶用）
+ *
+ * 每份快照都是 GameWorld.saveState 的固定長度二進位 → 全部放在同一塊建構時配置的 byte[]
+ * - 存一份 = 把目前狀態依序寫進下一格（覆蓋最舊的一份），不配置任何物件
+ * - 倒帶 = 從第 N 新的那一格讀回來（本質上是一次 memcpy + 重建網格）
+ * 倒帶之後，比還原點更新的快照都作廢（時間線已經分岔）→ 之後的 capture 接在還原點後面
+ *
+ * 只在模擬執行緒上使用
+ * 類比後端：資料庫的 point-in-time recovery — 定期快照存在固定大小的保留區，回到某一個時間點
+ */
+public final class StateRing {
+
+    private final int capacity;
+    private final int stateSize;
+    private final ByteBuffer buffer;    // 包住整塊 byte[]；每次存取前用 position/limit 框出一格
+    private final long[] ticks;         // 每一格存下時的 tick
+
+    private int head;                   // 下一份要寫入的格子
+    private int count;                  // 目前有效的快照數
+
+    /**
+     * @param capacity  最多保留幾份
+     * @param stateSize 每份的 bytes（GameWorld.getStateSize）
+     */
+    public StateRing(int capacity, int stateSize) {
+        if (capacity <= 0 || stateSize <= 0) throw new IllegalArgumentException("capacity and stateSize must be > 0");
+        this.capacity = capacity;
+        this.stateSize = stateSize;
+        buffer = ByteBuffer.wrap(new byte[capacity * stateSize]);
+        ticks = new long[capacity];
+    }
+
+    /** 存一份目前的狀態（滿了覆蓋最舊的一份） */
+    public void capture(GameWorld world) {
+        world.saveState(frame(head));
+        ticks[head] = world.getTick();
+        head = (head + 1) % capacity;
+        if (count < capacity) count++;
+    }
+
+    /**
+     * 還原第 back 新的快照（1 = 最新一份；超過保留數量則還原最舊的一份）
+     * 還原點之後的快照丟棄；還原點本身保留 → 連續倒帶會一路往回走
+     *
+     * @return 還原的快照存下時的 tick；ring 是空的則回傳 -1（什麼都不做）
+     */
+    public long rewind(GameWorld world, int back) {
+        if (count == 0) return -1L;
+        int steps = Math.max(1, Math.min(back, count));
+        int index = (head - steps + capacity) % capacity;
+        world.restoreState(frame(index), true);
+        head = (index + 1) % capacity;
+        count -= steps - 1;
+        return ticks[index];
+    }
+
+    /** 丟棄所有快照（例如尺寸改變：舊尺寸的快照已不適用） */
+    public void clear() {
+        head = 0;
+        count = 0;
+    }
+
+    /** 第 i 格的 ByteBuffer 視窗（position ~ limit = 一份快照） */
+    private ByteBuffer frame(int i) {
+        buffer.limit((i + 1) * stateSize).position(i * stateSize);
+        return buffer;
+    }
+
+    public int size() { return count; }
+    public int getCapacity() { return capacity; }
+    public int getStateSize() { return stateSize; }
+
+    /** 第 back 新的快照存下時的 tick（1 = 最新；不存在回傳 -1） */
+    public long getTick(int back) {
+        if (back < 1 || back > count) return -1L;
+        return ticks[(head - back + capacity) % capacity];
+    }
+}
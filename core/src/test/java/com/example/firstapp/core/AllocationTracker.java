@@ -0,0 +1,48 @@
+package com.example.firstapp.core;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 測試用的配置量測工具（HotSpot 的每執行緒配置計數器）
+ *
+ * 用法：minAllocatedBytes(body, 熱身次數, 窗口數, 每窗口次數)
+ * - 先執行 body 熱身（讓物件池進入穩態、JIT 編譯完成）
+ * - 再量測多個窗口，回傳「配置最少的窗口」的 bytes
+ *   JIT 編譯切換偶爾會在某個窗口留下一次性的配置 → 取最小值；
+ *   真的每次都配置的話，每個窗口都不會是 0
+ *
+ * 只量測呼叫端這條執行緒（背景執行緒，例如道路產生器，不計入）
+ * 類比後端：JMH 的 gc profiler（gc.alloc.rate.norm），但可以直接寫成斷言
+ */
+final class AllocationTracker {
+
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private AllocationTracker() {}
+
+    /** 目前的 JVM 是否支援每執行緒配置計數（不支援時測試應該跳過，而不是誤判為 0） */
+    static boolean isSupported() {
+        return THREAD_BEAN.isThreadAllocatedMemorySupported() && THREAD_BEAN.isThreadAllocatedMemoryEnabled();
+    }
+
+    /** 本執行緒累計配置的 bytes（bean 先取好，量測呼叫本身不配置） */
+    static long allocatedBytes() {
+        return THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @return 量測窗口中最少的配置量（bytes）；某個窗口為 0 就提早結束
+     */
+    static long minAllocatedBytes(Runnable body, int warmupIterations, int windows, int iterationsPerWindow) {
+        for (int i = 0; i < warmupIterations; i++) body.run();
+
+        long minBytes = Long.MAX_VALUE;
+        for (int window = 0; window < windows && minBytes > 0; window++) {
+            long before = allocatedBytes();
+            for (int i = 0; i < iterationsPerWindow; i++) body.run();
+            minBytes = Math.min(minBytes, allocatedBytes() - before);
+        }
+        return minBytes;
+    }
+}
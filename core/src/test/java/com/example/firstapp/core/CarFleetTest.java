@@ -0,0 +1,66 @@
+package com.example.firstapp.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * CarFleet 批次更新必須與逐台 Car.update() 逐位元相同
+ */
+public class CarFleetTest {
+
+    private static final int COUNT = 257;   // 刻意不是 2 的次方（向量化後的尾端迴圈也要驗證）
+
+    @Test
+    public void batchUpdate_matchesPerCarUpdate() {
+        for (boolean fastTrig : new boolean[]{true, false}) {
+            CarFleet batch = new CarFleet(COUNT, fastTrig);
+            Car[] single = new Car[COUNT];
+            for (int i = 0; i < COUNT; i++) {
+                single[i] = new Car(fastTrig);
+                batch.setPosition(i, 100f + i, 500f);
+                single[i].setPosition(100f + i, 500f);
+            }
+
+            for (int tick = 0; tick < 600; tick++) {
+                for (int i = 0; i < COUNT; i++) {
+                    if ((tick + i) % 90 == 0) {                  // 每台車在不同時間切換方向
+                        boolean left = ((tick + i) / 90 & 1) == 0;
+                        float target = left ? -GameConfig.CAR_MAX_STEER_ANGLE : GameConfig.CAR_MAX_STEER_ANGLE;
+                        batch.setSteeringAngle(i, target);
+                        if (left) single[i].moveLeft(); else single[i].moveRight();
+                    }
+                }
+                batch.update(COUNT);
+                for (Car car : single) car.update();
+            }
+
+            for (int i = 0; i < COUNT; i++) {
+                assertEquals(Float.floatToIntBits(single[i].getX()), Float.floatToIntBits(batch.getX(i)));
+                assertEquals(Float.floatToIntBits(single[i].getAngle()), Float.floatToIntBits(batch.getAngle(i)));
+                assertEquals(Float.floatToIntBits(single[i].getAngleSin()), Float.floatToIntBits(batch.getAngleSin(i)));
+            }
+        }
+    }
+
+    @Test
+    public void carView_readsAndWritesItsSlot() {
+        CarFleet fleet = new CarFleet(4);
+        Car car = new Car(fleet, 2);
+        car.setPosition(300f, 800f);
+        car.moveRight();
+
+        fleet.update(4);
+
+        assertEquals(300f, fleet.getPrevX(2), 0f);
+        assertEquals(GameConfig.CAR_MAX_STEER_ANGLE, fleet.getSteeringAngle(2), 0f);
+        assertEquals(fleet.getX(2), car.getX(), 0f);
+        assertTrue(car.getX() > 300f);
+        assertEquals(0f, fleet.getX(1), 0f);       // 其他 slot 不受影響
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void carView_rejectsSlotOutsideFleet() {
+        new Car(new CarFleet(2), 2);
+    }
+}
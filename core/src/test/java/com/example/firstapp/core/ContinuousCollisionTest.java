@@ -0,0 +1,92 @@
+package com.example.firstapp.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * 連續碰撞：高速時薄物體不會被穿過；低速時與離散測試完全相同
+ */
+public class ContinuousCollisionTest {
+
+    private final OrientedBox box = new OrientedBox();
+    private final float[] hit = new float[2];
+
+    @Test
+    public void fastLateralMove_hitsThinWallThatDiscreteMisses() {
+        Aabb wall = new Aabb(495f, 0f, 505f, 1000f);         // 10 px 寬的薄牆
+        box.set(800f, 500f, 50f, 100f, 1f, 0f);              // 終點已經在牆的另一邊
+        assertFalse(box.intersects(wall));                    // 只看終點 → 穿過去了
+
+        assertTrue(CollisionDetector.sweptHit(box, 600f, 0f, wall, hit)); // 起點 x = 200
+        float xAtHit = 200f + 600f * hit[0];
+        assertTrue("x at impact: " + xAtHit, xAtHit + 50f > 495f && xAtHit - 50f < 505f);
+        assertEquals(800f, box.cx, 0f);                       // 終點已還原
+        assertEquals(500f, box.cy, 0f);
+    }
+
+    @Test
+    public void fastObstacle_fallingThroughCar_isDetected() {
+        Aabb obstacle = new Aabb(500f, 1400f, 600f, 1420f);   // 20 px 高，已經落到車子下方
+        box.set(550f, 1000f, 50f, 100f, 1f, 0f);
+        assertFalse(box.intersects(obstacle));
+
+        // 障礙物這個 tick 向下移動 800 → 在障礙物座標系裡，車輛向上移動 800
+        assertTrue(CollisionDetector.sweptHit(box, 0f, -800f, obstacle, hit));
+        assertTrue(hit[1] <= GameConfig.CCD_MAX_SUBSTEPS);
+    }
+
+    @Test
+    public void fastMove_pastObstacle_doesNotHit() {
+        Aabb obstacle = new Aabb(400f, 0f, 500f, 180f);       // 路徑上方，不會碰到
+        box.set(900f, 500f, 50f, 100f, 1f, 0f);
+        assertFalse(CollisionDetector.sweptHit(box, 800f, 0f, obstacle, hit));
+    }
+
+    @Test
+    public void rotatedCar_insideSweptAabbOnly_usesObb() {
+        // 30° 轉向：包圍盒的四個角是空的；從左邊開過來停下，右上角的小物體在包圍盒內但車身碰不到
+        float sin = 0.5f, cos = (float) Math.sqrt(0.75);
+        box.set(900f, 500f, 50f, 100f, cos, sin);
+        Aabb probe = new Aabb();
+        box.getEnclosingBounds(probe);
+        Aabb corner = new Aabb(probe.right - 6f, probe.top + 2f, probe.right - 2f, probe.top + 6f);
+        assertFalse(CollisionDetector.sweptHit(box, 800f, 0f, corner, hit));
+    }
+
+    @Test
+    public void slowMotion_matchesDiscreteTest() {
+        Random random = new Random(42);
+        Aabb target = new Aabb();
+        for (int i = 0; i < 10_000; i++) {
+            float angle = (random.nextFloat() - 0.5f) * 60f;
+            box.set(random.nextFloat() * 400f, random.nextFloat() * 400f, 50f, 100f,
+                    FastMath.cosDeg(angle), FastMath.sinDeg(angle));
+            float left = random.nextFloat() * 400f;
+            float top = random.nextFloat() * 400f;
+            target.set(left, top, left + 100f, top + 180f);
+            float dx = (random.nextFloat() * 2f - 1f) * GameConfig.CCD_SUBSTEP_DISTANCE;
+            float dy = (random.nextFloat() * 2f - 1f) * GameConfig.CCD_SUBSTEP_DISTANCE;
+            assertEquals(box.intersects(target), CollisionDetector.sweptHit(box, dx, dy, target, hit));
+        }
+    }
+
+    @Test
+    public void fastMotion_neverMissesEndOverlap() {
+        Random random = new Random(7);
+        Aabb target = new Aabb();
+        for (int i = 0; i < 10_000; i++) {
+            box.set(random.nextFloat() * 400f, random.nextFloat() * 400f, 50f, 100f, 1f, 0f);
+            float left = random.nextFloat() * 400f;
+            float top = random.nextFloat() * 400f;
+            target.set(left, top, left + 100f, top + 180f);
+            boolean discrete = box.intersects(target);
+            boolean swept = CollisionDetector.sweptHit(box,
+                    (random.nextFloat() * 2f - 1f) * 2000f, (random.nextFloat() * 2f - 1f) * 2000f, target, hit);
+            if (discrete) assertTrue(swept);                  // 終點相交 → 連續測試一定相交
+            assertTrue(hit[1] <= GameConfig.CCD_MAX_SUBSTEPS);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.firstapp.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * 駕駛策略：二進位格式來回轉換、推論、PolicyDriver 感測與轉向
+ */
+public class DrivingPolicyTest {
+
+    private static final int OUTPUT_BIAS = DrivingPolicy.PARAMETER_COUNT - DrivingPolicy.ACTIONS;
+
+    @Test
+    public void binaryRoundTrip_preservesEveryWeight() throws IOException {
+        DrivingPolicy policy = randomPolicy(3);
+        byte[] bytes = policy.toBytes();
+        assertEquals(9 + DrivingPolicy.PARAMETER_COUNT * 4, bytes.length);
+
+        assertEquals(policy, DrivingPolicy.fromBytes(bytes));
+        assertEquals(policy, DrivingPolicy.read(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    public void malformedFiles_areRejected() {
+        byte[] bytes = randomPolicy(4).toBytes();
+        assertRejected(Arrays.copyOf(bytes, 5));                     // 檔頭不完整
+        assertRejected(Arrays.copyOf(bytes, bytes.length - 1));      // 參數不完整
+
+        byte[] wrongMagic = bytes.clone();
+        wrongMagic[0] ^= 1;
+        assertRejected(wrongMagic);
+
+        byte[] wrongShape = bytes.clone();
+        wrongShape[7]++;                                            // HIDDEN
+        assertRejected(wrongShape);
+    }
+
+    @Test
+    public void act_picksHighestScoringAction() {
+        float[] inputs = new float[DrivingPolicy.INPUTS];
+        float[] hidden = new float[DrivingPolicy.HIDDEN];
+        for (int action = 0; action < DrivingPolicy.ACTIONS; action++) {
+            float[] genome = new float[DrivingPolicy.PARAMETER_COUNT];
+            genome[OUTPUT_BIAS + action] = 1f;
+            assertEquals(action, new DrivingPolicy(genome).act(inputs, hidden));
+        }
+        // 全部同分 → 索引小的
+        assertEquals(DrivingPolicy.ACTION_LEFT,
+                new DrivingPolicy(new float[DrivingPolicy.PARAMETER_COUNT]).act(inputs, hidden));
+    }
+
+    @Test
+    public void driver_steersThroughCarApi() {
+        GameWorld world = new GameWorld();
+        world.resize(1080, 1920);
+        float[] genome = new float[DrivingPolicy.PARAMETER_COUNT];
+        genome[OUTPUT_BIAS + DrivingPolicy.ACTION_RIGHT] = 1f;
+        PolicyDriver driver = new PolicyDriver(new DrivingPolicy(genome));
+
+        Car car = world.getCar();
+        assertEquals(DrivingPolicy.ACTION_RIGHT, driver.drive(car, world.getRoad(), world.getObstacles()));
+        assertEquals(GameConfig.CAR_MAX_STEER_ANGLE, car.getSteeringAngle(), 0f);
+    }
+
+    @Test
+    public void sense_isNormalizedAndSeesTrafficAhead() {
+        GameWorld world = new GameWorld();
+        world.resize(1080, 1920);
+        Car car = world.getCar();
+        float[] inputs = new float[DrivingPolicy.INPUTS];
+
+        PolicyDriver.sense(car, world.getRoad(), world.getObstacles(), inputs);
+        assertEquals(0f, inputs[0], 1e-4f);                          // 中間車道 = 路面正中央
+        assertEquals(0f, inputs[4], 1e-4f);                          // 中間車道中心就在車上
+        assertEquals(0f, inputs[7], 0f);                             // 還沒有車流
+
+        world.getObstacles().spawn(1, car.getY() - 1000f, world.getRoad());
+        PolicyDriver.sense(car, world.getRoad(), world.getObstacles(), inputs);
+        assertTrue(inputs[7] > 0f && inputs[7] < 1f);
+        assertEquals(0f, inputs[6], 0f);                             // 其他車道沒有威脅
+        for (float v : inputs) assertTrue(v >= -1f && v <= 1f);
+    }
+
+    private static DrivingPolicy randomPolicy(int seed) {
+        Random random = new Random(seed);
+        float[] genome = new float[DrivingPolicy.PARAMETER_COUNT];
+        for (int i = 0; i < genome.length; i++) genome[i] = (float) random.nextGaussian();
+        return new DrivingPolicy(genome);
+    }
+
+    private static void assertRejected(byte[] bytes) {
+        try {
+            DrivingPolicy.fromBytes(bytes);
+            fail("expected IOException");
+        } catch (IOException expected) {
+            // 預期
+        }
+    }
+}
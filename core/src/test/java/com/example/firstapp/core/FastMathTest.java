@@ -0,0 +1,65 @@
+package com.example.firstapp.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * FastMath 誤差上界 + 長時間行駛軌跡與精確版的偏差
+ */
+public class FastMathTest {
+
+    @Test
+    public void sinAndCos_stayWithinDocumentedError() {
+        float worst = 0f;
+        for (int i = -360_000; i <= 360_000; i++) {      // [-360°, 360°]，步進 0.001°
+            float degrees = i / 1000f;
+            double radians = Math.toRadians(degrees);
+            worst = Math.max(worst, Math.abs(FastMath.sinDeg(degrees) - (float) Math.sin(radians)));
+            worst = Math.max(worst, Math.abs(FastMath.cosDeg(degrees) - (float) Math.cos(radians)));
+        }
+        assertTrue("max error " + worst, worst <= FastMath.MAX_ERROR);
+    }
+
+    @Test
+    public void exactAngles_areExact() {
+        assertEquals(0f, FastMath.sinDeg(0f), 0f);
+        assertEquals(1f, FastMath.cosDeg(0f), 0f);
+        assertEquals(1f, FastMath.sinDeg(90f), 0f);
+        assertEquals(-1f, FastMath.sinDeg(-90f), 0f);
+    }
+
+    @Test
+    public void carTrajectory_staysWithinTolerance_overLongRun() {
+        Road road = new Road();
+        road.init(1080, 2340);
+        Car fast = new Car(true);
+        Car exact = new Car(false);
+        fast.setPosition(road.getLanes()[1], 1500f);
+        exact.setPosition(road.getLanes()[1], 1500f);
+
+        // 一小時的 60 Hz 行駛：不定期左/右/回正（固定種子 → 兩台車收到完全相同的輸入）
+        int rng = 0x5EED;
+        float worstX = 0f;
+        for (int tick = 0; tick < 60 * 60 * 60; tick++) {
+            if (tick % 37 == 0) {
+                rng ^= rng << 13;
+                rng ^= rng >>> 17;
+                rng ^= rng << 5;
+                switch ((rng >>> 1) % 3) {
+                    case 0:  fast.moveLeft();      exact.moveLeft();      break;
+                    case 1:  fast.moveRight();     exact.moveRight();     break;
+                    default: fast.stopSteering();  exact.stopSteering();  break;
+                }
+            }
+            fast.update();
+            exact.update();
+            CollisionDetector.clampToRoad(fast, road);
+            CollisionDetector.clampToRoad(exact, road);
+            worstX = Math.max(worstX, Math.abs(fast.getX() - exact.getX()));
+        }
+
+        assertEquals(exact.getAngle(), fast.getAngle(), 0f);   // 角度只經過 Lerp，不受三角函數影響
+        assertTrue("max drift " + worstX + " px", worstX < 0.5f);
+    }
+}
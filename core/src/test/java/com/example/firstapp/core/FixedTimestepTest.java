@@ -0,0 +1,142 @@
+package com.example.firstapp.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * FixedTimestep 單元測試（JVM 本機執行，用假時鐘取代 Choreographer）
+ *
+ * 驗證重點：
+ * - 不同螢幕刷新率（60/90/120 Hz）下，每秒模擬步數相同 → 遊戲速度一致
+ * - 卡頓時最多追趕 maxSubSteps 步
+ * - alpha 永遠落在 [0, 1)
+ */
+public class FixedTimestepTest {
+
+    private static final long STEP = 1_000_000_000L / 60;  // 60 Hz 模擬步長
+    private static final int MAX_SUB_STEPS = 5;
+
+    private FixedTimestep timestep;
+    private CountingCallback callback;
+    private long now;  // 假時鐘（奈秒）
+
+    /** 計數用回呼：只記錄 onUpdate() 被呼叫幾次 */
+    private static class CountingCallback implements FixedTimestep.Callback {
+        int updates = 0;
+
+        @Override
+        public void onUpdate() {
+            updates++;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        timestep = new FixedTimestep(STEP, MAX_SUB_STEPS);
+        callback = new CountingCallback();
+        now = 1_000_000L;  // 任意起點（Choreographer 的時間不從 0 開始）
+    }
+
+    /** 以固定刷新率送出 frames 個 VSYNC，回傳總步數 */
+    private int runFrames(double refreshHz, int frames) {
+        long frameNanos = Math.round(1_000_000_000.0 / refreshHz);
+        int steps = 0;
+        for (int i = 0; i < frames; i++) {
+            now += frameNanos;
+            steps += timestep.advance(now, callback);
+        }
+        return steps;
+    }
+
+    @Test
+    public void firstFrame_onlyAlignsClock() {
+        assertEquals(0, timestep.advance(now, callback));
+        assertEquals(0, callback.updates);
+        assertEquals(0f, timestep.getAlpha(), 0f);
+    }
+
+    @Test
+    public void sixtyHzDisplay_runsOneStepPerFrame() {
+        timestep.advance(now, callback);
+        for (int i = 0; i < 60; i++) {
+            now += STEP;
+            assertEquals(1, timestep.advance(now, callback));
+        }
+        assertEquals(60, callback.updates);
+    }
+
+    @Test
+    public void gameplaySpeed_isIndependentOfRefreshRate() {
+        double[] refreshRates = {30, 60, 90, 120, 144};
+        for (double hz : refreshRates) {
+            setUp();
+            timestep.advance(now, callback);
+            runFrames(hz, (int) hz * 10);  // 模擬 10 秒
+            // 10 秒 = 600 步，允許 ±1 步的捨入誤差
+            assertEquals("refresh " + hz + " Hz", 600, callback.updates, 1);
+        }
+    }
+
+    @Test
+    public void hundredTwentyHz_interpolatesBetweenSteps() {
+        timestep.advance(now, callback);
+        now += STEP / 2;
+        assertEquals(0, timestep.advance(now, callback));   // 半步：不模擬，只插值
+        assertEquals(0.5f, timestep.getAlpha(), 0.001f);
+        now += STEP / 2 + 1;
+        assertEquals(1, timestep.advance(now, callback));   // 滿一步：模擬一次
+        assertTrue(timestep.getAlpha() < 0.01f);
+    }
+
+    @Test
+    public void alpha_staysInUnitRange() {
+        timestep.advance(now, callback);
+        long[] deltas = {1, 7_000_000, 16_000_000, 23_000_000, 33_333_333, 5_000_000};
+        for (int i = 0; i < 1000; i++) {
+            now += deltas[i % deltas.length];
+            timestep.advance(now, callback);
+            float alpha = timestep.getAlpha();
+            assertTrue("alpha=" + alpha, alpha >= 0f && alpha < 1f);
+        }
+    }
+
+    @Test
+    public void longStall_isCappedAtMaxSubSteps() {
+        timestep.advance(now, callback);
+        now += STEP * 100 + STEP / 4;  // 卡頓 100 步以上（例如 GC 或背景切換）
+        assertEquals(MAX_SUB_STEPS, timestep.advance(now, callback));
+        assertEquals(95, timestep.getDroppedSteps());
+        assertEquals(0.25f, timestep.getAlpha(), 0.001f);  // 只保留不足一步的餘數
+
+        now += STEP;
+        assertEquals(1, timestep.advance(now, callback));   // 下一幀恢復正常，不再爆量追趕
+    }
+
+    @Test
+    public void reset_doesNotCatchUpPausedTime() {
+        timestep.advance(now, callback);
+        runFrames(60, 10);
+        int before = callback.updates;
+
+        timestep.reset();                // 模擬 pause → resume
+        now += 5_000_000_000L;           // 背景 5 秒
+        assertEquals(0, timestep.advance(now, callback));
+        assertEquals(before, callback.updates);
+    }
+
+    @Test
+    public void clockGoingBackwards_isIgnored() {
+        timestep.advance(now, callback);
+        now -= STEP * 3;
+        assertEquals(0, timestep.advance(now, callback));
+        now += STEP;
+        assertEquals(1, timestep.advance(now, callback));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidStep_isRejected() {
+        new FixedTimestep(0, MAX_SUB_STEPS);
+    }
+}
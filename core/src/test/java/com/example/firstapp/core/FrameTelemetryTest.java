@@ -0,0 +1,92 @@
+package com.example.firstapp.core;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+/**
+ * LatencyHistogram 分桶精度 + FrameTelemetry 掉幀/輸出測試
+ */
+public class FrameTelemetryTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void buckets_coverEveryValueWithinSixPercent() {
+        long[] samples = {0, 1, 15, 16, 17, 1000, 65_535, 1_000_000, 16_666_667, 123_456_789_012L};
+        for (long v : samples) {
+            int bucket = LatencyHistogram.bucketOf(v);
+            long lower = LatencyHistogram.lowerBoundOf(bucket);
+            assertTrue("lower bound of " + v, lower <= v);
+            assertTrue("relative error of " + v, v - lower <= Math.max(1, v / 16));
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void percentiles_matchUniformSamples() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 10_000L);          // 10 µs ~ 10 ms 均勻分布
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(5 * MS, histogram.getPercentile(50), 5 * MS / 16);
+        assertEquals(9.9 * MS, histogram.getPercentile(99), 9.9 * MS / 16);
+        assertEquals(10 * MS, histogram.getMaxNanos());
+        assertEquals(5_005_000L, histogram.getMeanNanos());
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(99));
+    }
+
+    @Test
+    public void onFrame_countsMissedVsyncs() {
+        FrameTelemetry telemetry = new FrameTelemetry();
+        long period = 16_666_667L;
+        telemetry.setVsyncPeriodNanos(period);
+
+        long t = 1_000 * MS;
+        telemetry.onFrame(t);
+        telemetry.onFrame(t += period);              // 準時
+        telemetry.onFrame(t += period * 3);          // 錯過 2 個 VSYNC
+        telemetry.onFrame(t += period * 14 / 10);    // 抖動，未超過門檻
+
+        assertEquals(4, telemetry.getFrameCount());
+        assertEquals(2, telemetry.getMissedVsyncCount());
+        assertEquals(3, telemetry.getHistogram(FrameTelemetry.PHASE_FRAME).getCount());
+
+        telemetry.onLoopRestart();                   // 暫停 10 秒後恢復：不算掉幀
+        telemetry.onFrame(t + 10_000 * MS);
+        assertEquals(2, telemetry.getMissedVsyncCount());
+    }
+
+    @Test
+    public void gcCount_isRelativeToReset() {
+        long[] gcTotal = {40};
+        FrameTelemetry telemetry = new FrameTelemetry();
+        assertEquals(-1, telemetry.getGcCount());    // 沒有來源
+
+        telemetry.setGcCounter(() -> gcTotal[0]);
+        gcTotal[0] = 43;
+        assertEquals(3, telemetry.getGcCount());
+        telemetry.reset();
+        assertEquals(0, telemetry.getGcCount());
+    }
+
+    @Test
+    public void writeTo_listsEveryPhase() throws IOException {
+        FrameTelemetry telemetry = new FrameTelemetry();
+        telemetry.record(FrameTelemetry.PHASE_CAR, 2_000);
+        StringWriter out = new StringWriter();
+        telemetry.writeTo(out);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(2 + FrameTelemetry.PHASE_COUNT, lines.length);
+        assertTrue(lines[0].startsWith("# frames=0 missedVsync=0"));
+        assertEquals("car,1,2.0,2.0,2.0,2.0", lines[2 + FrameTelemetry.PHASE_CAR]);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.firstapp.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * GameWorld 無畫面模擬測試（純 JVM，不需要 Android 裝置）
+ */
+public class GameWorldTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    private GameWorld world;
+
+    @Before
+    public void setUp() {
+        world = new GameWorld();
+        world.resize(WIDTH, HEIGHT);
+    }
+
+    @Test
+    public void resize_placesCarInMiddleLane() {
+        Car car = world.getCar();
+        assertEquals(world.getRoad().getLanes()[1], car.getX(), 0.001f);
+        assertEquals(HEIGHT * 2f / 3f, car.getY(), 0.001f);
+    }
+
+    @Test
+    public void steeringLeft_movesCarLeftUntilRoadEdge() {
+        Car car = world.getCar();
+        float startX = car.getX();
+
+        world.moveLeft();
+        for (int i = 0; i < 10; i++) world.onUpdate();
+        assertTrue(car.getX() < startX);
+
+        for (int i = 0; i < 1000; i++) world.onUpdate();
+        float halfW = car.getHalfExtentX();  // 轉向 -30° 時，旋轉後的車角貼齊路邊
+        assertEquals(world.getRoad().getRoadLeft() + halfW, car.getX(), 0.001f); // 貼齊左邊界
+    }
+
+    @Test
+    public void stopSteering_returnsAngleTowardsZero() {
+        world.moveRight();
+        for (int i = 0; i < 30; i++) world.onUpdate();
+        assertTrue(world.getCar().getAngle() > 20f);
+
+        world.stopSteering();
+        for (int i = 0; i < 60; i++) world.onUpdate();
+        assertEquals(0f, world.getCar().getAngle(), 0.01f);
+    }
+
+    @Test
+    public void resize_withSameSize_keepsCarState() {
+        world.moveRight();
+        for (int i = 0; i < 20; i++) world.onUpdate();
+        float x = world.getCar().getX();
+
+        world.resize(WIDTH, HEIGHT);  // SurfaceView 重建 Surface 時會以相同尺寸回呼
+        assertEquals(x, world.getCar().getX(), 0f);
+    }
+
+    @Test
+    public void obstacleOnCar_isReportedInCollisionBatch() {
+        ObstaclePool obstacles = world.getObstacles();
+        Car car = world.getCar();
+        int slot = obstacles.spawn(1, car.getY(), world.getRoad());  // 中間車道，正好壓在車上
+
+        world.onUpdate();
+
+        CollisionBatch collisions = world.getCollisions();
+        boolean hit = false;
+        for (int i = 0; i < collisions.size(); i++) {
+            if (collisions.otherOf(i, GameWorld.CAR_ENTITY_ID) == slot) hit = true;
+        }
+        assertTrue(hit);
+    }
+
+    @Test
+    public void obstacleInOtherLane_isNotReported() {
+        Car car = world.getCar();
+        world.getObstacles().spawn(0, car.getY(), world.getRoad());  // 左車道
+
+        world.onUpdate();
+
+        assertEquals(0, world.getCollisions().size());
+    }
+
+    @Test
+    public void pressAndHold_steersOnlyWhileHeld() {
+        Car car = world.getCar();
+        world.submitInput(GameWorld.INPUT_PRESS_RIGHT, System.nanoTime());
+        world.onUpdate();
+        assertEquals(GameConfig.CAR_MAX_STEER_ANGLE, car.getSteeringAngle(), 0f);
+
+        for (int i = 0; i < 30; i++) world.onUpdate();     // 按住 → 維持轉向
+        assertEquals(GameConfig.CAR_MAX_STEER_ANGLE, car.getSteeringAngle(), 0f);
+
+        world.submitInput(GameWorld.INPUT_RELEASE_RIGHT, System.nanoTime());
+        world.onUpdate();
+        assertEquals(0f, car.getSteeringAngle(), 0f);       // 放開 → 回正
+    }
+
+    @Test
+    public void bothHeld_lastPressedWins_thenRemainingKeySteers() {
+        Car car = world.getCar();
+        world.submitInput(GameWorld.INPUT_PRESS_LEFT, System.nanoTime());
+        world.submitInput(GameWorld.INPUT_PRESS_RIGHT, System.nanoTime());
+        world.onUpdate();
+        assertEquals(GameConfig.CAR_MAX_STEER_ANGLE, car.getSteeringAngle(), 0f);
+
+        world.submitInput(GameWorld.INPUT_RELEASE_RIGHT, System.nanoTime());
+        world.onUpdate();
+        assertEquals(-GameConfig.CAR_MAX_STEER_ANGLE, car.getSteeringAngle(), 0f);
+    }
+
+    @Test
+    public void tapWithinOneTick_recordsLatencyButLeavesSteeringCentered() {
+        long pressed = System.nanoTime();
+        world.submitInput(GameWorld.INPUT_PRESS_LEFT, pressed);
+        world.submitInput(GameWorld.INPUT_RELEASE_LEFT, pressed + 1_000);
+        world.onUpdate();
+
+        assertEquals(0f, world.getCar().getSteeringAngle(), 0f);
+        LatencyHistogram latency = world.getInputLatency();
+        assertEquals(1, latency.getCount());
+        assertTrue(latency.getMaxNanos() > 0);
+
+        world.onUpdate();                                   // 沒有輸入的 tick 不記錄
+        assertEquals(1, latency.getCount());
+    }
+}
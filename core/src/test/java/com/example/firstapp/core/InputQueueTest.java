@@ -0,0 +1,67 @@
+package com.example.firstapp.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 單一生產者 / 單一消費者輸入佇列：順序、滿了丟棄、跨執行緒不遺漏
+ */
+public class InputQueueTest {
+
+    @Test
+    public void drain_deliversEventsInOrder() {
+        InputQueue queue = new InputQueue(8);
+        for (int i = 1; i <= 5; i++) assertTrue(queue.offer((byte) i, i * 100L));
+
+        long[] expected = {1};
+        int drained = queue.drain((type, timestampNanos) -> {
+            assertEquals(expected[0], type);
+            assertEquals(expected[0] * 100L, timestampNanos);
+            expected[0]++;
+        });
+        assertEquals(5, drained);
+        assertEquals(0, queue.size());
+        assertEquals(0, queue.drain((type, timestampNanos) -> fail()));
+    }
+
+    @Test
+    public void offer_dropsWhenFull() {
+        InputQueue queue = new InputQueue(4);
+        for (int i = 0; i < 4; i++) assertTrue(queue.offer((byte) 1, i));
+        assertFalse(queue.offer((byte) 1, 4));
+        assertEquals(1, queue.getDroppedCount());
+
+        queue.drain((type, timestampNanos) -> { });
+        assertTrue(queue.offer((byte) 1, 5));               // 消費後空間可重用
+    }
+
+    @Test
+    public void concurrentProducer_noEventLostOrReordered() throws InterruptedException {
+        final int events = 20_000;
+        InputQueue queue = new InputQueue(64);
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < events; i++) {
+                while (!queue.offer((byte) (i & 0x7F), i)) {
+                    if (System.nanoTime() > deadline) return;
+                    Thread.yield();                          // 測試用：滿了就重試（遊戲中是丟棄）
+                }
+            }
+        });
+        producer.setDaemon(true);
+        producer.start();
+
+        long[] next = {0};
+        while (next[0] < events && System.nanoTime() < deadline) {
+            int drained = queue.drain((type, timestampNanos) -> {
+                assertEquals(next[0], timestampNanos);
+                assertEquals((byte) (next[0] & 0x7F), type);
+                next[0]++;
+            });
+            if (drained == 0) Thread.yield();
+        }
+        producer.join(1_000);
+        assertEquals(events, next[0]);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.firstapp.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.*;
+
+/**
+ * 輸入錄製 → 無畫面重播：同樣的輸入必須得到逐 tick 相同的狀態
+ */
+public class InputReplayerTest {
+
+    private static final int TICKS = 5_000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void replay_reproducesRecordedSession() throws IOException {
+        File log = folder.newFile("input-log.bin");
+        int[] recordedChecksums = new int[TICKS];
+
+        GameWorld world = new GameWorld();
+        InputRecorder recorder = InputRecorder.open(log);
+        world.setInputRecorder(recorder);
+        world.resize(1080, 1920);
+        int rng = 12345;
+        for (int tick = 0; tick < TICKS; tick++) {
+            if (tick == 2_000) world.resize(720, 1280);      // 中途改變尺寸（例如分割畫面）
+            rng ^= rng << 13;
+            rng ^= rng >>> 17;
+            rng ^= rng << 5;
+            switch ((rng >>> 1) % 40) {                      // 平均每 10 tick 一次輸入
+                case 0: world.moveLeft(); break;
+                case 1: world.moveRight(); break;
+                case 2: case 3: world.stopSteering(); break;
+                default: break;
+            }
+            world.onUpdate();
+            recordedChecksums[tick] = world.stateChecksum();
+        }
+        recorder.close();
+        assertNull(recorder.getFailure());
+        assertTrue("log should be compact: " + log.length(), log.length() < 8 * 1024);
+
+        InputReplayer replayer = InputReplayer.read(log);
+        assertEquals(TICKS, replayer.getTotalTicks());
+        int[] replayedChecksums = new int[TICKS];
+        InputReplayer.Result result = replayer.replay(new GameWorld(),
+                (tick, checksum) -> replayedChecksums[(int) tick] = checksum);
+
+        assertFalse(result.toString(), result.isDiverged());
+        assertEquals(TICKS, result.ticks);
+        assertEquals(TICKS / InputRecorder.CHECKSUM_INTERVAL + 1, result.checksumsVerified);
+        assertArrayEquals(recordedChecksums, replayedChecksums);
+        assertTrue(result.getTicksPerSecond() > 0);
+    }
+
+    @Test
+    public void replay_reportsFirstDivergentTick() throws IOException {
+        File log = folder.newFile("diverged.bin");
+        InputRecorder recorder = new InputRecorder(FileChannel.open(log.toPath(), StandardOpenOption.WRITE));
+        recorder.recordResize(0, 1080, 1920);
+        recorder.recordChecksum(120, 0xDEADBEEF);           // 不可能與真實狀態相符
+        recorder.recordTickEnd(299);
+        recorder.close();
+
+        InputReplayer.Result result = InputReplayer.read(log).replay(new GameWorld());
+        assertEquals(300, result.ticks);
+        assertEquals(120, result.firstDivergentTick);
+    }
+
+    @Test
+    public void replay_appliesRecordedSpawnIntervalChanges() throws IOException {
+        File log = folder.newFile("quality.bin");
+        GameWorld world = new GameWorld();
+        InputRecorder recorder = InputRecorder.open(log);
+        world.setInputRecorder(recorder);
+        world.resize(1080, 1920);
+        for (int tick = 0; tick < 2_000; tick++) {
+            if (tick == 500) world.setObstacleSpawnInterval(90);   // 畫質調節降級 → 車流變稀
+            if (tick == 1_400) world.setObstacleSpawnInterval(45); // 升級
+            world.onUpdate();
+        }
+        int expected = world.stateChecksum();
+        recorder.close();
+
+        InputReplayer.Result result = InputReplayer.read(log).replay(new GameWorld());
+        assertFalse(result.toString(), result.isDiverged());
+        assertEquals(expected, result.finalChecksum);
+
+        InputReplayer.Result withoutChanges = InputReplayer.read(log).replay(new GameWorld() {
+            @Override
+            public void setObstacleSpawnInterval(int ticks) { }   // 忽略事件 → 車流不同
+        });
+        assertTrue(withoutChanges.isDiverged());
+    }
+
+    @Test(expected = IOException.class)
+    public void read_rejectsForeignFile() throws IOException {
+        new InputReplayer(ByteBuffer.wrap("not a log at all".getBytes()));
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.firstapp.core;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * 連線同步（127.0.0.1 上的真實 UDP socket，單執行緒逐 tick 驅動 → 結果固定）：
+ * 預測與伺服器一致、掉包 + 延遲下仍然收斂、斷線的 slot 會被回收、流量夠小、客戶端穩態 0 配置
+ */
+public class NetSyncTest {
+
+    private static final int DELAY_TICKS = 4;
+
+    private NetServer server;
+    private NetClient[] clients;
+    private final Random random = new Random(11);
+    private final byte[] steer = new byte[2];
+
+    @Before
+    public void setUp() throws IOException {
+        server = NetServer.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        InetSocketAddress address = (InetSocketAddress) server.getLocalAddress();
+        clients = new NetClient[] { NetClient.connect(address), NetClient.connect(address) };
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for (NetClient client : clients) client.close();
+        server.close();
+    }
+
+    @Test
+    public void lossless_predictionMatchesServer_withoutCorrections() throws IOException {
+        run(1_200);
+
+        assertEquals(0b11, server.getPlayerMask());
+        for (int i = 0; i < clients.length; i++) {
+            NetClient client = clients[i];
+            assertEquals(i, client.getSlot());
+            assertEquals(client.getReport(), 0L, client.getCorrections());
+            assertEquals(0b11, client.getPlayerMask());
+            assertEquals(1.0, client.getLatency().getPercentile(50) / (double) GameConfig.SIM_STEP_NANOS, 0.1);
+        }
+        settle();
+        for (int i = 0; i < clients.length; i++) assertSameCar(server.getCar(i), clients[i].getCar());
+        assertEquals(clients[1].getRemoteX(0), server.getCar(0).getX(), 1f / 16);
+    }
+
+    @Test
+    public void lossAndDelay_clientsConvergeToServer() throws IOException {
+        server.getLink().simulate(0.1f, DELAY_TICKS, 21);
+        for (int i = 0; i < clients.length; i++) clients[i].getLink().simulate(0.1f, DELAY_TICKS, 31 + i);
+        run(3_600);
+
+        for (NetClient client : clients) {
+            assertTrue(client.getLink().getPacketsDropped() > 0);
+            // 來回 2 × 延遲 + 伺服器等一個 tick；掉包時要等下一份快照
+            double mean = client.getLatency().getMeanNanos() / (double) GameConfig.SIM_STEP_NANOS;
+            assertTrue(client.getReport(), mean >= 2 * DELAY_TICKS + 1 && mean <= 2 * DELAY_TICKS + 2);
+            // 每 tick：8 個重送輸入 ≤ 16 bytes 上行；兩台車的差量快照 ≤ 20 bytes 下行（完整 float 要 24 + 標頭）
+            assertTrue(client.getReport(), client.getLink().getBytesSent() / (double) client.getTick() <= 16);
+            assertTrue(client.getReport(), client.getLink().getBytesReceived() / (double) client.getTick() <= 20);
+        }
+        server.getLink().simulate(0f, 0, 1);
+        for (NetClient client : clients) client.getLink().simulate(0f, 0, 1);
+        settle();
+        for (int i = 0; i < clients.length; i++) assertSameCar(server.getCar(i), clients[i].getCar());
+    }
+
+    @Test
+    public void burstLoss_isExtrapolatedAndCorrected() throws IOException {
+        run(60);
+        clients[0].getLink().simulate(1f, 0, 5);                     // 整整 30 tick 的輸入都沒送到
+        run(30);
+        clients[0].getLink().simulate(0f, 0, 5);
+        run(120);
+
+        assertTrue(server.getExtrapolatedInputs() > 0);
+        settle();
+        assertSameCar(server.getCar(0), clients[0].getCar());
+        assertEquals(0L, clients[1].getCorrections());
+    }
+
+    @Test
+    public void silentClient_isEvicted_andSlotIsReused() throws IOException {
+        run(120);
+        clients[0].close();                                         // 斷線：之後不再有任何封包
+        for (int t = 0; t < GameConfig.NET_HISTORY_TICKS; t++) {
+            assertEquals("tick " + t, 0b11, server.getPlayerMask());  // 歷史長度內的沉默只是延遲
+            clients[1].tick(nextSteer(1));
+            server.tick();
+        }
+        assertEquals(0b10, server.getPlayerMask());
+        assertEquals(1L, server.getEvictedPlayers());
+        assertEquals(-1L, server.getLastProcessedInput(0));
+
+        clients[0] = NetClient.connect((InetSocketAddress) server.getLocalAddress()); // 新玩家拿到空出來的 slot
+        run(120);
+        assertEquals(0b11, server.getPlayerMask());
+        assertEquals(0, clients[0].getSlot());
+        assertEquals(0b11, clients[1].getPlayerMask());
+        settle();
+        for (int i = 0; i < clients.length; i++) assertSameCar(server.getCar(i), clients[i].getCar());
+    }
+
+    @Test
+    public void clientSteadyState_allocatesNothing() throws IOException {
+        Assume.assumeTrue(AllocationTracker.isSupported());
+        server.getLink().simulate(0.05f, 2, 41);
+        clients[0].getLink().simulate(0.05f, 2, 43);
+        run(20_000);
+
+        long min = Long.MAX_VALUE;
+        for (int window = 0; window < 5 && min > 0; window++) {
+            long bytes = 0;
+            for (int t = 0; t < 2_000; t++) {
+                long before = AllocationTracker.allocatedBytes();
+                clients[0].tick(nextSteer(0));                      // 只量客戶端（伺服器另外量）
+                bytes += AllocationTracker.allocatedBytes() - before;
+                clients[1].tick(nextSteer(1));
+                server.tick();
+            }
+            min = Math.min(min, bytes);
+        }
+        assertEquals("client bytes allocated per 2k steady-state ticks", 0L, min);
+    }
+
+    @Test
+    public void serverSteadyState_allocatesNothing() throws IOException {
+        Assume.assumeTrue(AllocationTracker.isSupported());
+        server.getLink().simulate(0.05f, 2, 47);
+        clients[0].getLink().simulate(0.05f, 2, 53);
+        clients[1].getLink().simulate(0.05f, 2, 59);
+        run(20_000);
+
+        long min = Long.MAX_VALUE;
+        for (int window = 0; window < 5 && min > 0; window++) {
+            long bytes = 0;
+            for (int t = 0; t < 2_000; t++) {
+                for (int i = 0; i < clients.length; i++) clients[i].tick(nextSteer(i));
+                long before = AllocationTracker.allocatedBytes();
+                server.tick();                                      // 兩位玩家的封包交錯 → 未連線的 receive 每 tick 都會換來源
+                bytes += AllocationTracker.allocatedBytes() - before;
+            }
+            min = Math.min(min, bytes);
+        }
+        assertEquals("server bytes allocated per 2k steady-state ticks", 0L, min);
+    }
+
+    // ===== 工具 =====
+
+    private void run(int ticks) throws IOException {
+        for (int t = 0; t < ticks; t++) {
+            for (int i = 0; i < clients.length; i++) clients[i].tick(nextSteer(i));
+            server.tick();
+        }
+    }
+
+    /** 放開方向盤跑到所有輸入都確認，讓最後一份快照校正完 */
+    private void settle() throws IOException {
+        steer[0] = SnapshotCodec.STEER_CENTER;
+        steer[1] = SnapshotCodec.STEER_CENTER;
+        for (int t = 0; t < 2 * GameConfig.NET_HISTORY_TICKS; t++) {
+            for (NetClient client : clients) client.tick(SnapshotCodec.STEER_CENTER);
+            server.tick();
+        }
+        for (NetClient client : clients) client.tick(SnapshotCodec.STEER_CENTER);   // 收最後一份快照
+        for (int i = 0; i < clients.length; i++) {
+            assertEquals(clients[i].getTick() - 2, server.getLastProcessedInput(i));
+        }
+    }
+
+    /** 偶爾換方向（約每 1/3 秒），讓車在路面上左右擺動、偶爾擦牆 */
+    private byte nextSteer(int client) {
+        if (random.nextInt(20) == 0) steer[client] = (byte) random.nextInt(3);
+        return steer[client];
+    }
+
+    /** 客戶端落後伺服器一個輸入：比的是「最新確認的輸入」之後的狀態 → 讓兩邊都停在同一個量化單位內 */
+    private static void assertSameCar(Car expected, Car actual) {
+        assertEquals(expected.getX(), actual.getX(), 1f / 8);
+        assertEquals(expected.getAngle(), actual.getAngle(), 1f / 512);
+        assertEquals(expected.getSteeringAngle(), actual.getSteeringAngle(), 1f / 512);
+    }
+}
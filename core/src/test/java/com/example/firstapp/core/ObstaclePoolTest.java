@@ -0,0 +1,113 @@
+package com.example.firstapp.core;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * ObstaclePool 測試：生成/捲動/回收行為 + 穩態零配置
+ */
+public class ObstaclePoolTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    private Road road;
+    private ObstaclePool pool;
+
+    @Before
+    public void setUp() {
+        road = new Road();
+        road.init(WIDTH, HEIGHT);
+        pool = new ObstaclePool(GameConfig.OBSTACLE_CAPACITY, GameConfig.OBSTACLE_SEED);
+    }
+
+    @Test
+    public void update_spawnsIntoLaneCentres() {
+        for (int i = 0; i < 600; i++) pool.update(road);
+
+        assertTrue(pool.getActiveCount() > 0);
+        float[] lanes = road.getLanes();
+        for (int i = 0; i < pool.getActiveCount(); i++) {
+            int slot = pool.getActiveSlot(i);
+            assertEquals(lanes[pool.getLane(slot)], pool.getX(slot), 0f);
+        }
+    }
+
+    @Test
+    public void update_despawnsBelowScreenAndReusesSlots() {
+        int slot = pool.spawn(0, HEIGHT - 1f, road);
+        assertTrue(pool.isActive(slot));
+
+        pool.setSpawnInterval(Integer.MAX_VALUE);  // 這個測試不要自動生成
+        pool.update(road);
+        assertFalse(pool.isActive(slot));
+        assertEquals(0, pool.getActiveCount());
+
+        assertEquals(slot, pool.spawn(1, 0f, road));  // 回收的 slot 被重用
+    }
+
+    @Test
+    public void spawn_returnsMinusOneWhenFull() {
+        ObstaclePool small = new ObstaclePool(2, 1);
+        assertNotEquals(-1, small.spawn(0, 0f, road));
+        assertNotEquals(-1, small.spawn(1, 0f, road));
+        assertEquals(-1, small.spawn(2, 0f, road));
+        assertEquals(2, small.getActiveCount());
+    }
+
+    @Test
+    public void sameLaneObstacles_neverOverlap() {
+        Aabb a = new Aabb();
+        Aabb b = new Aabb();
+        pool.setSpawnInterval(1);  // 最密的車流
+        for (int tick = 0; tick < 5000; tick++) {
+            pool.update(road);
+            for (int i = 0; i < pool.getActiveCount(); i++) {
+                for (int j = i + 1; j < pool.getActiveCount(); j++) {
+                    pool.getBounds(pool.getActiveSlot(i), a);
+                    pool.getBounds(pool.getActiveSlot(j), b);
+                    assertFalse("tick " + tick, Aabb.intersects(a, b));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void sameSeed_producesSameTraffic() {
+        ObstaclePool other = new ObstaclePool(GameConfig.OBSTACLE_CAPACITY, GameConfig.OBSTACLE_SEED);
+        for (int tick = 0; tick < 3000; tick++) {
+            pool.update(road);
+            other.update(road);
+            assertEquals(pool.getActiveCount(), other.getActiveCount());
+            for (int i = 0; i < pool.getActiveCount(); i++) {
+                int slot = pool.getActiveSlot(i);
+                assertEquals(slot, other.getActiveSlot(i));
+                assertEquals(pool.getY(slot), other.getY(slot), 0f);
+            }
+        }
+    }
+
+    /**
+     * 熱身後執行數千個 tick（生成 + 捲動 + 回收 + 取碰撞框），
+     * 以 AllocationTracker 量測本執行緒配置的 bytes → 必須為 0
+     */
+    @Test
+    public void steadyState_allocatesNothing() {
+        Assume.assumeTrue(AllocationTracker.isSupported());
+        Aabb bounds = new Aabb();
+        pool.setSpawnInterval(5);
+
+        long minBytes = AllocationTracker.minAllocatedBytes(() -> tick(bounds), 20_000, 5, 10_000);
+        assertEquals("bytes allocated per 10k steady-state ticks", 0L, minBytes);
+    }
+
+    private void tick(Aabb bounds) {
+        pool.update(road);
+        for (int i = 0; i < pool.getActiveCount(); i++) {
+            pool.getBounds(pool.getActiveSlot(i), bounds);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.firstapp.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 行駛距離：開幾個小時後總距離沒有漂移、插值連續、reset 回到起點
+ */
+public class OdometerTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final long TICKS_PER_HOUR = 3600L * GameConfig.SIM_TICK_RATE_HZ;
+
+    @Test
+    public void fractionalSpeed_tenHours_distanceIsExact() {
+        Odometer odometer = new Odometer();
+        float speed = 5.3f;                                   // 不是 2 的次方分數 → float 累加會漂移
+        long step = Math.round(speed * Odometer.SUBUNITS);
+        float naive = 0f;
+        long ticks = 10 * TICKS_PER_HOUR;
+        for (long i = 1; i <= ticks; i++) {
+            odometer.advance(speed);
+            naive += speed;
+        }
+        assertEquals(ticks * step / (double) Odometer.SUBUNITS, odometer.getDistance(), 0.0);
+        assertEquals(ticks * step / Odometer.SUBUNITS, odometer.getWholeDistance());
+        // 對照：單純的 float 累加每一步都有捨入誤差，十小時後已經差了上萬像素
+        assertTrue("naive=" + naive, Math.abs(naive - odometer.getDistance()) > 10_000);
+    }
+
+    @Test
+    public void interpolation_isContinuousAtAnyDistance() {
+        Odometer odometer = new Odometer();
+        for (long i = 0; i < 4 * TICKS_PER_HOUR; i++) odometer.advance(5.3f);
+        double prev = odometer.getInterpolatedDistance(0f);
+        double current = odometer.getInterpolatedDistance(1f);
+        assertEquals(current, odometer.getDistance(), 0.0);
+        assertEquals(Math.round(5.3f * Odometer.SUBUNITS) / (double) Odometer.SUBUNITS, current - prev, 0.0);
+        assertEquals((prev + current) / 2, odometer.getInterpolatedDistance(0.5f), 1e-9);
+    }
+
+    @Test
+    public void reset_returnsToStart() {
+        Odometer odometer = new Odometer();
+        for (int i = 0; i < 1_000; i++) odometer.advance(5.3f);
+        odometer.reset();
+        assertEquals(0.0, odometer.getDistance(), 0.0);
+        assertEquals(0.0, odometer.getInterpolatedDistance(0.5f), 0.0);
+    }
+
+    @Test
+    public void gameWorld_fourHours_noDriftInRoadOrTraffic() {
+        GameWorld world = new GameWorld();
+        world.resize(WIDTH, HEIGHT);
+        Road road = world.getRoad();
+        ObstaclePool obstacles = world.getObstacles();
+        long ticks = 4 * TICKS_PER_HOUR;                     // > 2^24 / 5 tick：float 距離早就無法精確 +5
+        for (long i = 1; i <= ticks; i++) {
+            world.onUpdate();
+            for (int n = 0, count = obstacles.getActiveCount(); n < count; n++) {
+                int slot = obstacles.getActiveSlot(n);
+                float y = obstacles.getY(slot);
+                float expectedDy = GameConfig.LINE_SCROLL_SPEED
+                        * GameConfig.TRAFFIC_LANE_SCROLL_FACTORS[obstacles.getLane(slot)];
+                assertEquals(expectedDy, y - obstacles.getPrevY(slot), 0f);   // 每一步都是精確的捲動量
+                assertTrue(y <= HEIGHT);                                      // 畫面座標不隨距離變大
+            }
+        }
+        assertEquals(ticks * (double) GameConfig.LINE_SCROLL_SPEED, road.getDistance(), 0.0);
+        assertEquals(road.getDistance() - GameConfig.LINE_SCROLL_SPEED, road.getInterpolatedDistance(0f), 0.0);
+        assertTrue(obstacles.getActiveCount() > 0);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.firstapp.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * OrientedBox（OBB + SAT）與旋轉車輛的道路邊界測試
+ */
+public class OrientedBoxTest {
+
+    private static final float EPS = 1e-3f;
+
+    private static OrientedBox rotated(float degrees) {
+        double r = Math.toRadians(degrees);
+        OrientedBox box = new OrientedBox();
+        box.set(0f, 0f, 50f, 100f, (float) Math.cos(r), (float) Math.sin(r));
+        return box;
+    }
+
+    @Test
+    public void unrotated_behavesLikeAabb() {
+        OrientedBox box = rotated(0f);
+        assertTrue(box.intersects(new Aabb(40f, -10f, 80f, 10f)));
+        assertFalse(box.intersects(new Aabb(50f, -10f, 80f, 10f)));  // 貼邊不算
+        assertEquals(50f, box.extentX(), EPS);
+        assertEquals(100f, box.extentY(), EPS);
+    }
+
+    @Test
+    public void corners_matchExtents() {
+        OrientedBox box = rotated(30f);
+        float[] corners = new float[8];
+        box.getCorners(corners);
+
+        float maxX = 0f;
+        float maxY = 0f;
+        for (int i = 0; i < 4; i++) {
+            maxX = Math.max(maxX, Math.abs(corners[i * 2]));
+            maxY = Math.max(maxY, Math.abs(corners[i * 2 + 1]));
+        }
+        assertEquals(box.extentX(), maxX, EPS);
+        assertEquals(box.extentY(), maxY, EPS);
+    }
+
+    @Test
+    public void boxInEnclosingAabbCorner_isRejectedBySat() {
+        OrientedBox box = rotated(30f);
+        Aabb enclosing = new Aabb();
+        box.getEnclosingBounds(enclosing);
+
+        // 包圍盒的右上角附近：AABB 會誤判相交，但旋轉後的車身其實碰不到
+        Aabb corner = new Aabb(enclosing.right - 10f, enclosing.top, enclosing.right, enclosing.top + 10f);
+        assertTrue(Aabb.intersects(enclosing, corner));
+        assertFalse(box.intersects(corner));
+    }
+
+    @Test
+    public void boxTouchingRotatedCorner_isDetected() {
+        OrientedBox box = rotated(30f);
+        float[] corners = new float[8];
+        box.getCorners(corners);
+
+        // 在最右邊的車角上放一個小方塊
+        int right = 0;
+        for (int i = 1; i < 4; i++) {
+            if (corners[i * 2] > corners[right * 2]) right = i;
+        }
+        float cx = corners[right * 2] - 2f;
+        float cy = corners[right * 2 + 1];
+        assertTrue(box.intersects(new Aabb(cx - 5f, cy - 5f, cx + 5f, cy + 5f)));
+    }
+
+    @Test
+    public void clampToRoad_usesRotatedCorners() {
+        Road road = new Road();
+        road.init(1080, 1920);
+        Car car = new Car();
+        car.setPosition(road.getRoadLeft(), 1200f);  // 車身一半在草地上
+
+        car.moveLeft();
+        for (int i = 0; i < 200; i++) {            // 轉到 -30° 並持續撞左牆
+            car.update();
+            CollisionDetector.clampToRoad(car, road);
+        }
+
+        OrientedBox box = new OrientedBox();
+        box.setFromCar(car);
+        float[] corners = new float[8];
+        box.getCorners(corners);
+        float minX = Float.MAX_VALUE;
+        for (int i = 0; i < 4; i++) minX = Math.min(minX, corners[i * 2]);
+
+        assertEquals(-GameConfig.CAR_MAX_STEER_ANGLE, car.getAngle(), 0.01f);
+        assertEquals(road.getRoadLeft(), minX, 0.01f);  // 最外側車角剛好貼齊路邊
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.firstapp.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 平行車隊更新必須與序列路徑逐位元相同（與執行緒數、區段切法無關）
+ */
+public class ParallelFleetUpdaterTest {
+
+    private static final int COUNT = 50_001;   // 不整除任何區段大小
+
+    @Test
+    public void parallelUpdate_isBitIdenticalToSerial() {
+        CarFleet serial = newFleet();
+        CarFleet parallel = newFleet();
+        ParallelFleetUpdater updater = new ParallelFleetUpdater(4, 1);   // 門檻 1 → 永遠走平行路徑
+
+        try {
+            for (int tick = 0; tick < 300; tick++) {
+                if (tick % 75 == 0) {                          // 中途換方向，讓角度持續變化
+                    float sign = (tick / 75 & 1) == 0 ? 1f : -1f;
+                    for (int i = 0; i < COUNT; i++) {
+                        float target = sign * ((i % 3) - 1) * GameConfig.CAR_MAX_STEER_ANGLE;
+                        serial.setSteeringAngle(i, target);
+                        parallel.setSteeringAngle(i, target);
+                    }
+                }
+                serial.update(COUNT);
+                updater.update(parallel, COUNT);
+            }
+        } finally {
+            updater.shutdown();
+        }
+
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals("x of " + i, Float.floatToIntBits(serial.getX(i)), Float.floatToIntBits(parallel.getX(i)));
+            assertEquals("prevX of " + i, Float.floatToIntBits(serial.getPrevX(i)), Float.floatToIntBits(parallel.getPrevX(i)));
+            assertEquals("angle of " + i, Float.floatToIntBits(serial.getAngle(i)), Float.floatToIntBits(parallel.getAngle(i)));
+            assertEquals("cos of " + i, Float.floatToIntBits(serial.getAngleCos(i)), Float.floatToIntBits(parallel.getAngleCos(i)));
+        }
+    }
+
+    @Test
+    public void partialCount_leavesRemainingSlotsUntouched() {
+        CarFleet fleet = newFleet();
+        ParallelFleetUpdater updater = new ParallelFleetUpdater(3, 1);
+        try {
+            for (int i = 0; i < COUNT; i++) fleet.setSteeringAngle(i, GameConfig.CAR_MAX_STEER_ANGLE);
+            updater.update(fleet, 1000);
+        } finally {
+            updater.shutdown();
+        }
+        assertTrue(fleet.getAngle(999) > 0f);
+        assertEquals(0f, fleet.getAngle(1000), 0f);
+    }
+
+    private static CarFleet newFleet() {
+        CarFleet fleet = new CarFleet(COUNT, true);
+        for (int i = 0; i < COUNT; i++) {
+            fleet.setPosition(i, 200f + (i % 700), 1000f);
+        }
+        return fleet;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.firstapp.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 粒子系統：ring buffer 的生成/覆蓋/回收，以及 GameWorld 何時產生特效
+ */
+public class ParticleSystemTest {
+
+    @Test
+    public void particles_moveWithDragAndExpireAfterLifetime() {
+        ParticleSystem system = new ParticleSystem(16, 3, 0.5f, 1);
+        system.emit(0f, 0f, 4f, 8f);
+        float[] points = new float[system.getCapacity() * 2];
+
+        system.update();
+        assertEquals(2, system.fillPoints(points, 1f));
+        assertEquals(4f, points[0], 0f);
+        assertEquals(8f, points[1], 0f);
+        system.update();                                      // 速度減半：+2, +4
+        system.fillPoints(points, 1f);
+        assertEquals(6f, points[0], 0f);
+        assertEquals(12f, points[1], 0f);
+
+        system.update();
+        assertEquals(0, system.getLiveCount());               // 壽命 3 tick
+        assertEquals(0, system.fillPoints(points, 1f));
+    }
+
+    @Test
+    public void full_overwritesOldestParticles() {
+        ParticleSystem system = new ParticleSystem(8, 100, 1f, 1);
+        for (int i = 0; i < 20; i++) system.emit(i, 0f, 0f, 0f);
+        assertEquals(8, system.getLiveCount());
+
+        float[] points = new float[system.getCapacity() * 2];
+        assertEquals(16, system.fillPoints(points, 1f));
+        for (int i = 0; i < 8; i++) {
+            assertEquals(12f + i, points[i * 2], 0f);          // 只剩最新的 8 顆，依生成順序
+        }
+    }
+
+    @Test
+    public void staggeredEmission_expiresOldestFirst() {
+        ParticleSystem system = new ParticleSystem(64, 10, 1f, 1);
+        for (int tick = 0; tick < 5; tick++) {
+            system.burst(0f, 0f, 0f, 1f, 0.5f, 3);
+            system.update();
+        }
+        assertEquals(15, system.getLiveCount());
+        for (int tick = 0; tick < 5; tick++) system.update(); // 第一批活滿 10 tick
+        assertEquals(12, system.getLiveCount());
+        for (int tick = 0; tick < 4; tick++) system.update();
+        assertEquals(0, system.getLiveCount());
+    }
+
+    @Test
+    public void scrapingWall_emitsSparks_steeringStraight_emitsNothing() {
+        GameWorld world = new GameWorld();
+        world.resize(1080, 1920);
+        for (int i = 0; i < 300; i++) world.onUpdate();       // 直行：沒有擦牆、沒有急轉
+        assertEquals(0, world.getSparks().getLiveCount());
+        assertEquals(0, world.getSmoke().getLiveCount());
+
+        world.moveLeft();
+        for (int i = 0; i < 300; i++) world.onUpdate();       // 一路左轉 → 貼著左邊界
+        assertTrue(world.getSparks().getLiveCount() > 0);
+        assertTrue(world.getSmoke().getLiveCount() > 0);
+
+        world.stopSteering();
+        for (int i = 0; i < 300; i++) world.onUpdate();       // 回正後自然消失
+        assertEquals(0, world.getSparks().getLiveCount());
+        assertEquals(0, world.getSmoke().getLiveCount());
+    }
+
+    @Test
+    public void effects_doNotChangeSimulation() {
+        GameWorld a = new GameWorld();
+        a.resize(1080, 1920);
+        GameWorld b = new GameWorld();
+        b.resize(1080, 1920);
+        b.getQualityGovernor().requestThermalLevel(QualityGovernor.THERMAL_CRITICAL);
+        b.getQualityGovernor().onFrame();                      // LOW：不生成特效
+        assertFalse(b.getQualityGovernor().isEffectsEnabled());
+
+        a.moveLeft();
+        b.moveLeft();
+        for (int i = 0; i < 600; i++) {
+            a.onUpdate();
+            b.onUpdate();
+            assertEquals(a.stateChecksum(), b.stateChecksum());
+        }
+        assertTrue(a.getSparks().getLiveCount() > 0);
+        assertEquals(0, b.getSparks().getLiveCount());
+    }
+}
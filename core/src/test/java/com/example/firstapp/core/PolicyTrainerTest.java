@@ -0,0 +1,102 @@
+package com.example.firstapp.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * 神經演化訓練：結果與執行緒數無關、訓練用的世界不開倒帶但模擬結果相同、訓練出的策略比直線行駛撐得久、自動駕駛可以被錄製重播
+ */
+public class PolicyTrainerTest {
+
+    private static final int EPISODE_TICKS = 20 * GameConfig.SIM_TICK_RATE_HZ;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void training_isDeterministicAcrossThreadCounts() {
+        PolicyTrainer.Result serial = new PolicyTrainer(8, 2, 1, EPISODE_TICKS, 1, 9).train(3, null);
+        PolicyTrainer.Result parallel = new PolicyTrainer(8, 2, 1, EPISODE_TICKS, 3, 9).train(3, null);
+
+        assertEquals(serial.best, parallel.best);
+        assertEquals(serial.bestFitness, parallel.bestFitness, 0f);
+        assertEquals(serial.simulatedTicks, parallel.simulatedTicks);
+        assertEquals(8 * 3, serial.episodes);
+        assertTrue(serial.getEpisodesPerSecond() > 0);
+    }
+
+    @Test
+    public void episodeWorld_withoutRewind_simulatesIdentically() {
+        DrivingPolicy policy = new PolicyTrainer(8, 2, 1, EPISODE_TICKS, 1, 3).train(1, null).best;
+        GameWorld training = new GameWorld(17, false);
+        GameWorld game = new GameWorld(17, true);
+        assertNull(training.getRewindRing());
+        assertEquals(-1L, training.rewind(1));
+        for (GameWorld world : new GameWorld[] {training, game}) {
+            world.resize(1080, 1920);
+            world.setAutopilot(policy);
+        }
+        for (int tick = 0; tick < EPISODE_TICKS; tick++) {
+            training.onUpdate();
+            game.onUpdate();
+            assertEquals("tick " + tick, game.stateChecksum(), training.stateChecksum());
+        }
+        assertTrue(game.getRewindRing().size() > 0);
+        training.stopBackgroundWork();
+        game.stopBackgroundWork();
+    }
+
+    @Test
+    public void trainedPolicy_outlastsDrivingStraight_onUnseenTraffic() {
+        PolicyTrainer.Result result = new PolicyTrainer(24, 4, 2, EPISODE_TICKS, 2, 5).train(6, null);
+
+        float[] straight = new float[DrivingPolicy.PARAMETER_COUNT];
+        straight[DrivingPolicy.PARAMETER_COUNT - DrivingPolicy.ACTIONS + DrivingPolicy.ACTION_CENTER] = 1f;
+        DrivingPolicy baseline = new DrivingPolicy(straight);
+
+        long trained = 0;
+        long untrained = 0;
+        for (int seed = 1001; seed < 1009; seed += 2) {              // 訓練時沒看過的車流
+            trained += PolicyTrainer.runEpisode(result.best, seed, EPISODE_TICKS);
+            untrained += PolicyTrainer.runEpisode(baseline, seed, EPISODE_TICKS);
+        }
+        assertTrue("trained=" + trained + " straight=" + untrained, trained > untrained * 2);
+    }
+
+    @Test
+    public void autopilotSession_replaysWithoutThePolicy() throws IOException {
+        DrivingPolicy policy = new PolicyTrainer(8, 2, 1, EPISODE_TICKS, 1, 3).train(2, null).best;
+        File log = folder.newFile("autopilot.bin");
+
+        GameWorld world = new GameWorld();
+        InputRecorder recorder = InputRecorder.open(log);
+        world.setInputRecorder(recorder);
+        world.resize(1080, 1920);
+        world.setAutopilot(policy);
+        for (int tick = 0; tick < 2_000; tick++) world.onUpdate();
+        int checksum = world.stateChecksum();
+        recorder.close();
+
+        InputReplayer.Result replay = InputReplayer.read(log).replay(new GameWorld());
+        assertFalse(replay.toString(), replay.isDiverged());
+        assertEquals(checksum, replay.finalChecksum);
+    }
+
+    @Test
+    public void exportedPolicy_loadsBack() throws IOException {
+        DrivingPolicy policy = new PolicyTrainer(4, 1, 1, 60, 1, 1).train(1, null).best;
+        File file = new File(folder.getRoot(), "rival-policy.bin");
+        policy.write(file);
+        assertEquals(policy.toBytes().length, file.length());
+        try (FileInputStream in = new FileInputStream(file)) {
+            assertEquals(policy, DrivingPolicy.read(in));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.firstapp.core;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 程序化道路：形狀是純函數（可重現、連續），背景產生的 ring 與直接重算結果逐位元相同
+ */
+public class ProceduralRoadTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    private Road road;
+
+    @After
+    public void tearDown() {
+        if (road != null) road.stopGenerator();
+    }
+
+    @Test
+    public void profile_isDeterministicAndContinuous() {
+        RoadProfile a = new RoadProfile(GameConfig.ROAD_SEED, WIDTH);
+        RoadProfile b = new RoadProfile(GameConfig.ROAD_SEED, WIDTH);
+        float[] leftA = new float[1], rightA = new float[1], leftB = new float[1], rightB = new float[1];
+        byte[] lanesA = new byte[1], lanesB = new byte[1];
+        float prevLeft = Float.NaN;
+        float maxStep = WIDTH * GameConfig.ROAD_CURVE_AMPLITUDE_RATIO;   // 一個路段的變化遠小於整個彎道幅度
+        for (long segment = 0; segment < 100_000; segment++) {
+            a.compute(segment, leftA, rightA, lanesA, 0);
+            b.compute(segment, leftB, rightB, lanesB, 0);
+            assertEquals(Float.floatToIntBits(leftA[0]), Float.floatToIntBits(leftB[0]));
+            assertEquals(Float.floatToIntBits(rightA[0]), Float.floatToIntBits(rightB[0]));
+            assertEquals(lanesA[0], lanesB[0]);
+
+            assertTrue(leftA[0] >= 0f && rightA[0] <= WIDTH && leftA[0] < rightA[0]);
+            assertTrue(lanesA[0] >= GameConfig.ROAD_MIN_LANES && lanesA[0] <= GameConfig.LANE_COUNT);
+            if (!Float.isNaN(prevLeft)) {
+                assertTrue("jump at segment " + segment, Math.abs(leftA[0] - prevLeft) < maxStep / 10f);
+            }
+            prevLeft = leftA[0];
+        }
+    }
+
+    @Test
+    public void firstChunk_matchesStraightRoad() {
+        road = new Road(true);
+        Road straight = new Road(false);
+        road.init(WIDTH, HEIGHT);
+        straight.init(WIDTH, HEIGHT);
+        float carY = HEIGHT * 2f / 3f;
+        assertEquals(straight.getRoadLeft(), road.getLeftEdgeAt(carY), 1e-3f);
+        assertEquals(straight.getRoadRight(), road.getRightEdgeAt(carY), 1e-3f);
+        assertEquals(straight.getLanes()[1], road.getLaneCenterAt(1, carY), 1e-3f);
+    }
+
+    @Test
+    public void ringLookups_matchPureFunctionWhileGeneratorRuns() {
+        road = new Road(true);
+        road.init(WIDTH, HEIGHT);
+        Road reference = new Road(true);   // 產生器停止 → 每次查詢都直接重算
+        reference.init(WIDTH, HEIGHT);
+        reference.stopGenerator();
+
+        for (int tick = 0; tick < 20_000; tick++) {
+            road.update();
+            reference.update();
+            reference.stopGenerator();   // update 會自動重新啟動 → 保持停止
+            for (float y = 0; y <= HEIGHT; y += 97f) {
+                assertEquals(Float.floatToIntBits(reference.getLeftEdgeAt(y)), Float.floatToIntBits(road.getLeftEdgeAt(y)));
+                assertEquals(Float.floatToIntBits(reference.getRightEdgeAt(y)), Float.floatToIntBits(road.getRightEdgeAt(y)));
+            }
+        }
+        ProceduralRoad ring = road.getProceduralRoad();
+        assertTrue(ring.getReadyCount() <= ring.getCapacity());
+    }
+
+    @Test
+    public void generator_staysAheadOfConsumer() throws InterruptedException {
+        road = new Road(true);
+        road.init(WIDTH, HEIGHT);
+        ProceduralRoad ring = road.getProceduralRoad();
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (ring.getReadyCount() < ring.getCapacity() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(ring.getCapacity(), ring.getReadyCount());   // 預先填滿後 park
+
+        road.update();
+        long misses = ring.getMissCount();
+        for (float y = 0; y <= HEIGHT; y += 10f) {
+            road.getLeftEdgeAt(y);
+            road.getLaneCountAt(y);
+        }
+        assertEquals(misses, ring.getMissCount());   // 畫面內的路段都已就緒
+    }
+
+    @Test
+    public void clampToRoad_followsCurve() {
+        road = new Road(true);
+        road.init(WIDTH, HEIGHT);
+        Car car = new Car();
+        car.setPosition(0f, HEIGHT * 2f / 3f);
+        float centerY = car.getY() + car.getHeight() / 2f;
+
+        int curved = 0;
+        for (int tick = 0; tick < 10_000; tick++) {
+            road.update();
+            car.setX(0f);                                       // 撞左邊
+            CollisionDetector.clampToRoad(car, road);
+            assertEquals(road.getLeftEdgeAt(centerY) + car.getHalfExtentX(), car.getX(), 1e-3f);
+            car.setX(WIDTH);                                    // 撞右邊
+            CollisionDetector.clampToRoad(car, road);
+            assertEquals(road.getRightEdgeAt(centerY) - car.getHalfExtentX(), car.getX(), 1e-3f);
+            if (Math.abs(road.getLeftEdgeAt(centerY) - road.getRoadLeft()) > 1f) curved++;
+        }
+        assertTrue("road never curved", curved > 0);
+    }
+}
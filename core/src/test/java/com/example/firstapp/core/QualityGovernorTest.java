@@ -0,0 +1,124 @@
+package com.example.firstapp.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 畫質調節器：用合成的每幀工作時間序列驅動（不需要裝置、不讀時鐘）
+ */
+public class QualityGovernorTest {
+
+    private static final long MS = 1_000_000L;
+
+    /** 依目前等級回傳這一幀的工作時間（奈秒） */
+    private interface CostModel {
+        long workNanos(int tier, long frame);
+    }
+
+    private QualityGovernor governor;
+    private long vsyncTime;     // 合成的 VSYNC 時間
+    private long frame;         // 已畫的幀數
+
+    @Before
+    public void setUp() {
+        governor = new QualityGovernor();
+        vsyncTime = 0;
+        frame = 0;
+    }
+
+    /** 以 refreshHz 的 VSYNC 跑 vsyncs 次，只有該畫的 VSYNC 才結算/累計工作時間 */
+    private void run(float refreshHz, int vsyncs, CostModel cost) {
+        long period = (long) (1e9 / refreshHz);
+        for (int i = 0; i < vsyncs; i++) {
+            vsyncTime += period;
+            if (!governor.isFrameDue(vsyncTime)) continue;
+            governor.onFrame();
+            governor.addWork(cost.workNanos(governor.getTier(), frame++));
+        }
+    }
+
+    @Test
+    public void lightLoad_staysHighAtDisplayRate() {
+        governor.requestDisplayRefreshRate(120f);
+        run(120f, 1200, (tier, f) -> 2 * MS);
+        assertEquals(QualityGovernor.TIER_HIGH, governor.getTier());
+        assertEquals(120f, governor.getTargetFrameRate(), 0.01f);
+        assertEquals(0, governor.getChangeCount());
+    }
+
+    @Test
+    public void heavyLoad_stepsDownOneTierPerWindow() {
+        run(60f, 600, (tier, f) -> 20 * MS);                  // 任何等級都超過 16.7 ms
+        assertEquals(QualityGovernor.TIER_LOW, governor.getTier());
+        assertEquals(2, governor.getChangeCount());           // HIGH → MEDIUM → LOW，不會跳級
+        assertEquals(2 * GameConfig.OBSTACLE_SPAWN_INTERVAL_TICKS, governor.getObstacleSpawnInterval());
+        assertEquals(2, governor.getDashStride());
+        assertFalse(governor.isEffectsEnabled());
+        assertEquals(0.5f, governor.getRenderScale(), 0f);
+    }
+
+    @Test
+    public void occasionalSpikes_doNotDowngrade() {
+        run(60f, 3000, (tier, f) -> f % 20 == 0 ? 30 * MS : 5 * MS); // 5% 的幀超預算（< 15%）
+        assertEquals(QualityGovernor.TIER_HIGH, governor.getTier());
+    }
+
+    @Test
+    public void recovery_upgradesSlowlyAfterLoadDrops() {
+        run(60f, 300, (tier, f) -> 20 * MS);
+        assertEquals(QualityGovernor.TIER_LOW, governor.getTier());
+
+        int window = GameConfig.QUALITY_WINDOW_FRAMES;
+        run(60f, (GameConfig.QUALITY_UPGRADE_WINDOWS - 1) * window, (tier, f) -> 2 * MS);
+        assertEquals(QualityGovernor.TIER_LOW, governor.getTier());   // 還不夠久
+
+        int framesPerUpgrade = (GameConfig.QUALITY_COOLDOWN_WINDOWS + GameConfig.QUALITY_UPGRADE_WINDOWS) * window;
+        run(60f, 3 * framesPerUpgrade, (tier, f) -> 2 * MS);
+        assertEquals(QualityGovernor.TIER_HIGH, governor.getTier());
+    }
+
+    @Test
+    public void borderlineLoad_doesNotOscillate() {
+        // HIGH 一定超預算，MEDIUM 很輕鬆 → 沒有遲滯的話會每幾個窗口就升降一次
+        CostModel cost = (tier, f) -> tier == QualityGovernor.TIER_HIGH ? 15 * MS : 3 * MS;
+        run(60f, 60 * 60 * 10, cost);                         // 10 分鐘
+
+        int windows = 60 * 60 * 10 / GameConfig.QUALITY_WINDOW_FRAMES;
+        int naiveChanges = 2 * windows / (GameConfig.QUALITY_COOLDOWN_WINDOWS + GameConfig.QUALITY_UPGRADE_WINDOWS + 1);
+        assertTrue("changes: " + governor.getChangeCount(), governor.getChangeCount() < naiveChanges / 10);
+        assertEquals(GameConfig.QUALITY_MAX_UPGRADE_WINDOWS, governor.getUpgradeWindows()); // 退避到上限
+    }
+
+    @Test
+    public void mediumTier_capsHighRefreshDisplaysToEvenDivisor() {
+        governor.requestDisplayRefreshRate(90f);
+        run(90f, 180, (tier, f) -> tier == QualityGovernor.TIER_HIGH ? 12 * MS : 2 * MS);
+        assertEquals(QualityGovernor.TIER_MEDIUM, governor.getTier());
+        assertEquals(45f, governor.getTargetFrameRate(), 0.01f);  // 90 / 2，每幀顯示時間一致
+
+        long before = frame;
+        run(90f, 180, (tier, f) -> 2 * MS);
+        assertEquals(QualityGovernor.TIER_MEDIUM, governor.getTier()); // 冷卻 + 連續窗口還沒滿
+        assertEquals(90, frame - before, 1);                           // 每兩個 VSYNC 畫一次
+    }
+
+    @Test
+    public void thermalCritical_forcesLowTierAndThirtyFps() {
+        run(60f, 60, (tier, f) -> 2 * MS);
+        governor.requestThermalLevel(QualityGovernor.THERMAL_CRITICAL);
+        assertTrue(governor.onFrame());                          // 下一幀套用並回報改變
+        assertEquals(QualityGovernor.TIER_LOW, governor.getTier());
+        assertEquals(30f, governor.getTargetFrameRate(), 0.01f);
+
+        long before = frame;
+        run(60f, 600, (tier, f) -> 2 * MS);
+        assertEquals(300, frame - before, 1);                   // 每兩個 VSYNC 畫一次
+        assertEquals(QualityGovernor.TIER_LOW, governor.getTier()); // 再輕鬆也不會升級
+
+        governor.requestThermalLevel(QualityGovernor.THERMAL_NORMAL);
+        run(60f, 60 * 30, (tier, f) -> 2 * MS);
+        assertEquals(QualityGovernor.TIER_HIGH, governor.getTier());
+    }
+}
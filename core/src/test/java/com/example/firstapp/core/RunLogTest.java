@@ -0,0 +1,123 @@
+package com.example.firstapp.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * 跑局紀錄檔：附加 → 重新開啟後索引與軌跡一致；未提交的尾端被忽略；鬼影跨頁串流
+ */
+public class RunLogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** 第 f 幀的量化位置（每一局不同） */
+    static int qx(int run, int f) {
+        return SnapshotCodec.quantizeX(540f + 300f * FastMath.sinDeg(f * 0.7f + run * 13));
+    }
+
+    static int qangle(int run, int f) {
+        return SnapshotCodec.quantizeAngle(25f * FastMath.sinDeg(f * 3f + run));
+    }
+
+    private static ByteBuffer trajectory(int run, int frames) {
+        ByteBuffer out = ByteBuffer.allocate(frames * RunLog.MAX_FRAME_BYTES);
+        int[] previous = new int[2];
+        for (int f = 0; f < frames; f++) RunLog.encodeFrame(out, qx(run, f), qangle(run, f), previous);
+        out.flip();
+        return out;
+    }
+
+    private static void assertTrajectory(RunLog log, int index, int run, int frames) throws IOException {
+        RunLog.GhostReader ghost = log.openGhost(index);
+        assertEquals(frames, ghost.getFrameCount());
+        for (int f = 0; f < frames; f++) {
+            assertTrue(ghost.next());
+            assertEquals("frame " + f, SnapshotCodec.dequantizeX(qx(run, f)), ghost.getX(), 0f);
+            assertEquals("frame " + f, SnapshotCodec.dequantizeAngle(qangle(run, f)), ghost.getAngle(), 0f);
+        }
+        assertFalse(ghost.next());
+    }
+
+    @Test
+    public void append_reopen_readsBackRunsAndTrajectories() throws IOException {
+        File file = new File(folder.getRoot(), "run-log.bin");
+        int[] lengths = {600, 40_000, 1_200};                // 第二局 > 一頁（RUN_LOG_PAGE_BYTES）
+        try (RunLog log = RunLog.open(file, 4 * 1024)) {     // 小映射區：每一局都要延伸
+            for (int r = 0; r < lengths.length; r++) {
+                assertEquals(r, log.append(lengths[r], r * 100_000L, 1_700_000_000_000L + r, lengths[r] * 5.0,
+                        trajectory(r, lengths[r])));
+            }
+        }
+
+        try (RunLog log = RunLog.open(file)) {
+            assertEquals(lengths.length, log.getRunCount());
+            assertEquals(1, log.getBestRun());
+            for (int r = 0; r < lengths.length; r++) {
+                assertEquals(lengths[r], log.getFrameCount(r));
+                assertEquals(r * 100_000L, log.getStartTick(r));
+                assertEquals(1_700_000_000_000L + r, log.getStartTime(r));
+                assertEquals(lengths[r] * 5.0, log.getDistance(r), 0.0);
+                assertTrajectory(log, r, r, lengths[r]);
+            }
+            RunLog.GhostReader ghost = log.openGhost(1);
+            while (ghost.next()) {
+                // 讀完
+            }
+            assertTrue("pages: " + ghost.getPagesMapped(), ghost.getPagesMapped() > 1);
+            assertTrue("compact: " + log.getCommittedBytes(), log.getCommittedBytes() < 42_000L * 4);
+        }
+    }
+
+    @Test
+    public void uncommittedTail_isIgnoredAndOverwritten() throws IOException {
+        File file = new File(folder.getRoot(), "run-log.bin");
+        long committed;
+        try (RunLog log = RunLog.open(file)) {
+            log.append(300, 0L, 0L, 1.0, trajectory(0, 300));
+            committed = log.getCommittedBytes();
+        }
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {  // 寫到一半被中斷的紀錄
+            raw.seek(committed);
+            raw.writeInt(5_000);
+            raw.writeInt(999);
+        }
+
+        try (RunLog log = RunLog.open(file)) {
+            assertEquals(1, log.getRunCount());
+            assertEquals(committed, log.getCommittedBytes());
+            log.append(200, 1L, 1L, 2.0, trajectory(1, 200));
+        }
+        try (RunLog log = RunLog.open(file)) {
+            assertEquals(2, log.getRunCount());
+            assertTrajectory(log, 0, 0, 300);
+            assertTrajectory(log, 1, 1, 200);
+        }
+    }
+
+    @Test
+    public void emptyLog_hasNoBestRun() throws IOException {
+        try (RunLog log = RunLog.open(new File(folder.getRoot(), "empty.bin"))) {
+            assertEquals(0, log.getRunCount());
+            assertEquals(-1, log.getBestRun());
+            assertEquals(RunLog.HEADER_BYTES, log.getCommittedBytes());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void open_rejectsForeignFile() throws IOException {
+        File file = folder.newFile("not-a-log.bin");
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.write(new byte[64]);
+        }
+        RunLog.open(file).close();
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.firstapp.core;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * 背景寫入：遊戲執行緒送出的每一局都完整落盤；I/O 執行緒落後時丟局但之後照常紀錄；鬼影與這一局逐幀對齊；記錄一幀不配置記憶體
+ */
+public class RunWriterTest {
+
+    private static final long TIMEOUT_NANOS = 10_000_000_000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final CarFleet fleet = new CarFleet(1);
+    private final Car car = new Car(fleet, 0);
+
+    private void place(int run, int f) {
+        fleet.restore(0, SnapshotCodec.dequantizeX(RunLogTest.qx(run, f)),
+                SnapshotCodec.dequantizeAngle(RunLogTest.qangle(run, f)), 0f);
+    }
+
+    private void recordRun(RunWriter writer, int run, int frames) {
+        writer.beginRun(run * 10_000L, run * 1_000.0);
+        for (int f = 0; f < frames; f++) {
+            place(run, f);
+            writer.recordFrame(car);
+        }
+        writer.endRun(run * 1_000.0 + frames * 5.0);
+    }
+
+    @Test
+    public void runs_areWrittenBehindTheGameThread() throws IOException {
+        File file = new File(folder.getRoot(), "run-log.bin");
+        RunWriter writer = new RunWriter(file);
+        int[] lengths = {900, 5_000, 120};                   // 第二局跨好幾個批次
+        for (int r = 0; r < lengths.length; r++) recordRun(writer, r, lengths[r]);
+        assertTrue(writer.awaitWritten(TIMEOUT_NANOS));
+        assertEquals(lengths.length, writer.getRunsWritten());
+        writer.close();
+        assertNull(writer.getFailure());
+        assertEquals(0, writer.getDroppedRuns());
+
+        try (RunLog log = RunLog.open(file)) {
+            assertEquals(lengths.length, log.getRunCount());
+            assertEquals(1, log.getBestRun());
+            for (int r = 0; r < lengths.length; r++) {
+                assertEquals(lengths[r], log.getFrameCount(r));
+                assertEquals(r * 10_000L, log.getStartTick(r));
+                assertEquals(lengths[r] * 5.0, log.getDistance(r), 1e-9);
+                RunLog.GhostReader ghost = log.openGhost(r);
+                for (int f = 0; f < lengths[r]; f++) {
+                    assertTrue(ghost.next());
+                    assertEquals(SnapshotCodec.dequantizeX(RunLogTest.qx(r, f)), ghost.getX(), 0f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void ghost_replaysBestRunFrameAligned() throws Exception {
+        RunWriter writer = new RunWriter(new File(folder.getRoot(), "run-log.bin"));
+        recordRun(writer, 0, 600);
+        assertTrue(writer.awaitWritten(TIMEOUT_NANOS));
+
+        writer.beginRun(0L, 0.0);                            // 鬼影 = 第 0 局
+        Thread.sleep(200);                                   // 讓 I/O 執行緒先解碼（跟不上時只會少幾幀可見，不會錯位）
+        int visible = 0;
+        for (int f = 0; f < 800; f++) {
+            place(1, f);
+            writer.recordFrame(car);
+            if (writer.isGhostVisible()) {
+                assertTrue("ghost past its last frame", f < 600);
+                assertEquals("frame " + f, SnapshotCodec.dequantizeX(RunLogTest.qx(0, f)), writer.getGhostX(1f), 0f);
+                assertEquals(SnapshotCodec.dequantizeAngle(RunLogTest.qangle(0, f)), writer.getGhostAngle(1f), 0f);
+                visible++;
+            }
+        }
+        assertTrue("visible: " + visible, visible >= 590);
+        writer.endRun(800 * 5.0);
+        writer.close();
+    }
+
+    @Test
+    public void gameWorld_splitsRunsAtCrashes() throws IOException {
+        File file = new File(folder.getRoot(), "run-log.bin");
+        RunWriter writer = new RunWriter(file);
+        GameWorld world = new GameWorld();
+        world.resize(1080, 1920);
+        world.setObstacleSpawnInterval(5);                   // 高密度車流 → 一定會撞
+        world.setRunWriter(writer);
+        int ticks = 6_000;
+        for (int t = 0; t < ticks; t++) {
+            world.onUpdate();
+            // 測試不受 60 Hz 節流 → 每 8 tick 等 I/O 執行緒一次（每 tick 最多結束一局，ring 不會滿）
+            if (t % 8 == 7) assertTrue(writer.awaitWritten(TIMEOUT_NANOS));
+        }
+        world.setRunWriter(null);
+        writer.close();
+        assertEquals(0, writer.getDroppedRuns());
+
+        try (RunLog log = RunLog.open(file)) {
+            assertTrue("runs: " + log.getRunCount(), log.getRunCount() > 1);
+            long frames = 0;
+            for (int r = 0; r < log.getRunCount(); r++) frames += log.getFrameCount(r);
+            assertEquals(ticks, frames);                     // 每個 tick 恰好屬於一局
+        }
+    }
+
+    @Test
+    public void gameWorld_fullRing_dropsRunsAndKeepsRecording() throws IOException {
+        RunWriter writer = new RunWriter(new File(folder.getRoot(), "run-log.bin"));
+        GameWorld world = new GameWorld();
+        world.resize(1080, 1920);
+        world.setObstacleSpawnInterval(5);
+        world.setRunWriter(writer);
+        writer.holdWriter(true);                             // I/O 執行緒卡住（例如儲存裝置忙碌）→ 不等待，ring 一定會滿
+        for (int t = 0; t < 6_000; t++) world.onUpdate();
+        long dropped = writer.getDroppedRuns();
+        assertTrue("dropped: " + dropped, dropped > 0);
+
+        writer.holdWriter(false);
+        assertTrue(writer.awaitWritten(TIMEOUT_NANOS));
+        int written = writer.getRunsWritten();               // 滿之前送出的局照常落盤
+        assertTrue("written: " + written, written > 0);
+        for (int t = 0; t < 6_000; t++) {
+            world.onUpdate();
+            if (t % 8 == 7) assertTrue(writer.awaitWritten(TIMEOUT_NANOS));
+        }
+        world.setRunWriter(null);
+        writer.close();
+        assertNull(writer.getFailure());
+        assertTrue(writer.getDroppedRuns() <= dropped + 1);  // 追上之後不再丟（卡住時進行中的那一局在結束時才計入）
+        assertTrue(writer.getRunsWritten() > written);       // 之後的局照常紀錄
+    }
+
+    @Test
+    public void recordFrame_doesNotAllocate() throws IOException {
+        Assume.assumeTrue(AllocationTracker.isSupported());
+        RunWriter writer = new RunWriter(new File(folder.getRoot(), "run-log.bin"));
+        writer.beginRun(0L, 0.0);
+        int[] frame = new int[1];
+        long bytes = AllocationTracker.minAllocatedBytes(() -> {
+            place(0, frame[0]++ & 1023);
+            writer.recordFrame(car);
+        }, 20_000, 5, 10_000);
+        assertEquals(0L, bytes);
+        writer.endRun(0.0);
+        writer.close();
+    }
+}
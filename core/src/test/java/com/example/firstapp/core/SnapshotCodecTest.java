@@ -0,0 +1,83 @@
+package com.example.firstapp.core;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * 快照編碼：varint / zigzag、量化還原、相對 baseline 的差量
+ */
+public class SnapshotCodecTest {
+
+    @Test
+    public void varIntZigzag_roundTrip_smallValuesTakeOneByte() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        int[] values = {0, 1, -1, 63, -64, 64, -65, 1 << 20, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        for (int value : values) {
+            buffer.clear();
+            SnapshotCodec.putVarInt(buffer, SnapshotCodec.zigzag(value));
+            buffer.flip();
+            int length = buffer.remaining();
+            assertEquals(value, SnapshotCodec.unzigzag(SnapshotCodec.getVarInt(buffer)));
+            if (value >= -64 && value <= 63) assertEquals("value " + value, 1, length);
+            assertTrue(length <= 5);
+        }
+    }
+
+    @Test
+    public void malformedVarInt_isRejected() {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[] {-1, -1, -1, -1, -1, -1});
+        try {
+            SnapshotCodec.getVarInt(buffer);
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // 預期
+        }
+    }
+
+    @Test
+    public void quantizeRestore_staysWithinOneUnit() {
+        CarFleet fleet = new CarFleet(2);
+        fleet.restore(1, 431.37f, -12.345f, 7.5f);
+        int[] state = new int[SnapshotCodec.FIELDS];
+        SnapshotCodec.quantize(fleet, 1, state, 0);
+
+        CarFleet copy = new CarFleet(1);
+        SnapshotCodec.restore(copy, 0, state, 0);
+        assertEquals(431.37f, copy.getX(0), 1f / 16);
+        assertEquals(-12.345f, copy.getAngle(0), 1f / 1024);
+        assertEquals(7.5f, copy.getSteeringAngle(0), 0f);
+        assertEquals(Math.sin(Math.toRadians(copy.getAngle(0))), copy.getAngleSin(0), 1e-3);
+
+        int[] again = new int[SnapshotCodec.FIELDS];
+        SnapshotCodec.quantize(copy, 0, again, 0);
+        assertArrayEquals(state, again);                            // 量化 → 還原 → 量化 = 同一個整數
+    }
+
+    @Test
+    public void delta_roundTrip_onlyChangedFieldsAreSent() {
+        int[] baseline = {7000, 0, 0};
+        int[] state = {7012, 0, 0};                                 // 直線行駛：只有 x 變
+        ByteBuffer buffer = ByteBuffer.allocate(32);
+
+        SnapshotCodec.putCar(buffer, state, 0, baseline, 0);
+        assertEquals(2, buffer.position());                         // 遮罩 + 1 byte 差值
+        buffer.flip();
+        int[] decoded = new int[SnapshotCodec.FIELDS];
+        SnapshotCodec.getCar(buffer, baseline, 0, decoded, 0);
+        assertArrayEquals(state, decoded);
+
+        buffer.clear();
+        SnapshotCodec.putCar(buffer, baseline, 0, baseline, 0);
+        assertEquals(1, buffer.position());                         // 完全沒變：只有遮罩
+
+        buffer.clear();
+        int[] turning = {6990, -3500, -12288};
+        SnapshotCodec.putCar(buffer, turning, 0, null, 0);          // 沒有 baseline：相對 0
+        buffer.flip();
+        SnapshotCodec.getCar(buffer, null, 0, decoded, 0);
+        assertArrayEquals(turning, decoded);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.firstapp.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * SpatialGrid 測試：Broad Phase 結果必須與 O(N²) 暴力法完全一致
+ */
+public class SpatialGridTest {
+
+    private static final float CELL = 200f;
+
+    private SpatialGrid grid;
+
+    @Before
+    public void setUp() {
+        grid = new SpatialGrid(256);
+        grid.configure(0f, 0f, CELL, CELL, 4, 8);  // 800 × 1600 的世界
+    }
+
+    @Test
+    public void overlappingNeighbours_areReportedOnce() {
+        grid.insert(0, 190f, 100f, 50f, 50f);   // 第 0 欄
+        grid.insert(1, 230f, 120f, 50f, 50f);   // 第 1 欄，與 0 重疊
+        grid.insert(2, 700f, 1500f, 50f, 50f);  // 很遠
+
+        CollisionBatch batch = new CollisionBatch(16);
+        grid.findPairs(batch);
+
+        assertEquals(1, batch.size());
+        assertEquals(1, batch.otherOf(0, 0));
+    }
+
+    @Test
+    public void touchingEdges_doNotCollide() {
+        grid.insert(0, 100f, 100f, 50f, 50f);
+        grid.insert(1, 200f, 100f, 50f, 50f);   // 右邊界剛好貼齊
+
+        CollisionBatch batch = new CollisionBatch(16);
+        grid.findPairs(batch);
+        assertEquals(0, batch.size());
+    }
+
+    @Test
+    public void moveAcrossCells_andRemove_keepIndexConsistent() {
+        grid.insert(0, 100f, 100f, 40f, 40f);
+        grid.insert(1, 500f, 900f, 40f, 40f);
+
+        CollisionBatch batch = new CollisionBatch(16);
+        grid.move(1, 120f, 110f);               // 跨多格移到 0 旁邊
+        grid.findPairs(batch);
+        assertEquals(1, batch.size());
+
+        grid.remove(0);
+        batch.clear();
+        grid.findPairs(batch);
+        assertEquals(0, batch.size());
+        assertFalse(grid.contains(0));
+        assertEquals(1, grid.size());
+    }
+
+    @Test
+    public void entitiesOutsideGrid_areClampedIntoBorderCells() {
+        grid.insert(0, -30f, -60f, 40f, 40f);   // 左上外側
+        grid.insert(1, 5f, -20f, 40f, 40f);
+
+        CollisionBatch batch = new CollisionBatch(16);
+        grid.findPairs(batch);
+        assertEquals(1, batch.size());
+    }
+
+    @Test
+    public void randomScenes_matchBruteForce() {
+        Random random = new Random(42);
+        CollisionBatch fast = new CollisionBatch(4096);
+        CollisionBatch slow = new CollisionBatch(4096);
+
+        for (int id = 0; id < 200; id++) {
+            grid.insert(id, random.nextFloat() * 800f, random.nextFloat() * 1600f,
+                    10f + random.nextFloat() * 90f, 10f + random.nextFloat() * 90f);
+        }
+
+        for (int round = 0; round < 50; round++) {
+            // 隨機移動一部分實體（有些跨格、有些不跨）
+            for (int id = 0; id < 200; id += 1 + random.nextInt(3)) {
+                grid.move(id, random.nextFloat() * 800f, random.nextFloat() * 1600f);
+            }
+            fast.clear();
+            slow.clear();
+            grid.findPairs(fast);
+            grid.findPairsBruteForce(slow);
+
+            assertFalse(fast.isOverflow());
+            assertArrayEquals("round " + round, normalized(slow), normalized(fast));
+        }
+    }
+
+    @Test
+    public void configure_rebucketsExistingEntities() {
+        grid.insert(0, 100f, 100f, 40f, 40f);
+        grid.insert(1, 150f, 110f, 40f, 40f);
+        grid.configure(0f, 0f, 100f, 100f, 8, 16);
+
+        CollisionBatch batch = new CollisionBatch(16);
+        grid.findPairs(batch);
+        assertEquals(1, batch.size());
+    }
+
+    /** 配對轉成排序後的 long（小 id 在高位），與掃描順序無關 */
+    private static long[] normalized(CollisionBatch batch) {
+        long[] keys = new long[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            int a = Math.min(batch.getFirst(i), batch.getSecond(i));
+            int b = Math.max(batch.getFirst(i), batch.getSecond(i));
+            keys[i] = ((long) a << 32) | b;
+        }
+        Arrays.sort(keys);
+        return keys;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.firstapp.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * 精靈批次：頂點與原本 canvas.rotate + drawRect 的幾何相同、atlas 座標、裁切、容量、鬼影與車輛同一批
+ */
+public class SpriteBatchTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final float[] REGION = SpriteBatch.region(2.5f, 2.5f, 101.5f, 201.5f);
+    private static final float EPS = 1e-3f;
+
+    @Test
+    public void unrotatedSprite_matchesDrawRect() {
+        SpriteBatch batch = new SpriteBatch(4);
+        batch.begin();
+        assertTrue(batch.add(100f, 300f, 50f, 90f, 0f, 1f, REGION));
+
+        float[] v = batch.getVertices();
+        assertQuad(v, 0, 50f, 210f, 150f, 210f, 150f, 390f, 50f, 390f);
+        assertQuad(batch.getTexCoords(), 0, 2.5f, 2.5f, 101.5f, 2.5f, 101.5f, 201.5f, 2.5f, 201.5f);
+        assertEquals(1, batch.getSpriteCount());
+        assertEquals(8, batch.getVertexCount());
+        assertEquals(6, batch.getIndexCount());
+    }
+
+    @Test
+    public void car_matchesCanvasRotateAroundItsCenter() {
+        GameWorld world = new GameWorld();
+        world.resize(1080, 1920);
+        Car car = world.getCar();
+        for (int tick = 0; tick < 20; tick++) {
+            car.moveRight();
+            car.update();
+        }
+        assertTrue(car.getAngle() > 5f);
+
+        SpriteBatch batch = new SpriteBatch(1);
+        batch.begin();
+        batch.addCar(car, 1f, REGION);
+
+        // CarRenderer：canvas.rotate(angle, x, y + h/2) 後畫 (x - w/2, y) ~ (x + w/2, y + h)
+        float cx = car.getX();
+        float cy = car.getY() + car.getHeight() / 2f;
+        double rad = Math.toRadians(car.getAngle());
+        float[] expected = new float[8];
+        float[][] corners = {
+                {car.getX() - car.getWidth() / 2f, car.getY()},
+                {car.getX() + car.getWidth() / 2f, car.getY()},
+                {car.getX() + car.getWidth() / 2f, car.getY() + car.getHeight()},
+                {car.getX() - car.getWidth() / 2f, car.getY() + car.getHeight()}};
+        for (int i = 0; i < 4; i++) {
+            float dx = corners[i][0] - cx;
+            float dy = corners[i][1] - cy;
+            expected[i * 2] = (float) (cx + dx * Math.cos(rad) - dy * Math.sin(rad));
+            expected[i * 2 + 1] = (float) (cy + dx * Math.sin(rad) + dy * Math.cos(rad));
+        }
+        float[] v = batch.getVertices();
+        for (int i = 0; i < 8; i++) assertEquals("vertex float " + i, expected[i], v[i], 0.01f);
+    }
+
+    @Test
+    public void offscreenSprites_areCulled_andCapacityIsEnforced() {
+        SpriteBatch batch = new SpriteBatch(2);
+        batch.setViewport(1080f, 1920f);
+        batch.begin();
+        assertTrue(batch.add(540f, -200f, 50f, 90f, 0f, 1f, REGION));     // 剛生成在畫面上方
+        assertTrue(batch.add(540f, 2100f, 50f, 90f, 0f, 1f, REGION));     // 已經開出畫面下方
+        assertEquals(0, batch.getSpriteCount());
+
+        assertTrue(batch.add(540f, -100f, 50f, 90f, 0f, 1f, REGION));     // 露出一半
+        assertTrue(batch.add(540f, 960f, 50f, 90f, 0f, 1f, REGION));
+        assertFalse(batch.add(540f, 500f, 50f, 90f, 0f, 1f, REGION));     // 滿了
+        assertEquals(2, batch.getSpriteCount());
+
+        batch.begin();
+        assertEquals(0, batch.getSpriteCount());
+    }
+
+    @Test
+    public void obstaclesAndCar_shareOneBatch() {
+        GameWorld world = new GameWorld();
+        world.resize(1080, 1920);
+        ObstaclePool pool = world.getObstacles();
+        float[] lanes = world.getRoad().getLanes();
+        pool.spawn(0, 400f, world.getRoad());
+        pool.spawn(2, 800f, world.getRoad());
+        pool.spawn(1, -1000f, world.getRoad());                           // 視窗外
+
+        SpriteBatch batch = new SpriteBatch(GameConfig.SPRITE_BATCH_CAPACITY);
+        batch.setViewport(world.getWidth(), world.getHeight());
+        batch.begin();
+        batch.addObstacles(pool, 1f, REGION);
+        batch.addCar(world.getCar(), 1f, REGION);
+
+        assertEquals(3, batch.getSpriteCount());
+        float[] v = batch.getVertices();
+        assertEquals(lanes[0] - pool.getWidth() / 2f, v[0], EPS);
+        assertEquals(400f, v[1], EPS);
+        assertEquals(world.getCar().getY(), v[2 * 8 + 1], EPS);           // 玩家車最後寫入 → 畫在最上層
+
+        short[] indices = batch.getIndices();
+        assertArrayEquals(new short[] {8, 9, 10, 8, 10, 11}, Arrays.copyOfRange(indices, 12, 18));
+    }
+
+    @Test
+    public void ghost_isBatchedUnderCar_withCarGeometry() throws Exception {
+        GameWorld world = new GameWorld();
+        world.resize(1080, 1920);
+        Car car = world.getCar();
+        for (int tick = 0; tick < 20; tick++) {              // 轉彎中的姿態 → 鬼影也要旋轉
+            car.moveRight();
+            car.update();
+        }
+        RunWriter writer = new RunWriter(new File(folder.getRoot(), "run-log.bin"));
+        writer.beginRun(0L, 0.0);
+        for (int f = 0; f < 600; f++) writer.recordFrame(car);
+        writer.endRun(600 * 5.0);
+        assertTrue(writer.awaitWritten(10_000_000_000L));
+
+        SpriteBatch batch = new SpriteBatch(4);
+        batch.begin();
+        assertTrue(batch.addGhost(writer, car, 1f, REGION)); // 還沒開始播放 → 不寫入
+        assertEquals(0, batch.getSpriteCount());
+
+        writer.beginRun(0L, 0.0);
+        for (int f = 0; f < 600 && !writer.isGhostVisible(); f++) {
+            Thread.sleep(1);                                 // 等 I/O 執行緒解碼
+            writer.recordFrame(car);
+        }
+        assertTrue(writer.isGhostVisible());
+        batch.addGhost(writer, car, 1f, REGION);
+        batch.addCar(car, 1f, REGION);
+
+        // 鬼影 = 量化後的同一個姿態 → 與玩家車幾乎重合，且先寫入（畫在玩家車下面）
+        assertEquals(2, batch.getSpriteCount());
+        float[] v = batch.getVertices();
+        for (int i = 0; i < 8; i++) assertEquals("vertex float " + i, v[8 + i], v[i], 0.05f);
+        writer.endRun(0.0);
+        writer.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void capacityBeyondShortIndices_isRejected() {
+        new SpriteBatch(SpriteBatch.MAX_CAPACITY + 1);
+    }
+
+    private static void assertQuad(float[] actual, int offset, float... expected) {
+        for (int i = 0; i < expected.length; i++) assertEquals("float " + i, expected[i], actual[offset + i], EPS);
+    }
+}
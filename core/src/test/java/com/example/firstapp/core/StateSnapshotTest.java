@@ -0,0 +1,228 @@
+package com.example.firstapp.core;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * 狀態快照：還原後繼續跑與沒中斷時逐位元相同；還原後改變尺寸不會重新開局；生成間隔跟隨畫質調節器；倒帶可以錄製/重播；ring 存取不配置記憶體
+ */
+public class StateSnapshotTest {
+
+    private static final int TICKS = 1_500;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** 依時間軸 tick 決定的輸入（兩個世界在同一個 tick 收到同樣的輸入） */
+    private static void input(GameWorld world, long tick) {
+        int rng = (int) (tick * 0x9E3779B1L) ^ 0x5bd1e995;
+        rng ^= rng << 13;
+        rng ^= rng >>> 17;
+        rng ^= rng << 5;
+        switch ((rng >>> 1) % 40) {
+            case 0: world.moveLeft(); break;
+            case 1: world.moveRight(); break;
+            case 2: case 3: world.stopSteering(); break;
+            default: break;
+        }
+    }
+
+    private static GameWorld run(int ticks) {
+        GameWorld world = new GameWorld();
+        world.resize(1080, 1920);
+        for (int i = 0; i < ticks; i++) {
+            input(world, world.getTick());
+            world.onUpdate();
+        }
+        return world;
+    }
+
+    @Test
+    public void restore_continuesBitForBit() {
+        GameWorld original = run(TICKS);
+        assertTrue(original.getObstacles().getActiveCount() > 0);
+        byte[] state = original.saveState();
+        assertEquals(original.getStateSize(), state.length);
+
+        GameWorld restored = new GameWorld();
+        restored.restoreState(state);
+        assertEquals(original.getTick(), restored.getTick());
+        assertEquals(original.getWidth(), restored.getWidth());
+        assertEquals(original.stateChecksum(), restored.stateChecksum());
+
+        for (int i = 0; i < TICKS; i++) {
+            input(original, original.getTick());
+            input(restored, restored.getTick());
+            original.onUpdate();
+            restored.onUpdate();
+            assertEquals("tick " + original.getTick(), original.stateChecksum(), restored.stateChecksum());
+        }
+        assertEquals(state.length, restored.saveState().length);  // 固定長度
+    }
+
+    /** 旋轉後重建：onCreate 還原快照之後，View 以旋轉後的尺寸呼叫 resize → 這一局要接著跑，不是重新開局 */
+    @Test
+    public void restore_thenResize_keepsRun() {
+        GameWorld original = run(TICKS);
+        int traffic = original.getObstacles().getActiveCount();
+        assertTrue(traffic > 0);
+
+        GameWorld restored = new GameWorld();
+        restored.restoreState(original.saveState());
+        restored.resize(1920, 1080);
+        assertEquals(original.getTick(), restored.getTick());
+        assertEquals(original.getRoad().getDistance(), restored.getRoad().getDistance(), 0.0);
+        assertEquals(traffic, restored.getObstacles().getActiveCount());
+        assertEquals(original.getCar().getX() / 1080f, restored.getCar().getX() / 1920f, 1e-5f); // 道路內的相對位置不變
+        assertEquals(1080 * 2f / 3f, restored.getCar().getY(), 0.001f);
+        assertEquals(0, restored.getRewindRing().size());    // 舊尺寸的快照不能再還原
+
+        restored.resize(1080, 1920);                         // 轉回來：位置換算回原本的值
+        assertEquals(original.getCar().getX(), restored.getCar().getX(), 0.01f);
+        ObstaclePool before = original.getObstacles();
+        ObstaclePool after = restored.getObstacles();
+        for (int i = 0; i < traffic; i++) {
+            assertEquals(before.getY(before.getActiveSlot(i)), after.getY(after.getActiveSlot(i)), 0.01f);
+        }
+        for (int i = 0; i < TICKS; i++) {                    // 繼續跑：tick 與距離接著原本的累積
+            input(restored, restored.getTick());
+            restored.onUpdate();
+        }
+        assertEquals(2L * TICKS, restored.getTick());
+        assertTrue(restored.getRoad().getDistance() > original.getRoad().getDistance());
+    }
+
+    @Test
+    public void restore_rejectsForeignData() {
+        GameWorld world = run(300);
+        int checksum = world.stateChecksum();
+        byte[] state = world.saveState();
+
+        byte[] corrupt = state.clone();
+        corrupt[0] ^= 0x7F;
+        try {
+            world.restoreState(corrupt);
+            fail("bad magic accepted");
+        } catch (IllegalArgumentException expected) {
+            // ok
+        }
+        try {
+            world.restoreState(Arrays.copyOf(state, state.length - 1));
+            fail("truncated state accepted");
+        } catch (IllegalArgumentException expected) {
+            // ok
+        }
+        assertEquals(checksum, world.stateChecksum());
+    }
+
+    @Test
+    public void restore_followsQualityGovernorSpawnInterval() {
+        byte[] state = run(300).saveState();                 // 最高等級時存的快照
+        GameWorld world = run(TICKS);
+        QualityGovernor quality = world.getQualityGovernor();
+        quality.requestThermalLevel(QualityGovernor.THERMAL_CRITICAL);
+        assertTrue(quality.onFrame());                       // 降到最低等級（還沒套用到世界）
+        int expected = quality.getObstacleSpawnInterval();
+        assertNotEquals(GameConfig.OBSTACLE_SPAWN_INTERVAL_TICKS, expected);
+
+        world.restoreState(state);
+        assertEquals(expected, world.getObstacles().getSpawnInterval());
+
+        world.setObstacleSpawnInterval(5);                   // 倒帶只還原模擬狀態，目前的生成間隔保持不變
+        assertTrue(world.rewind(1) >= 0);
+        assertEquals(5, world.getObstacles().getSpawnInterval());
+    }
+
+    @Test
+    public void rewind_returnsToCapturedStateAndReplaysIdentically() {
+        int[] checksums = new int[TICKS];                    // 每個 tick 結束後的檢查碼
+        GameWorld world = new GameWorld();
+        world.resize(1080, 1920);
+        for (int t = 0; t < TICKS; t++) {
+            input(world, t);
+            world.onUpdate();
+            checksums[t] = world.stateChecksum();
+        }
+        StateRing ring = world.getRewindRing();
+        assertEquals(GameConfig.REWIND_RING_SIZE, ring.size());
+
+        long restored = world.rewind(3);
+        assertEquals(TICKS - 2L * GameConfig.REWIND_INTERVAL_TICKS, restored);
+        assertEquals(checksums[(int) restored - 1], world.stateChecksum());
+        assertEquals(TICKS, world.getTick());                // 時間線不倒退
+        assertEquals(GameConfig.REWIND_RING_SIZE - 2, ring.size());
+        assertEquals(restored, ring.getTick(1));
+
+        for (int t = (int) restored; t < TICKS; t++) {       // 同樣的輸入 → 同樣的軌跡
+            input(world, t);
+            world.onUpdate();
+            assertEquals("tick " + t, checksums[t], world.stateChecksum());
+        }
+
+        assertEquals(ring.getTick(ring.size()), world.rewind(1_000)); // 超過保留數量 → 最舊的一份
+        assertEquals(1, ring.size());
+    }
+
+    @Test
+    public void rewind_isRecordedAndReplayed() throws IOException {
+        assertRewindReplays(QualityGovernor.THERMAL_NORMAL);
+    }
+
+    /** 最低等級（生成間隔 ≠ 預設值）：重播的世界調節器停在最高等級，只能靠 SPAWN_INTERVAL 事件 */
+    @Test
+    public void rewind_atLowQuality_isRecordedAndReplayed() throws IOException {
+        assertRewindReplays(QualityGovernor.THERMAL_CRITICAL);
+    }
+
+    private void assertRewindReplays(int thermalLevel) throws IOException {
+        File log = folder.newFile("rewind-log.bin");
+        int ticks = 3 * TICKS;
+        GameWorld world = new GameWorld();
+        InputRecorder recorder = InputRecorder.open(log);
+        world.setInputRecorder(recorder);
+        world.resize(1080, 1920);
+        QualityGovernor quality = world.getQualityGovernor();
+        quality.requestThermalLevel(thermalLevel);
+        if (quality.onFrame()) world.applyQuality();
+        int interval = quality.getObstacleSpawnInterval();
+        int rewinds = 0;
+        for (int t = 0; t < ticks; t++) {
+            input(world, t);
+            if (t % 700 == 699) {
+                world.moveLeft();                            // 倒帶前後轉向不同 → 必須重新套用
+                world.submitInput(GameWorld.INPUT_REWIND, System.nanoTime());
+                rewinds++;
+            }
+            world.onUpdate();
+        }
+        recorder.close();
+        assertNull(recorder.getFailure());
+        assertTrue(rewinds > 0);
+        assertEquals(interval, world.getObstacles().getSpawnInterval());   // 倒帶不改生成間隔
+
+        InputReplayer.Result result = InputReplayer.read(log).replay(new GameWorld());
+        assertFalse(result.toString(), result.isDiverged());
+        assertEquals(ticks, result.ticks);
+        assertEquals(world.stateChecksum(), result.finalChecksum);
+    }
+
+    @Test
+    public void captureAndRewind_doNotAllocate() {
+        Assume.assumeTrue(AllocationTracker.isSupported());
+        GameWorld world = run(TICKS);
+        StateRing ring = world.getRewindRing();
+        long bytes = AllocationTracker.minAllocatedBytes(() -> {
+            ring.capture(world);
+            world.rewind(1);
+        }, 20_000, 5, 1_000);
+        assertEquals(0L, bytes);
+    }
+}
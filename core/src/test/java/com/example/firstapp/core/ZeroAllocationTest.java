@@ -0,0 +1,139 @@
+package com.example.firstapp.core;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import static org.junit.Assert.*;
+
+/**
+ * 穩態零配置的守門測試：熱身後跑數萬個 tick，模擬執行緒配置的 bytes 必須是 0
+ *
+ * 每個場景都照 GameView / GameThread 的實際呼叫順序：
+ * 輸入執行緒 submitInput → 幀驅動 quality.onFrame → world.onUpdate（drain 輸入 → 道路 → 車流 →
+ * 車隊 → 路邊 → 碰撞 → 粒子）→ 量測回報
+ * 新功能在熱路徑上 new 物件、自動裝箱、組字串、捕獲 lambda → 這裡會直接失敗
+ */
+public class ZeroAllocationTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int WARMUP_TICKS = 30_000;
+    private static final int WINDOWS = 5;
+    private static final int TICKS_PER_WINDOW = 10_000;
+
+    private GameWorld world;
+    private Aabb escaped;           // 讓配置的物件逃逸（避免 JIT 的逃逸分析把 new 消掉）
+    private long tickCount;         // 驅動輸入模式用（不依賴 world 的內部 tick）
+    private boolean sawSparks;      // 場景確實走到擦牆分支（否則零配置只是沒有覆蓋到）
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue(AllocationTracker.isSupported());
+        world = new GameWorld();
+        world.resize(WIDTH, HEIGHT);
+        world.setObstacleSpawnInterval(5);          // 高密度車流：池經常滿、經常回收
+    }
+
+    @After
+    public void tearDown() {
+        if (world != null) world.stopBackgroundWork();
+    }
+
+    @Test
+    public void simulationTick_withInputTrafficAndEffects_allocatesNothing() {
+        long bytes = AllocationTracker.minAllocatedBytes(this::tick, WARMUP_TICKS, WINDOWS, TICKS_PER_WINDOW);
+        assertEquals("bytes allocated per 10k steady-state ticks", 0L, bytes);
+        assertTrue(sawSparks);
+    }
+
+    @Test
+    public void harness_detectsAllocatingApi() {
+        Car car = world.getCar();
+        Aabb out = new Aabb();
+        assertEquals(0L, AllocationTracker.minAllocatedBytes(() -> car.getBounds(out), 20_000, WINDOWS, 1_000));
+        assertTrue(AllocationTracker.minAllocatedBytes(() -> escaped = car.getBounds(), 20_000, WINDOWS, 1_000) > 0);
+    }
+
+    @Test
+    public void frameDriverAndTelemetry_allocateNothing() {
+        QualityGovernor quality = world.getQualityGovernor();
+        FrameTelemetry telemetry = world.getTelemetry();
+        long[] now = {0L};
+        Runnable frame = () -> {
+            now[0] += GameConfig.SIM_STEP_NANOS;
+            if (!quality.isFrameDue(now[0])) return;
+            if (quality.onFrame()) world.applyQuality();
+            telemetry.onFrame(now[0]);
+            tick();
+            long work = (tickCount % 90 < 45) ? 20_000_000L : 1_000_000L;   // 來回觸發降級/升級
+            quality.addWork(work);
+            telemetry.record(FrameTelemetry.PHASE_SIM, work);
+        };
+        long bytes = AllocationTracker.minAllocatedBytes(frame, WARMUP_TICKS, WINDOWS, TICKS_PER_WINDOW);
+        assertEquals("bytes allocated per 10k steady-state frames", 0L, bytes);
+    }
+
+    @Test
+    public void recordingInput_allocatesNothing() {
+        world.setInputRecorder(new InputRecorder(new DiscardChannel()));
+        long bytes = AllocationTracker.minAllocatedBytes(this::tick, WARMUP_TICKS, WINDOWS, TICKS_PER_WINDOW);
+        assertEquals("bytes allocated per 10k recorded ticks", 0L, bytes);
+    }
+
+    @Test
+    public void proceduralRoad_lookupsAllocateNothing() {
+        Road road = new Road(true);
+        road.init(WIDTH, HEIGHT);
+        ObstaclePool pool = new ObstaclePool(GameConfig.OBSTACLE_CAPACITY, GameConfig.OBSTACLE_SEED);
+        pool.setSpawnInterval(5);
+        Car car = new Car();
+        car.setPosition(WIDTH / 2f, HEIGHT * 2f / 3f);
+        try {
+            Runnable step = () -> {
+                road.update();                      // 產生器在背景執行緒（不計入）；落後時在這裡重算
+                pool.update(road);
+                car.update();
+                CollisionDetector.clampToRoad(car, road);
+            };
+            long bytes = AllocationTracker.minAllocatedBytes(step, WARMUP_TICKS, WINDOWS, TICKS_PER_WINDOW);
+            assertEquals("bytes allocated per 10k procedural ticks", 0L, bytes);
+        } finally {
+            road.stopGenerator();
+        }
+    }
+
+    /** 一個 tick：按住左 → 放開 → 按住右 → 放開（每段都夠久 → 撞牆 + 急轉 → 火花與輪胎煙） */
+    private void tick() {
+        switch ((int) (tickCount % 600)) {
+            case 0: world.submitInput(GameWorld.INPUT_PRESS_LEFT, System.nanoTime()); break;
+            case 240: world.submitInput(GameWorld.INPUT_RELEASE_LEFT, System.nanoTime()); break;
+            case 300: world.submitInput(GameWorld.INPUT_PRESS_RIGHT, System.nanoTime()); break;
+            case 540: world.submitInput(GameWorld.INPUT_RELEASE_RIGHT, System.nanoTime()); break;
+            default: break;
+        }
+        world.onUpdate();
+        tickCount++;
+        if (world.getSparks().getLiveCount() > 0) sawSparks = true;
+    }
+
+    /** 丟棄所有資料的 Channel（只讓錄製器走完整的編碼 + flush 路徑） */
+    private static final class DiscardChannel implements WritableByteChannel {
+        @Override
+        public int write(ByteBuffer src) {
+            int n = src.remaining();
+            src.position(src.limit());
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() { return true; }
+
+        @Override
+        public void close() {}
+    }
+}